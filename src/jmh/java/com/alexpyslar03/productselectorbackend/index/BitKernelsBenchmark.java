@@ -0,0 +1,78 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение скалярной и векторной реализаций пословных операций.
+ * Размеры соответствуют одному блоку сжатого множества (1024 слова)
+ * и плотным множествам рецептов на 1 млн и 16 млн элементов.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BitKernelsBenchmark {
+
+    @Param({"scalar", "vector"})
+    private String implementation;
+
+    @Param({"1024", "16384", "262144"})
+    private int words;
+
+    private BitKernels kernels;
+    private long[] a;
+    private long[] b;
+    private long[] target;
+
+    @Setup
+    public void setUp() {
+        kernels = implementation.equals("vector") ? new VectorBitKernels() : new ScalarBitKernels();
+        Random random = new Random(42);
+        a = random.longs(words).toArray();
+        b = random.longs(words).toArray();
+        target = new long[words];
+    }
+
+    @Benchmark
+    public int cardinality() {
+        return kernels.cardinality(a, 0, words);
+    }
+
+    @Benchmark
+    public int andCardinality() {
+        return kernels.andCardinality(a, 0, b, 0, words);
+    }
+
+    @Benchmark
+    public int andNotCardinality() {
+        return kernels.andNotCardinality(a, 0, b, 0, words, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] or() {
+        kernels.or(target, 0, a, 0, words);
+        return target;
+    }
+
+    @Benchmark
+    public long[] andNot() {
+        System.arraycopy(a, 0, target, 0, words);
+        kernels.andNot(target, b, words);
+        return target;
+    }
+}
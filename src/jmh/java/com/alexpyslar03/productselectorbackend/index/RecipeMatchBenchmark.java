@@ -0,0 +1,88 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбор рецептов целиком на синтетическом каталоге: 500 тыс. рецептов, 2000 продуктов,
+ * частые продукты с плотными множествами рецептов. Реализация пословных операций выбирается
+ * при загрузке класса, поэтому векторный вариант запускается в отдельной JVM со свойством
+ * {@code -Drecipe.index.vector=true}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class RecipeMatchBenchmark {
+
+    private static final int RECIPES = 500_000;
+    private static final int PRODUCTS = 2_000;
+
+    private RecipeIndex index;
+    private DenseBitSet pantry;
+
+    private record Link(Long getRecipeId, Long getProductId) implements ProductRecipeLink {
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<RecipeAttributes> recipes = new ArrayList<>(RECIPES);
+        List<Link> links = new ArrayList<>();
+        for (long recipe = 1; recipe <= RECIPES; recipe++) {
+            recipes.add(RecipeAttributes.of(recipe, (long) random.nextInt(6), random.nextBoolean(), null));
+            int size = 3 + random.nextInt(10);
+            for (int i = 0; i < size; i++) {
+                // Квадрат равномерного распределения: малые номера продуктов встречаются чаще
+                double skew = random.nextDouble();
+                links.add(new Link(recipe, 1L + (long) (skew * skew * PRODUCTS)));
+            }
+        }
+        List<Long> productIds = new ArrayList<>(PRODUCTS);
+        for (long product = 1; product <= PRODUCTS; product++) {
+            productIds.add(product);
+        }
+        index = RecipeIndex.build(recipes, productIds, links);
+        pantry = index.pantry(productIds.subList(0, 40));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Drecipe.index.vector=true")
+    public DenseBitSet recipesWithAnyVector() {
+        return index.recipesWithAny(pantry);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public DenseBitSet recipesWithAnyScalar() {
+        return index.recipesWithAny(pantry);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Drecipe.index.vector=true")
+    public List<RecipeMatch> topMatchesVector() {
+        return RecipeMatcher.topMatches(index, pantry, 20);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public List<RecipeMatch> topMatchesScalar() {
+        return RecipeMatcher.topMatches(index, pantry, 20);
+    }
+}
@@ -0,0 +1,25 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeSearchResponse;
+import com.alexpyslar03.productselectorbackend.index.PantryMatchCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class MatchingConfiguration {
+
+    @Bean(name = "matchingPool", destroyMethod = "shutdown")
+    public ForkJoinPool matchingPool(@Value("${matching.parallelism:0}") int parallelism) {
+        // 0 — по числу доступных процессоров
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads); // Отдельный пул, чтобы подбор рецептов не занимал общий пул
+    }
+
+    @Bean
+    public PantryMatchCache<RecipeSearchResponse> pantryMatchCache(@Value("${matching.pantry-cache-size}") int size) {
+        return new PantryMatchCache<>(size); // Результаты подбора по сохраненным наборам продуктов пользователей
+    }
+}
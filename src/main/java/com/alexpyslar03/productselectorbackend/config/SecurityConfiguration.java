@@ -49,6 +49,7 @@ public class SecurityConfiguration {
                         .requestMatchers("/users/**").authenticated()
                         .requestMatchers("/products/**").authenticated()
                         .requestMatchers("/recipes/**").authenticated()
+                        .requestMatchers("/pantry/**").authenticated()
                         .requestMatchers("/swagger-ui/**", "/swagger-resources/*", "/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated()
                         )
@@ -0,0 +1,137 @@
+package com.alexpyslar03.productselectorbackend.controller;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeSearchResponse;
+import com.alexpyslar03.productselectorbackend.domain.entity.User;
+import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.service.PantryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Контроллер для работы с сохраненным набором продуктов текущего пользователя.
+ * Предоставляет endpoint'ы для чтения и изменения набора и подбора рецептов по нему.
+ */
+@RestController
+@RequestMapping("/pantry")
+@AllArgsConstructor
+public class PantryController {
+
+    private final PantryService pantryService;
+
+    /**
+     * Возвращает продукты набора текущего пользователя.
+     *
+     * @param user Текущий пользователь.
+     * @return Ответ со списком продуктов и статусом 200 OK.
+     */
+    @Operation(summary = "Получение набора продуктов", description = "Возвращает продукты сохраненного набора текущего пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен")
+    })
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<ProductResponse>>> read(@AuthenticationPrincipal User user) {
+        return pantryService.read(user)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Добавляет продукты в набор текущего пользователя.
+     *
+     * @param user       Текущий пользователь.
+     * @param productIds Список идентификаторов добавляемых продуктов.
+     * @return Ответ со списком продуктов набора и статусом 200 OK.
+     */
+    @Operation(summary = "Добавление продуктов в набор", description = "Добавляет продукты в сохраненный набор текущего пользователя, создавая набор при первом добавлении.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Продукты успешно добавлены"),
+            @ApiResponse(responseCode = "400", description = "Пустой список продуктов"),
+            @ApiResponse(responseCode = "404", description = "Продукты с указанными ID не найдены")
+    })
+    @PostMapping("/products")
+    public CompletableFuture<ResponseEntity<List<ProductResponse>>> addProducts(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Список идентификаторов добавляемых продуктов", required = true)
+            @RequestParam List<Long> productIds) {
+        return pantryService.addProducts(user, productIds)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Удаляет продукты из набора текущего пользователя.
+     *
+     * @param user       Текущий пользователь.
+     * @param productIds Список идентификаторов удаляемых продуктов.
+     * @return Ответ со списком продуктов набора и статусом 200 OK.
+     */
+    @Operation(summary = "Удаление продуктов из набора", description = "Удаляет продукты из сохраненного набора текущего пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Продукты успешно удалены"),
+            @ApiResponse(responseCode = "400", description = "Пустой список продуктов"),
+            @ApiResponse(responseCode = "404", description = "Набор продуктов не создан")
+    })
+    @DeleteMapping("/products")
+    public CompletableFuture<ResponseEntity<List<ProductResponse>>> removeProducts(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Список идентификаторов удаляемых продуктов", required = true)
+            @RequestParam List<Long> productIds) {
+        return pantryService.removeProducts(user, productIds)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает рецепты, подобранные по набору продуктов текущего пользователя.
+     *
+     * @param user  Текущий пользователь.
+     * @param limit Максимальное количество рецептов.
+     * @return Ответ с результатами подбора и статусом 200 OK.
+     */
+    @Operation(summary = "Подбор рецептов по набору продуктов", description = "Возвращает лучшие рецепты для сохраненного набора текущего пользователя и количество подходящих рецептов по атрибутам. Результат кэшируется до изменения набора или рецептов с его продуктами.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты подбора успешно возвращены"),
+            @ApiResponse(responseCode = "400", description = "Набор продуктов пуст или некорректное количество рецептов")
+    })
+    @GetMapping("/matches")
+    public CompletableFuture<ResponseEntity<RecipeSearchResponse>> match(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Максимальное количество рецептов")
+            @RequestParam(defaultValue = "10") int limit) {
+        return pantryService.match(user, limit)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+}
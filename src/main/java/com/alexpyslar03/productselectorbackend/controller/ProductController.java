@@ -1,23 +1,36 @@
 package com.alexpyslar03.productselectorbackend.controller;
 
+import com.alexpyslar03.productselectorbackend.domain.dto.ImportReport;
+import com.alexpyslar03.productselectorbackend.domain.dto.NameSuggestion;
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.ProductCreateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductSuggestionResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.ProductUpdateRequest;
-import com.alexpyslar03.productselectorbackend.domain.entity.Product;
+import com.alexpyslar03.productselectorbackend.domain.dto.ShoppingListItem;
+import com.alexpyslar03.productselectorbackend.domain.dto.TrendingItem;
 import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
 import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.service.AutocompleteService;
+import com.alexpyslar03.productselectorbackend.service.CatalogExportService;
+import com.alexpyslar03.productselectorbackend.service.CatalogImportService;
 import com.alexpyslar03.productselectorbackend.service.ProductService;
+import com.alexpyslar03.productselectorbackend.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -30,6 +43,10 @@ import java.util.concurrent.CompletableFuture;
 public class ProductController {
 
     private final ProductService productService;
+    private final AutocompleteService autocompleteService;
+    private final TrendingService trendingService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogImportService catalogImportService;
 
     /**
      * Создает новый продукт.
@@ -44,7 +61,7 @@ public class ProductController {
     })
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_MODERATOR', 'ROLE_ADMIN')")
-    public CompletableFuture<ResponseEntity<Product>> create(
+    public CompletableFuture<ResponseEntity<ProductResponse>> create(
             @Parameter(description = "DTO с данными нового продукта", required = true) @RequestBody ProductCreateRequest dto) {
         return productService.create(dto)
                 .thenApply(product -> ResponseEntity.status(HttpStatus.CREATED).body(product))
@@ -57,18 +74,196 @@ public class ProductController {
     }
 
     /**
-     * Возвращает список всех продуктов.
+     * Возвращает страницу списка всех продуктов.
      *
-     * @return Ответ со списком всех продуктов и статусом 200 OK.
+     * @param cursor Курсор страницы.
+     * @param size   Размер страницы.
+     * @return Ответ со страницей продуктов и статусом 200 OK.
      */
-    @Operation(summary = "Получение списка всех продуктов", description = "Возвращает список всех продуктов в системе.")
-    @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен")
+    @Operation(summary = "Получение списка всех продуктов", description = "Возвращает страницу списка всех продуктов в порядке возрастания ID. Следующая страница запрашивается с курсором nextCursor из ответа.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница продуктов успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы")
+    })
     @GetMapping
-    public CompletableFuture<ResponseEntity<List<Product>>> readAll() {
-        return productService.readAll()
+    public CompletableFuture<ResponseEntity<PageResponse<ProductResponse>>> readAll(
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return productService.readAll(cursor, size)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает подсказки автодополнения по названиям продуктов.
+     *
+     * @param prefix Начало названия или любого его слова.
+     * @param limit  Максимальное количество подсказок.
+     * @return Ответ со списком подсказок и статусом 200 OK.
+     */
+    @Operation(summary = "Автодополнение названий продуктов", description = "Возвращает названия продуктов, начинающиеся с префикса (или содержащие слово с таким началом), в порядке убывания количества рецептов с продуктом без учета регистра и различия «е»/«ё». Пример префикса: «кур».")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список подсказок успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Пустой префикс или некорректное количество подсказок")
+    })
+    @GetMapping("/autocomplete")
+    public CompletableFuture<ResponseEntity<List<NameSuggestion>>> autocomplete(
+            @Parameter(description = "Начало названия", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Максимальное количество подсказок")
+            @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.suggestProducts(prefix, limit)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Нечеткий поиск продуктов по названию с учетом опечаток.
+     *
+     * @param query Название или одно его слово, возможно с опечатками.
+     * @param limit Максимальное количество результатов.
+     * @return Ответ со списком найденных продуктов и статусом 200 OK.
+     */
+    @Operation(summary = "Нечеткий поиск продуктов", description = "Возвращает продукты, название которых или одно из слов названия отличается от запроса не более чем на 1–3 правки в зависимости от длины запроса, по возрастанию числа правок. Пример: «малако» находит «Молоко».")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список найденных продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Пустой запрос или некорректное количество результатов")
+    })
+    @GetMapping("/fuzzy")
+    public CompletableFuture<ResponseEntity<List<NameSuggestion>>> fuzzy(
+            @Parameter(description = "Название, возможно с опечатками", required = true)
+            @RequestParam String query,
+            @Parameter(description = "Максимальное количество результатов")
+            @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.fuzzyProducts(query, limit)
                 .thenApply(ResponseEntity::ok);
     }
 
+    /**
+     * Возвращает продукты, которые чаще всего встречаются в рецептах вместе с набором продуктов.
+     *
+     * @param productIds Список идентификаторов продуктов набора.
+     * @param limit      Максимальное количество подсказок.
+     * @return Ответ со списком подсказок и статусом 200 OK.
+     */
+    @Operation(summary = "Подсказки следующего продукта", description = "Возвращает продукты, не входящие в набор, по убыванию совместной встречаемости в рецептах со всеми продуктами набора.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список подсказок успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Пустой набор продуктов или некорректное количество подсказок")
+    })
+    @GetMapping("/suggestions")
+    public CompletableFuture<ResponseEntity<List<ProductSuggestionResponse>>> suggestNext(
+            @Parameter(description = "Список идентификаторов продуктов набора", required = true)
+            @RequestParam List<Long> productIds,
+            @Parameter(description = "Максимальное количество подсказок")
+            @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggestNext(productIds, limit)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает сводный список покупок для набора рецептов.
+     *
+     * @param recipeIds  Список идентификаторов выбранных рецептов.
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @return Ответ со списком недостающих продуктов и статусом 200 OK.
+     */
+    @Operation(summary = "Список покупок", description = "Возвращает объединение продуктов выбранных рецептов за вычетом имеющихся продуктов, с количеством рецептов, которым нужен каждый продукт. Неизвестные идентификаторы рецептов пропускаются.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список покупок успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Пустой список рецептов")
+    })
+    @GetMapping("/shoppingList")
+    public CompletableFuture<ResponseEntity<List<ShoppingListItem>>> readShoppingList(
+            @Parameter(description = "Список идентификаторов выбранных рецептов", required = true)
+            @RequestParam List<Long> recipeIds,
+            @Parameter(description = "Список идентификаторов имеющихся продуктов")
+            @RequestParam(required = false) List<Long> productIds) {
+        return productService.readShoppingList(recipeIds, productIds)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает продукты, к которым чаще всего обращались за последние часы.
+     *
+     * @param limit Максимальное количество продуктов.
+     * @return Ответ со списком популярных продуктов и статусом 200 OK.
+     */
+    @Operation(summary = "Популярные продукты", description = "Возвращает продукты, которые чаще всего просматривали и использовали в подборе рецептов за последние часы; давние обращения весят меньше недавних.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Некорректное количество продуктов")
+    })
+    @GetMapping("/popular")
+    public CompletableFuture<ResponseEntity<List<TrendingItem>>> readPopular(
+            @Parameter(description = "Максимальное количество продуктов")
+            @RequestParam(defaultValue = "10") int limit) {
+        return trendingService.readPopularProducts(limit)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Импортирует продукты из JSON-массива, NDJSON или CSV.
+     *
+     * @param contentType Тип содержимого запроса.
+     * @param body        Тело запроса.
+     * @return Ответ с итогами импорта и статусом 200 OK.
+     */
+    @Operation(summary = "Импорт продуктов", description = "Добавляет продукты частями по одной транзакции; строки с ошибками и продукты с уже занятым названием или URL изображения пропускаются и перечисляются в отчете.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт выполнен, итоги и ошибки строк возвращены"),
+            @ApiResponse(responseCode = "400", description = "Данные импорта не удалось прочитать")
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            CatalogImportService.TEXT_CSV_VALUE})
+    @PreAuthorize("hasAnyRole('ROLE_MODERATOR', 'ROLE_ADMIN')")
+    public CompletableFuture<ResponseEntity<ImportReport>> importAll(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        return catalogImportService.importProducts(body, contentType)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Выгружает все продукты в формате NDJSON.
+     *
+     * @return Ответ с потоком продуктов и статусом 200 OK.
+     */
+    @Operation(summary = "Выгрузка всех продуктов", description = "Возвращает все продукты в порядке возрастания ID, по одному JSON-объекту в строке. Продукты читаются из базы данных порциями и сразу записываются в ответ.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка продуктов успешно начата")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(catalogExportService::exportProducts);
+    }
+
     /**
      * Возвращает продукт по его идентификатору.
      *
@@ -81,11 +276,14 @@ public class ProductController {
             @ApiResponse(responseCode = "404", description = "Продукт с указанным ID не найден")
     })
     @GetMapping("/{id}")
-    public CompletableFuture<ResponseEntity<Product>> readById(
+    public CompletableFuture<ResponseEntity<ProductResponse>> readById(
             @Parameter(description = "Идентификатор продукта", required = true)
             @PathVariable Long id) {
         return productService.readById(id)
-                .thenApply(ResponseEntity::ok)
+                .thenApply(product -> {
+                    trendingService.recordProduct(id);
+                    return ResponseEntity.ok(product);
+                })
                 .exceptionally(ex -> {
                     if (ex.getCause() instanceof EntityNotFoundException) {
                         return ResponseEntity.notFound().build();
@@ -98,7 +296,7 @@ public class ProductController {
      * Возвращает набор продуктов по предоставленным идентификаторам.
      *
      * @param ids Список идентификаторов продуктов.
-     * @return Ответ с набором продуктов и статусом 200 OK.
+     * @return Ответ со списком продуктов и статусом 200 OK.
      */
     @Operation(summary = "Получение продуктов по ID", description = "Возвращает набор продуктов по указанным ID.")
     @ApiResponses(value = {
@@ -106,7 +304,7 @@ public class ProductController {
             @ApiResponse(responseCode = "404", description = "Не найдены продукты с указанными ID")
     })
     @GetMapping("/batch")
-    public CompletableFuture<ResponseEntity<Set<Product>>> readAllByIdIn(
+    public CompletableFuture<ResponseEntity<List<ProductResponse>>> readAllByIdIn(
             @Parameter(description = "Список идентификаторов продуктов", required = true)
             @RequestParam List<Long> ids) {
         return productService.readAllByIdIn(ids)
@@ -122,21 +320,31 @@ public class ProductController {
     /**
      * Возвращает список продуктов по идентификатору рецепта.
      *
-     * @param id Идентификатор рецепта.
-     * @return Ответ со списком продуктов и статусом 200 OK.
+     * @param id     Идентификатор рецепта.
+     * @param cursor Курсор страницы.
+     * @param size   Размер страницы.
+     * @return Ответ со страницей продуктов и статусом 200 OK.
      */
-    @Operation(summary = "Получение продуктов по ID рецепта", description = "Возвращает список продуктов по указанному ID рецепта.")
+    @Operation(summary = "Получение продуктов по ID рецепта", description = "Возвращает страницу продуктов по указанному ID рецепта в порядке возрастания ID.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "200", description = "Страница продуктов успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы"),
             @ApiResponse(responseCode = "404", description = "Продукты для указанного рецепта не найдены")
     })
     @GetMapping("/recipe/{id}")
-    public CompletableFuture<ResponseEntity<List<Product>>> readByRecipesId(
+    public CompletableFuture<ResponseEntity<PageResponse<ProductResponse>>> readByRecipesId(
             @Parameter(description = "Идентификатор рецепта", required = true)
-            @PathVariable Long id) {
-        return productService.readByRecipesId(id)
+            @PathVariable Long id,
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return productService.readByRecipesId(id, cursor, size)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
                     if (ex.getCause() instanceof EntityNotFoundException) {
                         return ResponseEntity.notFound().build();
                     }
@@ -147,21 +355,31 @@ public class ProductController {
     /**
      * Возвращает список продуктов по списку идентификаторов рецептов.
      *
-     * @param ids Список идентификаторов рецептов.
-     * @return Ответ со списком продуктов и статусом 200 OK.
+     * @param ids    Список идентификаторов рецептов.
+     * @param cursor Курсор страницы.
+     * @param size   Размер страницы.
+     * @return Ответ со страницей продуктов и статусом 200 OK.
      */
-    @Operation(summary = "Получение продуктов по списку ID рецептов", description = "Возвращает список продуктов по списку идентификаторов рецептов.")
+    @Operation(summary = "Получение продуктов по списку ID рецептов", description = "Возвращает страницу продуктов по списку идентификаторов рецептов в порядке возрастания ID.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "200", description = "Страница продуктов успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы"),
             @ApiResponse(responseCode = "404", description = "Продукты для указанных рецептов не найдены")
     })
     @GetMapping("/recipe/batch")
-    public CompletableFuture<ResponseEntity<List<Product>>> readByRecipesIdIn(
+    public CompletableFuture<ResponseEntity<PageResponse<ProductResponse>>> readByRecipesIdIn(
             @Parameter(description = "Список идентификаторов рецептов", required = true)
-            @RequestParam List<Long> ids) {
-        return productService.readByRecipesIdIn(ids)
+            @RequestParam List<Long> ids,
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return productService.readByRecipesIdIn(ids, cursor, size)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
                     if (ex.getCause() instanceof EntityNotFoundException) {
                         return ResponseEntity.notFound().build();
                     }
@@ -183,7 +401,7 @@ public class ProductController {
     })
     @PutMapping
     @PreAuthorize("hasAnyRole('ROLE_MODERATOR', 'ROLE_ADMIN')")
-    public CompletableFuture<ResponseEntity<Product>> update(
+    public CompletableFuture<ResponseEntity<ProductResponse>> update(
             @Parameter(description = "Продукт с обновленными данными", required = true)
             @RequestBody ProductUpdateRequest product) {
         return productService.update(product)
@@ -1,21 +1,44 @@
 package com.alexpyslar03.productselectorbackend.controller;
 
+import com.alexpyslar03.productselectorbackend.domain.dto.MealPlanResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.ImportReport;
+import com.alexpyslar03.productselectorbackend.domain.dto.NameSuggestion;
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.RecipeCreateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeMatchResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeRatingResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeSearchResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.RecipeUpdateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.SimilarRecipeResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.TrendingItem;
 import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.entity.User;
 import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
 import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.RecipeFilter;
+import com.alexpyslar03.productselectorbackend.service.AutocompleteService;
+import com.alexpyslar03.productselectorbackend.service.CatalogExportService;
+import com.alexpyslar03.productselectorbackend.service.CatalogImportService;
+import com.alexpyslar03.productselectorbackend.service.MealPlannerService;
+import com.alexpyslar03.productselectorbackend.service.RatingService;
 import com.alexpyslar03.productselectorbackend.service.RecipeService;
+import com.alexpyslar03.productselectorbackend.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -30,6 +53,12 @@ import java.util.concurrent.CompletableFuture;
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final RatingService ratingService;
+    private final TrendingService trendingService;
+    private final AutocompleteService autocompleteService;
+    private final MealPlannerService mealPlannerService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogImportService catalogImportService;
 
     /**
      * Создает новый рецепт.
@@ -44,7 +73,7 @@ public class RecipeController {
     })
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_MODERATOR', 'ROLE_ADMIN')")
-    public CompletableFuture<ResponseEntity<Recipe>> create(
+    public CompletableFuture<ResponseEntity<RecipeResponse>> create(
             @Parameter(description = "DTO с данными нового рецепта", required = true)
             @RequestBody RecipeCreateRequest dto) {
         return recipeService.create(dto)
@@ -58,20 +87,149 @@ public class RecipeController {
     }
 
     /**
-     * Возвращает список всех рецептов.
+     * Возвращает список всех рецептов, при необходимости отфильтрованный по атрибутам.
      *
-     * @return Ответ со списком всех рецептов и статусом 200 OK.
+     * @param vegan      Фильтр по признаку веганского рецепта.
+     * @param difficulty Допустимые уровни сложности.
+     * @param minRating  Минимальный рейтинг.
+     * @param cursor     Курсор страницы.
+     * @param size       Размер страницы.
+     * @return Ответ со страницей рецептов и статусом 200 OK.
      */
-    @Operation(summary = "Получение списка всех рецептов", description = "Возвращает список всех рецептов в системе.")
+    @Operation(summary = "Получение списка всех рецептов", description = "Возвращает страницу списка всех рецептов в порядке возрастания ID с необязательной фильтрацией по веганству, сложности и рейтингу. Следующая страница запрашивается с курсором nextCursor из ответа.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен")
+            @ApiResponse(responseCode = "200", description = "Страница рецептов успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры фильтра, курсор или размер страницы")
     })
     @GetMapping
-    public CompletableFuture<ResponseEntity<List<Recipe>>> readAll() {
-        return recipeService.readAll()
+    public CompletableFuture<ResponseEntity<PageResponse<RecipeResponse>>> readAll(
+            @Parameter(description = "Только веганские (true) или только не веганские (false) рецепты")
+            @RequestParam(required = false) Boolean vegan,
+            @Parameter(description = "Допустимые уровни сложности")
+            @RequestParam(required = false) Set<Recipe.DifficultyLevel> difficulty,
+            @Parameter(description = "Минимальный рейтинг (от 1 до 5)")
+            @RequestParam(required = false) Integer minRating,
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return recipeService.readAll(new RecipeFilter(vegan, difficulty, minRating), cursor, size)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает подсказки автодополнения по названиям рецептов.
+     *
+     * @param prefix Начало названия или любого его слова.
+     * @param limit  Максимальное количество подсказок.
+     * @return Ответ со списком подсказок и статусом 200 OK.
+     */
+    @Operation(summary = "Автодополнение названий рецептов", description = "Возвращает названия рецептов, начинающиеся с префикса (или содержащие слово с таким началом), в порядке убывания рейтинга без учета регистра и различия «е»/«ё». Пример префикса: «борщ».")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список подсказок успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Пустой префикс или некорректное количество подсказок")
+    })
+    @GetMapping("/autocomplete")
+    public CompletableFuture<ResponseEntity<List<NameSuggestion>>> autocomplete(
+            @Parameter(description = "Начало названия", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Максимальное количество подсказок")
+            @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.suggestRecipes(prefix, limit)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Нечеткий поиск рецептов по названию с учетом опечаток.
+     *
+     * @param query Название или одно его слово, возможно с опечатками.
+     * @param limit Максимальное количество результатов.
+     * @return Ответ со списком найденных рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Нечеткий поиск рецептов", description = "Возвращает рецепты, название которых или одно из слов названия отличается от запроса не более чем на 1–3 правки в зависимости от длины запроса, по возрастанию числа правок. Пример: «борш» находит «Борщ».")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список найденных рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Пустой запрос или некорректное количество результатов")
+    })
+    @GetMapping("/fuzzy")
+    public CompletableFuture<ResponseEntity<List<NameSuggestion>>> fuzzy(
+            @Parameter(description = "Название, возможно с опечатками", required = true)
+            @RequestParam String query,
+            @Parameter(description = "Максимальное количество результатов")
+            @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.fuzzyRecipes(query, limit)
                 .thenApply(ResponseEntity::ok);
     }
 
+    /**
+     * Возвращает рецепты, к которым чаще всего обращались за последние часы.
+     *
+     * @param limit Максимальное количество рецептов.
+     * @return Ответ со списком популярных рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Популярные рецепты", description = "Возвращает рецепты, которые чаще всего просматривали и получали в результатах подбора за последние часы; давние обращения весят меньше недавних.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Некорректное количество рецептов")
+    })
+    @GetMapping("/trending")
+    public CompletableFuture<ResponseEntity<List<TrendingItem>>> readTrending(
+            @Parameter(description = "Максимальное количество рецептов")
+            @RequestParam(defaultValue = "10") int limit) {
+        return trendingService.readTrendingRecipes(limit)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Импортирует рецепты из JSON-массива, NDJSON или CSV.
+     *
+     * @param contentType Тип содержимого запроса.
+     * @param body        Тело запроса.
+     * @return Ответ с итогами импорта и статусом 200 OK.
+     */
+    @Operation(summary = "Импорт рецептов", description = "Добавляет рецепты частями по одной транзакции; продукты рецептов указываются названиями. Строки с ошибками, неизвестными продуктами и рецепты с уже занятым названием или URL изображения пропускаются и перечисляются в отчете.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт выполнен, итоги и ошибки строк возвращены"),
+            @ApiResponse(responseCode = "400", description = "Данные импорта не удалось прочитать")
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            CatalogImportService.TEXT_CSV_VALUE})
+    @PreAuthorize("hasAnyRole('ROLE_MODERATOR', 'ROLE_ADMIN')")
+    public CompletableFuture<ResponseEntity<ImportReport>> importAll(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        return catalogImportService.importRecipes(body, contentType)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Выгружает все рецепты в формате NDJSON.
+     *
+     * @return Ответ с потоком рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Выгрузка всех рецептов", description = "Возвращает все рецепты в порядке возрастания ID, по одному JSON-объекту в строке. Рецепты читаются из базы данных порциями и сразу записываются в ответ.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка рецептов успешно начата")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(catalogExportService::exportRecipes);
+    }
+
     /**
      * Возвращает рецепт по его идентификатору.
      *
@@ -84,10 +242,42 @@ public class RecipeController {
             @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
     })
     @GetMapping("/{id}")
-    public CompletableFuture<ResponseEntity<Recipe>> readById(
+    public CompletableFuture<ResponseEntity<RecipeResponse>> readById(
             @Parameter(description = "Идентификатор рецепта", required = true)
             @PathVariable Long id) {
         return recipeService.readById(id)
+                .thenApply(recipe -> {
+                    trendingService.recordRecipe(id);
+                    return ResponseEntity.ok(recipe);
+                })
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает рецепты, похожие на заданный по составу продуктов.
+     *
+     * @param id    Идентификатор рецепта.
+     * @param limit Максимальное количество рецептов.
+     * @return Ответ со списком похожих рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Похожие рецепты", description = "Возвращает рецепты с наиболее похожим набором продуктов (по коэффициенту Жаккара), начиная с наиболее похожих.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список похожих рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Некорректное количество рецептов"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @GetMapping("/{id}/similar")
+    public CompletableFuture<ResponseEntity<List<SimilarRecipeResponse>>> readSimilar(
+            @Parameter(description = "Идентификатор рецепта", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Максимальное количество рецептов")
+            @RequestParam(defaultValue = "10") int limit) {
+        return recipeService.readSimilar(id, limit)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
                     if (ex.getCause() instanceof EntityNotFoundException) {
@@ -101,7 +291,7 @@ public class RecipeController {
      * Возвращает набор рецептов по предоставленным идентификаторам.
      *
      * @param ids Список идентификаторов рецептов.
-     * @return Ответ с набором рецептов и статусом 200 OK.
+     * @return Ответ со списком рецептов и статусом 200 OK.
      */
     @Operation(summary = "Получение рецептов по ID", description = "Возвращает набор рецептов по указанным ID.")
     @ApiResponses(value = {
@@ -109,7 +299,7 @@ public class RecipeController {
             @ApiResponse(responseCode = "404", description = "Не найдены рецепты с указанными ID")
     })
     @GetMapping("/batch")
-    public CompletableFuture<ResponseEntity<Set<Recipe>>> readAllByIdIn(
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> readAllByIdIn(
             @Parameter(description = "Список идентификаторов рецептов", required = true)
             @RequestParam List<Long> ids) {
         return recipeService.readAllByIdIn(ids)
@@ -126,20 +316,30 @@ public class RecipeController {
      * Возвращает рецепты по идентификатору продукта.
      *
      * @param productId Идентификатор продукта.
-     * @return Ответ с набором рецептов и статусом 200 OK.
+     * @param cursor    Курсор страницы.
+     * @param size      Размер страницы.
+     * @return Ответ со страницей рецептов и статусом 200 OK.
      */
-    @Operation(summary = "Получение рецептов по ID продукта", description = "Возвращает рецепты по указанному ID продукта.")
+    @Operation(summary = "Получение рецептов по ID продукта", description = "Возвращает страницу рецептов по указанному ID продукта в порядке возрастания ID.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Набор рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "200", description = "Страница рецептов успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы"),
             @ApiResponse(responseCode = "404", description = "Не найдены рецепты для указанного ID продукта")
     })
     @GetMapping("/byProduct/{productId}")
-    public CompletableFuture<ResponseEntity<List<Recipe>>> readByProductsId(
+    public CompletableFuture<ResponseEntity<PageResponse<RecipeResponse>>> readByProductsId(
             @Parameter(description = "Идентификатор продукта", required = true)
-            @PathVariable Long productId) {
-        return recipeService.readByProductsId(productId)
+            @PathVariable Long productId,
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return recipeService.readByProductsId(productId, cursor, size)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
                     if (ex.getCause() instanceof EntityNotFoundException) {
                         return ResponseEntity.notFound().build();
                     }
@@ -151,23 +351,263 @@ public class RecipeController {
      * Возвращает рецепты по набору идентификаторов продуктов.
      *
      * @param productIds Список идентификаторов продуктов.
-     * @return Ответ с набором рецептов и статусом 200 OK.
+     * @param vegan      Фильтр по признаку веганского рецепта.
+     * @param difficulty Допустимые уровни сложности.
+     * @param minRating  Минимальный рейтинг.
+     * @param exclude    Идентификаторы исключаемых продуктов.
+     * @param cursor     Курсор страницы.
+     * @param size       Размер страницы.
+     * @return Ответ со страницей рецептов и статусом 200 OK.
      */
-    @Operation(summary = "Получение рецептов по ID продуктов", description = "Возвращает набор рецептов по указанным ID продуктов.")
+    @Operation(summary = "Получение рецептов по ID продуктов", description = "Возвращает страницу рецептов по указанным ID продуктов в порядке возрастания ID с необязательной фильтрацией по атрибутам.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Набор рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "200", description = "Страница рецептов успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры фильтра, курсор или размер страницы"),
             @ApiResponse(responseCode = "404", description = "Не найдены рецепты для указанных ID продуктов")
     })
     @GetMapping("/byProducts")
-    public CompletableFuture<ResponseEntity<List<Recipe>>> readByProductsIdIn(
+    public CompletableFuture<ResponseEntity<PageResponse<RecipeResponse>>> readByProductsIdIn(
             @Parameter(description = "Список идентификаторов продуктов", required = true)
-            @RequestParam List<Long> productIds) {
-        return recipeService.readByProductsIdIn(productIds)
+            @RequestParam List<Long> productIds,
+            @Parameter(description = "Только веганские (true) или только не веганские (false) рецепты")
+            @RequestParam(required = false) Boolean vegan,
+            @Parameter(description = "Допустимые уровни сложности")
+            @RequestParam(required = false) Set<Recipe.DifficultyLevel> difficulty,
+            @Parameter(description = "Минимальный рейтинг (от 1 до 5)")
+            @RequestParam(required = false) Integer minRating,
+            @Parameter(description = "Идентификаторы исключаемых продуктов (например, аллергенов)")
+            @RequestParam(required = false) Set<Long> exclude,
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return recipeService.readByProductsIdIn(productIds, new RecipeFilter(vegan, difficulty, minRating, exclude), cursor, size)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
                     if (ex.getCause() instanceof EntityNotFoundException) {
                         return ResponseEntity.notFound().build();
                     }
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает рецепты, удовлетворяющие логическому запросу.
+     *
+     * @param q     Текст запроса.
+     * @param limit Максимальное количество рецептов в ответе.
+     * @return Ответ со списком рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Поиск рецептов по логическому запросу", description = "Возвращает рецепты, удовлетворяющие запросу из продуктов (идентификаторов или названий), операций AND, OR, NOT, скобок и условий vegan, difficulty, rating, например: (chicken OR turkey) AND rice AND NOT milk AND vegan=false AND difficulty<=MEDIUM.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос")
+    })
+    @GetMapping("/query")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> readByQuery(
+            @Parameter(description = "Текст запроса", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Максимальное количество рецептов")
+            @RequestParam(defaultValue = "20") int limit) {
+        return recipeService.readByQuery(q, limit)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает среднюю оценку рецепта пользователями.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Ответ со средней оценкой и количеством оценок и статусом 200 OK.
+     */
+    @Operation(summary = "Получение оценки рецепта", description = "Возвращает среднюю оценку рецепта пользователями и количество оценок.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Оценка успешно возвращена"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @GetMapping("/{id}/rating")
+    public CompletableFuture<ResponseEntity<RecipeRatingResponse>> readRating(
+            @Parameter(description = "Идентификатор рецепта", required = true)
+            @PathVariable Long id) {
+        return ratingService.readRating(id)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Оценивает рецепт от имени текущего пользователя.
+     *
+     * @param id    Идентификатор рецепта.
+     * @param value Оценка от 1 до 5.
+     * @param user  Текущий пользователь.
+     * @return Ответ со средней оценкой рецепта с учетом новой оценки и статусом 200 OK.
+     */
+    @Operation(summary = "Оценка рецепта", description = "Сохраняет оценку рецепта текущим пользователем; повторная оценка заменяет предыдущую. Оценки записываются в базу данных пакетами.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Оценка успешно учтена"),
+            @ApiResponse(responseCode = "400", description = "Оценка вне диапазона от 1 до 5"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @PostMapping("/{id}/rating")
+    public CompletableFuture<ResponseEntity<RecipeRatingResponse>> rate(
+            @Parameter(description = "Идентификатор рецепта", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Оценка от 1 до 5", required = true)
+            @RequestParam int value,
+            @AuthenticationPrincipal User user) {
+        return ratingService.rate(user, id, value)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Подбирает рецепты по набору продуктов и возвращает лучшие из них.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param vegan      Фильтр по признаку веганского рецепта.
+     * @param difficulty Допустимые уровни сложности.
+     * @param minRating  Минимальный рейтинг.
+     * @param exclude    Идентификаторы исключаемых продуктов.
+     * @param limit      Максимальное количество рецептов в ответе.
+     * @param user       Текущий пользователь, избранное и история которого учитываются при ранжировании.
+     * @return Ответ с ранжированным списком рецептов, количеством рецептов по атрибутам и статусом 200 OK.
+     */
+    @Operation(summary = "Подбор рецептов по продуктам", description = "Возвращает рецепты, ранжированные по доле имеющихся продуктов, рейтингу и предпочтениям текущего пользователя, и количество подходящих рецептов по веганству, сложности и рейтингу.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры подбора")
+    })
+    @GetMapping("/match")
+    public CompletableFuture<ResponseEntity<RecipeSearchResponse>> match(
+            @Parameter(description = "Список идентификаторов продуктов", required = true)
+            @RequestParam List<Long> productIds,
+            @Parameter(description = "Только веганские (true) или только не веганские (false) рецепты")
+            @RequestParam(required = false) Boolean vegan,
+            @Parameter(description = "Допустимые уровни сложности")
+            @RequestParam(required = false) Set<Recipe.DifficultyLevel> difficulty,
+            @Parameter(description = "Минимальный рейтинг (от 1 до 5)")
+            @RequestParam(required = false) Integer minRating,
+            @Parameter(description = "Идентификаторы исключаемых продуктов (например, аллергенов)")
+            @RequestParam(required = false) Set<Long> exclude,
+            @Parameter(description = "Максимальное количество рецептов")
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User user) {
+        return recipeService.match(productIds, new RecipeFilter(vegan, difficulty, minRating, exclude), limit,
+                        user == null ? null : user.getId())
+                .thenApply(response -> {
+                    trendingService.recordProducts(productIds);
+                    trendingService.recordRecipes(response.getRecipes().stream().map(match -> match.getRecipe().getId()).toList());
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Составляет план из нескольких рецептов, которые вместе используют как можно больше имеющихся продуктов.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param size       Количество рецептов в плане.
+     * @param vegan      Фильтр по признаку веганского рецепта.
+     * @param difficulty Допустимые уровни сложности.
+     * @param minRating  Минимальный рейтинг.
+     * @param exclude    Идентификаторы исключаемых продуктов.
+     * @return Ответ с планом и статусом 200 OK.
+     */
+    @Operation(summary = "План рецептов по продуктам", description = "Жадно подбирает рецепты, которые вместе задействуют больше всего имеющихся продуктов при наименьшем количестве недостающих, и возвращает список продуктов для покупки. Время составления плана ограничено.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "План успешно составлен"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры плана")
+    })
+    @GetMapping("/plan")
+    public CompletableFuture<ResponseEntity<MealPlanResponse>> plan(
+            @Parameter(description = "Список идентификаторов продуктов", required = true)
+            @RequestParam List<Long> productIds,
+            @Parameter(description = "Количество рецептов в плане")
+            @RequestParam(defaultValue = "7") int size,
+            @Parameter(description = "Только веганские (true) или только не веганские (false) рецепты")
+            @RequestParam(required = false) Boolean vegan,
+            @Parameter(description = "Допустимые уровни сложности")
+            @RequestParam(required = false) Set<Recipe.DifficultyLevel> difficulty,
+            @Parameter(description = "Минимальный рейтинг (от 1 до 5)")
+            @RequestParam(required = false) Integer minRating,
+            @Parameter(description = "Идентификаторы исключаемых продуктов (например, аллергенов)")
+            @RequestParam(required = false) Set<Long> exclude) {
+        return mealPlannerService.plan(productIds, size, new RecipeFilter(vegan, difficulty, minRating, exclude))
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает рецепты, для приготовления которых не хватает не более maxMissing продуктов.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param maxMissing Максимально допустимое количество недостающих продуктов.
+     * @param vegan      Фильтр по признаку веганского рецепта.
+     * @param difficulty Допустимые уровни сложности.
+     * @param minRating  Минимальный рейтинг.
+     * @param exclude    Идентификаторы исключаемых продуктов.
+     * @param limit      Максимальное количество рецептов в ответе.
+     * @return Ответ со списком рецептов и недостающих продуктов и статусом 200 OK.
+     */
+    @Operation(summary = "Почти готовые рецепты", description = "Возвращает рецепты, для которых не хватает не более указанного количества продуктов, вместе со списком недостающих продуктов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры подбора")
+    })
+    @GetMapping("/almostCookable")
+    public CompletableFuture<ResponseEntity<List<RecipeMatchResponse>>> readAlmostCookable(
+            @Parameter(description = "Список идентификаторов продуктов", required = true)
+            @RequestParam List<Long> productIds,
+            @Parameter(description = "Максимальное количество недостающих продуктов")
+            @RequestParam(defaultValue = "1") int maxMissing,
+            @Parameter(description = "Только веганские (true) или только не веганские (false) рецепты")
+            @RequestParam(required = false) Boolean vegan,
+            @Parameter(description = "Допустимые уровни сложности")
+            @RequestParam(required = false) Set<Recipe.DifficultyLevel> difficulty,
+            @Parameter(description = "Минимальный рейтинг (от 1 до 5)")
+            @RequestParam(required = false) Integer minRating,
+            @Parameter(description = "Идентификаторы исключаемых продуктов (например, аллергенов)")
+            @RequestParam(required = false) Set<Long> exclude,
+            @Parameter(description = "Максимальное количество рецептов")
+            @RequestParam(defaultValue = "20") int limit) {
+        return recipeService.readAlmostCookable(productIds, maxMissing,
+                        new RecipeFilter(vegan, difficulty, minRating, exclude), limit)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
                 });
     }
@@ -186,7 +626,7 @@ public class RecipeController {
     })
     @PutMapping
     @PreAuthorize("hasAnyRole('ROLE_MODERATOR', 'ROLE_ADMIN')")
-    public CompletableFuture<ResponseEntity<Recipe>> update(
+    public CompletableFuture<ResponseEntity<RecipeResponse>> update(
             @Parameter(description = "Рецепт с обновленными данными", required = true)
             @RequestBody RecipeUpdateRequest recipe) {
         return recipeService.update(recipe)
@@ -1,15 +1,21 @@
 package com.alexpyslar03.productselectorbackend.controller;
 
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.UserUpdateRequest;
 import com.alexpyslar03.productselectorbackend.domain.entity.User;
+import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
 import com.alexpyslar03.productselectorbackend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,7 +23,8 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер для работы с пользователями.
- * Предоставляет endpoint'ы для создания, чтения, обновления и удаления пользователей.
+ * Предоставляет endpoint'ы для создания, чтения, обновления и удаления пользователей,
+ * а также для работы с избранными и приготовленными рецептами текущего пользователя.
  */
 @RestController
 @RequestMapping("/users")
@@ -27,19 +34,32 @@ public class UserController {
     private final UserService userService;
 
     /**
-     * Возвращает список всех пользователей.
+     * Возвращает страницу списка всех пользователей.
      *
-     * @return Ответ со списком всех пользователей и статусом 200 OK.
+     * @param cursor Курсор страницы.
+     * @param size   Размер страницы.
+     * @return Ответ со страницей пользователей и статусом 200 OK.
      */
-    @Operation(summary = "Получение списка всех пользователей", description = "Возвращает список всех пользователей в системе.")
+    @Operation(summary = "Получение списка всех пользователей", description = "Возвращает страницу списка всех пользователей в порядке возрастания ID. Следующая страница запрашивается с курсором nextCursor из ответа.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список пользователей успешно возвращен")
+            @ApiResponse(responseCode = "200", description = "Страница пользователей успешно возвращена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы")
     })
     @GetMapping
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public CompletableFuture<ResponseEntity<List<User>>> readAll() {
-        return userService.readAll()
-                .thenApply(ResponseEntity::ok);
+    public CompletableFuture<ResponseEntity<PageResponse<User>>> readAll(
+            @Parameter(description = "Курсор страницы из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (от 1 до 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        return userService.readAll(cursor, size)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
     }
 
     /**
@@ -121,4 +141,148 @@ public class UserController {
         return userService.delete(id)
                 .thenApply(aVoid -> ResponseEntity.noContent().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает избранные рецепты текущего пользователя.
+     *
+     * @param user Текущий пользователь.
+     * @return Ответ со списком рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Получение избранных рецептов", description = "Возвращает избранные рецепты текущего пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен")
+    })
+    @GetMapping("/me/favourites")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> readFavourites(@AuthenticationPrincipal User user) {
+        return userService.readFavourites(user.getId())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Добавляет рецепт в избранное текущего пользователя.
+     *
+     * @param user     Текущий пользователь.
+     * @param recipeId Идентификатор рецепта.
+     * @return Ответ со списком избранных рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Добавление рецепта в избранное", description = "Добавляет рецепт в избранное текущего пользователя. Избранные рецепты поднимаются при подборе по продуктам.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рецепт успешно добавлен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный идентификатор рецепта"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @PostMapping("/me/favourites/{recipeId}")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> addFavourite(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long recipeId) {
+        return userService.addFavourite(user.getId(), recipeId)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Удаляет рецепт из избранного текущего пользователя.
+     *
+     * @param user     Текущий пользователь.
+     * @param recipeId Идентификатор рецепта.
+     * @return Ответ со списком избранных рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Удаление рецепта из избранного", description = "Удаляет рецепт из избранного текущего пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рецепт успешно удален"),
+            @ApiResponse(responseCode = "400", description = "Некорректный идентификатор рецепта")
+    })
+    @DeleteMapping("/me/favourites/{recipeId}")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> removeFavourite(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long recipeId) {
+        return userService.removeFavourite(user.getId(), recipeId)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Возвращает историю приготовленных рецептов текущего пользователя.
+     *
+     * @param user Текущий пользователь.
+     * @return Ответ со списком рецептов, начиная с приготовленного последним, и статусом 200 OK.
+     */
+    @Operation(summary = "Получение истории приготовления", description = "Возвращает последние приготовленные текущим пользователем рецепты, начиная с самого недавнего.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен")
+    })
+    @GetMapping("/me/cooked")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> readCooked(@AuthenticationPrincipal User user) {
+        return userService.readCooked(user.getId())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Отмечает рецепт приготовленным текущим пользователем.
+     *
+     * @param user     Текущий пользователь.
+     * @param recipeId Идентификатор рецепта.
+     * @return Ответ с историей приготовления и статусом 200 OK.
+     */
+    @Operation(summary = "Отметка рецепта приготовленным", description = "Переносит рецепт в начало истории приготовления текущего пользователя. Недавно приготовленные рецепты опускаются при подборе по продуктам.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рецепт успешно отмечен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный идентификатор рецепта"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @PostMapping("/me/cooked/{recipeId}")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> addCooked(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long recipeId) {
+        return userService.addCooked(user.getId(), recipeId)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    if (ex.getCause() instanceof EntityNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Удаляет рецепт из истории приготовления текущего пользователя.
+     *
+     * @param user     Текущий пользователь.
+     * @param recipeId Идентификатор рецепта.
+     * @return Ответ с историей приготовления и статусом 200 OK.
+     */
+    @Operation(summary = "Удаление рецепта из истории приготовления", description = "Удаляет рецепт из истории приготовления текущего пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рецепт успешно удален"),
+            @ApiResponse(responseCode = "400", description = "Некорректный идентификатор рецепта")
+    })
+    @DeleteMapping("/me/cooked/{recipeId}")
+    public CompletableFuture<ResponseEntity<List<RecipeResponse>>> removeCooked(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long recipeId) {
+        return userService.removeCooked(user.getId(), recipeId)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    if (ex.getCause() instanceof InvalidDataException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+}
@@ -0,0 +1,51 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO с итогами импорта продуктов или рецептов.
+ * <ul>
+ *     <li>rows — Количество прочитанных строк</li>
+ *     <li>imported — Количество добавленных строк</li>
+ *     <li>failed — Количество отклоненных строк</li>
+ *     <li>errors — Ошибки отклоненных строк (не более настроенного количества)</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Итоги импорта")
+public class ImportReport {
+
+    /**
+     * Количество прочитанных строк.
+     */
+    @Schema(description = "Количество прочитанных строк", example = "200000")
+    private long rows;
+
+    /**
+     * Количество добавленных строк.
+     */
+    @Schema(description = "Количество добавленных строк", example = "199998")
+    private long imported;
+
+    /**
+     * Количество отклоненных строк.
+     */
+    @Schema(description = "Количество отклоненных строк", example = "2")
+    private long failed;
+
+    /**
+     * Ошибки отклоненных строк в порядке чтения; если ошибок больше настроенного количества, остальные
+     * учитываются только в {@code failed}.
+     */
+    @Schema(description = "Ошибки отклоненных строк")
+    private List<ImportRowError> errors;
+}
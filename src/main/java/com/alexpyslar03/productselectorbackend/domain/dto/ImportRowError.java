@@ -0,0 +1,34 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с ошибкой строки импорта.
+ * <ul>
+ *     <li>row — Номер строки данных, начиная с 1 (строка заголовка CSV не учитывается)</li>
+ *     <li>message — Причина, по которой строка не добавлена</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ошибка строки импорта")
+public class ImportRowError {
+
+    /**
+     * Номер строки данных, начиная с 1.
+     */
+    @Schema(description = "Номер строки данных, начиная с 1", example = "42")
+    private long row;
+
+    /**
+     * Причина, по которой строка не добавлена.
+     */
+    @Schema(description = "Причина, по которой строка не добавлена", example = "Продукты не найдены: [Какао]")
+    private String message;
+}
@@ -0,0 +1,59 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO с планом рецептов, максимально использующим продукты пользователя.
+ * <ul>
+ *     <li>recipes — Рецепты плана в порядке выбора</li>
+ *     <li>usedProductCount — Количество продуктов пользователя, задействованных планом</li>
+ *     <li>pantryProductCount — Количество известных продуктов пользователя</li>
+ *     <li>purchaseProductIds — Идентификаторы продуктов, которые нужно докупить</li>
+ *     <li>complete — Признак того, что план составлен без ограничения по времени</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "План рецептов")
+public class MealPlanResponse {
+
+    /**
+     * Рецепты плана в порядке выбора.
+     * Оценка рецепта — его выигрыш на шаге выбора.
+     */
+    @Schema(description = "Рецепты плана")
+    private List<RecipeMatchResponse> recipes;
+
+    /**
+     * Количество продуктов пользователя, задействованных хотя бы одним рецептом плана.
+     */
+    @Schema(description = "Количество задействованных продуктов", example = "9")
+    private int usedProductCount;
+
+    /**
+     * Количество продуктов пользователя, известных индексу рецептов.
+     */
+    @Schema(description = "Количество продуктов пользователя", example = "12")
+    private int pantryProductCount;
+
+    /**
+     * Идентификаторы продуктов, которые нужно докупить для всех рецептов плана.
+     */
+    @Schema(description = "Идентификаторы продуктов для покупки", example = "[7, 15]")
+    private List<Long> purchaseProductIds;
+
+    /**
+     * Признак того, что каждый рецепт выбран с пересчетом выигрыша.
+     * false, если время на планирование истекло и план приближенный.
+     */
+    @Schema(description = "План составлен полностью, без ограничения по времени", example = "true")
+    private boolean complete;
+}
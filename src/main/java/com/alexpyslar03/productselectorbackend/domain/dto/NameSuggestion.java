@@ -0,0 +1,34 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO подсказки автодополнения.
+ * <ul>
+ *     <li>id — Идентификатор продукта или рецепта</li>
+ *     <li>name — Название</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Подсказка автодополнения")
+public class NameSuggestion {
+
+    /**
+     * Идентификатор продукта или рецепта.
+     */
+    @Schema(description = "Идентификатор продукта или рецепта", example = "1")
+    private Long id;
+
+    /**
+     * Название.
+     */
+    @Schema(description = "Название", example = "Куриная грудка")
+    private String name;
+}
@@ -0,0 +1,42 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO со страницей списка.
+ * <p>
+ * Следующая страница запрашивается с курсором {@code nextCursor}; курсор непрозрачен для клиента
+ * и передается без изменений. Отсутствие курсора означает, что страница последняя.
+ * </p>
+ * <ul>
+ *     <li>items — Элементы страницы</li>
+ *     <li>nextCursor — Курсор следующей страницы</li>
+ * </ul>
+ *
+ * @param <T> Тип элементов.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница списка")
+public class PageResponse<T> {
+
+    /**
+     * Элементы страницы.
+     */
+    @Schema(description = "Элементы страницы")
+    private List<T> items;
+
+    /**
+     * Курсор следующей страницы или null, если страница последняя.
+     */
+    @Schema(description = "Курсор следующей страницы; отсутствует на последней странице", example = "AQAAAAAAAAAy")
+    private String nextCursor;
+}
@@ -0,0 +1,34 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO строки импорта продуктов.
+ * <ul>
+ *     <li>name — Название продукта (не может быть пустым)</li>
+ *     <li>imageUrl — URL изображения продукта (не может быть пустым)</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Строка импорта продуктов")
+public class ProductImportRow {
+
+    /**
+     * Название продукта.
+     */
+    @Schema(description = "Название продукта", example = "Молоко")
+    private String name;
+
+    /**
+     * URL изображения продукта.
+     */
+    @Schema(description = "URL изображения продукта", example = "http://example.com/product.jpg")
+    private String imageUrl;
+}
@@ -0,0 +1,53 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO продукта для ответов клиенту.
+ * <p>
+ * Рецепты продукта передаются идентификаторами, поэтому ответ не содержит циклов.
+ * </p>
+ * <ul>
+ *     <li>id — Уникальный идентификатор продукта</li>
+ *     <li>name — Название продукта</li>
+ *     <li>imageUrl — URL изображения продукта</li>
+ *     <li>recipeIds — Идентификаторы рецептов продукта по возрастанию</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Продукт")
+public class ProductResponse {
+
+    /**
+     * Уникальный идентификатор продукта.
+     */
+    @Schema(description = "Уникальный идентификатор продукта", example = "1")
+    private Long id;
+
+    /**
+     * Название продукта.
+     */
+    @Schema(description = "Название продукта", example = "Молоко")
+    private String name;
+
+    /**
+     * URL изображения продукта.
+     */
+    @Schema(description = "URL изображения продукта", example = "http://example.com/product.jpg")
+    private String imageUrl;
+
+    /**
+     * Идентификаторы рецептов продукта.
+     */
+    @Schema(description = "Идентификаторы рецептов продукта", example = "[1, 2]")
+    private List<Long> recipeIds;
+}
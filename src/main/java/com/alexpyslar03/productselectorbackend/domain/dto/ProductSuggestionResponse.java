@@ -0,0 +1,34 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с продуктом, предлагаемым для добавления к набору продуктов пользователя.
+ * <ul>
+ *     <li>product — Предлагаемый продукт</li>
+ *     <li>score — Оценка совместной встречаемости с продуктами набора</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Предлагаемый продукт")
+public class ProductSuggestionResponse {
+
+    /**
+     * Предлагаемый продукт.
+     */
+    @Schema(description = "Продукт")
+    private ProductResponse product;
+
+    /**
+     * Сумма косинусных мер совместной встречаемости с продуктами набора.
+     */
+    @Schema(description = "Оценка совместной встречаемости", example = "1.25")
+    private double score;
+}
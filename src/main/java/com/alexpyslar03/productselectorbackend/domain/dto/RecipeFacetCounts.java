@@ -0,0 +1,51 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO с количеством найденных рецептов по значениям атрибутов.
+ * <ul>
+ *     <li>total — Общее количество найденных рецептов</li>
+ *     <li>vegan — Количество веганских рецептов</li>
+ *     <li>difficultyLevels — Количество рецептов по уровням сложности</li>
+ *     <li>ratings — Количество рецептов по рейтингу (0 — без рейтинга)</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Количество рецептов по значениям атрибутов")
+public class RecipeFacetCounts {
+
+    /**
+     * Общее количество найденных рецептов.
+     */
+    @Schema(description = "Общее количество найденных рецептов", example = "42")
+    private int total;
+
+    /**
+     * Количество веганских рецептов.
+     */
+    @Schema(description = "Количество веганских рецептов", example = "7")
+    private int vegan;
+
+    /**
+     * Количество рецептов по уровням сложности.
+     */
+    @Schema(description = "Количество рецептов по уровням сложности", example = "{\"EASY\": 20, \"MEDIUM\": 15, \"HARD\": 7}")
+    private Map<Recipe.DifficultyLevel, Integer> difficultyLevels;
+
+    /**
+     * Количество рецептов по рейтингу (0 — без рейтинга).
+     */
+    @Schema(description = "Количество рецептов по рейтингу, 0 — без рейтинга", example = "{\"0\": 2, \"5\": 10}")
+    private Map<Integer, Integer> ratings;
+}
@@ -0,0 +1,76 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO строки импорта рецептов.
+ * <p>
+ * Продукты указываются названиями, а не идентификаторами, чтобы каталог можно было загрузить
+ * из внешнего источника без предварительного сопоставления идентификаторов.
+ * </p>
+ * <ul>
+ *     <li>name — Название рецепта (не может быть пустым)</li>
+ *     <li>description — Описание рецепта (не может быть пустым)</li>
+ *     <li>vegan — Указывает, является ли рецепт веганским</li>
+ *     <li>difficultyLevel — Уровень сложности рецепта (обязательное поле)</li>
+ *     <li>rating — Рейтинг рецепта от 1 до 5 (необязательное поле)</li>
+ *     <li>imageUrl — URL изображения рецепта (не может быть пустым)</li>
+ *     <li>products — Названия продуктов рецепта (хотя бы одно)</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Строка импорта рецептов")
+public class RecipeImportRow {
+
+    /**
+     * Название рецепта.
+     */
+    @Schema(description = "Название рецепта", example = "Шоколадный торт")
+    private String name;
+
+    /**
+     * Описание рецепта.
+     */
+    @Schema(description = "Описание рецепта", example = "Этот шоколадный торт очень вкусный и легкий в приготовлении.")
+    private String description;
+
+    /**
+     * Указывает, является ли рецепт веганским.
+     */
+    @Schema(description = "Является ли рецепт веганским", example = "false")
+    private boolean vegan;
+
+    /**
+     * Уровень сложности рецепта.
+     */
+    @Schema(description = "Уровень сложности рецепта", example = "EASY")
+    private Recipe.DifficultyLevel difficultyLevel;
+
+    /**
+     * Рейтинг рецепта.
+     */
+    @Schema(description = "Рейтинг рецепта", example = "4")
+    private Long rating;
+
+    /**
+     * URL изображения рецепта.
+     */
+    @Schema(description = "URL изображения рецепта", example = "http://example.com/recipe.jpg")
+    private String imageUrl;
+
+    /**
+     * Названия продуктов рецепта.
+     */
+    @Schema(description = "Названия продуктов рецепта", example = "[\"Молоко\", \"Какао\"]")
+    private List<String> products;
+}
@@ -0,0 +1,75 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO с результатом сопоставления рецепта с набором продуктов пользователя.
+ * <p>
+ * Помимо самого рецепта содержит показатели, по которым он был ранжирован.
+ * </p>
+ * <ul>
+ *     <li>recipe — Найденный рецепт</li>
+ *     <li>matchedCount — Количество продуктов рецепта, имеющихся у пользователя</li>
+ *     <li>requiredCount — Общее количество продуктов рецепта</li>
+ *     <li>missingCount — Количество недостающих продуктов</li>
+ *     <li>coverage — Доля имеющихся продуктов</li>
+ *     <li>score — Итоговая оценка с учетом рейтинга</li>
+ *     <li>missingProductIds — Идентификаторы недостающих продуктов (для почти готовых рецептов)</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат подбора рецепта")
+public class RecipeMatchResponse {
+
+    /**
+     * Найденный рецепт.
+     */
+    @Schema(description = "Рецепт")
+    private RecipeResponse recipe;
+
+    /**
+     * Количество продуктов рецепта, имеющихся у пользователя.
+     */
+    @Schema(description = "Количество имеющихся продуктов", example = "3")
+    private int matchedCount;
+
+    /**
+     * Общее количество продуктов рецепта.
+     */
+    @Schema(description = "Общее количество продуктов рецепта", example = "4")
+    private int requiredCount;
+
+    /**
+     * Количество недостающих продуктов.
+     */
+    @Schema(description = "Количество недостающих продуктов", example = "1")
+    private int missingCount;
+
+    /**
+     * Доля продуктов рецепта, имеющихся у пользователя.
+     */
+    @Schema(description = "Доля имеющихся продуктов", example = "0.75")
+    private double coverage;
+
+    /**
+     * Итоговая оценка рецепта с учетом рейтинга.
+     */
+    @Schema(description = "Итоговая оценка рецепта", example = "1.05")
+    private double score;
+
+    /**
+     * Идентификаторы недостающих продуктов.
+     * Заполняется при поиске почти готовых рецептов.
+     */
+    @Schema(description = "Идентификаторы недостающих продуктов", example = "[5]")
+    private List<Long> missingProductIds;
+}
@@ -0,0 +1,41 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO со средней оценкой рецепта пользователями.
+ * <ul>
+ *     <li>recipeId — Идентификатор рецепта</li>
+ *     <li>average — Средняя оценка</li>
+ *     <li>count — Количество оценок</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Средняя оценка рецепта")
+public class RecipeRatingResponse {
+
+    /**
+     * Идентификатор рецепта.
+     */
+    @Schema(description = "Идентификатор рецепта", example = "1")
+    private Long recipeId;
+
+    /**
+     * Средняя оценка рецепта; 0, если оценок нет.
+     */
+    @Schema(description = "Средняя оценка рецепта (0, если оценок нет)", example = "4.25")
+    private double average;
+
+    /**
+     * Количество оценок рецепта.
+     */
+    @Schema(description = "Количество оценок", example = "128")
+    private long count;
+}
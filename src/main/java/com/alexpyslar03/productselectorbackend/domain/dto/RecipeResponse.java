@@ -0,0 +1,83 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO рецепта для ответов клиенту.
+ * <p>
+ * Продукты рецепта передаются идентификаторами, поэтому ответ не содержит циклов
+ * и его размер не зависит от связей продуктов с другими рецептами.
+ * </p>
+ * <ul>
+ *     <li>id — Уникальный идентификатор рецепта</li>
+ *     <li>name — Название рецепта</li>
+ *     <li>description — Описание рецепта</li>
+ *     <li>vegan — Является ли рецепт веганским</li>
+ *     <li>difficultyLevel — Уровень сложности рецепта</li>
+ *     <li>rating — Рейтинг рецепта</li>
+ *     <li>imageUrl — URL изображения рецепта</li>
+ *     <li>productIds — Идентификаторы продуктов рецепта по возрастанию</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Рецепт")
+public class RecipeResponse {
+
+    /**
+     * Уникальный идентификатор рецепта.
+     */
+    @Schema(description = "Уникальный идентификатор рецепта", example = "1")
+    private Long id;
+
+    /**
+     * Название рецепта.
+     */
+    @Schema(description = "Название рецепта", example = "Шоколадный торт")
+    private String name;
+
+    /**
+     * Описание рецепта.
+     */
+    @Schema(description = "Описание рецепта", example = "Этот шоколадный торт очень вкусный и легкий в приготовлении.")
+    private String description;
+
+    /**
+     * Является ли рецепт веганским.
+     */
+    @Schema(description = "Является ли рецепт веганским", example = "true")
+    private boolean vegan;
+
+    /**
+     * Уровень сложности рецепта.
+     */
+    @Schema(description = "Уровень сложности рецепта", example = "EASY")
+    private Recipe.DifficultyLevel difficultyLevel;
+
+    /**
+     * Рейтинг рецепта.
+     */
+    @Schema(description = "Рейтинг рецепта", example = "4")
+    private Long rating;
+
+    /**
+     * URL изображения рецепта.
+     */
+    @Schema(description = "URL изображения рецепта", example = "http://example.com/recipe.jpg")
+    private String imageUrl;
+
+    /**
+     * Идентификаторы продуктов рецепта.
+     */
+    @Schema(description = "Идентификаторы продуктов рецепта", example = "[1, 2, 3]")
+    private List<Long> productIds;
+}
@@ -0,0 +1,36 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO с результатом подбора рецептов.
+ * <ul>
+ *     <li>recipes — Лучшие рецепты, начиная с лучшего</li>
+ *     <li>facets — Количество всех подходящих рецептов по значениям атрибутов</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат подбора рецептов")
+public class RecipeSearchResponse {
+
+    /**
+     * Лучшие рецепты, начиная с лучшего.
+     */
+    @Schema(description = "Лучшие рецепты")
+    private List<RecipeMatchResponse> recipes;
+
+    /**
+     * Количество всех подходящих рецептов по значениям атрибутов.
+     */
+    @Schema(description = "Количество подходящих рецептов по значениям атрибутов")
+    private RecipeFacetCounts facets;
+}
@@ -0,0 +1,41 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с продуктом из сводного списка покупок.
+ * <ul>
+ *     <li>productId — Идентификатор продукта</li>
+ *     <li>name — Название продукта</li>
+ *     <li>recipeCount — Количество выбранных рецептов, которым нужен продукт</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Продукт списка покупок")
+public class ShoppingListItem {
+
+    /**
+     * Идентификатор продукта.
+     */
+    @Schema(description = "Идентификатор продукта", example = "7")
+    private Long productId;
+
+    /**
+     * Название продукта.
+     */
+    @Schema(description = "Название продукта", example = "Сметана")
+    private String name;
+
+    /**
+     * Количество выбранных рецептов, в которых используется продукт.
+     */
+    @Schema(description = "Количество рецептов, которым нужен продукт", example = "2")
+    private int recipeCount;
+}
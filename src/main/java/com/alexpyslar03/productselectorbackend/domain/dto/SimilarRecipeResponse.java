@@ -0,0 +1,34 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с рецептом, похожим на заданный по составу продуктов.
+ * <ul>
+ *     <li>recipe — Похожий рецепт</li>
+ *     <li>similarity — Коэффициент Жаккара наборов продуктов</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Похожий рецепт")
+public class SimilarRecipeResponse {
+
+    /**
+     * Похожий рецепт.
+     */
+    @Schema(description = "Рецепт")
+    private RecipeResponse recipe;
+
+    /**
+     * Доля общих продуктов среди всех продуктов обоих рецептов.
+     */
+    @Schema(description = "Коэффициент Жаккара наборов продуктов", example = "0.75")
+    private double similarity;
+}
@@ -0,0 +1,41 @@
+package com.alexpyslar03.productselectorbackend.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с популярным рецептом или продуктом.
+ * <ul>
+ *     <li>id — Идентификатор рецепта или продукта</li>
+ *     <li>name — Название</li>
+ *     <li>score — Оценка количества недавних обращений с учетом затухания</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Популярный рецепт или продукт")
+public class TrendingItem {
+
+    /**
+     * Идентификатор рецепта или продукта.
+     */
+    @Schema(description = "Идентификатор рецепта или продукта", example = "1")
+    private Long id;
+
+    /**
+     * Название рецепта или продукта.
+     */
+    @Schema(description = "Название", example = "Шоколадный торт")
+    private String name;
+
+    /**
+     * Оценка количества обращений: обращение час назад весит вдвое меньше текущего при периоде полураспада в час.
+     */
+    @Schema(description = "Оценка количества недавних обращений с учетом затухания", example = "42.5")
+    private double score;
+}
@@ -0,0 +1,66 @@
+package com.alexpyslar03.productselectorbackend.domain.entity;
+
+import jakarta.persistence.*;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Модель набора продуктов пользователя («кладовой»).
+ * <p>
+ * Набор хранится на сервере, чтобы подбор рецептов не требовал передавать все продукты
+ * в каждом запросе. Продукты хранятся идентификаторами: именно они нужны для подбора,
+ * а идентификаторы удаленных продуктов при подборе игнорируются.
+ * </p>
+ * <ul>
+ *     <li>id — Уникальный идентификатор набора</li>
+ *     <li>user — Владелец набора (у пользователя не более одного набора)</li>
+ *     <li>productIds — Идентификаторы продуктов набора</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "pantries")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Pantry {
+
+    /**
+     * Уникальный идентификатор набора.
+     * Генерируется автоматически.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pantry_seq")
+    @SequenceGenerator(name = "pantry_seq", sequenceName = "pantry_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false, unique = true)
+    @Schema(description = "Уникальный идентификатор набора", example = "1")
+    private Long id;
+
+    /**
+     * Владелец набора.
+     * Набор удаляется вместе с пользователем.
+     */
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Schema(description = "Владелец набора")
+    private User user;
+
+    /**
+     * Идентификаторы продуктов набора.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "pantry_products", joinColumns = @JoinColumn(name = "pantry_id"))
+    @Column(name = "product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Schema(description = "Идентификаторы продуктов набора")
+    private Set<Long> productIds = new HashSet<>();
+}
@@ -1,11 +1,15 @@
 package com.alexpyslar03.productselectorbackend.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -61,6 +65,7 @@ public class Product {
     /**
      * Набор рецептов, связанных с продуктом.
      * Используется связь многие-ко-многим с рецептами.
+     * Методы чтения репозитория загружают набор вместе с продуктом; рецепты сериализуются без своих продуктов.
      */
     @ManyToMany(
             fetch = FetchType.LAZY,
@@ -71,6 +76,10 @@ public class Product {
             joinColumns = @JoinColumn(name = "product_id"),
             inverseJoinColumns = @JoinColumn(name = "recipe_id")
     )
+    @BatchSize(size = 100)
+    @JsonIgnoreProperties("products")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @Schema(description = "Набор рецептов, связанных с продуктом")
     private Set<Recipe> recipes = new HashSet<>();
 }
\ No newline at end of file
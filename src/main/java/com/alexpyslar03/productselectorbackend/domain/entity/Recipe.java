@@ -1,11 +1,15 @@
 package com.alexpyslar03.productselectorbackend.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -98,6 +102,7 @@ public class Recipe {
     /**
      * Набор продуктов, связанных с рецептом.
      * Используется связь многие-ко-многим с продуктами.
+     * Методы чтения репозитория загружают набор вместе с рецептом; продукты сериализуются без своих рецептов.
      */
     @ManyToMany(
             fetch = FetchType.LAZY,
@@ -108,6 +113,10 @@ public class Recipe {
             joinColumns = @JoinColumn(name = "recipe_id"),
             inverseJoinColumns = @JoinColumn(name = "product_id")
     )
+    @BatchSize(size = 100)
+    @JsonIgnoreProperties("recipes")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @Schema(description = "Набор продуктов, связанных с рецептом")
     private Set<Product> products = new HashSet<>();
 
@@ -0,0 +1,84 @@
+package com.alexpyslar03.productselectorbackend.domain.entity;
+
+import jakarta.persistence.*;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * Модель оценки рецепта пользователем.
+ * <p>
+ * Оценки накапливаются в памяти и записываются пакетами, поэтому сущность используется
+ * для описания схемы таблицы, а запись выполняется пакетным запросом репозитория.
+ * </p>
+ * <ul>
+ *     <li>id — Составной ключ из идентификаторов рецепта и пользователя</li>
+ *     <li>recipe — Оцененный рецепт</li>
+ *     <li>user — Пользователь, поставивший оценку</li>
+ *     <li>rating — Оценка от 1 до 5</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "recipe_ratings")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeRating {
+
+    /**
+     * Составной ключ оценки: у пользователя не более одной оценки рецепта.
+     */
+    @EmbeddedId
+    private Key id;
+
+    /**
+     * Оцененный рецепт.
+     * Оценки удаляются вместе с рецептом.
+     */
+    @MapsId("recipeId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "recipe_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Recipe recipe;
+
+    /**
+     * Пользователь, поставивший оценку.
+     * Оценки удаляются вместе с пользователем.
+     */
+    @MapsId("userId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    /**
+     * Оценка рецепта.
+     * Может принимать значения от 1 до 5.
+     */
+    @Column(name = "rating", nullable = false)
+    @Schema(description = "Оценка рецепта", example = "5")
+    private int rating;
+
+    /**
+     * Составной ключ оценки.
+     */
+    @Embeddable
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "recipe_id", nullable = false)
+        private Long recipeId;
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.alexpyslar03.productselectorbackend.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
@@ -25,6 +26,8 @@ import java.util.List;
  *     <li>birthDate — Дата рождения пользователя</li>
  *     <li>registrationDate — Дата регистрации пользователя</li>
  *     <li>role — Роль пользователя в системе</li>
+ *     <li>favouriteRecipes — Избранные рецепты в сжатом байтовом представлении</li>
+ *     <li>cookedRecipes — История приготовленных рецептов в сжатом байтовом представлении</li>
  * </ul>
  */
 @Entity
@@ -95,6 +98,22 @@ public class User implements UserDetails {
     @Schema(description = "Роль пользователя", example = "USER")
     private Role role;
 
+    /**
+     * Избранные рецепты в байтовом представлении {@code RecipePreferences}.
+     * Изменяется только отдельным запросом, чтобы не затирать параллельные изменения.
+     */
+    @JsonIgnore
+    @Column(name = "favourite_recipes", updatable = false)
+    private byte[] favouriteRecipes;
+
+    /**
+     * История приготовленных рецептов в байтовом представлении {@code RecipePreferences}.
+     * Изменяется только отдельным запросом, чтобы не затирать параллельные изменения.
+     */
+    @JsonIgnore
+    @Column(name = "cooked_recipes", updatable = false)
+    private byte[] cookedRecipes;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role.name()));
@@ -0,0 +1,14 @@
+package com.alexpyslar03.productselectorbackend.domain.event;
+
+/**
+ * Событие завершения импорта продуктов или рецептов.
+ * <p>
+ * Публикуется один раз на импорт вместо событий по каждой строке: in-memory структуры
+ * перестраиваются целиком, что для большого импорта дешевле, чем тысячи инкрементальных изменений.
+ * </p>
+ *
+ * @param productCount Количество добавленных продуктов.
+ * @param recipeCount  Количество добавленных рецептов.
+ */
+public record CatalogImportedEvent(long productCount, long recipeCount) {
+}
@@ -0,0 +1,36 @@
+package com.alexpyslar03.productselectorbackend.domain.event;
+
+import java.util.Set;
+
+/**
+ * Событие изменения продукта, публикуемое сервисом после сохранения или удаления.
+ *
+ * @param productId Идентификатор продукта.
+ * @param name      Название продукта или null, если продукт удален.
+ * @param recipeIds Идентификаторы рецептов продукта или null, если связи не изменились.
+ * @param deleted   Признак удаления продукта.
+ */
+public record ProductChangedEvent(Long productId, String name, Set<Long> recipeIds, boolean deleted) {
+
+    /**
+     * Событие сохранения продукта.
+     *
+     * @param productId Идентификатор продукта.
+     * @param name      Название продукта.
+     * @param recipeIds Идентификаторы рецептов продукта или null, если связи не изменились.
+     * @return Событие.
+     */
+    public static ProductChangedEvent saved(Long productId, String name, Set<Long> recipeIds) {
+        return new ProductChangedEvent(productId, name, recipeIds, false);
+    }
+
+    /**
+     * Событие удаления продукта.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Событие.
+     */
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, Set.of(), true);
+    }
+}
@@ -0,0 +1,48 @@
+package com.alexpyslar03.productselectorbackend.domain.event;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+
+import java.util.Set;
+
+/**
+ * Событие изменения рецепта, публикуемое сервисом после сохранения или удаления.
+ * <p>
+ * Содержит полное новое состояние рецепта, существенное для in-memory структур,
+ * поэтому повторное применение события не меняет результат.
+ * </p>
+ *
+ * @param recipeId   Идентификатор рецепта.
+ * @param name       Название рецепта или null, если рецепт удален.
+ * @param attributes Атрибуты рецепта (рейтинг, признак веганского рецепта, сложность).
+ * @param productIds Идентификаторы продуктов рецепта (для удаленного рецепта — продуктов, которые он содержал)
+ *                   или null, если связи не изменились.
+ * @param deleted    Признак удаления рецепта.
+ */
+public record RecipeChangedEvent(Long recipeId, String name, RecipeAttributes attributes, Set<Long> productIds,
+                                 boolean deleted) {
+
+    /**
+     * Событие сохранения рецепта.
+     *
+     * @param recipe     Сохраненный рецепт.
+     * @param productIds Идентификаторы продуктов рецепта или null, если связи не изменились.
+     * @return Событие.
+     */
+    public static RecipeChangedEvent saved(Recipe recipe, Set<Long> productIds) {
+        RecipeAttributes attributes = RecipeAttributes.of(recipe.getId(), recipe.getRating(),
+                recipe.isVegan(), recipe.getDifficultyLevel());
+        return new RecipeChangedEvent(recipe.getId(), recipe.getName(), attributes, productIds, false);
+    }
+
+    /**
+     * Событие удаления рецепта.
+     *
+     * @param recipeId   Идентификатор рецепта.
+     * @param productIds Идентификаторы продуктов, которые содержал рецепт.
+     * @return Событие.
+     */
+    public static RecipeChangedEvent deleted(Long recipeId, Set<Long> productIds) {
+        return new RecipeChangedEvent(recipeId, null, null, productIds, true);
+    }
+}
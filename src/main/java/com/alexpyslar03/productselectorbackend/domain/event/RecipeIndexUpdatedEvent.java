@@ -0,0 +1,23 @@
+package com.alexpyslar03.productselectorbackend.domain.event;
+
+/**
+ * Событие публикации новой версии индекса рецептов.
+ * <p>
+ * Публикуется синхронно сразу после замены версии, поэтому подписчики, кэширующие результаты
+ * подбора, узнают об изменении до того, как новая версия будет прочитана следующим запросом.
+ * </p>
+ *
+ * @param productIds Идентификаторы продуктов в порядке возрастания, подбор по которым мог дать
+ *                   другой результат, или null, если индекс перестроен целиком.
+ */
+public record RecipeIndexUpdatedEvent(long[] productIds) {
+
+    /**
+     * Событие полного перестроения индекса.
+     *
+     * @return Событие.
+     */
+    public static RecipeIndexUpdatedEvent rebuilt() {
+        return new RecipeIndexUpdatedEvent(null);
+    }
+}
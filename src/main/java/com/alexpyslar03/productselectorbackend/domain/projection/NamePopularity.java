@@ -0,0 +1,25 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция названия продукта или рецепта с его популярностью.
+ * <p>
+ * Используется для построения индекса автодополнения без загрузки сущностей.
+ * </p>
+ */
+public interface NamePopularity {
+
+    /**
+     * @return Идентификатор продукта или рецепта.
+     */
+    Long getId();
+
+    /**
+     * @return Название.
+     */
+    String getName();
+
+    /**
+     * @return Популярность (количество рецептов продукта или рейтинг рецепта) или null, если не задана.
+     */
+    Long getPopularity();
+}
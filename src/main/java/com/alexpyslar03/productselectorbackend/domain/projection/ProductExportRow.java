@@ -0,0 +1,16 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция полей продукта с идентификатором одного из его рецептов.
+ * <p>
+ * Продукт с несколькими рецептами занимает несколько строк подряд, продукт без рецептов —
+ * одну строку без идентификатора рецепта. Используется для выгрузки каталога.
+ * </p>
+ */
+public interface ProductExportRow extends ProductRow {
+
+    /**
+     * @return Идентификатор рецепта продукта или null, если продукт не входит в рецепты.
+     */
+    Long getRecipeId();
+}
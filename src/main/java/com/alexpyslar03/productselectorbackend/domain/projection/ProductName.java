@@ -0,0 +1,20 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция идентификатора и названия продукта или рецепта.
+ * <p>
+ * Используется там, где нужны только названия, без загрузки сущностей и их связей.
+ * </p>
+ */
+public interface ProductName {
+
+    /**
+     * @return Идентификатор продукта или рецепта.
+     */
+    Long getId();
+
+    /**
+     * @return Название.
+     */
+    String getName();
+}
@@ -0,0 +1,21 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция связи продукта и рецепта из таблицы products_recipes.
+ * <p>
+ * Используется для построения индекса рецептов без загрузки сущностей
+ * Product и Recipe и их ленивых коллекций.
+ * </p>
+ */
+public interface ProductRecipeLink {
+
+    /**
+     * @return Идентификатор рецепта.
+     */
+    Long getRecipeId();
+
+    /**
+     * @return Идентификатор продукта.
+     */
+    Long getProductId();
+}
@@ -0,0 +1,25 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция полей продукта без связей с рецептами.
+ * <p>
+ * Используется для формирования ответов клиенту без загрузки сущностей продуктов.
+ * </p>
+ */
+public interface ProductRow {
+
+    /**
+     * @return Идентификатор продукта.
+     */
+    Long getId();
+
+    /**
+     * @return Название продукта.
+     */
+    String getName();
+
+    /**
+     * @return URL изображения продукта.
+     */
+    String getImageUrl();
+}
@@ -0,0 +1,59 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция суммы и количества оценок рецепта.
+ * <p>
+ * Используется для восстановления итогов оценок при старте приложения и для поправок
+ * итогов после пакетной записи оценок.
+ * </p>
+ */
+public interface RatingTotals {
+
+    /**
+     * @return Идентификатор рецепта.
+     */
+    Long getRecipeId();
+
+    /**
+     * @return Сумма оценок.
+     */
+    Long getSum();
+
+    /**
+     * @return Количество оценок.
+     */
+    Long getCount();
+
+    /**
+     * Создает итоги оценок из отдельных значений.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @param sum      Сумма оценок.
+     * @param count    Количество оценок.
+     * @return Итоги оценок.
+     */
+    static RatingTotals of(Long recipeId, Long sum, Long count) {
+        return new Values(recipeId, sum, count);
+    }
+
+    /**
+     * Итоги оценок, не связанные с запросом к базе данных.
+     */
+    record Values(Long recipeId, Long sum, Long count) implements RatingTotals {
+
+        @Override
+        public Long getRecipeId() {
+            return recipeId;
+        }
+
+        @Override
+        public Long getSum() {
+            return sum;
+        }
+
+        @Override
+        public Long getCount() {
+            return count;
+        }
+    }
+}
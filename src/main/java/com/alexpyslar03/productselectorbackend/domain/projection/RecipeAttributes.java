@@ -0,0 +1,69 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+/**
+ * Проекция атрибутов рецепта, необходимых индексу рецептов для ранжирования и фильтрации.
+ */
+public interface RecipeAttributes {
+
+    /**
+     * @return Идентификатор рецепта.
+     */
+    Long getId();
+
+    /**
+     * @return Рейтинг рецепта (может отсутствовать).
+     */
+    Long getRating();
+
+    /**
+     * @return Признак веганского рецепта (может отсутствовать).
+     */
+    Boolean getVegan();
+
+    /**
+     * @return Уровень сложности рецепта (может отсутствовать).
+     */
+    Recipe.DifficultyLevel getDifficultyLevel();
+
+    /**
+     * Создает атрибуты рецепта из отдельных значений.
+     *
+     * @param id              Идентификатор рецепта.
+     * @param rating          Рейтинг рецепта.
+     * @param vegan           Признак веганского рецепта.
+     * @param difficultyLevel Уровень сложности рецепта.
+     * @return Атрибуты рецепта.
+     */
+    static RecipeAttributes of(Long id, Long rating, Boolean vegan, Recipe.DifficultyLevel difficultyLevel) {
+        return new Values(id, rating, vegan, difficultyLevel);
+    }
+
+    /**
+     * Атрибуты рецепта, не связанные с запросом к базе данных.
+     */
+    record Values(Long id, Long rating, Boolean vegan, Recipe.DifficultyLevel difficultyLevel)
+            implements RecipeAttributes {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getRating() {
+            return rating;
+        }
+
+        @Override
+        public Boolean getVegan() {
+            return vegan;
+        }
+
+        @Override
+        public Recipe.DifficultyLevel getDifficultyLevel() {
+            return difficultyLevel;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция полей рецепта с идентификатором одного из его продуктов.
+ * <p>
+ * Рецепт с несколькими продуктами занимает несколько строк подряд, рецепт без продуктов —
+ * одну строку без идентификатора продукта. Используется для выгрузки каталога.
+ * </p>
+ */
+public interface RecipeExportRow extends RecipeRow {
+
+    /**
+     * @return Идентификатор продукта рецепта или null, если у рецепта нет продуктов.
+     */
+    Long getProductId();
+}
@@ -0,0 +1,47 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+/**
+ * Проекция полей рецепта без связей с продуктами.
+ * <p>
+ * Используется для формирования ответов клиенту без загрузки сущностей рецептов.
+ * </p>
+ */
+public interface RecipeRow {
+
+    /**
+     * @return Идентификатор рецепта.
+     */
+    Long getId();
+
+    /**
+     * @return Название рецепта.
+     */
+    String getName();
+
+    /**
+     * @return Описание рецепта.
+     */
+    String getDescription();
+
+    /**
+     * @return Признак веганского рецепта.
+     */
+    Boolean getVegan();
+
+    /**
+     * @return Уровень сложности рецепта.
+     */
+    Recipe.DifficultyLevel getDifficultyLevel();
+
+    /**
+     * @return Рейтинг рецепта (может отсутствовать).
+     */
+    Long getRating();
+
+    /**
+     * @return URL изображения рецепта.
+     */
+    String getImageUrl();
+}
@@ -0,0 +1,20 @@
+package com.alexpyslar03.productselectorbackend.domain.projection;
+
+/**
+ * Проекция избранных и приготовленных рецептов пользователя в байтовом представлении.
+ * <p>
+ * Используется для загрузки предпочтений без остальных полей пользователя.
+ * </p>
+ */
+public interface UserRecipeSets {
+
+    /**
+     * @return Избранные рецепты или null, если их нет.
+     */
+    byte[] getFavouriteRecipes();
+
+    /**
+     * @return История приготовленных рецептов или null, если ее нет.
+     */
+    byte[] getCookedRecipes();
+}
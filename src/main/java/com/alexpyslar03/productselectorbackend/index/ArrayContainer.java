@@ -0,0 +1,178 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Контейнер для разреженных блоков: отсортированный массив младших 16 бит значений.
+ */
+final class ArrayContainer extends Container {
+
+    private final char[] values;
+
+    ArrayContainer(char[] values) {
+        this.values = values;
+    }
+
+    static long sizeFor(int cardinality) {
+        return 16L + 2L * cardinality;
+    }
+
+    static ArrayContainer fromWords(long[] words, int cardinality) {
+        char[] values = new char[cardinality];
+        int pos = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[pos++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values);
+    }
+
+    @Override
+    int cardinality() {
+        return values.length;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    @Override
+    Container add(char value) {
+        int pos = Arrays.binarySearch(values, value);
+        if (pos >= 0) {
+            return this;
+        }
+        if (values.length >= ARRAY_MAX_SIZE) {
+            long[] words = toWords();
+            words[value >>> 6] |= 1L << value;
+            return new BitmapContainer(words, values.length + 1);
+        }
+        int insertion = -pos - 1;
+        char[] updated = new char[values.length + 1];
+        System.arraycopy(values, 0, updated, 0, insertion);
+        updated[insertion] = value;
+        System.arraycopy(values, insertion, updated, insertion + 1, values.length - insertion);
+        return new ArrayContainer(updated);
+    }
+
+    @Override
+    Container remove(char value) {
+        int pos = Arrays.binarySearch(values, value);
+        if (pos < 0) {
+            return this;
+        }
+        if (values.length == 1) {
+            return null;
+        }
+        char[] updated = new char[values.length - 1];
+        System.arraycopy(values, 0, updated, 0, pos);
+        System.arraycopy(values, pos + 1, updated, pos, values.length - pos - 1);
+        return new ArrayContainer(updated);
+    }
+
+    @Override
+    void forEach(int high, IntConsumer action) {
+        for (char value : values) {
+            action.accept(high | value);
+        }
+    }
+
+    @Override
+    void orInto(long[] target, int wordOffset) {
+        for (char value : values) {
+            int index = wordOffset + (value >>> 6);
+            if (index >= target.length) {
+                return;
+            }
+            target[index] |= 1L << value;
+        }
+    }
+
+    @Override
+    int andCardinality(long[] target, int wordOffset) {
+        int count = 0;
+        for (char value : values) {
+            if ((wordAt(target, wordOffset + (value >>> 6)) & (1L << value)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    int andNotCardinality(long[] target, int wordOffset, int limit) {
+        int count = 0;
+        for (int i = 0; i < values.length && count <= limit; i++) {
+            if ((wordAt(target, wordOffset + (values[i] >>> 6)) & (1L << values[i])) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    void fillWords(long[] words) {
+        for (char value : values) {
+            words[value >>> 6] |= 1L << value;
+        }
+    }
+
+    @Override
+    long sizeInBytes() {
+        return sizeFor(values.length);
+    }
+
+    /**
+     * Оставляет значения, которые присутствуют (keep = true) или отсутствуют (keep = false) в другом контейнере.
+     */
+    Container filter(Container other, boolean keep) {
+        char[] result = new char[values.length];
+        int size = 0;
+        for (char value : values) {
+            if (other.contains(value) == keep) {
+                result[size++] = value;
+            }
+        }
+        if (size == 0) {
+            return null;
+        }
+        return new ArrayContainer(size == values.length ? result : Arrays.copyOf(result, size));
+    }
+
+    /**
+     * Слияние двух отсортированных массивов.
+     */
+    ArrayContainer merge(ArrayContainer other) {
+        char[] result = new char[values.length + other.values.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < values.length && j < other.values.length) {
+            char a = values[i];
+            char b = other.values[j];
+            if (a < b) {
+                result[size++] = a;
+                i++;
+            } else if (a > b) {
+                result[size++] = b;
+                j++;
+            } else {
+                result[size++] = a;
+                i++;
+                j++;
+            }
+        }
+        while (i < values.length) {
+            result[size++] = values[i++];
+        }
+        while (j < other.values.length) {
+            result[size++] = other.values[j++];
+        }
+        return new ArrayContainer(size == result.length ? result : Arrays.copyOf(result, size));
+    }
+}
@@ -0,0 +1,97 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+/**
+ * Пословные операции над массивами long, на которых строятся операции битовых множеств индекса.
+ * <p>
+ * Реализация выбирается один раз при первом обращении. По умолчанию используется скалярная:
+ * на замерах (README, раздел «Тестирование») векторная не дает выигрыша. Векторная реализация
+ * (Vector API) включается свойством JVM {@code -Drecipe.index.vector=true}, если модуль
+ * {@code jdk.incubator.vector} подключен и процессор поддерживает векторы хотя бы из двух long.
+ * </p>
+ */
+public abstract class BitKernels {
+
+    /**
+     * Свойство JVM, включающее векторную реализацию.
+     */
+    public static final String VECTOR_PROPERTY = "recipe.index.vector";
+
+    BitKernels() {
+    }
+
+    /**
+     * Выбранная реализация. Выбор вынесен во вложенный класс: при инициализации самого BitKernels
+     * (например, перед первым созданием VectorBitKernels) статические поля подкласса еще не заданы.
+     */
+    private static final class Holder {
+        static final BitKernels INSTANCE = select();
+    }
+
+    /**
+     * @return Реализация, выбранная при первом обращении.
+     */
+    static BitKernels instance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return Реализация по текущему значению свойства {@link #VECTOR_PROPERTY}.
+     */
+    static BitKernels select() {
+        if (Boolean.getBoolean(VECTOR_PROPERTY) && vectorSupported()) {
+            return new VectorBitKernels();
+        }
+        return new ScalarBitKernels();
+    }
+
+    /**
+     * @return true, если векторная реализация доступна в этой JVM.
+     */
+    static boolean vectorSupported() {
+        try {
+            return VectorBitKernels.isSupported();
+        } catch (LinkageError ex) {
+            return false; // Модуль jdk.incubator.vector не подключен к JVM
+        }
+    }
+
+    /**
+     * @return Название используемой реализации.
+     */
+    public static String active() {
+        return instance().name();
+    }
+
+    abstract String name();
+
+    /**
+     * target[targetOffset + i] |= source[sourceOffset + i] для i из [0, length).
+     */
+    abstract void or(long[] target, int targetOffset, long[] source, int sourceOffset, int length);
+
+    /**
+     * target[i] &amp;= source[i] для i из [0, length).
+     */
+    abstract void and(long[] target, long[] source, int length);
+
+    /**
+     * target[i] &amp;= ~source[i] для i из [0, length).
+     */
+    abstract void andNot(long[] target, long[] source, int length);
+
+    /**
+     * Количество установленных битов в словах [from, to).
+     */
+    abstract int cardinality(long[] words, int from, int to);
+
+    /**
+     * Количество общих битов a[aOffset + i] и b[bOffset + i] для i из [0, length).
+     */
+    abstract int andCardinality(long[] a, int aOffset, long[] b, int bOffset, int length);
+
+    /**
+     * Количество битов a[aOffset + i], отсутствующих в b[bOffset + i], для i из [0, length).
+     * Подсчет может прекратиться после превышения порога; тогда возвращается число больше limit.
+     */
+    abstract int andNotCardinality(long[] a, int aOffset, long[] b, int bOffset, int length, int limit);
+}
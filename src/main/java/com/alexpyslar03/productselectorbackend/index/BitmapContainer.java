@@ -0,0 +1,103 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Контейнер для плотных блоков: битовая карта на 2^16 значений (8 КБ).
+ */
+final class BitmapContainer extends Container {
+
+    static final long SIZE = 16L + 8L * WORDS_PER_CHUNK;
+
+    private final long[] words;
+    private final int cardinality;
+
+    BitmapContainer(long[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    Container add(char value) {
+        if (contains(value)) {
+            return this;
+        }
+        long[] updated = words.clone();
+        updated[value >>> 6] |= 1L << value;
+        return new BitmapContainer(updated, cardinality + 1);
+    }
+
+    @Override
+    Container remove(char value) {
+        if (!contains(value)) {
+            return this;
+        }
+        long[] updated = words.clone();
+        updated[value >>> 6] &= ~(1L << value);
+        if (cardinality - 1 <= ARRAY_MAX_SIZE) {
+            return fromWords(updated);
+        }
+        return new BitmapContainer(updated, cardinality - 1);
+    }
+
+    @Override
+    void forEach(int high, IntConsumer action) {
+        for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+            long word = words[i];
+            while (word != 0) {
+                action.accept(high | ((i << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    void orInto(long[] target, int wordOffset) {
+        BitKernels.instance().or(target, wordOffset, words, 0, overlap(target, wordOffset));
+    }
+
+    @Override
+    int andCardinality(long[] target, int wordOffset) {
+        return BitKernels.instance().andCardinality(words, 0, target, wordOffset, overlap(target, wordOffset));
+    }
+
+    @Override
+    int andNotCardinality(long[] target, int wordOffset, int limit) {
+        int n = overlap(target, wordOffset);
+        int count = BitKernels.instance().andNotCardinality(words, 0, target, wordOffset, n, limit);
+        // Слова за пределами плотного множества считаются нулевыми
+        return count <= limit ? count + BitKernels.instance().cardinality(words, n, WORDS_PER_CHUNK) : count;
+    }
+
+    @Override
+    void fillWords(long[] target) {
+        BitKernels.instance().or(target, 0, words, 0, WORDS_PER_CHUNK);
+    }
+
+    /**
+     * Количество слов блока, попадающих в плотное множество.
+     */
+    private static int overlap(long[] target, int wordOffset) {
+        return Math.max(0, Math.min(WORDS_PER_CHUNK, target.length - wordOffset));
+    }
+
+    @Override
+    long[] toWords() {
+        return words.clone();
+    }
+
+    @Override
+    long sizeInBytes() {
+        return SIZE;
+    }
+}
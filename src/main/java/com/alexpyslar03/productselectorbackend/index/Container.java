@@ -0,0 +1,182 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Контейнер сжатого битового множества, хранящий младшие 16 бит значений одного блока (chunk).
+ * <p>
+ * Контейнеры неизменяемы: операции добавления и удаления возвращают новый контейнер.
+ * Тип контейнера выбирается по плотности блока: массив для разреженных блоков,
+ * битовая карта для плотных и последовательность интервалов для блоков из длинных серий.
+ * </p>
+ */
+abstract class Container {
+
+    /**
+     * Максимальная мощность контейнера-массива; дальше выгоднее битовая карта.
+     */
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    /**
+     * Количество 64-битных слов в блоке из 2^16 значений.
+     */
+    static final int WORDS_PER_CHUNK = 1024;
+
+    abstract int cardinality();
+
+    abstract boolean contains(char value);
+
+    abstract Container add(char value);
+
+    abstract Container remove(char value);
+
+    /**
+     * Вызывает действие для каждого значения блока в порядке возрастания.
+     *
+     * @param high   Старшие 16 бит значений блока, уже сдвинутые на 16 разрядов.
+     * @param action Действие.
+     */
+    abstract void forEach(int high, IntConsumer action);
+
+    /**
+     * Объединяет значения блока со словами плотного множества, начиная с указанного слова.
+     */
+    abstract void orInto(long[] target, int wordOffset);
+
+    /**
+     * Считает значения блока, присутствующие в плотном множестве.
+     */
+    abstract int andCardinality(long[] target, int wordOffset);
+
+    /**
+     * Считает значения блока, отсутствующие в плотном множестве, прекращая подсчет после превышения порога.
+     */
+    abstract int andNotCardinality(long[] target, int wordOffset, int limit);
+
+    /**
+     * Записывает значения блока в локальную битовую карту из {@link #WORDS_PER_CHUNK} слов.
+     */
+    abstract void fillWords(long[] words);
+
+    /**
+     * @return Оценка занимаемой памяти в байтах.
+     */
+    abstract long sizeInBytes();
+
+    /**
+     * Возвращает слово плотного множества или 0, если индекс выходит за его пределы.
+     */
+    static long wordAt(long[] target, int index) {
+        return index < target.length ? target[index] : 0L;
+    }
+
+    /**
+     * Пересечение двух контейнеров.
+     */
+    static Container and(Container a, Container b) {
+        if (b instanceof ArrayContainer && !(a instanceof ArrayContainer)) {
+            return and(b, a);
+        }
+        if (a instanceof ArrayContainer array) {
+            return array.filter(b, true);
+        }
+        long[] words = a.toWords();
+        BitKernels.instance().and(words, b.toWords(), WORDS_PER_CHUNK);
+        return fromWords(words);
+    }
+
+    /**
+     * Объединение двух контейнеров.
+     */
+    static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer x && b instanceof ArrayContainer y
+                && x.cardinality() + y.cardinality() <= ARRAY_MAX_SIZE) {
+            return x.merge(y);
+        }
+        long[] words = a.toWords();
+        b.fillWords(words);
+        return fromWords(words);
+    }
+
+    /**
+     * Разность двух контейнеров (a \ b).
+     */
+    static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer array) {
+            return array.filter(b, false);
+        }
+        long[] words = a.toWords();
+        BitKernels.instance().andNot(words, b.toWords(), WORDS_PER_CHUNK);
+        return fromWords(words);
+    }
+
+    /**
+     * @return Новая битовая карта блока из {@link #WORDS_PER_CHUNK} слов.
+     */
+    long[] toWords() {
+        long[] words = new long[WORDS_PER_CHUNK];
+        fillWords(words);
+        return words;
+    }
+
+    /**
+     * Выбирает самое компактное представление для блока, заданного битовой картой.
+     *
+     * @param words Битовая карта блока.
+     * @return Контейнер или null, если блок пуст.
+     */
+    static Container fromWords(long[] words) {
+        int cardinality = 0;
+        int runs = 0;
+        long previousHighBit = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+            // Начало серии — установленный бит, перед которым стоит сброшенный
+            runs += Long.bitCount(word & ~((word << 1) | previousHighBit));
+            previousHighBit = word >>> 63;
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        if (RunContainer.sizeFor(runs) < Math.min(ArrayContainer.sizeFor(cardinality), BitmapContainer.SIZE)) {
+            return RunContainer.fromWords(words, runs);
+        }
+        if (cardinality <= ARRAY_MAX_SIZE) {
+            return ArrayContainer.fromWords(words, cardinality);
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    /**
+     * Выбирает самое компактное представление для отсортированных уникальных значений блока.
+     *
+     * @param values Значения (младшие 16 бит).
+     * @param from   Начальная позиция включительно.
+     * @param to     Конечная позиция исключительно.
+     * @return Контейнер.
+     */
+    static Container fromSorted(int[] values, int from, int to) {
+        int cardinality = to - from;
+        int runs = 0;
+        for (int i = from; i < to; i++) {
+            if (i == from || values[i] != values[i - 1] + 1) {
+                runs++;
+            }
+        }
+        if (RunContainer.sizeFor(runs) < Math.min(ArrayContainer.sizeFor(cardinality), BitmapContainer.SIZE)) {
+            return RunContainer.fromSorted(values, from, to, runs);
+        }
+        if (cardinality <= ARRAY_MAX_SIZE) {
+            char[] array = new char[cardinality];
+            for (int i = from; i < to; i++) {
+                array[i - from] = (char) values[i];
+            }
+            return new ArrayContainer(array);
+        }
+        long[] words = new long[WORDS_PER_CHUNK];
+        for (int i = from; i < to; i++) {
+            words[(values[i] & 0xFFFF) >>> 6] |= 1L << values[i];
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+}
@@ -0,0 +1,204 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Плотное битовое множество фиксированной ёмкости поверх массива long.
+ * <p>
+ * Используется индексом рецептов для хранения множеств порядковых номеров
+ * рецептов и продуктов. Все операции над множествами выполняются пословно
+ * (по 64 бита за шаг, а при доступности Vector API — по несколько слов за шаг,
+ * см. {@link BitKernels}), что позволяет заменить SQL-соединение несколькими
+ * проходами по массиву.
+ * </p>
+ */
+public final class DenseBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private final long[] words;
+
+    /**
+     * Создает пустое множество, способное хранить биты от 0 до nbits - 1.
+     *
+     * @param nbits Ёмкость множества в битах.
+     */
+    public DenseBitSet(int nbits) {
+        this.words = new long[wordIndex(Math.max(nbits, 1) - 1) + 1];
+    }
+
+    private DenseBitSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Слова множества для пословных операций со сжатыми множествами внутри пакета.
+     */
+    long[] words() {
+        return words;
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * Устанавливает бит с указанным индексом.
+     *
+     * @param bitIndex Индекс бита.
+     */
+    public void set(int bitIndex) {
+        words[wordIndex(bitIndex)] |= 1L << bitIndex;
+    }
+
+    /**
+     * Сбрасывает бит с указанным индексом.
+     *
+     * @param bitIndex Индекс бита.
+     */
+    public void clear(int bitIndex) {
+        words[wordIndex(bitIndex)] &= ~(1L << bitIndex);
+    }
+
+    /**
+     * Проверяет, установлен ли бит с указанным индексом.
+     * Индексы за пределами ёмкости считаются сброшенными.
+     *
+     * @param bitIndex Индекс бита.
+     * @return true, если бит установлен.
+     */
+    public boolean get(int bitIndex) {
+        int wordIndex = wordIndex(bitIndex);
+        return wordIndex < words.length && (words[wordIndex] & (1L << bitIndex)) != 0;
+    }
+
+    /**
+     * Объединение с другим множеством (this |= other).
+     *
+     * @param other Второе множество.
+     */
+    public void or(DenseBitSet other) {
+        BitKernels.instance().or(words, 0, other.words, 0, Math.min(words.length, other.words.length));
+    }
+
+    /**
+     * Пересечение с другим множеством (this &= other).
+     *
+     * @param other Второе множество.
+     */
+    public void and(DenseBitSet other) {
+        int n = Math.min(words.length, other.words.length);
+        BitKernels.instance().and(words, other.words, n);
+        Arrays.fill(words, n, words.length, 0L);
+    }
+
+    /**
+     * Разность с другим множеством (this &= ~other).
+     *
+     * @param other Вычитаемое множество.
+     */
+    public void andNot(DenseBitSet other) {
+        BitKernels.instance().andNot(words, other.words, Math.min(words.length, other.words.length));
+    }
+
+    /**
+     * Возвращает мощность пересечения |this ∩ other| без создания промежуточного множества.
+     *
+     * @param other Второе множество.
+     * @return Количество общих битов.
+     */
+    public int andCardinality(DenseBitSet other) {
+        return BitKernels.instance().andCardinality(words, 0, other.words, 0, Math.min(words.length, other.words.length));
+    }
+
+    /**
+     * Возвращает мощность разности |this \ other|, прекращая подсчет,
+     * как только она превысит порог.
+     *
+     * @param other Вычитаемое множество.
+     * @param limit Порог, после превышения которого подсчет прекращается.
+     * @return Точная мощность разности, если она не превышает limit, иначе число больше limit.
+     */
+    public int andNotCardinality(DenseBitSet other, int limit) {
+        int n = Math.min(words.length, other.words.length);
+        int count = BitKernels.instance().andNotCardinality(words, 0, other.words, 0, n, limit);
+        // Слова за пределами второго множества считаются нулевыми
+        return count <= limit ? count + BitKernels.instance().cardinality(words, n, words.length) : count;
+    }
+
+    /**
+     * Возвращает количество установленных битов.
+     *
+     * @return Мощность множества.
+     */
+    public int cardinality() {
+        return BitKernels.instance().cardinality(words, 0, words.length);
+    }
+
+    /**
+     * Проверяет, пусто ли множество.
+     *
+     * @return true, если ни один бит не установлен.
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вызывает действие для каждого установленного бита в порядке возрастания.
+     *
+     * @param action Действие, принимающее индекс бита.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                action.accept((i << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Вызывает действие для каждого установленного бита из диапазона [fromIndex, toIndex) в порядке возрастания.
+     *
+     * @param fromIndex Начало диапазона (включительно).
+     * @param toIndex   Конец диапазона (не включительно).
+     * @param action    Действие, принимающее индекс бита.
+     */
+    public void forEach(int fromIndex, int toIndex, IntConsumer action) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        int first = wordIndex(fromIndex);
+        int last = Math.min(wordIndex(toIndex - 1), words.length - 1);
+        for (int i = first; i <= last; i++) {
+            long word = words[i];
+            if (i == first) {
+                word &= -1L << fromIndex;
+            }
+            if (i == wordIndex(toIndex - 1)) {
+                word &= -1L >>> -toIndex;
+            }
+            while (word != 0) {
+                action.accept((i << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Создает независимую копию множества.
+     *
+     * @return Копия множества.
+     */
+    public DenseBitSet copy() {
+        return new DenseBitSet(words.clone());
+    }
+}
@@ -0,0 +1,17 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+import java.util.Map;
+
+/**
+ * Количество рецептов множества по значениям атрибутов.
+ *
+ * @param total            Общее количество рецептов.
+ * @param vegan            Количество веганских рецептов.
+ * @param difficultyLevels Количество рецептов по уровням сложности.
+ * @param ratings          Количество рецептов по рейтингу (0 — без рейтинга).
+ */
+public record FacetCounts(int total, int vegan, Map<Recipe.DifficultyLevel, Integer> difficultyLevels,
+                          Map<Integer, Integer> ratings) {
+}
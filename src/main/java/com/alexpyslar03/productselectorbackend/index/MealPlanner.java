@@ -0,0 +1,153 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Жадное планирование набора рецептов, максимально использующего продукты пользователя.
+ * <p>
+ * Выигрыш рецепта — количество еще не использованных планом продуктов набора, которые он
+ * задействует, минус {@link #PURCHASE_WEIGHT} за каждый недостающий продукт. Выигрыш рецепта
+ * может только уменьшаться по мере добавления рецептов в план, поэтому используется ленивый
+ * жадный алгоритм: кандидаты хранятся в приоритетной очереди с выигрышем, вычисленным на
+ * некотором шаге, и пересчитывается только вершина очереди. Если после пересчета рецепт
+ * остается на вершине, он гарантированно лучший на текущем шаге.
+ * </p>
+ * <p>
+ * Планирование ограничено временем: после истечения срока оставшиеся рецепты выбираются
+ * по последним вычисленным выигрышам без пересчета, а план помечается как приближенный.
+ * </p>
+ */
+public final class MealPlanner {
+
+    /**
+     * Штраф за каждый недостающий продукт рецепта относительно выигрыша за использованный продукт набора.
+     */
+    static final double PURCHASE_WEIGHT = 0.5;
+
+    /**
+     * Количество порядковых номеров рецептов, оцениваемых между проверками срока.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private static final Comparator<Candidate> ORDER = Comparator.comparingDouble((Candidate candidate) -> candidate.gain)
+            .reversed()
+            .thenComparingInt(candidate -> candidate.missing)
+            .thenComparing(Comparator.comparingInt((Candidate candidate) -> candidate.rating).reversed())
+            .thenComparingInt(candidate -> candidate.ordinal);
+
+    private MealPlanner() {
+    }
+
+    /**
+     * Рецепт плана.
+     *
+     * @param ordinal   Порядковый номер рецепта в индексе.
+     * @param recipeId  Идентификатор рецепта.
+     * @param matched   Количество продуктов рецепта, имеющихся в наборе.
+     * @param required  Общее количество продуктов рецепта.
+     * @param newlyUsed Количество продуктов набора, впервые задействованных этим рецептом.
+     * @param gain      Выигрыш рецепта на шаге, когда он был выбран.
+     */
+    public record Item(int ordinal, long recipeId, int matched, int required, int newlyUsed, double gain) {
+
+        /**
+         * @return Количество недостающих продуктов.
+         */
+        public int missing() {
+            return required - matched;
+        }
+    }
+
+    /**
+     * План.
+     *
+     * @param items              Рецепты в порядке выбора.
+     * @param usedCount          Количество продуктов набора, задействованных планом.
+     * @param purchaseProductIds Идентификаторы продуктов, которые нужно докупить, по возрастанию.
+     * @param complete           false, если срок истек и часть рецептов выбрана без пересчета выигрыша.
+     */
+    public record Plan(List<Item> items, int usedCount, List<Long> purchaseProductIds, boolean complete) {
+    }
+
+    /**
+     * Кандидат в приоритетной очереди; выигрыш действителен на шаге round.
+     */
+    private static final class Candidate {
+        private final int ordinal;
+        private final int matched;
+        private final int missing;
+        private final int rating;
+        private double gain;
+        private int round;
+
+        private Candidate(int ordinal, int matched, int missing, int rating) {
+            this.ordinal = ordinal;
+            this.matched = matched;
+            this.missing = missing;
+            this.rating = rating;
+            this.gain = gain(matched, missing);
+        }
+    }
+
+    private static double gain(int newlyUsed, int missing) {
+        return newlyUsed - PURCHASE_WEIGHT * missing;
+    }
+
+    /**
+     * Составляет план из не более чем size рецептов, содержащих хотя бы один продукт набора.
+     *
+     * @param index         Индекс рецептов.
+     * @param pantry        Битовое множество продуктов.
+     * @param filter        Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @param size          Количество рецептов в плане.
+     * @param deadlineNanos Срок по {@link System#nanoTime()}, после которого выигрыши не пересчитываются.
+     * @return План; рецептов может быть меньше size, если подходящих рецептов меньше.
+     */
+    public static Plan plan(RecipeIndex index, DenseBitSet pantry, RecipeFilter filter, int size, long deadlineNanos) {
+        DenseBitSet candidates = index.recipesWithAny(pantry);
+        if (!filter.isEmpty()) {
+            index.filter(candidates, filter);
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+        boolean complete = true;
+        for (int from = 0; from < index.recipeCount() && complete; from += CHUNK_SIZE) {
+            candidates.forEach(from, Math.min(index.recipeCount(), from + CHUNK_SIZE), ordinal -> {
+                int required = index.requiredCount(ordinal);
+                int matched = index.matchedCount(ordinal, pantry);
+                queue.add(new Candidate(ordinal, matched, required - matched, index.rating(ordinal)));
+            });
+            // Кандидаты, не оцененные до истечения срока, в план не попадают
+            complete = System.nanoTime() - deadlineNanos < 0;
+        }
+
+        DenseBitSet unused = pantry.copy();
+        List<Item> items = new ArrayList<>(size);
+        while (items.size() < size && !queue.isEmpty()) {
+            Candidate top = queue.poll();
+            if (top.round != items.size() && complete) {
+                if (System.nanoTime() - deadlineNanos < 0) {
+                    top.gain = gain(index.recipeProducts(top.ordinal).andCardinality(unused), top.missing);
+                    top.round = items.size();
+                    queue.add(top);
+                    continue;
+                }
+                complete = false;
+            }
+            RoaringBitmap products = index.recipeProducts(top.ordinal);
+            int newlyUsed = products.andCardinality(unused);
+            items.add(new Item(top.ordinal, index.recipeId(top.ordinal), top.matched, top.matched + top.missing,
+                    newlyUsed, gain(newlyUsed, top.missing)));
+            products.forEach(unused::clear);
+        }
+
+        TreeSet<Long> purchases = new TreeSet<>();
+        for (Item item : items) {
+            purchases.addAll(index.missingProductIds(item.ordinal(), pantry));
+        }
+        return new Plan(items, pantry.cardinality() - unused.cardinality(), List.copyOf(purchases), complete);
+    }
+}
@@ -0,0 +1,311 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Неизменяемый префиксный индекс названий для автодополнения.
+ * <p>
+ * Хранит отсортированный массив ключей — нормализованного названия и всех его окончаний,
+ * начинающихся с нового слова, — поэтому «груд» находит «Куриная грудка». Диапазон ключей
+ * с заданным префиксом находится двоичным поиском, а лучшие по популярности названия из
+ * диапазона извлекаются деревом отрезков по порядку ранжирования: лучший ключ диапазона делит его
+ * на два поддиапазона, которые попадают в кучу. Поэтому подсказки по короткому префиксу стоят
+ * O(limit · log n), а не пропорционально числу подходящих ключей. Нормализация приводит текст к нижнему регистру,
+ * заменяет «ё» на «е», а остальные символы, кроме букв и цифр, — на пробелы.
+ * </p>
+ * <p>
+ * Изменение создает новую версию индекса слиянием отсортированных массивов за O(n),
+ * исходная версия не изменяется и может одновременно использоваться читателями.
+ * </p>
+ */
+public final class NameIndex {
+
+    /**
+     * Название для индексации.
+     *
+     * @param id         Идентификатор сущности.
+     * @param name       Название.
+     * @param popularity Популярность (чем больше, тем выше в подсказках).
+     */
+    public record Entry(long id, String name, int popularity) {
+    }
+
+    private static final NameIndex EMPTY = new NameIndex(new String[0], new Entry[0]);
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::popularity)
+            .thenComparing(Entry::name, Comparator.reverseOrder());
+
+    private final String[] keys;
+    private final Entry[] entries;
+    private final Map<Long, Entry> byId;
+
+    /**
+     * Дерево отрезков над ключами: узел хранит позицию лучшего по {@link #RANKING} ключа
+     * своего отрезка, листья начинаются с позиции {@code keys.length}.
+     */
+    private final int[] best;
+
+    private NameIndex(String[] keys, Entry[] entries) {
+        this.keys = keys;
+        this.entries = entries;
+        this.byId = new HashMap<>();
+        for (Entry entry : entries) {
+            byId.put(entry.id(), entry);
+        }
+        int n = keys.length;
+        this.best = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            best[n + i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            best[i] = better(best[2 * i], best[2 * i + 1]);
+        }
+    }
+
+    /**
+     * @return Пустой индекс.
+     */
+    public static NameIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит индекс по набору названий.
+     *
+     * @param entries Названия; записи с пустым названием пропускаются.
+     * @return Индекс.
+     */
+    public static NameIndex build(Collection<Entry> entries) {
+        List<String> keys = new ArrayList<>();
+        List<Entry> owners = new ArrayList<>();
+        for (Entry entry : entries) {
+            for (String key : keysOf(entry.name())) {
+                keys.add(key);
+                owners.add(entry);
+            }
+        }
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keys::get));
+        String[] sortedKeys = new String[order.length];
+        Entry[] sortedEntries = new Entry[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys.get(order[i]);
+            sortedEntries[i] = owners.get(order[i]);
+        }
+        return new NameIndex(sortedKeys, sortedEntries);
+    }
+
+    /**
+     * Нормализует текст для сравнения.
+     *
+     * @param text Исходный текст.
+     * @return Текст в нижнем регистре, с «е» вместо «ё» и словами, разделенными одним пробелом.
+     */
+    public static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c == 'ё' ? 'е' : c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Ключи названия: нормализованное название и его окончания с начала каждого следующего слова.
+     */
+    private static List<String> keysOf(String name) {
+        if (name == null) {
+            return List.of();
+        }
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * @return Количество ключей в индексе.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Возвращает популярность проиндексированного названия.
+     *
+     * @param id Идентификатор сущности.
+     * @return Популярность или -1, если сущность не проиндексирована.
+     */
+    public int popularity(long id) {
+        Entry entry = byId.get(id);
+        return entry != null ? entry.popularity() : -1;
+    }
+
+    /**
+     * Возвращает версию индекса с добавленным или замененным названием.
+     *
+     * @param entry Название.
+     * @return Новая версия индекса.
+     */
+    public NameIndex with(Entry entry) {
+        NameIndex base = without(entry.id());
+        List<String> added = keysOf(entry.name());
+        if (added.isEmpty()) {
+            return base;
+        }
+        added.sort(null);
+        String[] newKeys = new String[base.keys.length + added.size()];
+        Entry[] newEntries = new Entry[newKeys.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < newKeys.length; k++) {
+            if (j >= added.size() || (i < base.keys.length && base.keys[i].compareTo(added.get(j)) <= 0)) {
+                newKeys[k] = base.keys[i];
+                newEntries[k] = base.entries[i++];
+            } else {
+                newKeys[k] = added.get(j++);
+                newEntries[k] = entry;
+            }
+        }
+        return new NameIndex(newKeys, newEntries);
+    }
+
+    /**
+     * Возвращает версию индекса без названия сущности.
+     *
+     * @param id Идентификатор сущности.
+     * @return Новая версия индекса (или эта же, если сущность не проиндексирована).
+     */
+    public NameIndex without(long id) {
+        Entry existing = byId.get(id);
+        if (existing == null) {
+            return this;
+        }
+        String[] newKeys = new String[keys.length - keysOf(existing.name()).size()];
+        Entry[] newEntries = new Entry[newKeys.length];
+        int k = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (entries[i].id() != id) {
+                newKeys[k] = keys[i];
+                newEntries[k++] = entries[i];
+            }
+        }
+        return new NameIndex(newKeys, newEntries);
+    }
+
+    /**
+     * Находит названия, одно из слов которых (вместе с последующими) начинается с префикса.
+     *
+     * @param prefix Префикс в произвольном регистре.
+     * @param limit  Максимальное количество подсказок.
+     * @return Подсказки в порядке убывания популярности, при равной популярности — по алфавиту.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Ключи с префиксом лежат до префикса, дополненного символом, которого нет в нормализованных ключах
+        PriorityQueue<Range> ranges = new PriorityQueue<>(
+                (a, b) -> RANKING.compare(entries[b.position()], entries[a.position()]));
+        push(ranges, lowerBound(normalized), lowerBound(normalized + Character.MAX_VALUE));
+        List<Entry> result = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        while (!ranges.isEmpty() && result.size() < limit) {
+            Range range = ranges.poll();
+            Entry entry = entries[range.position()];
+            if (seen.add(entry.id())) {
+                // Остальные ключи того же названия отбрасываются, их не больше числа слов в названии
+                result.add(entry);
+            }
+            push(ranges, range.from(), range.position());
+            push(ranges, range.position() + 1, range.to());
+        }
+        return result;
+    }
+
+    /**
+     * Диапазон ключей [from, to) с позицией лучшего ключа.
+     */
+    private record Range(int from, int to, int position) {
+    }
+
+    private void push(PriorityQueue<Range> ranges, int from, int to) {
+        if (from < to) {
+            ranges.add(new Range(from, to, bestIn(from, to)));
+        }
+    }
+
+    /**
+     * Позиция лучшего ключа в диапазоне [from, to) за O(log n).
+     */
+    private int bestIn(int from, int to) {
+        int result = -1;
+        for (int l = from + keys.length, r = to + keys.length; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                result = better(result, best[l++]);
+            }
+            if ((r & 1) == 1) {
+                result = better(result, best[--r]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Позиция ключа, название которого выше в подсказках; -1 означает отсутствие ключа.
+     */
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return RANKING.compare(entries[a], entries[b]) >= 0 ? a : b;
+    }
+
+    /**
+     * Индекс первого ключа, не меньшего заданного.
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,78 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемый массив, разбитый на страницы фиксированного размера.
+ * <p>
+ * Изменение элемента или добавление в конец копирует только каталог страниц
+ * и одну затронутую страницу, а остальные страницы разделяются с исходным массивом.
+ * Это позволяет публиковать новые версии индекса после каждой записи,
+ * не копируя весь каталог.
+ * </p>
+ *
+ * @param <T> Тип элементов.
+ */
+final class PagedArray<T> {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final Object[][] pages;
+    private final int size;
+
+    private PagedArray(Object[][] pages, int size) {
+        this.pages = pages;
+        this.size = size;
+    }
+
+    /**
+     * Создает массив из готовых элементов.
+     *
+     * @param elements Элементы.
+     * @param <T>      Тип элементов.
+     * @return Массив.
+     */
+    static <T> PagedArray<T> of(T[] elements) {
+        int pageCount = (elements.length + PAGE_SIZE - 1) >>> PAGE_BITS;
+        Object[][] pages = new Object[pageCount][];
+        for (int i = 0; i < pageCount; i++) {
+            int from = i << PAGE_BITS;
+            pages[i] = Arrays.copyOfRange(elements, from, from + PAGE_SIZE, Object[].class);
+        }
+        return new PagedArray<>(pages, elements.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        return (T) pages[index >>> PAGE_BITS][index & PAGE_MASK];
+    }
+
+    /**
+     * Возвращает новый массив с замененным элементом.
+     */
+    PagedArray<T> set(int index, T element) {
+        Object[][] newPages = pages.clone();
+        Object[] page = newPages[index >>> PAGE_BITS].clone();
+        page[index & PAGE_MASK] = element;
+        newPages[index >>> PAGE_BITS] = page;
+        return new PagedArray<>(newPages, size);
+    }
+
+    /**
+     * Возвращает новый массив с элементом, добавленным в конец.
+     */
+    PagedArray<T> append(T element) {
+        int pageIndex = size >>> PAGE_BITS;
+        Object[][] newPages = pageIndex < pages.length ? pages.clone() : Arrays.copyOf(pages, pageIndex + 1);
+        Object[] page = pageIndex < pages.length ? newPages[pageIndex].clone() : new Object[PAGE_SIZE];
+        page[size & PAGE_MASK] = element;
+        newPages[pageIndex] = page;
+        return new PagedArray<>(newPages, size + 1);
+    }
+}
@@ -0,0 +1,146 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU-кэш результатов подбора рецептов по сохраненным наборам продуктов пользователей.
+ * <p>
+ * Запись хранит отсортированные идентификаторы продуктов набора, по которому вычислен результат,
+ * поэтому при изменении каталога удаляются только записи, набор которых пересекается с затронутыми
+ * продуктами (см. {@link RecipeIndex#productsAffectedByRecipe(RecipeIndex, long)}). Остальные
+ * записи продолжают обслуживать запросы без повторного подбора.
+ * </p>
+ * <p>
+ * Каждое удаление увеличивает поколение кэша. Результат сохраняется, только если поколение не
+ * изменилось с начала его вычисления, поэтому результат, вычисленный по устаревшему набору или
+ * версии индекса, не может попасть в кэш после удаления, которое должно было его затронуть.
+ * </p>
+ *
+ * @param <V> Тип результата подбора.
+ */
+public final class PantryMatchCache<V> {
+
+    private final Map<Long, Entry<V>> entries;
+    private long generation;
+
+    /**
+     * Результат подбора по набору продуктов.
+     *
+     * @param productIds Идентификаторы продуктов набора в порядке возрастания без повторов.
+     * @param limit      Количество рецептов, для которого вычислен результат.
+     * @param value      Результат подбора.
+     */
+    private record Entry<V>(long[] productIds, int limit, V value) {
+    }
+
+    /**
+     * @param capacity Максимальное количество хранимых результатов.
+     */
+    public PantryMatchCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return Текущее поколение кэша; его нужно прочитать до чтения набора продуктов и индекса.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Возвращает сохраненный результат, если он вычислен не менее чем для limit рецептов.
+     *
+     * @param ownerId Идентификатор владельца набора.
+     * @param limit   Требуемое количество рецептов.
+     * @return Результат или null.
+     */
+    public synchronized V get(long ownerId, int limit) {
+        Entry<V> entry = entries.get(ownerId);
+        return entry != null && entry.limit() >= limit ? entry.value() : null;
+    }
+
+    /**
+     * Сохраняет результат, если с начала его вычисления ни одна запись не удалялась.
+     *
+     * @param ownerId    Идентификатор владельца набора.
+     * @param productIds Идентификаторы продуктов набора.
+     * @param limit      Количество рецептов, для которого вычислен результат.
+     * @param value      Результат подбора.
+     * @param generation Поколение кэша, прочитанное до начала вычисления.
+     * @return true, если результат сохранен.
+     */
+    public synchronized boolean put(long ownerId, Collection<Long> productIds, int limit, V value, long generation) {
+        if (generation != this.generation) {
+            return false;
+        }
+        long[] sorted = productIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        entries.put(ownerId, new Entry<>(sorted, limit, value));
+        return true;
+    }
+
+    /**
+     * Удаляет результат владельца после изменения его набора продуктов.
+     *
+     * @param ownerId Идентификатор владельца набора.
+     */
+    public synchronized void invalidate(long ownerId) {
+        generation++;
+        entries.remove(ownerId);
+    }
+
+    /**
+     * Удаляет результаты, набор продуктов которых содержит хотя бы один из продуктов.
+     *
+     * @param productIds Идентификаторы затронутых продуктов в порядке возрастания.
+     * @return Количество удаленных результатов.
+     */
+    public synchronized int invalidate(long[] productIds) {
+        generation++;
+        int removed = 0;
+        for (Iterator<Entry<V>> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            if (intersects(iterator.next().productIds(), productIds)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Удаляет все результаты, например после полного перестроения индекса.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * @return Количество хранимых результатов.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
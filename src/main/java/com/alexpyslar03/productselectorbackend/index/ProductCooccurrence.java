@@ -0,0 +1,284 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемая разреженная матрица совместной встречаемости продуктов в рецептах.
+ * <p>
+ * Для каждого продукта хранится количество рецептов с ним и отсортированная строка
+ * «другой продукт — количество общих рецептов». Кандидаты для набора продуктов пользователя
+ * оцениваются суммой косинусных мер по всем продуктам набора:
+ * общие рецепты / sqrt(рецепты первого продукта * рецепты второго продукта).
+ * Нормировка не дает повсеместным продуктам вроде соли занимать верх списка
+ * только за счет частоты.
+ * </p>
+ * <p>
+ * Изменение создает новую версию матрицы: пересчитываются только строки продуктов
+ * измененных рецептов, остальные строки разделяются с исходной версией.
+ * </p>
+ */
+public final class ProductCooccurrence {
+
+    /**
+     * Предлагаемый продукт.
+     *
+     * @param productId Идентификатор продукта.
+     * @param score     Суммарная косинусная мера совместной встречаемости с продуктами набора.
+     */
+    public record Suggestion(long productId, double score) {
+    }
+
+    /**
+     * Строка матрицы.
+     *
+     * @param recipeCount Количество рецептов с продуктом.
+     * @param others      Отсортированные идентификаторы продуктов, встречающихся вместе с ним.
+     * @param counts      Количество общих рецептов для каждого из них.
+     */
+    private record Row(int recipeCount, long[] others, int[] counts) {
+    }
+
+    private static final ProductCooccurrence EMPTY = new ProductCooccurrence(Map.of(), Map.of());
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingDouble(Suggestion::score).reversed()
+            .thenComparingLong(Suggestion::productId);
+
+    private final Map<Long, long[]> recipes;
+    private final Map<Long, Row> rows;
+
+    private ProductCooccurrence(Map<Long, long[]> recipes, Map<Long, Row> rows) {
+        this.recipes = recipes;
+        this.rows = rows;
+    }
+
+    /**
+     * @return Пустая матрица.
+     */
+    public static ProductCooccurrence empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит матрицу по наборам продуктов рецептов.
+     *
+     * @param recipes Идентификаторы продуктов по идентификаторам рецептов.
+     * @return Матрица.
+     */
+    public static ProductCooccurrence build(Map<Long, ? extends Collection<Long>> recipes) {
+        return EMPTY.withRecipes(recipes);
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        return ids.stream().filter(id -> id != null).mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * @return Количество продуктов, встречающихся хотя бы в одном рецепте.
+     */
+    public int productCount() {
+        return rows.size();
+    }
+
+    /**
+     * Возвращает количество рецептов, в которых продукты встречаются вместе.
+     *
+     * @param productId Идентификатор первого продукта.
+     * @param otherId   Идентификатор второго продукта.
+     * @return Количество общих рецептов.
+     */
+    public int count(long productId, long otherId) {
+        Row row = rows.get(productId);
+        if (row == null) {
+            return 0;
+        }
+        int position = Arrays.binarySearch(row.others(), otherId);
+        return position < 0 ? 0 : row.counts()[position];
+    }
+
+    /**
+     * Возвращает версию матрицы с добавленным или замененным набором продуктов рецепта.
+     *
+     * @param recipeId   Идентификатор рецепта.
+     * @param productIds Идентификаторы продуктов; пустой набор удаляет рецепт.
+     * @return Новая версия матрицы.
+     */
+    public ProductCooccurrence withRecipe(long recipeId, Collection<Long> productIds) {
+        return withRecipes(Map.of(recipeId, productIds));
+    }
+
+    /**
+     * Возвращает версию матрицы без рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Новая версия матрицы (или эта же, если рецепт не учтен).
+     */
+    public ProductCooccurrence withoutRecipe(long recipeId) {
+        return recipes.containsKey(recipeId) ? withRecipes(Map.of(recipeId, List.of())) : this;
+    }
+
+    /**
+     * Возвращает версию матрицы после изменения связей продукта.
+     *
+     * @param productId Идентификатор продукта.
+     * @param recipeIds Идентификаторы всех рецептов, в которых теперь используется продукт.
+     * @return Новая версия матрицы.
+     */
+    public ProductCooccurrence withProduct(long productId, Collection<Long> recipeIds) {
+        Set<Long> linked = new HashSet<>(recipeIds);
+        Map<Long, List<Long>> changed = new HashMap<>();
+        for (Long recipeId : linked) {
+            long[] current = recipes.getOrDefault(recipeId, new long[0]);
+            if (Arrays.binarySearch(current, productId) < 0) {
+                List<Long> updated = new ArrayList<>(current.length + 1);
+                Arrays.stream(current).forEach(updated::add);
+                updated.add(productId);
+                changed.put(recipeId, updated);
+            }
+        }
+        // Изменения продуктов редки, поэтому рецепты, из которых продукт удален, ищутся перебором
+        recipes.forEach((recipeId, productIds) -> {
+            if (!linked.contains(recipeId) && Arrays.binarySearch(productIds, productId) >= 0) {
+                List<Long> updated = new ArrayList<>(productIds.length);
+                Arrays.stream(productIds).filter(id -> id != productId).forEach(updated::add);
+                changed.put(recipeId, updated);
+            }
+        });
+        return changed.isEmpty() ? this : withRecipes(changed);
+    }
+
+    /**
+     * Возвращает версию матрицы, в которой продукт удален из всех рецептов.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Новая версия матрицы.
+     */
+    public ProductCooccurrence withoutProduct(long productId) {
+        return withProduct(productId, List.of());
+    }
+
+    /**
+     * Заменяет наборы продуктов нескольких рецептов: изменения счетчиков накапливаются
+     * по затронутым продуктам и применяются к их строкам слиянием.
+     */
+    private ProductCooccurrence withRecipes(Map<Long, ? extends Collection<Long>> changes) {
+        Map<Long, long[]> newRecipes = new HashMap<>(recipes);
+        Map<Long, Map<Long, int[]>> deltas = new HashMap<>();
+        Map<Long, int[]> recipeCountDeltas = new HashMap<>();
+        for (Map.Entry<Long, ? extends Collection<Long>> change : changes.entrySet()) {
+            long[] productIds = toSortedArray(change.getValue());
+            long[] previous = productIds.length > 0
+                    ? newRecipes.put(change.getKey(), productIds)
+                    : newRecipes.remove(change.getKey());
+            if (previous != null) {
+                accumulate(previous, -1, deltas, recipeCountDeltas);
+            }
+            accumulate(productIds, 1, deltas, recipeCountDeltas);
+        }
+
+        Map<Long, Row> newRows = new HashMap<>(rows);
+        recipeCountDeltas.forEach((productId, delta) -> {
+            Row row = rows.get(productId);
+            int recipeCount = (row == null ? 0 : row.recipeCount()) + delta[0];
+            Row updated = merge(row, recipeCount, deltas.getOrDefault(productId, Map.of()));
+            if (updated == null) {
+                newRows.remove(productId);
+            } else {
+                newRows.put(productId, updated);
+            }
+        });
+        return new ProductCooccurrence(newRecipes, newRows);
+    }
+
+    private static void accumulate(long[] productIds, int sign, Map<Long, Map<Long, int[]>> deltas,
+                                   Map<Long, int[]> recipeCountDeltas) {
+        for (long productId : productIds) {
+            recipeCountDeltas.computeIfAbsent(productId, id -> new int[1])[0] += sign;
+            if (productIds.length > 1) {
+                Map<Long, int[]> row = deltas.computeIfAbsent(productId, id -> new HashMap<>());
+                for (long otherId : productIds) {
+                    if (otherId != productId) {
+                        row.computeIfAbsent(otherId, id -> new int[1])[0] += sign;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Применяет изменения счетчиков к строке.
+     *
+     * @return Новая строка или null, если продукт больше не встречается ни в одном рецепте.
+     */
+    private static Row merge(Row row, int recipeCount, Map<Long, int[]> delta) {
+        if (recipeCount <= 0) {
+            return null;
+        }
+        long[] others = row == null ? new long[0] : row.others();
+        int[] counts = row == null ? new int[0] : row.counts();
+        if (delta.isEmpty()) {
+            return new Row(recipeCount, others, counts);
+        }
+        long[] changedIds = delta.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] newOthers = new long[others.length + changedIds.length];
+        int[] newCounts = new int[newOthers.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < others.length || j < changedIds.length) {
+            long otherId;
+            int count;
+            if (j >= changedIds.length || (i < others.length && others[i] < changedIds[j])) {
+                otherId = others[i];
+                count = counts[i++];
+            } else if (i >= others.length || changedIds[j] < others[i]) {
+                otherId = changedIds[j];
+                count = delta.get(changedIds[j++])[0];
+            } else {
+                otherId = others[i];
+                count = counts[i++] + delta.get(changedIds[j++])[0];
+            }
+            if (count > 0) {
+                newOthers[size] = otherId;
+                newCounts[size++] = count;
+            }
+        }
+        return new Row(recipeCount, Arrays.copyOf(newOthers, size), Arrays.copyOf(newCounts, size));
+    }
+
+    /**
+     * Предлагает продукты, чаще всего встречающиеся в рецептах вместе с набором продуктов.
+     *
+     * @param productIds Набор продуктов пользователя.
+     * @param limit      Максимальное количество предложений.
+     * @return Продукты не из набора по убыванию оценки.
+     */
+    public List<Suggestion> suggest(Collection<Long> productIds, int limit) {
+        Set<Long> pantry = new HashSet<>(productIds);
+        Map<Long, double[]> scores = new HashMap<>();
+        for (Long productId : pantry) {
+            Row row = productId == null ? null : rows.get(productId);
+            if (row == null) {
+                continue;
+            }
+            for (int i = 0; i < row.others().length; i++) {
+                long otherId = row.others()[i];
+                if (!pantry.contains(otherId)) {
+                    double norm = Math.sqrt((double) row.recipeCount() * rows.get(otherId).recipeCount());
+                    scores.computeIfAbsent(otherId, id -> new double[1])[0] += row.counts()[i] / norm;
+                }
+            }
+        }
+        List<Suggestion> suggestions = new ArrayList<>(scores.size());
+        scores.forEach((productId, score) -> suggestions.add(new Suggestion(productId, score[0])));
+        suggestions.sort(RANKING);
+        return suggestions.size() > limit ? List.copyOf(suggestions.subList(0, limit)) : suggestions;
+    }
+}
@@ -0,0 +1,206 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накопитель оценок рецептов пользователями.
+ * <p>
+ * Сумма и количество оценок каждого рецепта хранятся в {@link LongAdder}, поэтому одновременные
+ * оценки популярного рецепта не конкурируют за одну блокировку ни в памяти, ни в базе данных.
+ * Еще не сохраненные оценки хранятся по паре (рецепт, пользователь): повторная оценка до
+ * сохранения заменяет предыдущую, и в базу данных записывается только последняя.
+ * </p>
+ * <p>
+ * Новая оценка сразу учитывается как первая оценка пользователя. Если в базе данных уже есть
+ * оценка этого пользователя, при сохранении она вычитается через {@link #correct}, поэтому
+ * итоги точны после каждого сохранения, а между сохранениями могут учитывать повторную оценку
+ * пользователя дважды.
+ * </p>
+ */
+public final class RatingAccumulator {
+
+    /**
+     * Минимальная оценка.
+     */
+    public static final int MIN_RATING = 1;
+
+    /**
+     * Максимальная оценка.
+     */
+    public static final int MAX_RATING = RecipeIndex.MAX_RATING;
+
+    /**
+     * Оценка рецепта пользователем.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @param userId   Идентификатор пользователя.
+     * @param value    Оценка.
+     */
+    public record Vote(long recipeId, long userId, int value) {
+    }
+
+    private record Key(long recipeId, long userId) {
+    }
+
+    private static final class Totals {
+        private final LongAdder sum = new LongAdder();
+        private final LongAdder count = new LongAdder();
+
+        private void add(long sumDelta, long countDelta) {
+            if (sumDelta != 0) {
+                sum.add(sumDelta);
+            }
+            if (countDelta != 0) {
+                count.add(countDelta);
+            }
+        }
+    }
+
+    private final Map<Long, Totals> totals = new ConcurrentHashMap<>();
+    private final Map<Key, Integer> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Добавляет сохраненные в базе данных итоги рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @param sum      Сумма оценок.
+     * @param count    Количество оценок.
+     */
+    public void load(long recipeId, long sum, long count) {
+        totals(recipeId).add(sum, count);
+    }
+
+    /**
+     * Учитывает оценку рецепта пользователем.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @param userId   Идентификатор пользователя.
+     * @param value    Оценка от {@link #MIN_RATING} до {@link #MAX_RATING}.
+     * @throws IllegalArgumentException если оценка вне допустимого диапазона.
+     */
+    public void vote(long recipeId, long userId, int value) {
+        if (value < MIN_RATING || value > MAX_RATING) {
+            throw new IllegalArgumentException(String.format("Оценка должна быть от %d до %d.", MIN_RATING, MAX_RATING));
+        }
+        Integer previous = pending.put(new Key(recipeId, userId), value);
+        if (previous == null) {
+            totals(recipeId).add(value, 1);
+        } else {
+            totals(recipeId).add(value - previous, 0);
+        }
+    }
+
+    /**
+     * Извлекает несохраненные оценки для записи в базу данных.
+     * Оценка, измененная во время извлечения, остается и будет извлечена при следующем вызове.
+     *
+     * @param limit Максимальное количество оценок.
+     * @return Извлеченные оценки.
+     */
+    public List<Vote> drain(int limit) {
+        List<Vote> votes = new ArrayList<>(Math.min(limit, pending.size()));
+        Iterator<Map.Entry<Key, Integer>> iterator = pending.entrySet().iterator();
+        while (votes.size() < limit && iterator.hasNext()) {
+            Map.Entry<Key, Integer> entry = iterator.next();
+            Key key = entry.getKey();
+            Integer value = entry.getValue();
+            if (pending.remove(key, value)) {
+                votes.add(new Vote(key.recipeId(), key.userId(), value));
+            }
+        }
+        return votes;
+    }
+
+    /**
+     * Возвращает извлеченные оценки, которые не удалось сохранить.
+     * Если пользователь успел оценить рецепт заново, остается новая оценка, а возвращаемая вычитается из итогов.
+     *
+     * @param votes Извлеченные оценки.
+     */
+    public void restore(List<Vote> votes) {
+        for (Vote vote : votes) {
+            if (pending.putIfAbsent(new Key(vote.recipeId(), vote.userId()), vote.value()) != null) {
+                correct(vote.recipeId(), vote.value(), 1);
+            }
+        }
+    }
+
+    /**
+     * Вычитает из итогов рецепта оценки, замененные или отброшенные при сохранении.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @param sum      Сумма вычитаемых оценок.
+     * @param count    Количество вычитаемых оценок.
+     */
+    public void correct(long recipeId, long sum, long count) {
+        Totals recipeTotals = totals.get(recipeId);
+        if (recipeTotals != null) {
+            recipeTotals.add(-sum, -count);
+        }
+    }
+
+    /**
+     * Удаляет итоги и несохраненные оценки рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     */
+    public void removeRecipe(long recipeId) {
+        totals.remove(recipeId);
+        pending.keySet().removeIf(key -> key.recipeId() == recipeId);
+    }
+
+    /**
+     * Удаляет все итоги и несохраненные оценки.
+     */
+    public void clear() {
+        totals.clear();
+        pending.clear();
+    }
+
+    /**
+     * Возвращает количество оценок рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Количество оценок.
+     */
+    public long count(long recipeId) {
+        Totals recipeTotals = totals.get(recipeId);
+        return recipeTotals == null ? 0 : Math.max(0, recipeTotals.count.sum());
+    }
+
+    /**
+     * Возвращает среднюю оценку рецепта без блокировок. Сумма и количество читаются
+     * не атомарно, поэтому при одновременных оценках результат ограничивается допустимым диапазоном.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Средняя оценка или 0, если оценок нет.
+     */
+    public double average(long recipeId) {
+        Totals recipeTotals = totals.get(recipeId);
+        if (recipeTotals == null) {
+            return 0;
+        }
+        long count = recipeTotals.count.sum();
+        if (count <= 0) {
+            return 0;
+        }
+        double average = (double) recipeTotals.sum.sum() / count;
+        return Math.max(MIN_RATING, Math.min(MAX_RATING, average));
+    }
+
+    /**
+     * @return Количество несохраненных оценок.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private Totals totals(long recipeId) {
+        return totals.computeIfAbsent(recipeId, id -> new Totals());
+    }
+}
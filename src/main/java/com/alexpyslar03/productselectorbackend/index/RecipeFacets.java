@@ -0,0 +1,193 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Предвычисленные множества рецептов для каждого значения атрибута: веганские рецепты,
+ * уровни сложности и рейтинг от 0 (без рейтинга) до {@link RecipeIndex#MAX_RATING}.
+ * <p>
+ * Каждый рецепт, кроме удаленных, входит ровно в одно множество рейтинга, поэтому их
+ * объединение дает все действующие рецепты. Фильтр сводится к OR/AND этих множеств,
+ * а подсчет значений атрибутов для результата — к мощностям пересечений.
+ * </p>
+ */
+final class RecipeFacets {
+
+    private static final Recipe.DifficultyLevel[] LEVELS = Recipe.DifficultyLevel.values();
+
+    private final RoaringBitmap vegan;
+    private final RoaringBitmap[] difficultyLevels;
+    private final RoaringBitmap[] ratings;
+
+    private RecipeFacets(RoaringBitmap vegan, RoaringBitmap[] difficultyLevels, RoaringBitmap[] ratings) {
+        this.vegan = vegan;
+        this.difficultyLevels = difficultyLevels;
+        this.ratings = ratings;
+    }
+
+    /**
+     * Строит множества по атрибутам рецептов, перечисленных в порядке порядковых номеров.
+     *
+     * @param vegan            Признаки веганских рецептов.
+     * @param difficultyLevels Уровни сложности (-1, если не заданы).
+     * @param ratings          Рейтинги от 0 до {@link RecipeIndex#MAX_RATING}.
+     * @return Множества атрибутов.
+     */
+    static RecipeFacets build(boolean[] vegan, byte[] difficultyLevels, byte[] ratings) {
+        int size = ratings.length;
+        RoaringBitmap veganSet = fromOrdinals(size, ordinal -> vegan[ordinal]);
+        RoaringBitmap[] levelSets = new RoaringBitmap[LEVELS.length];
+        for (int level = 0; level < levelSets.length; level++) {
+            int value = level;
+            levelSets[level] = fromOrdinals(size, ordinal -> difficultyLevels[ordinal] == value);
+        }
+        RoaringBitmap[] ratingSets = new RoaringBitmap[RecipeIndex.MAX_RATING + 1];
+        for (int rating = 0; rating < ratingSets.length; rating++) {
+            int value = rating;
+            ratingSets[rating] = fromOrdinals(size, ordinal -> ratings[ordinal] == value);
+        }
+        return new RecipeFacets(veganSet, levelSets, ratingSets);
+    }
+
+    private static RoaringBitmap fromOrdinals(int size, IntPredicate predicate) {
+        int[] values = new int[size];
+        int length = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (predicate.test(ordinal)) {
+                values[length++] = ordinal;
+            }
+        }
+        return RoaringBitmap.fromSorted(values, length);
+    }
+
+    /**
+     * Возвращает множества с добавленным рецептом.
+     */
+    RecipeFacets with(int ordinal, boolean isVegan, int difficultyLevel, int rating) {
+        RoaringBitmap[] levelSets = difficultyLevels;
+        if (difficultyLevel >= 0) {
+            levelSets = difficultyLevels.clone();
+            levelSets[difficultyLevel] = levelSets[difficultyLevel].add(ordinal);
+        }
+        RoaringBitmap[] ratingSets = ratings.clone();
+        ratingSets[rating] = ratingSets[rating].add(ordinal);
+        return new RecipeFacets(isVegan ? vegan.add(ordinal) : vegan, levelSets, ratingSets);
+    }
+
+    /**
+     * Возвращает множества без рецепта.
+     */
+    RecipeFacets without(int ordinal, boolean isVegan, int difficultyLevel, int rating) {
+        RoaringBitmap[] levelSets = difficultyLevels;
+        if (difficultyLevel >= 0) {
+            levelSets = difficultyLevels.clone();
+            levelSets[difficultyLevel] = levelSets[difficultyLevel].remove(ordinal);
+        }
+        RoaringBitmap[] ratingSets = ratings.clone();
+        ratingSets[rating] = ratingSets[rating].remove(ordinal);
+        return new RecipeFacets(isVegan ? vegan.remove(ordinal) : vegan, levelSets, ratingSets);
+    }
+
+    /**
+     * @return Веганские рецепты.
+     */
+    RoaringBitmap vegan() {
+        return vegan;
+    }
+
+    /**
+     * @param level Уровень сложности.
+     * @return Рецепты с указанным уровнем сложности.
+     */
+    RoaringBitmap difficultyLevel(Recipe.DifficultyLevel level) {
+        return difficultyLevels[level.ordinal()];
+    }
+
+    /**
+     * @param rating Рейтинг от 0 (без рейтинга) до {@link RecipeIndex#MAX_RATING}.
+     * @return Рецепты с указанным рейтингом.
+     */
+    RoaringBitmap rating(int rating) {
+        return ratings[rating];
+    }
+
+    /**
+     * @return Все действующие рецепты (объединение множеств рейтинга).
+     */
+    RoaringBitmap live() {
+        RoaringBitmap live = RoaringBitmap.empty();
+        for (RoaringBitmap rating : ratings) {
+            live = live.or(rating);
+        }
+        return live;
+    }
+
+    /**
+     * Строит плотное множество рецептов, удовлетворяющих фильтру.
+     *
+     * @param filter Фильтр.
+     * @param size   Количество рецептов в индексе.
+     * @return Множество рецептов.
+     */
+    DenseBitSet mask(RecipeFilter filter, int size) {
+        DenseBitSet mask = new DenseBitSet(size);
+        int minRating = filter.minRating() == null ? 0 : Math.max(0, filter.minRating());
+        for (int rating = minRating; rating < ratings.length; rating++) {
+            ratings[rating].orInto(mask);
+        }
+        if (filter.difficultyLevels() != null && !filter.difficultyLevels().isEmpty()) {
+            DenseBitSet levels = new DenseBitSet(size);
+            for (Recipe.DifficultyLevel level : filter.difficultyLevels()) {
+                difficultyLevels[level.ordinal()].orInto(levels);
+            }
+            mask.and(levels);
+        }
+        if (filter.vegan() != null) {
+            DenseBitSet veganSet = new DenseBitSet(size);
+            vegan.orInto(veganSet);
+            if (filter.vegan()) {
+                mask.and(veganSet);
+            } else {
+                mask.andNot(veganSet);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Подсчитывает рецепты множества по значениям атрибутов.
+     *
+     * @param recipes Множество рецептов.
+     * @return Количество рецептов по значениям атрибутов.
+     */
+    FacetCounts counts(DenseBitSet recipes) {
+        Map<Recipe.DifficultyLevel, Integer> levelCounts = new EnumMap<>(Recipe.DifficultyLevel.class);
+        for (Recipe.DifficultyLevel level : LEVELS) {
+            levelCounts.put(level, difficultyLevels[level.ordinal()].andCardinality(recipes));
+        }
+        Map<Integer, Integer> ratingCounts = new LinkedHashMap<>();
+        for (int rating = 0; rating < ratings.length; rating++) {
+            ratingCounts.put(rating, ratings[rating].andCardinality(recipes));
+        }
+        return new FacetCounts(recipes.cardinality(), vegan.andCardinality(recipes), levelCounts, ratingCounts);
+    }
+
+    /**
+     * @return Оценка занимаемой памяти в байтах.
+     */
+    long sizeInBytes() {
+        long size = vegan.sizeInBytes();
+        for (RoaringBitmap set : difficultyLevels) {
+            size += set.sizeInBytes();
+        }
+        for (RoaringBitmap set : ratings) {
+            size += set.sizeInBytes();
+        }
+        return size;
+    }
+}
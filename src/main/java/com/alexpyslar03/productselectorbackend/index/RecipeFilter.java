@@ -0,0 +1,50 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+import java.util.Set;
+
+/**
+ * Фильтр рецептов по атрибутам и исключаемым продуктам. Незаданные (null или пустые) условия не ограничивают выборку.
+ *
+ * @param vegan              Требуемое значение признака веганского рецепта.
+ * @param difficultyLevels   Допустимые уровни сложности.
+ * @param minRating          Минимальный рейтинг; рецепты без рейтинга при заданном условии исключаются.
+ * @param excludedProductIds Идентификаторы продуктов, рецепты с которыми исключаются (например, аллергены).
+ */
+public record RecipeFilter(Boolean vegan, Set<Recipe.DifficultyLevel> difficultyLevels, Integer minRating,
+                           Set<Long> excludedProductIds) {
+
+    /**
+     * Фильтр без условий.
+     */
+    public static final RecipeFilter NONE = new RecipeFilter(null, null, null, null);
+
+    /**
+     * Фильтр только по атрибутам рецептов.
+     */
+    public RecipeFilter(Boolean vegan, Set<Recipe.DifficultyLevel> difficultyLevels, Integer minRating) {
+        this(vegan, difficultyLevels, minRating, null);
+    }
+
+    /**
+     * @return true, если ни одно условие не задано.
+     */
+    public boolean isEmpty() {
+        return !hasAttributeConditions() && !hasExclusions();
+    }
+
+    /**
+     * @return true, если задано хотя бы одно условие по атрибутам рецептов.
+     */
+    public boolean hasAttributeConditions() {
+        return vegan != null || (difficultyLevels != null && !difficultyLevels.isEmpty()) || minRating != null;
+    }
+
+    /**
+     * @return true, если заданы исключаемые продукты.
+     */
+    public boolean hasExclusions() {
+        return excludedProductIds != null && !excludedProductIds.isEmpty();
+    }
+}
@@ -0,0 +1,660 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Неизменяемый инвертированный индекс связей продуктов и рецептов.
+ * <p>
+ * Рецепты и продукты нумеруются порядковыми номерами (ordinal) в порядке
+ * возрастания их идентификаторов. Для каждого продукта хранится сжатое битовое
+ * множество рецептов, в которых он используется, а для каждого рецепта —
+ * сжатое битовое множество требуемых продуктов. Запрос по набору продуктов
+ * сводится к пословным операциям OR/AND/ANDNOT над этими множествами.
+ * </p>
+ * <p>
+ * Изменения каталога применяются методами with/without, которые возвращают новую
+ * версию индекса и разделяют с исходной все незатронутые данные. Удаленные рецепты
+ * и продукты сохраняют свой порядковый номер с пустым множеством связей до следующего
+ * полного перестроения.
+ * </p>
+ * <p>
+ * Для фильтрации по атрибутам рецептов (веганский, сложность, рейтинг) индекс хранит
+ * предвычисленные множества рецептов для каждого значения атрибута (см. {@link RecipeFacets}).
+ * </p>
+ */
+public final class RecipeIndex {
+
+    /**
+     * Максимальное значение рейтинга рецепта.
+     */
+    public static final int MAX_RATING = 5;
+
+    private final PagedArray<RecipeEntry> recipes;
+    private final PagedArray<ProductEntry> products;
+    private final RecipeFacets facets;
+    private final int tombstones;
+
+    /**
+     * Рецепт в индексе: идентификатор, атрибуты и множество порядковых номеров продуктов.
+     * Уровень сложности хранится как порядковый номер значения перечисления (-1, если не задан).
+     */
+    private record RecipeEntry(long id, byte rating, boolean vegan, byte difficultyLevel,
+                               RoaringBitmap products, int required) {
+
+        RecipeEntry(long id, byte rating, boolean vegan, byte difficultyLevel, RoaringBitmap products) {
+            this(id, rating, vegan, difficultyLevel, products, products.cardinality());
+        }
+
+        RecipeEntry withProducts(RoaringBitmap newProducts) {
+            return new RecipeEntry(id, rating, vegan, difficultyLevel, newProducts);
+        }
+    }
+
+    /**
+     * Продукт в индексе: идентификатор и множество порядковых номеров рецептов.
+     */
+    private record ProductEntry(long id, RoaringBitmap recipes) {
+    }
+
+    private RecipeIndex(PagedArray<RecipeEntry> recipes, PagedArray<ProductEntry> products, RecipeFacets facets,
+                        int tombstones) {
+        this.recipes = recipes;
+        this.products = products;
+        this.facets = facets;
+        this.tombstones = tombstones;
+    }
+
+    /**
+     * Строит индекс по атрибутам рецептов, идентификаторам продуктов и их связям.
+     *
+     * @param recipes    Атрибуты всех рецептов.
+     * @param productIds Идентификаторы всех продуктов.
+     * @param links      Связи продуктов и рецептов.
+     * @return Построенный индекс.
+     */
+    public static RecipeIndex build(Collection<? extends RecipeAttributes> recipes, Collection<Long> productIds,
+                                    Collection<? extends ProductRecipeLink> links) {
+        long[] sortedRecipeIds = toSortedArray(recipes.stream().map(RecipeAttributes::getId).toList());
+        long[] sortedProductIds = toSortedArray(productIds);
+
+        byte[] ratings = new byte[sortedRecipeIds.length];
+        boolean[] vegan = new boolean[sortedRecipeIds.length];
+        byte[] difficultyLevels = new byte[sortedRecipeIds.length];
+        for (RecipeAttributes recipe : recipes) {
+            int ordinal = Arrays.binarySearch(sortedRecipeIds, recipe.getId());
+            ratings[ordinal] = toRating(recipe.getRating());
+            vegan[ordinal] = Boolean.TRUE.equals(recipe.getVegan());
+            difficultyLevels[ordinal] = toDifficultyLevel(recipe.getDifficultyLevel());
+        }
+
+        List<int[]> pairs = new ArrayList<>(links.size());
+        for (ProductRecipeLink link : links) {
+            int recipe = Arrays.binarySearch(sortedRecipeIds, link.getRecipeId());
+            int product = Arrays.binarySearch(sortedProductIds, link.getProductId());
+            if (recipe >= 0 && product >= 0) {
+                pairs.add(new int[]{product, recipe});
+            }
+        }
+        RoaringBitmap[] recipesByProduct = adjacency(sortedProductIds.length, pairs, 0);
+        RoaringBitmap[] productsByRecipe = adjacency(sortedRecipeIds.length, pairs, 1);
+
+        RecipeEntry[] recipeEntries = new RecipeEntry[sortedRecipeIds.length];
+        for (int i = 0; i < recipeEntries.length; i++) {
+            recipeEntries[i] = new RecipeEntry(sortedRecipeIds[i], ratings[i], vegan[i], difficultyLevels[i],
+                    productsByRecipe[i]);
+        }
+        ProductEntry[] productEntries = new ProductEntry[sortedProductIds.length];
+        for (int i = 0; i < productEntries.length; i++) {
+            productEntries[i] = new ProductEntry(sortedProductIds[i], recipesByProduct[i]);
+        }
+        return new RecipeIndex(PagedArray.of(recipeEntries), PagedArray.of(productEntries),
+                RecipeFacets.build(vegan, difficultyLevels, ratings), 0);
+    }
+
+    /**
+     * Строит списки смежности: для каждой вершины — сжатое множество соседей.
+     * Пары раскладываются подсчетом по вершинам, после чего соседи каждой вершины сортируются.
+     *
+     * @param size   Количество вершин.
+     * @param pairs  Пары порядковых номеров (продукт, рецепт).
+     * @param source Индекс элемента пары, задающего вершину (0 — продукт, 1 — рецепт).
+     */
+    private static RoaringBitmap[] adjacency(int size, List<int[]> pairs, int source) {
+        int[] offsets = new int[size + 1];
+        for (int[] pair : pairs) {
+            offsets[pair[source] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] neighbours = new int[pairs.size()];
+        int[] positions = Arrays.copyOf(offsets, size);
+        for (int[] pair : pairs) {
+            neighbours[positions[pair[source]]++] = pair[1 - source];
+        }
+        RoaringBitmap[] result = new RoaringBitmap[size];
+        for (int i = 0; i < size; i++) {
+            int[] values = Arrays.stream(neighbours, offsets[i], offsets[i + 1]).sorted().distinct().toArray();
+            result[i] = RoaringBitmap.fromSorted(values, values.length);
+        }
+        return result;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static byte toRating(Long rating) {
+        if (rating == null) {
+            return 0;
+        }
+        return (byte) Math.max(0, Math.min(MAX_RATING, rating));
+    }
+
+    private static byte toDifficultyLevel(Recipe.DifficultyLevel difficultyLevel) {
+        return difficultyLevel == null ? -1 : (byte) difficultyLevel.ordinal();
+    }
+
+    /**
+     * Возвращает версию индекса с добавленным или измененным рецептом.
+     * Новые рецепты и продукты должны иметь идентификатор больше всех проиндексированных.
+     *
+     * @param recipe     Атрибуты рецепта.
+     * @param productIds Идентификаторы продуктов рецепта или null, если связи не изменились.
+     * @return Новая версия индекса.
+     * @throws IllegalArgumentException если рецепт или продукт нельзя добавить без перестроения индекса.
+     */
+    public RecipeIndex withRecipe(RecipeAttributes recipe, Collection<Long> productIds) {
+        long recipeId = recipe.getId();
+        RecipeIndex index = recipeOrdinal(recipeId) < 0 ? appendRecipe(recipeId) : this;
+        if (productIds != null) {
+            for (Long productId : productIds) {
+                if (index.productOrdinal(productId) < 0) {
+                    index = index.appendProduct(productId);
+                }
+            }
+        }
+        int ordinal = index.recipeOrdinal(recipeId);
+        RecipeEntry entry = index.recipes.get(ordinal);
+        RoaringBitmap newProducts = productIds == null
+                ? entry.products()
+                : RoaringBitmap.of(index.productOrdinalsOf(productIds));
+        index = index.relinkRecipe(ordinal, entry.products(), newProducts);
+        RecipeEntry updated = new RecipeEntry(recipeId, toRating(recipe.getRating()),
+                Boolean.TRUE.equals(recipe.getVegan()), toDifficultyLevel(recipe.getDifficultyLevel()), newProducts);
+        RecipeFacets newFacets = index.facets
+                .without(ordinal, entry.vegan(), entry.difficultyLevel(), entry.rating())
+                .with(ordinal, updated.vegan(), updated.difficultyLevel(), updated.rating());
+        return new RecipeIndex(index.recipes.set(ordinal, updated), index.products, newFacets, index.tombstones);
+    }
+
+    /**
+     * Возвращает версию индекса без указанного рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Новая версия индекса (или эта же, если рецепт не проиндексирован).
+     */
+    public RecipeIndex withoutRecipe(long recipeId) {
+        int ordinal = recipeOrdinal(recipeId);
+        if (ordinal < 0) {
+            return this;
+        }
+        RecipeEntry entry = recipes.get(ordinal);
+        RecipeIndex index = relinkRecipe(ordinal, entry.products(), RoaringBitmap.empty());
+        RecipeEntry tombstone = new RecipeEntry(recipeId, (byte) 0, false, (byte) -1, RoaringBitmap.empty());
+        RecipeFacets newFacets = facets.without(ordinal, entry.vegan(), entry.difficultyLevel(), entry.rating());
+        return new RecipeIndex(index.recipes.set(ordinal, tombstone), index.products, newFacets, index.tombstones + 1);
+    }
+
+    /**
+     * Возвращает версию индекса с добавленным или измененным продуктом.
+     * Новые продукты и рецепты должны иметь идентификатор больше всех проиндексированных.
+     *
+     * @param productId Идентификатор продукта.
+     * @param recipeIds Идентификаторы рецептов продукта или null, если связи не изменились.
+     * @return Новая версия индекса.
+     * @throws IllegalArgumentException если продукт или рецепт нельзя добавить без перестроения индекса.
+     */
+    public RecipeIndex withProduct(long productId, Collection<Long> recipeIds) {
+        RecipeIndex index = productOrdinal(productId) < 0 ? appendProduct(productId) : this;
+        if (recipeIds == null) {
+            return index;
+        }
+        for (Long recipeId : recipeIds) {
+            if (index.recipeOrdinal(recipeId) < 0) {
+                index = index.appendRecipe(recipeId);
+            }
+        }
+        int ordinal = index.productOrdinal(productId);
+        RoaringBitmap newRecipes = RoaringBitmap.of(index.recipeOrdinalsOf(recipeIds));
+        return index.relinkProduct(ordinal, index.products.get(ordinal).recipes(), newRecipes);
+    }
+
+    /**
+     * Возвращает версию индекса без указанного продукта.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Новая версия индекса (или эта же, если продукт не проиндексирован).
+     */
+    public RecipeIndex withoutProduct(long productId) {
+        int ordinal = productOrdinal(productId);
+        if (ordinal < 0) {
+            return this;
+        }
+        return relinkProduct(ordinal, products.get(ordinal).recipes(), RoaringBitmap.empty());
+    }
+
+    /**
+     * Находит продукты, подбор по которым может дать разный результат в предыдущей и этой версиях
+     * индекса из-за изменения рецепта: все продукты рецепта в обеих версиях.
+     * Эта версия должна быть получена из предыдущей методами with/without, поэтому порядковые
+     * номера предыдущей версии действительны и в этой.
+     *
+     * @param previous Предыдущая версия индекса.
+     * @param recipeId Идентификатор измененного рецепта.
+     * @return Идентификаторы продуктов в порядке возрастания.
+     */
+    public long[] productsAffectedByRecipe(RecipeIndex previous, long recipeId) {
+        DenseBitSet affected = new DenseBitSet(productCount());
+        int ordinal = recipeOrdinal(recipeId);
+        if (ordinal >= 0) {
+            recipeProducts(ordinal).orInto(affected);
+        }
+        int previousOrdinal = previous.recipeOrdinal(recipeId);
+        if (previousOrdinal >= 0) {
+            previous.recipeProducts(previousOrdinal).orInto(affected);
+        }
+        return productIds(affected);
+    }
+
+    /**
+     * Находит продукты, подбор по которым может дать разный результат в предыдущей и этой версиях
+     * индекса из-за изменения связей продукта: сам продукт и продукты всех рецептов, которые
+     * содержали или содержат его (у таких рецептов изменилось количество требуемых продуктов).
+     *
+     * @param previous  Предыдущая версия индекса.
+     * @param productId Идентификатор измененного продукта.
+     * @return Идентификаторы продуктов в порядке возрастания.
+     * @see #productsAffectedByRecipe(RecipeIndex, long)
+     */
+    public long[] productsAffectedByProduct(RecipeIndex previous, long productId) {
+        DenseBitSet affected = new DenseBitSet(productCount());
+        int ordinal = productOrdinal(productId);
+        if (ordinal >= 0) {
+            affected.set(ordinal);
+        }
+        DenseBitSet relinked = new DenseBitSet(recipeCount());
+        productRecipes(productId).orInto(relinked);
+        previous.productRecipes(productId).orInto(relinked);
+        // Остальные продукты этих рецептов в обеих версиях совпадают
+        relinked.forEach(recipe -> recipeProducts(recipe).orInto(affected));
+        return productIds(affected);
+    }
+
+    private long[] productIds(DenseBitSet productOrdinals) {
+        long[] ids = new long[productOrdinals.cardinality()];
+        int[] next = {0};
+        productOrdinals.forEach(ordinal -> ids[next[0]++] = products.get(ordinal).id());
+        return ids;
+    }
+
+    private RecipeIndex appendRecipe(long recipeId) {
+        if (recipeCount() > 0 && recipes.get(recipeCount() - 1).id() >= recipeId) {
+            throw new IllegalArgumentException(String.format("Рецепт %d нельзя добавить в конец индекса.", recipeId));
+        }
+        // Атрибуты нового рецепта неизвестны до события о нем самом: рецепт считается действующим без рейтинга
+        RecipeEntry entry = new RecipeEntry(recipeId, (byte) 0, false, (byte) -1, RoaringBitmap.empty());
+        return new RecipeIndex(recipes.append(entry), products, facets.with(recipeCount(), false, -1, 0), tombstones);
+    }
+
+    private RecipeIndex appendProduct(long productId) {
+        if (productCount() > 0 && products.get(productCount() - 1).id() >= productId) {
+            throw new IllegalArgumentException(String.format("Продукт %d нельзя добавить в конец индекса.", productId));
+        }
+        return new RecipeIndex(recipes, products.append(new ProductEntry(productId, RoaringBitmap.empty())), facets,
+                tombstones);
+    }
+
+    /**
+     * Переносит изменение множества продуктов рецепта в множества рецептов затронутых продуктов.
+     */
+    private RecipeIndex relinkRecipe(int recipe, RoaringBitmap oldProducts, RoaringBitmap newProducts) {
+        PagedArray<ProductEntry> newProductEntries = products;
+        for (int product : oldProducts.andNot(newProducts).toArray()) {
+            ProductEntry entry = newProductEntries.get(product);
+            newProductEntries = newProductEntries.set(product, new ProductEntry(entry.id(), entry.recipes().remove(recipe)));
+        }
+        for (int product : newProducts.andNot(oldProducts).toArray()) {
+            ProductEntry entry = newProductEntries.get(product);
+            newProductEntries = newProductEntries.set(product, new ProductEntry(entry.id(), entry.recipes().add(recipe)));
+        }
+        return new RecipeIndex(recipes, newProductEntries, facets, tombstones);
+    }
+
+    /**
+     * Заменяет множество рецептов продукта и переносит изменение в множества продуктов затронутых рецептов.
+     */
+    private RecipeIndex relinkProduct(int product, RoaringBitmap oldRecipes, RoaringBitmap newRecipes) {
+        PagedArray<RecipeEntry> newRecipeEntries = recipes;
+        for (int recipe : oldRecipes.andNot(newRecipes).toArray()) {
+            RecipeEntry entry = newRecipeEntries.get(recipe);
+            newRecipeEntries = newRecipeEntries.set(recipe, entry.withProducts(entry.products().remove(product)));
+        }
+        for (int recipe : newRecipes.andNot(oldRecipes).toArray()) {
+            RecipeEntry entry = newRecipeEntries.get(recipe);
+            newRecipeEntries = newRecipeEntries.set(recipe, entry.withProducts(entry.products().add(product)));
+        }
+        ProductEntry entry = products.get(product);
+        return new RecipeIndex(newRecipeEntries, products.set(product, new ProductEntry(entry.id(), newRecipes)), facets,
+                tombstones);
+    }
+
+    private int[] productOrdinalsOf(Collection<Long> productIds) {
+        return productIds.stream().mapToInt(this::productOrdinal).filter(ordinal -> ordinal >= 0).toArray();
+    }
+
+    private int[] recipeOrdinalsOf(Collection<Long> recipeIds) {
+        return recipeIds.stream().mapToInt(this::recipeOrdinal).filter(ordinal -> ordinal >= 0).toArray();
+    }
+
+    /**
+     * @return Оценка памяти, занимаемой индексом, в байтах.
+     */
+    public long sizeInBytes() {
+        long size = 40L * (recipeCount() + productCount()) + facets.sizeInBytes();
+        for (int i = 0; i < recipeCount(); i++) {
+            size += recipes.get(i).products().sizeInBytes();
+        }
+        for (int i = 0; i < productCount(); i++) {
+            size += products.get(i).recipes().sizeInBytes();
+        }
+        return size;
+    }
+
+    /**
+     * @return Количество рецептов в индексе, включая удаленные.
+     */
+    public int recipeCount() {
+        return recipes.size();
+    }
+
+    /**
+     * @return Количество продуктов в индексе, включая удаленные.
+     */
+    public int productCount() {
+        return products.size();
+    }
+
+    /**
+     * @return Количество рецептов, удаленных после последнего полного перестроения.
+     */
+    public int tombstoneCount() {
+        return tombstones;
+    }
+
+    /**
+     * Возвращает идентификатор рецепта по его порядковому номеру.
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @return Идентификатор рецепта.
+     */
+    public long recipeId(int ordinal) {
+        return recipes.get(ordinal).id();
+    }
+
+    /**
+     * Возвращает идентификатор продукта по его порядковому номеру.
+     *
+     * @param ordinal Порядковый номер продукта.
+     * @return Идентификатор продукта.
+     */
+    public long productId(int ordinal) {
+        return products.get(ordinal).id();
+    }
+
+    /**
+     * Возвращает порядковый номер рецепта по его идентификатору.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Порядковый номер или отрицательное число, если рецепт не проиндексирован.
+     */
+    public int recipeOrdinal(long recipeId) {
+        int low = 0;
+        int high = recipeCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = recipes.get(mid).id();
+            if (id < recipeId) {
+                low = mid + 1;
+            } else if (id > recipeId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Возвращает количество продуктов, требуемых рецептом.
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @return Количество продуктов рецепта.
+     */
+    public int requiredCount(int ordinal) {
+        return recipes.get(ordinal).required();
+    }
+
+    /**
+     * Возвращает рейтинг рецепта (0, если рейтинг не задан).
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @return Рейтинг от 0 до {@link #MAX_RATING}.
+     */
+    public int rating(int ordinal) {
+        return recipes.get(ordinal).rating();
+    }
+
+    /**
+     * Возвращает количество продуктов рецепта, присутствующих в наборе.
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @param pantry  Битовое множество продуктов.
+     * @return Мощность пересечения требуемых продуктов и набора.
+     */
+    public int matchedCount(int ordinal, DenseBitSet pantry) {
+        return recipes.get(ordinal).products().andCardinality(pantry);
+    }
+
+    /**
+     * Возвращает количество продуктов рецепта, отсутствующих в наборе,
+     * прекращая подсчет после превышения порога.
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @param pantry  Битовое множество продуктов.
+     * @param limit   Порог количества недостающих продуктов.
+     * @return Точное количество, если оно не превышает limit, иначе число больше limit.
+     */
+    public int missingCount(int ordinal, DenseBitSet pantry, int limit) {
+        return recipes.get(ordinal).products().andNotCardinality(pantry, limit);
+    }
+
+    /**
+     * Возвращает идентификаторы продуктов рецепта, отсутствующих в наборе.
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @param pantry  Битовое множество продуктов.
+     * @return Идентификаторы недостающих продуктов в порядке возрастания.
+     */
+    public List<Long> missingProductIds(int ordinal, DenseBitSet pantry) {
+        List<Long> missing = new ArrayList<>();
+        recipes.get(ordinal).products().forEach(product -> {
+            if (!pantry.get(product)) {
+                missing.add(products.get(product).id());
+            }
+        });
+        return missing;
+    }
+
+    /**
+     * Возвращает порядковый номер продукта по его идентификатору.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Порядковый номер или отрицательное число, если продукт не проиндексирован.
+     */
+    public int productOrdinal(long productId) {
+        int low = 0;
+        int high = productCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = products.get(mid).id();
+            if (id < productId) {
+                low = mid + 1;
+            } else if (id > productId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Сжатое множество порядковых номеров продуктов рецепта.
+     *
+     * @param ordinal Порядковый номер рецепта.
+     * @return Множество продуктов.
+     */
+    RoaringBitmap recipeProducts(int ordinal) {
+        return recipes.get(ordinal).products();
+    }
+
+    /**
+     * Сжатое множество рецептов, содержащих продукт.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Множество рецептов; пустое, если продукт не проиндексирован.
+     */
+    RoaringBitmap productRecipes(long productId) {
+        int ordinal = productOrdinal(productId);
+        return ordinal < 0 ? RoaringBitmap.empty() : products.get(ordinal).recipes();
+    }
+
+    /**
+     * @return Множества рецептов по значениям атрибутов.
+     */
+    RecipeFacets facets() {
+        return facets;
+    }
+
+    /**
+     * Формирует множество порядковых номеров продуктов («кладовую»).
+     * Неизвестные идентификаторы игнорируются.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Битовое множество продуктов.
+     */
+    public DenseBitSet pantry(Collection<Long> ids) {
+        DenseBitSet pantry = new DenseBitSet(productCount());
+        for (Long id : ids) {
+            int ordinal = id == null ? -1 : productOrdinal(id);
+            if (ordinal >= 0) {
+                pantry.set(ordinal);
+            }
+        }
+        return pantry;
+    }
+
+    /**
+     * Находит рецепты, содержащие хотя бы один продукт из множества.
+     *
+     * @param pantry Битовое множество продуктов.
+     * @return Битовое множество рецептов.
+     */
+    public DenseBitSet recipesWithAny(DenseBitSet pantry) {
+        DenseBitSet result = new DenseBitSet(recipeCount());
+        pantry.forEach(product -> products.get(product).recipes().orInto(result));
+        return result;
+    }
+
+    /**
+     * Находит рецепты, все продукты которых присутствуют в множестве.
+     *
+     * @param pantry Битовое множество продуктов.
+     * @return Битовое множество рецептов, которые можно приготовить.
+     */
+    public DenseBitSet cookable(DenseBitSet pantry) {
+        DenseBitSet candidates = recipesWithAny(pantry);
+        DenseBitSet result = new DenseBitSet(recipeCount());
+        candidates.forEach(recipe -> {
+            if (missingCount(recipe, pantry, 0) == 0) {
+                result.set(recipe);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Находит действующие рецепты, удовлетворяющие фильтру.
+     *
+     * @param filter Фильтр по атрибутам рецептов.
+     * @return Битовое множество рецептов.
+     */
+    public DenseBitSet recipes(RecipeFilter filter) {
+        return exclude(facets.mask(filter, recipeCount()), filter);
+    }
+
+    /**
+     * Оставляет в множестве только рецепты, удовлетворяющие фильтру и не содержащие исключаемых продуктов.
+     *
+     * @param recipeOrdinals Битовое множество рецептов (изменяется).
+     * @param filter         Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @return То же множество.
+     */
+    public DenseBitSet filter(DenseBitSet recipeOrdinals, RecipeFilter filter) {
+        if (filter.hasAttributeConditions()) {
+            recipeOrdinals.and(facets.mask(filter, recipeCount()));
+        }
+        return exclude(recipeOrdinals, filter);
+    }
+
+    /**
+     * Вычитает из множества рецепты, содержащие хотя бы один исключаемый продукт фильтра.
+     * Исключение выполняется до ранжирования, поэтому такие рецепты не оцениваются и не загружаются.
+     */
+    private DenseBitSet exclude(DenseBitSet recipeOrdinals, RecipeFilter filter) {
+        if (filter.hasExclusions()) {
+            recipeOrdinals.andNot(recipesWithAny(pantry(filter.excludedProductIds())));
+        }
+        return recipeOrdinals;
+    }
+
+    /**
+     * Подсчитывает рецепты множества по значениям атрибутов.
+     *
+     * @param recipeOrdinals Битовое множество рецептов.
+     * @return Количество рецептов по значениям атрибутов.
+     */
+    public FacetCounts facetCounts(DenseBitSet recipeOrdinals) {
+        return facets.counts(recipeOrdinals);
+    }
+
+    /**
+     * Преобразует множество порядковых номеров рецептов в список идентификаторов.
+     *
+     * @param recipeOrdinals Битовое множество рецептов.
+     * @return Идентификаторы рецептов в порядке возрастания.
+     */
+    public List<Long> recipeIds(DenseBitSet recipeOrdinals) {
+        List<Long> ids = new ArrayList<>(recipeOrdinals.cardinality());
+        recipeOrdinals.forEach(ordinal -> ids.add(recipes.get(ordinal).id()));
+        return ids;
+    }
+}
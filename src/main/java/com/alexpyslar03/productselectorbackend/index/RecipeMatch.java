@@ -0,0 +1,37 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Comparator;
+
+/**
+ * Результат сопоставления рецепта с набором продуктов.
+ *
+ * @param ordinal  Порядковый номер рецепта в индексе.
+ * @param recipeId Идентификатор рецепта.
+ * @param matched  Количество продуктов рецепта, имеющихся в наборе.
+ * @param required Общее количество продуктов рецепта.
+ * @param score    Итоговая оценка рецепта.
+ */
+public record RecipeMatch(int ordinal, long recipeId, int matched, int required, double score) {
+
+    /**
+     * Порядок ранжирования: выше оценка, затем меньше недостающих продуктов, затем меньший идентификатор.
+     */
+    public static final Comparator<RecipeMatch> RANKING = Comparator
+            .comparingDouble(RecipeMatch::score)
+            .thenComparing(Comparator.comparingInt(RecipeMatch::missing).reversed())
+            .thenComparing(Comparator.comparingLong(RecipeMatch::recipeId).reversed());
+
+    /**
+     * @return Количество недостающих продуктов.
+     */
+    public int missing() {
+        return required - matched;
+    }
+
+    /**
+     * @return Доля продуктов рецепта, имеющихся в наборе.
+     */
+    public double coverage() {
+        return required == 0 ? 0.0 : (double) matched / required;
+    }
+}
@@ -0,0 +1,251 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ранжирование рецептов по степени покрытия набором продуктов.
+ * <p>
+ * Оценка рецепта — доля его продуктов, имеющихся в наборе, умноженная на
+ * вес рейтинга. Кандидаты отбираются ограниченной кучей, поэтому затраты
+ * памяти зависят только от K, а не от числа кандидатов.
+ * </p>
+ * <p>
+ * Большие запросы могут выполняться параллельно в пуле fork/join: диапазон порядковых
+ * номеров рецептов делится пополам, пока часть не станет меньше порога, каждая часть
+ * отбирает собственные K лучших, и результаты сливаются при возврате из подзадач.
+ * Запросы, в которых оценивается меньше рецептов, чем порог, выполняются в текущем потоке.
+ * </p>
+ */
+public final class RecipeMatcher {
+
+    /**
+     * Прибавка к весу за каждую единицу рейтинга (рейтинг 5 дает вес 1.5).
+     */
+    static final double RATING_WEIGHT = 0.1;
+
+    /**
+     * Порядок для почти готовых рецептов: меньше недостающих продуктов, затем общий порядок ранжирования.
+     */
+    private static final Comparator<RecipeMatch> FEWEST_MISSING = Comparator
+            .comparingInt(RecipeMatch::missing).reversed()
+            .thenComparing(RecipeMatch.RANKING);
+
+    private RecipeMatcher() {
+    }
+
+    /**
+     * Вычисляет оценку рецепта.
+     *
+     * @param matched  Количество имеющихся продуктов рецепта.
+     * @param required Общее количество продуктов рецепта.
+     * @param rating   Рейтинг рецепта (0, если не задан).
+     * @return Оценка рецепта.
+     */
+    public static double score(int matched, int required, int rating) {
+        if (required == 0) {
+            return 0.0;
+        }
+        return (double) matched / required * (1.0 + RATING_WEIGHT * rating);
+    }
+
+    /**
+     * Находит K рецептов с наибольшей оценкой среди рецептов, содержащих хотя бы один продукт набора.
+     *
+     * @param index  Индекс рецептов.
+     * @param pantry Битовое множество продуктов.
+     * @param k      Максимальное количество результатов.
+     * @return Результаты, начиная с лучшего.
+     */
+    public static List<RecipeMatch> topMatches(RecipeIndex index, DenseBitSet pantry, int k) {
+        return topMatches(index, pantry, index.recipesWithAny(pantry), k, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Находит K рецептов с наибольшей оценкой среди заданных кандидатов, распределяя оценку по пулу fork/join.
+     *
+     * @param index      Индекс рецептов.
+     * @param pantry     Битовое множество продуктов.
+     * @param candidates Рецепты-кандидаты, обычно {@link RecipeIndex#recipesWithAny} с примененным фильтром.
+     * @param k          Максимальное количество результатов.
+     * @param pool       Пул для параллельного выполнения или null для выполнения в текущем потоке.
+     * @param threshold  Минимальное количество кандидатов для параллельного выполнения и размер части диапазона.
+     * @return Результаты, начиная с лучшего.
+     */
+    public static List<RecipeMatch> topMatches(RecipeIndex index, DenseBitSet pantry, DenseBitSet candidates, int k,
+                                               ForkJoinPool pool, int threshold) {
+        RangeEvaluator evaluator = (from, to, collector) -> candidates.forEach(from, to, ordinal -> {
+            int required = index.requiredCount(ordinal);
+            int matched = index.matchedCount(ordinal, pantry);
+            double score = score(matched, required, index.rating(ordinal));
+            // Отсекаем заведомо худших кандидатов, не создавая для них объектов
+            if (collector.isFull() && score < collector.worst().score()) {
+                return;
+            }
+            collector.offer(new RecipeMatch(ordinal, index.recipeId(ordinal), matched, required, score));
+        });
+        return evaluate(index.recipeCount(), candidates.cardinality(), k, RecipeMatch.RANKING,
+                evaluator, pool, threshold);
+    }
+
+    /**
+     * Находит K рецептов с наибольшей оценкой среди кандидатов с учетом предпочтений пользователя.
+     * <p>
+     * Понижение оценки недавно приготовленных рецептов может только вытеснить их из результата,
+     * поэтому без учета предпочтений отбирается K плюс длина истории приготовления лучших рецептов.
+     * Избранные рецепты после повышения могут войти в результат из-за его пределов, поэтому
+     * все избранные кандидаты оцениваются дополнительно — их обычно немного.
+     * </p>
+     *
+     * @param index       Индекс рецептов.
+     * @param pantry      Битовое множество продуктов.
+     * @param candidates  Рецепты-кандидаты.
+     * @param k           Максимальное количество результатов.
+     * @param preferences Предпочтения пользователя.
+     * @param pool        Пул для параллельного выполнения или null для выполнения в текущем потоке.
+     * @param threshold   Минимальное количество кандидатов для параллельного выполнения и размер части диапазона.
+     * @return Результаты с оценками, измененными предпочтениями, начиная с лучшего.
+     */
+    public static List<RecipeMatch> topMatches(RecipeIndex index, DenseBitSet pantry, DenseBitSet candidates, int k,
+                                               RecipePreferences preferences, ForkJoinPool pool, int threshold) {
+        if (preferences.isEmpty()) {
+            return topMatches(index, pantry, candidates, k, pool, threshold);
+        }
+        DenseBitSet favourites = preferences.favouriteOrdinals(index);
+        favourites.and(candidates);
+        TopKCollector<RecipeMatch> collector = new TopKCollector<>(k, RecipeMatch.RANKING);
+        for (RecipeMatch match : topMatches(index, pantry, candidates, k + preferences.cookedCount(), pool, threshold)) {
+            favourites.clear(match.ordinal());
+            collector.offer(preferences.apply(match));
+        }
+        favourites.forEach(ordinal -> {
+            int required = index.requiredCount(ordinal);
+            int matched = index.matchedCount(ordinal, pantry);
+            collector.offer(preferences.apply(new RecipeMatch(ordinal, index.recipeId(ordinal), matched, required,
+                    score(matched, required, index.rating(ordinal)))));
+        });
+        return collector.toSortedList();
+    }
+
+    /**
+     * Находит рецепты, для приготовления которых не хватает не более maxMissing продуктов.
+     * Для каждого рецепта считается мощность разности «требуемые \ имеющиеся»
+     * с досрочным выходом после превышения порога.
+     *
+     * @param index      Индекс рецептов.
+     * @param pantry     Битовое множество продуктов.
+     * @param maxMissing Максимально допустимое количество недостающих продуктов.
+     * @param k          Максимальное количество результатов.
+     * @return Результаты, начиная с рецептов с наименьшим числом недостающих продуктов.
+     */
+    public static List<RecipeMatch> almostCookable(RecipeIndex index, DenseBitSet pantry, int maxMissing, int k) {
+        return almostCookable(index, pantry, null, maxMissing, k, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Находит почти готовые рецепты, распределяя проверку рецептов по пулу fork/join.
+     *
+     * @param index      Индекс рецептов.
+     * @param pantry     Битовое множество продуктов.
+     * @param allowed    Допустимые рецепты (например, по фильтру атрибутов) или null, если допустимы все.
+     * @param maxMissing Максимально допустимое количество недостающих продуктов.
+     * @param k          Максимальное количество результатов.
+     * @param pool       Пул для параллельного выполнения или null для выполнения в текущем потоке.
+     * @param threshold  Минимальное количество рецептов для параллельного выполнения и размер части диапазона.
+     * @return Результаты, начиная с рецептов с наименьшим числом недостающих продуктов.
+     */
+    public static List<RecipeMatch> almostCookable(RecipeIndex index, DenseBitSet pantry, DenseBitSet allowed,
+                                                   int maxMissing, int k, ForkJoinPool pool, int threshold) {
+        OrdinalEvaluator check = (ordinal, collector) -> {
+            int required = index.requiredCount(ordinal);
+            if (required == 0) {
+                return;
+            }
+            int missing = index.missingCount(ordinal, pantry, maxMissing);
+            if (missing > maxMissing) {
+                return;
+            }
+            int matched = required - missing;
+            collector.offer(new RecipeMatch(ordinal, index.recipeId(ordinal), matched, required,
+                    score(matched, required, index.rating(ordinal))));
+        };
+        RangeEvaluator evaluator = allowed == null
+                ? (from, to, collector) -> {
+                    for (int ordinal = from; ordinal < to; ordinal++) {
+                        check.accept(ordinal, collector);
+                    }
+                }
+                : (from, to, collector) -> allowed.forEach(from, to, ordinal -> check.accept(ordinal, collector));
+        int work = allowed == null ? index.recipeCount() : allowed.cardinality();
+        return evaluate(index.recipeCount(), work, k, FEWEST_MISSING, evaluator, pool, threshold);
+    }
+
+    /**
+     * Оценивает диапазон порядковых номеров [0, size) в текущем потоке или, если объем работы
+     * не меньше порога, параллельно в пуле.
+     */
+    private static List<RecipeMatch> evaluate(int size, int work, int k, Comparator<RecipeMatch> order,
+                                              RangeEvaluator evaluator, ForkJoinPool pool, int threshold) {
+        if (pool == null || work < threshold || size <= threshold) {
+            TopKCollector<RecipeMatch> collector = new TopKCollector<>(k, order);
+            evaluator.evaluate(0, size, collector);
+            return collector.toSortedList();
+        }
+        return pool.invoke(new RangeTask(evaluator, 0, size, k, order, threshold)).toSortedList();
+    }
+
+    /**
+     * Оценка рецептов из диапазона порядковых номеров [from, to) в коллектор.
+     */
+    @FunctionalInterface
+    private interface RangeEvaluator {
+        void evaluate(int from, int to, TopKCollector<RecipeMatch> collector);
+    }
+
+    /**
+     * Оценка одного рецепта с передачей результата в коллектор.
+     */
+    @FunctionalInterface
+    private interface OrdinalEvaluator {
+        void accept(int ordinal, TopKCollector<RecipeMatch> collector);
+    }
+
+    /**
+     * Задача fork/join: делит диапазон пополам до размера порога и сливает K лучших из обеих половин.
+     */
+    private static final class RangeTask extends RecursiveTask<TopKCollector<RecipeMatch>> {
+
+        private final RangeEvaluator evaluator;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final Comparator<RecipeMatch> order;
+        private final int threshold;
+
+        RangeTask(RangeEvaluator evaluator, int from, int to, int k, Comparator<RecipeMatch> order, int threshold) {
+            this.evaluator = evaluator;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.order = order;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected TopKCollector<RecipeMatch> compute() {
+            if (to - from <= threshold) {
+                TopKCollector<RecipeMatch> collector = new TopKCollector<>(k, order);
+                evaluator.evaluate(from, to, collector);
+                return collector;
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(evaluator, from, middle, k, order, threshold);
+            RangeTask right = new RangeTask(evaluator, middle, to, k, order, threshold);
+            left.fork();
+            TopKCollector<RecipeMatch> result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Неизменяемые предпочтения пользователя: избранные и недавно приготовленные рецепты.
+ * <p>
+ * Избранное хранится сжатым битовым множеством идентификаторов рецептов, история
+ * приготовления — идентификаторами последних {@link #MAX_COOKED} рецептов, начиная с
+ * самого недавнего. Для хранения в базе данных оба множества кодируются в байты
+ * переменной длины (избранное — разностями соседних идентификаторов), поэтому сотни
+ * рецептов занимают сотни байт.
+ * </p>
+ * <p>
+ * При ранжировании оценка избранного рецепта умножается на 1 + {@link #FAVOURITE_BOOST},
+ * а недавно приготовленного — уменьшается не более чем на {@link #COOKED_PENALTY}, тем
+ * сильнее, чем ближе рецепт к началу истории.
+ * </p>
+ */
+public final class RecipePreferences {
+
+    /**
+     * Максимальная длина истории приготовленных рецептов.
+     */
+    public static final int MAX_COOKED = 50;
+
+    /**
+     * Относительное повышение оценки избранного рецепта.
+     */
+    static final double FAVOURITE_BOOST = 0.25;
+
+    /**
+     * Относительное понижение оценки последнего приготовленного рецепта.
+     */
+    static final double COOKED_PENALTY = 0.5;
+
+    /**
+     * Пустые предпочтения.
+     */
+    public static final RecipePreferences EMPTY = new RecipePreferences(RoaringBitmap.empty(), new int[0]);
+
+    private final RoaringBitmap favourites;
+    private final int[] cooked;
+
+    private RecipePreferences(RoaringBitmap favourites, int[] cooked) {
+        this.favourites = favourites;
+        this.cooked = cooked;
+    }
+
+    /**
+     * Восстанавливает предпочтения из байтового представления.
+     *
+     * @param favourites Закодированное избранное или null.
+     * @param cooked     Закодированная история приготовления или null.
+     * @return Предпочтения.
+     * @throws IllegalArgumentException если данные повреждены.
+     */
+    public static RecipePreferences decode(byte[] favourites, byte[] cooked) {
+        int[] favouriteIds = decodeVarints(favourites);
+        for (int i = 1; i < favouriteIds.length; i++) {
+            favouriteIds[i] += favouriteIds[i - 1];
+        }
+        int[] cookedIds = decodeVarints(cooked);
+        if (cookedIds.length > MAX_COOKED) {
+            cookedIds = Arrays.copyOf(cookedIds, MAX_COOKED);
+        }
+        return new RecipePreferences(RoaringBitmap.of(favouriteIds), cookedIds);
+    }
+
+    /**
+     * @return Избранное в байтовом представлении: разности соседних идентификаторов переменной длины.
+     */
+    public byte[] encodeFavourites() {
+        int[] ids = favourites.toArray();
+        for (int i = ids.length - 1; i > 0; i--) {
+            ids[i] -= ids[i - 1];
+        }
+        return encodeVarints(ids);
+    }
+
+    /**
+     * @return История приготовления в байтовом представлении: идентификаторы переменной длины.
+     */
+    public byte[] encodeCooked() {
+        return encodeVarints(cooked);
+    }
+
+    /**
+     * @param recipeId Идентификатор рецепта.
+     * @return Предпочтения с рецептом в избранном.
+     */
+    public RecipePreferences withFavourite(long recipeId) {
+        return new RecipePreferences(favourites.add(toInt(recipeId)), cooked);
+    }
+
+    /**
+     * @param recipeId Идентификатор рецепта.
+     * @return Предпочтения без рецепта в избранном.
+     */
+    public RecipePreferences withoutFavourite(long recipeId) {
+        return new RecipePreferences(favourites.remove(toInt(recipeId)), cooked);
+    }
+
+    /**
+     * Переносит рецепт в начало истории приготовления; самые старые записи сверх
+     * {@link #MAX_COOKED} отбрасываются.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Предпочтения с рецептом в начале истории.
+     */
+    public RecipePreferences withCooked(long recipeId) {
+        int id = toInt(recipeId);
+        int[] updated = new int[Math.min(MAX_COOKED, cooked.length + 1)];
+        updated[0] = id;
+        int size = 1;
+        for (int i = 0; i < cooked.length && size < updated.length; i++) {
+            if (cooked[i] != id) {
+                updated[size++] = cooked[i];
+            }
+        }
+        return new RecipePreferences(favourites, Arrays.copyOf(updated, size));
+    }
+
+    /**
+     * @param recipeId Идентификатор рецепта.
+     * @return Предпочтения без рецепта в истории приготовления.
+     */
+    public RecipePreferences withoutCooked(long recipeId) {
+        return new RecipePreferences(favourites, Arrays.stream(cooked).filter(id -> id != recipeId).toArray());
+    }
+
+    /**
+     * @return Идентификаторы избранных рецептов в порядке возрастания.
+     */
+    public List<Long> favouriteIds() {
+        List<Long> ids = new ArrayList<>(favourites.cardinality());
+        favourites.forEach(id -> ids.add((long) id));
+        return ids;
+    }
+
+    /**
+     * @return Идентификаторы приготовленных рецептов, начиная с самого недавнего.
+     */
+    public List<Long> cookedIds() {
+        return Arrays.stream(cooked).mapToObj(id -> (long) id).toList();
+    }
+
+    /**
+     * @return true, если предпочтения не влияют на ранжирование.
+     */
+    public boolean isEmpty() {
+        return favourites.isEmpty() && cooked.length == 0;
+    }
+
+    /**
+     * @return Количество рецептов в истории приготовления.
+     */
+    int cookedCount() {
+        return cooked.length;
+    }
+
+    /**
+     * Формирует множество порядковых номеров избранных рецептов в версии индекса.
+     *
+     * @param index Индекс рецептов.
+     * @return Битовое множество рецептов.
+     */
+    public DenseBitSet favouriteOrdinals(RecipeIndex index) {
+        DenseBitSet ordinals = new DenseBitSet(index.recipeCount());
+        favourites.forEach(id -> {
+            int ordinal = index.recipeOrdinal(id);
+            if (ordinal >= 0) {
+                ordinals.set(ordinal);
+            }
+        });
+        return ordinals;
+    }
+
+    /**
+     * Вычисляет множитель оценки рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Множитель: больше 1 для избранного, меньше 1 для недавно приготовленного.
+     */
+    public double weight(long recipeId) {
+        double weight = recipeId <= Integer.MAX_VALUE && favourites.contains((int) recipeId) ? 1.0 + FAVOURITE_BOOST : 1.0;
+        for (int i = 0; i < cooked.length; i++) {
+            if (cooked[i] == recipeId) {
+                return weight * (1.0 - COOKED_PENALTY * (MAX_COOKED - i) / MAX_COOKED);
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Применяет предпочтения к результату сопоставления.
+     *
+     * @param match Результат сопоставления.
+     * @return Результат с измененной оценкой или исходный результат.
+     */
+    RecipeMatch apply(RecipeMatch match) {
+        double weight = weight(match.recipeId());
+        return weight == 1.0 ? match
+                : new RecipeMatch(match.ordinal(), match.recipeId(), match.matched(), match.required(), match.score() * weight);
+    }
+
+    private static int toInt(long recipeId) {
+        if (recipeId < 0 || recipeId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Идентификатор рецепта %d вне допустимого диапазона.", recipeId));
+        }
+        return (int) recipeId;
+    }
+
+    private static byte[] encodeVarints(int[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length * 2);
+        for (int value : values) {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+        return out.toByteArray();
+    }
+
+    private static int[] decodeVarints(byte[] bytes) {
+        if (bytes == null) {
+            return new int[0];
+        }
+        int[] values = new int[bytes.length];
+        int size = 0;
+        int value = 0;
+        int shift = 0;
+        for (byte b : bytes) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Некорректное байтовое представление предпочтений.");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                values[size++] = value;
+                value = 0;
+                shift = 0;
+            } else {
+                shift += 7;
+            }
+        }
+        if (shift != 0) {
+            throw new IllegalArgumentException("Некорректное байтовое представление предпочтений.");
+        }
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,287 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Скомпилированный логический запрос к рецептам, например
+ * {@code (chicken OR turkey) AND rice AND NOT dairy AND vegan=false AND difficulty<=MEDIUM}.
+ * <p>
+ * Запрос разбирается один раз (см. {@link RecipeQueryParser}) в дерево операций над сжатыми
+ * множествами рецептов: продукт — множество рецептов продукта, условие по атрибуту —
+ * объединение предвычисленных множеств {@link RecipeFacets}. При выполнении операнды AND
+ * упорядочиваются по оценке мощности, начиная с наименьшего, пересечение прекращается,
+ * как только результат стал пустым, а отрицания внутри AND выполняются как разность
+ * без построения дополнения.
+ * </p>
+ * <p>
+ * Продукты хранятся в плане по идентификаторам, поэтому скомпилированный запрос не зависит
+ * от версии индекса и может кэшироваться по нормализованному тексту ({@link #normalize(String)}).
+ * </p>
+ */
+public final class RecipeQuery {
+
+    /**
+     * Максимальная длина текста запроса.
+     */
+    public static final int MAX_LENGTH = 1000;
+
+    /**
+     * Максимальная вложенность скобок и отрицаний: разбор и вычисление плана рекурсивны.
+     */
+    public static final int MAX_DEPTH = 32;
+
+    /**
+     * Узел плана запроса.
+     */
+    sealed interface Node permits Products, Vegan, Difficulty, Rating, Not, And, Or {
+
+        /**
+         * Вычисляет множество рецептов узла.
+         */
+        RoaringBitmap evaluate(RecipeIndex index);
+
+        /**
+         * Оценивает мощность множества узла без его построения.
+         */
+        int estimate(RecipeIndex index);
+    }
+
+    /**
+     * Рецепты, содержащие хотя бы один из продуктов (название может соответствовать нескольким продуктам).
+     */
+    record Products(Set<Long> productIds) implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            RoaringBitmap result = RoaringBitmap.empty();
+            for (long productId : productIds) {
+                result = result.or(index.productRecipes(productId));
+            }
+            return result;
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            int estimate = 0;
+            for (long productId : productIds) {
+                estimate += index.productRecipes(productId).cardinality();
+            }
+            return estimate;
+        }
+    }
+
+    /**
+     * Веганские рецепты.
+     */
+    record Vegan() implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            return index.facets().vegan();
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            return index.facets().vegan().cardinality();
+        }
+    }
+
+    /**
+     * Рецепты с одним из уровней сложности.
+     */
+    record Difficulty(Set<Recipe.DifficultyLevel> levels) implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            RoaringBitmap result = RoaringBitmap.empty();
+            for (Recipe.DifficultyLevel level : levels) {
+                result = result.or(index.facets().difficultyLevel(level));
+            }
+            return result;
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            int estimate = 0;
+            for (Recipe.DifficultyLevel level : levels) {
+                estimate += index.facets().difficultyLevel(level).cardinality();
+            }
+            return estimate;
+        }
+    }
+
+    /**
+     * Рецепты с рейтингом из диапазона [min, max]; 0 соответствует рецептам без рейтинга.
+     */
+    record Rating(int min, int max) implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            RoaringBitmap result = RoaringBitmap.empty();
+            for (int rating = min; rating <= max; rating++) {
+                result = result.or(index.facets().rating(rating));
+            }
+            return result;
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            int estimate = 0;
+            for (int rating = min; rating <= max; rating++) {
+                estimate += index.facets().rating(rating).cardinality();
+            }
+            return estimate;
+        }
+    }
+
+    /**
+     * Действующие рецепты, не входящие в множество операнда.
+     */
+    record Not(Node operand) implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            return index.facets().live().andNot(operand.evaluate(index));
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            return Math.max(0, liveCount(index) - operand.estimate(index));
+        }
+    }
+
+    /**
+     * Пересечение операндов.
+     */
+    record And(List<Node> operands) implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            List<Node> included = new ArrayList<>();
+            List<Node> excluded = new ArrayList<>();
+            for (Node operand : operands) {
+                if (operand instanceof Not not) {
+                    excluded.add(not.operand());
+                } else {
+                    included.add(operand);
+                }
+            }
+            included.sort(Comparator.comparingInt(operand -> operand.estimate(index)));
+            RoaringBitmap result = included.isEmpty() ? index.facets().live() : included.get(0).evaluate(index);
+            for (int i = 1; i < included.size() && !result.isEmpty(); i++) {
+                result = result.and(included.get(i).evaluate(index));
+            }
+            for (int i = 0; i < excluded.size() && !result.isEmpty(); i++) {
+                result = result.andNot(excluded.get(i).evaluate(index));
+            }
+            return result;
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            int estimate = liveCount(index);
+            for (Node operand : operands) {
+                estimate = Math.min(estimate, operand.estimate(index));
+            }
+            return estimate;
+        }
+    }
+
+    /**
+     * Объединение операндов.
+     */
+    record Or(List<Node> operands) implements Node {
+
+        @Override
+        public RoaringBitmap evaluate(RecipeIndex index) {
+            RoaringBitmap result = RoaringBitmap.empty();
+            for (Node operand : operands) {
+                result = result.or(operand.evaluate(index));
+            }
+            return result;
+        }
+
+        @Override
+        public int estimate(RecipeIndex index) {
+            long estimate = 0;
+            for (Node operand : operands) {
+                estimate += operand.estimate(index);
+            }
+            return (int) Math.min(estimate, liveCount(index));
+        }
+    }
+
+    private final String text;
+    private final Node root;
+
+    private RecipeQuery(String text, Node root) {
+        this.text = text;
+        this.root = root;
+    }
+
+    private static int liveCount(RecipeIndex index) {
+        return index.recipeCount() - index.tombstoneCount();
+    }
+
+    /**
+     * Приводит текст запроса к нормализованному виду, используемому как ключ кэша:
+     * лексемы через один пробел, ключевые слова в верхнем регистре, остальное в нижнем.
+     *
+     * @param text Текст запроса.
+     * @return Нормализованный текст.
+     * @throws IllegalArgumentException если запрос пуст, слишком длинный или содержит недопустимые символы.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Запрос не может быть пустым.");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(String.format("Длина запроса не может превышать %d символов.", MAX_LENGTH));
+        }
+        return RecipeQueryParser.normalize(text);
+    }
+
+    /**
+     * Разбирает и компилирует запрос.
+     *
+     * @param text           Текст запроса.
+     * @param productsByName Поиск идентификаторов продуктов по названию в нижнем регистре.
+     * @return Скомпилированный запрос.
+     * @throws IllegalArgumentException если запрос некорректен, слишком глубоко вложен или содержит неизвестный продукт.
+     */
+    public static RecipeQuery compile(String text, Function<String, Collection<Long>> productsByName) {
+        String normalized = normalize(text);
+        return new RecipeQuery(normalized, RecipeQueryParser.parse(text, productsByName));
+    }
+
+    /**
+     * @return Нормализованный текст запроса.
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * Выполняет запрос на версии индекса.
+     *
+     * @param index Индекс рецептов.
+     * @return Битовое множество подходящих рецептов.
+     */
+    public DenseBitSet evaluate(RecipeIndex index) {
+        DenseBitSet result = new DenseBitSet(index.recipeCount());
+        root.evaluate(index).orInto(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,343 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Разбор текста запроса к рецептам методом рекурсивного спуска.
+ * <p>
+ * Грамматика (ключевые слова и имена атрибутов без учета регистра):
+ * </p>
+ * <pre>
+ * query      = or
+ * or         = and { "OR" and }
+ * and        = not { "AND" not }
+ * not        = "NOT" not | primary
+ * primary    = "(" or ")" | comparison | product
+ * comparison = ("vegan" | "difficulty" | "rating") ("=" | "!=" | "&lt;" | "&lt;=" | "&gt;" | "&gt;=") word
+ * product    = число (идентификатор продукта) | слово | "строка в кавычках" (название продукта)
+ * </pre>
+ * <p>
+ * Глубина рекурсии ограничена {@link RecipeQuery#MAX_DEPTH} вложенными скобками и отрицаниями.
+ * </p>
+ */
+final class RecipeQueryParser {
+
+    private enum Type { WORD, STRING, OPERATOR, LEFT_PAREN, RIGHT_PAREN, AND, OR, NOT, END }
+
+    private record Token(Type type, String text, int position) {
+
+        /**
+         * Текст лексемы в нормализованном виде.
+         */
+        String normalized() {
+            return switch (type) {
+                case WORD -> text.toLowerCase(Locale.ROOT);
+                case STRING -> '"' + text.toLowerCase(Locale.ROOT) + '"';
+                case AND, OR, NOT -> type.name();
+                default -> text;
+            };
+        }
+    }
+
+    private static final Recipe.DifficultyLevel[] LEVELS = Recipe.DifficultyLevel.values();
+
+    private final List<Token> tokens;
+    private final Function<String, Collection<Long>> productsByName;
+    private int position;
+    private int depth;
+
+    private RecipeQueryParser(List<Token> tokens, Function<String, Collection<Long>> productsByName) {
+        this.tokens = tokens;
+        this.productsByName = productsByName;
+    }
+
+    /**
+     * Приводит текст запроса к нормализованному виду: лексемы через один пробел,
+     * ключевые слова в верхнем регистре, остальное в нижнем.
+     *
+     * @param text Текст запроса.
+     * @return Нормализованный текст.
+     * @throws IllegalArgumentException если текст содержит недопустимые символы.
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (Token token : tokenize(text)) {
+            if (token.type() == Type.END) {
+                break;
+            }
+            if (!normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            normalized.append(token.normalized());
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Разбирает запрос в дерево операций.
+     *
+     * @param text           Текст запроса.
+     * @param productsByName Поиск идентификаторов продуктов по названию в нижнем регистре.
+     * @return Корень дерева операций.
+     * @throws IllegalArgumentException если запрос синтаксически некорректен, слишком глубоко вложен
+     *                                  или содержит неизвестный продукт.
+     */
+    static RecipeQuery.Node parse(String text, Function<String, Collection<Long>> productsByName) {
+        RecipeQueryParser parser = new RecipeQueryParser(tokenize(text), productsByName);
+        RecipeQuery.Node root = parser.parseOr();
+        parser.expect(Type.END, "конец запроса");
+        return root;
+    }
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(c == '(' ? Type.LEFT_PAREN : Type.RIGHT_PAREN, String.valueOf(c), start));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw error(start, "незакрытая кавычка");
+                }
+                tokens.add(new Token(Type.STRING, text.substring(i + 1, end).strip(), start));
+                i = end + 1;
+            } else if (c == '=' || c == '<' || c == '>' || c == '!') {
+                i++;
+                if (i < text.length() && text.charAt(i) == '=' && c != '=') {
+                    i++;
+                } else if (c == '!') {
+                    throw error(start, "ожидался оператор !=");
+                }
+                tokens.add(new Token(Type.OPERATOR, text.substring(start, i), start));
+            } else if (isWordChar(c)) {
+                while (i < text.length() && isWordChar(text.charAt(i))) {
+                    i++;
+                }
+                String word = text.substring(start, i);
+                Type type = switch (word.toUpperCase(Locale.ROOT)) {
+                    case "AND" -> Type.AND;
+                    case "OR" -> Type.OR;
+                    case "NOT" -> Type.NOT;
+                    default -> Type.WORD;
+                };
+                tokens.add(new Token(type, word, start));
+            } else {
+                throw error(start, String.format("недопустимый символ '%c'", c));
+            }
+        }
+        tokens.add(new Token(Type.END, "", text.length()));
+        return tokens;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    private RecipeQuery.Node parseOr() {
+        List<RecipeQuery.Node> operands = new ArrayList<>();
+        addFlattened(operands, parseAnd(), RecipeQuery.Or.class);
+        while (accept(Type.OR)) {
+            addFlattened(operands, parseAnd(), RecipeQuery.Or.class);
+        }
+        return operands.size() == 1 ? operands.get(0) : new RecipeQuery.Or(List.copyOf(operands));
+    }
+
+    private RecipeQuery.Node parseAnd() {
+        List<RecipeQuery.Node> operands = new ArrayList<>();
+        addFlattened(operands, parseNot(), RecipeQuery.And.class);
+        while (accept(Type.AND)) {
+            addFlattened(operands, parseNot(), RecipeQuery.And.class);
+        }
+        return operands.size() == 1 ? operands.get(0) : new RecipeQuery.And(List.copyOf(operands));
+    }
+
+    /**
+     * Вложенные операции того же вида объединяются в одну: a AND (b AND c) = AND(a, b, c).
+     */
+    private static void addFlattened(List<RecipeQuery.Node> operands, RecipeQuery.Node node,
+                                     Class<? extends RecipeQuery.Node> kind) {
+        if (node instanceof RecipeQuery.And and && kind == RecipeQuery.And.class) {
+            operands.addAll(and.operands());
+        } else if (node instanceof RecipeQuery.Or or && kind == RecipeQuery.Or.class) {
+            operands.addAll(or.operands());
+        } else {
+            operands.add(node);
+        }
+    }
+
+    private RecipeQuery.Node parseNot() {
+        Token token = peek();
+        if (accept(Type.NOT)) {
+            enter(token);
+            RecipeQuery.Node operand = parseNot();
+            depth--;
+            return operand instanceof RecipeQuery.Not not ? not.operand() : new RecipeQuery.Not(operand);
+        }
+        return parsePrimary();
+    }
+
+    private RecipeQuery.Node parsePrimary() {
+        Token token = next();
+        switch (token.type()) {
+            case LEFT_PAREN -> {
+                enter(token);
+                RecipeQuery.Node node = parseOr();
+                expect(Type.RIGHT_PAREN, "')'");
+                depth--;
+                return node;
+            }
+            case WORD -> {
+                if (peek().type() == Type.OPERATOR) {
+                    return parseComparison(token, next());
+                }
+                return product(token);
+            }
+            case STRING -> {
+                return product(token);
+            }
+            default -> throw error(token.position(), "ожидался продукт, условие или '('");
+        }
+    }
+
+    private RecipeQuery.Node product(Token token) {
+        if (token.type() == Type.WORD && token.text().chars().allMatch(Character::isDigit)) {
+            try {
+                return new RecipeQuery.Products(Set.of(Long.parseLong(token.text())));
+            } catch (NumberFormatException ex) {
+                throw error(token.position(), "слишком большой идентификатор продукта");
+            }
+        }
+        String name = token.text().toLowerCase(Locale.ROOT);
+        Collection<Long> productIds = productsByName.apply(name);
+        if (productIds == null || productIds.isEmpty()) {
+            throw error(token.position(), String.format("продукт «%s» не найден", token.text()));
+        }
+        return new RecipeQuery.Products(Set.copyOf(productIds));
+    }
+
+    private RecipeQuery.Node parseComparison(Token attribute, Token operator) {
+        Token value = next();
+        if (value.type() != Type.WORD) {
+            throw error(value.position(), "ожидалось значение условия");
+        }
+        String text = value.text().toUpperCase(Locale.ROOT);
+        switch (attribute.text().toLowerCase(Locale.ROOT)) {
+            case "vegan" -> {
+                if (!text.equals("TRUE") && !text.equals("FALSE")) {
+                    throw error(value.position(), "ожидалось true или false");
+                }
+                boolean equals = switch (operator.text()) {
+                    case "=" -> true;
+                    case "!=" -> false;
+                    default -> throw error(operator.position(), "для vegan допустимы только = и !=");
+                };
+                return equals == text.equals("TRUE") ? new RecipeQuery.Vegan() : new RecipeQuery.Not(new RecipeQuery.Vegan());
+            }
+            case "difficulty" -> {
+                int level = -1;
+                for (Recipe.DifficultyLevel candidate : LEVELS) {
+                    if (candidate.name().equals(text)) {
+                        level = candidate.ordinal();
+                    }
+                }
+                if (level < 0) {
+                    throw error(value.position(), "неизвестный уровень сложности " + value.text());
+                }
+                return range(operator, level, LEVELS.length - 1, (min, max) -> {
+                    Set<Recipe.DifficultyLevel> levels = EnumSet.noneOf(Recipe.DifficultyLevel.class);
+                    for (int i = min; i <= max; i++) {
+                        levels.add(LEVELS[i]);
+                    }
+                    return new RecipeQuery.Difficulty(levels);
+                });
+            }
+            case "rating" -> {
+                int rating;
+                try {
+                    rating = Integer.parseInt(text);
+                } catch (NumberFormatException ex) {
+                    throw error(value.position(), "ожидался рейтинг от 0 до " + RecipeIndex.MAX_RATING);
+                }
+                if (rating < 0 || rating > RecipeIndex.MAX_RATING) {
+                    throw error(value.position(), "ожидался рейтинг от 0 до " + RecipeIndex.MAX_RATING);
+                }
+                return range(operator, rating, RecipeIndex.MAX_RATING, RecipeQuery.Rating::new);
+            }
+            default -> throw error(attribute.position(), "неизвестный атрибут " + attribute.text());
+        }
+    }
+
+    private interface RangeFactory {
+        RecipeQuery.Node create(int min, int max);
+    }
+
+    /**
+     * Преобразует сравнение с value в диапазон значений [min, max] из [0, maxValue].
+     */
+    private static RecipeQuery.Node range(Token operator, int value, int maxValue, RangeFactory factory) {
+        return switch (operator.text()) {
+            case "=" -> factory.create(value, value);
+            case "!=" -> new RecipeQuery.Not(factory.create(value, value));
+            case "<" -> factory.create(0, value - 1);
+            case "<=" -> factory.create(0, value);
+            case ">" -> factory.create(value + 1, maxValue);
+            case ">=" -> factory.create(value, maxValue);
+            default -> throw error(operator.position(), "неизвестный оператор " + operator.text());
+        };
+    }
+
+    /**
+     * Учитывает вход во вложенную скобку или отрицание.
+     */
+    private void enter(Token token) {
+        if (++depth > RecipeQuery.MAX_DEPTH) {
+            throw error(token.position(), String.format("вложенность скобок и отрицаний больше %d", RecipeQuery.MAX_DEPTH));
+        }
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.type() != Type.END) {
+            position++;
+        }
+        return token;
+    }
+
+    private boolean accept(Type type) {
+        if (peek().type() == type) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(Type type, String description) {
+        Token token = peek();
+        if (token.type() != type) {
+            throw error(token.position(), "ожидалось " + description);
+        }
+        next();
+    }
+
+    private static IllegalArgumentException error(int position, String message) {
+        return new IllegalArgumentException(String.format("Ошибка в запросе в позиции %d: %s.", position + 1, message));
+    }
+}
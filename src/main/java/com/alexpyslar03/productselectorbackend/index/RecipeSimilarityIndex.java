@@ -0,0 +1,422 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемый индекс похожести рецептов по составу продуктов.
+ * <p>
+ * Для набора продуктов каждого рецепта вычисляется MinHash-сигнатура из {@link #SIGNATURE_SIZE}
+ * минимальных значений хеш-функций: доля совпадающих позиций двух сигнатур оценивает
+ * коэффициент Жаккара наборов. Сигнатура делится на {@link #BANDS} полос по {@link #ROWS}
+ * значения (LSH): рецепты, у которых совпадает хотя бы одна полоса, становятся кандидатами.
+ * При таком разбиении пара с коэффициентом 0,5 оказывается кандидатом с вероятностью около 0,65,
+ * с коэффициентом 0,8 — почти наверняка, поэтому попарное сравнение всех рецептов не требуется.
+ * Для кандидатов вычисляется точный коэффициент Жаккара по отсортированным наборам продуктов.
+ * </p>
+ * <p>
+ * Полосы хранятся отсортированными массивами пар «хеш полосы, порядковый номер рецепта»,
+ * поэтому поиск кандидатов — двоичный поиск в каждом массиве. Изменение создает новую
+ * версию индекса слиянием массивов за O(n), удаленные рецепты помечаются и вычищаются
+ * при накоплении. Рецепты без продуктов не индексируются.
+ * </p>
+ */
+public final class RecipeSimilarityIndex {
+
+    /**
+     * Похожий рецепт.
+     *
+     * @param recipeId   Идентификатор рецепта.
+     * @param similarity Коэффициент Жаккара наборов продуктов, от 0 до 1.
+     */
+    public record Neighbor(long recipeId, double similarity) {
+    }
+
+    /**
+     * Количество хеш-функций в сигнатуре.
+     */
+    public static final int SIGNATURE_SIZE = 64;
+
+    /**
+     * Количество полос LSH.
+     */
+    public static final int BANDS = 16;
+
+    /**
+     * Количество значений сигнатуры в полосе.
+     */
+    public static final int ROWS = SIGNATURE_SIZE / BANDS;
+
+    /**
+     * Максимальное количество кандидатов, для которых вычисляется точный коэффициент.
+     * Ограничивает время запроса для очень распространенных наборов продуктов.
+     */
+    static final int MAX_CANDIDATES = 2048;
+
+    private static final RecipeSimilarityIndex EMPTY =
+            new RecipeSimilarityIndex(new long[0], new long[0][], new int[0][], emptyBands(), Map.of(), 0);
+
+    private static final Comparator<Neighbor> RANKING = Comparator.comparingDouble(Neighbor::similarity).reversed()
+            .thenComparingLong(Neighbor::recipeId);
+
+    private final long[] recipeIds;
+    private final long[][] products;
+    private final int[][] signatures;
+    private final long[][] bands;
+    private final Map<Long, Integer> ordinals;
+    private final int deleted;
+
+    private RecipeSimilarityIndex(long[] recipeIds, long[][] products, int[][] signatures, long[][] bands,
+                                  Map<Long, Integer> ordinals, int deleted) {
+        this.recipeIds = recipeIds;
+        this.products = products;
+        this.signatures = signatures;
+        this.bands = bands;
+        this.ordinals = ordinals;
+        this.deleted = deleted;
+    }
+
+    private static long[][] emptyBands() {
+        long[][] bands = new long[BANDS][];
+        Arrays.fill(bands, new long[0]);
+        return bands;
+    }
+
+    /**
+     * @return Пустой индекс.
+     */
+    public static RecipeSimilarityIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит индекс по наборам продуктов рецептов.
+     *
+     * @param recipes Идентификаторы продуктов по идентификаторам рецептов.
+     * @return Индекс.
+     */
+    public static RecipeSimilarityIndex build(Map<Long, ? extends Collection<Long>> recipes) {
+        return EMPTY.withRecipes(recipes);
+    }
+
+    /**
+     * Вычисляет MinHash-сигнатуру набора продуктов.
+     * Значения i-й хеш-функции получаются двойным хешированием h1 + i * h2 идентификатора.
+     *
+     * @param productIds Отсортированные идентификаторы продуктов.
+     * @return Сигнатура длиной {@link #SIGNATURE_SIZE}.
+     */
+    static int[] signature(long[] productIds) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long productId : productIds) {
+            long h1 = mix(productId);
+            long h2 = mix(productId ^ 0x9E3779B97F4A7C15L) | 1;
+            long hash = h1;
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) (hash >>> 33); // Неотрицательное значение
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+                hash += h2;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Хеш полосы сигнатуры.
+     */
+    private static int bandKey(int[] signature, int band) {
+        long hash = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = hash * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return (int) (mix(hash) >>> 32);
+    }
+
+    /**
+     * Финализатор MurmurHash3 для 64-битных значений.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        return ids.stream().filter(id -> id != null).mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * Точный коэффициент Жаккара двух отсортированных наборов.
+     */
+    static double jaccard(long[] a, long[] b) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    /**
+     * @return Количество проиндексированных рецептов.
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Возвращает версию индекса с добавленным или замененным набором продуктов рецепта.
+     *
+     * @param recipeId   Идентификатор рецепта.
+     * @param productIds Идентификаторы продуктов; для пустого набора рецепт удаляется из индекса.
+     * @return Новая версия индекса.
+     */
+    public RecipeSimilarityIndex withRecipe(long recipeId, Collection<Long> productIds) {
+        return withRecipes(Map.of(recipeId, productIds));
+    }
+
+    /**
+     * Возвращает версию индекса без рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Новая версия индекса (или эта же, если рецепт не проиндексирован).
+     */
+    public RecipeSimilarityIndex withoutRecipe(long recipeId) {
+        return ordinals.containsKey(recipeId) ? withRecipes(Map.of(recipeId, List.of())) : this;
+    }
+
+    /**
+     * Возвращает версию индекса после изменения связей продукта.
+     *
+     * @param productId Идентификатор продукта.
+     * @param recipeIds Идентификаторы всех рецептов, в которых теперь используется продукт.
+     * @return Новая версия индекса.
+     */
+    public RecipeSimilarityIndex withProduct(long productId, Collection<Long> recipeIds) {
+        Set<Long> linked = new HashSet<>(recipeIds);
+        Map<Long, List<Long>> changed = new HashMap<>();
+        for (Long recipeId : linked) {
+            Integer ordinal = ordinals.get(recipeId);
+            long[] current = ordinal == null ? new long[0] : products[ordinal];
+            if (Arrays.binarySearch(current, productId) < 0) {
+                List<Long> updated = new ArrayList<>(current.length + 1);
+                Arrays.stream(current).forEach(updated::add);
+                updated.add(productId);
+                changed.put(recipeId, updated);
+            }
+        }
+        ordinals.forEach((recipeId, ordinal) -> {
+            if (!linked.contains(recipeId) && Arrays.binarySearch(products[ordinal], productId) >= 0) {
+                changed.put(recipeId, without(products[ordinal], productId));
+            }
+        });
+        return changed.isEmpty() ? this : withRecipes(changed);
+    }
+
+    /**
+     * Возвращает версию индекса, в которой продукт удален из всех рецептов.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Новая версия индекса.
+     */
+    public RecipeSimilarityIndex withoutProduct(long productId) {
+        return withProduct(productId, List.of());
+    }
+
+    private static List<Long> without(long[] productIds, long productId) {
+        List<Long> result = new ArrayList<>(productIds.length);
+        for (long id : productIds) {
+            if (id != productId) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Заменяет наборы продуктов нескольких рецептов одной новой версией индекса.
+     * Прежние записи рецептов помечаются удаленными, новые добавляются в конец;
+     * когда удаленных записей накапливается больше четверти, индекс перестраивается.
+     */
+    private RecipeSimilarityIndex withRecipes(Map<Long, ? extends Collection<Long>> changes) {
+        Map<Long, Integer> newOrdinals = new HashMap<>(ordinals);
+        long[] newRecipeIds = Arrays.copyOf(recipeIds, recipeIds.length + changes.size());
+        long[][] newProducts = Arrays.copyOf(products, newRecipeIds.length);
+        int[][] newSignatures = Arrays.copyOf(signatures, newRecipeIds.length);
+        boolean[] removed = new boolean[recipeIds.length];
+        int newDeleted = deleted;
+        int size = recipeIds.length;
+        for (Map.Entry<Long, ? extends Collection<Long>> change : changes.entrySet()) {
+            Integer previous = newOrdinals.remove(change.getKey());
+            if (previous != null) {
+                removed[previous] = true;
+                newProducts[previous] = null;
+                newSignatures[previous] = null;
+                newDeleted++;
+            }
+            long[] productIds = toSortedArray(change.getValue());
+            if (productIds.length > 0) {
+                newRecipeIds[size] = change.getKey();
+                newProducts[size] = productIds;
+                newSignatures[size] = signature(productIds);
+                newOrdinals.put(change.getKey(), size++);
+            }
+        }
+        if (newDeleted > 0 && newDeleted > newOrdinals.size() / 4) {
+            return compact(newRecipeIds, newProducts, size);
+        }
+
+        long[][] newBands = new long[BANDS][];
+        long[] added = new long[size - recipeIds.length];
+        for (int band = 0; band < BANDS; band++) {
+            for (int ordinal = recipeIds.length; ordinal < size; ordinal++) {
+                added[ordinal - recipeIds.length] = (long) bandKey(newSignatures[ordinal], band) << 32 | ordinal;
+            }
+            Arrays.sort(added);
+            newBands[band] = merge(bands[band], removed, added);
+        }
+        return new RecipeSimilarityIndex(Arrays.copyOf(newRecipeIds, size), Arrays.copyOf(newProducts, size),
+                Arrays.copyOf(newSignatures, size), newBands, newOrdinals, newDeleted);
+    }
+
+    /**
+     * Слияние отсортированных пар полосы без пар удаленных рецептов с отсортированными новыми парами.
+     */
+    private static long[] merge(long[] pairs, boolean[] removed, long[] added) {
+        long[] merged = new long[pairs.length + added.length];
+        int size = 0;
+        int j = 0;
+        for (long pair : pairs) {
+            if (removed[(int) pair]) {
+                continue;
+            }
+            while (j < added.length && added[j] < pair) {
+                merged[size++] = added[j++];
+            }
+            merged[size++] = pair;
+        }
+        while (j < added.length) {
+            merged[size++] = added[j++];
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Перестраивает индекс только из действующих записей.
+     */
+    private static RecipeSimilarityIndex compact(long[] recipeIds, long[][] products, int size) {
+        Map<Long, List<Long>> live = new HashMap<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (products[ordinal] != null) {
+                List<Long> productIds = new ArrayList<>(products[ordinal].length);
+                Arrays.stream(products[ordinal]).forEach(productIds::add);
+                live.put(recipeIds[ordinal], productIds);
+            }
+        }
+        return EMPTY.withRecipes(live);
+    }
+
+    /**
+     * Находит рецепты, наиболее похожие на заданный по составу продуктов.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @param limit    Максимальное количество рецептов.
+     * @return Похожие рецепты по убыванию коэффициента Жаккара; пустой список, если рецепт не проиндексирован.
+     */
+    public List<Neighbor> similar(long recipeId, int limit) {
+        Integer ordinal = ordinals.get(recipeId);
+        if (ordinal == null || limit <= 0) {
+            return List.of();
+        }
+        List<Neighbor> neighbors = neighbors(products[ordinal], signatures[ordinal], ordinal, 0);
+        return neighbors.size() > limit ? List.copyOf(neighbors.subList(0, limit)) : neighbors;
+    }
+
+    /**
+     * Находит рецепты с почти совпадающим набором продуктов, например перед созданием нового рецепта.
+     *
+     * @param productIds    Идентификаторы продуктов.
+     * @param minSimilarity Минимальный коэффициент Жаккара.
+     * @return Найденные рецепты по убыванию коэффициента Жаккара.
+     */
+    public List<Neighbor> nearDuplicates(Collection<Long> productIds, double minSimilarity) {
+        long[] sorted = toSortedArray(productIds);
+        if (sorted.length == 0) {
+            return List.of();
+        }
+        return neighbors(sorted, signature(sorted), -1, minSimilarity);
+    }
+
+    /**
+     * Собирает кандидатов из совпадающих полос и ранжирует их по точному коэффициенту Жаккара.
+     */
+    private List<Neighbor> neighbors(long[] productIds, int[] signature, int self, double minSimilarity) {
+        int[] candidates = new int[64];
+        int count = 0;
+        for (int band = 0; band < BANDS && count < MAX_CANDIDATES; band++) {
+            int key = bandKey(signature, band);
+            long[] pairs = bands[band];
+            for (int i = lowerBound(pairs, (long) key << 32);
+                 i < pairs.length && (int) (pairs[i] >> 32) == key && count < MAX_CANDIDATES; i++) {
+                if (count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = (int) pairs[i];
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        List<Neighbor> neighbors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int candidate = candidates[i];
+            if (candidate == self || (i > 0 && candidate == candidates[i - 1])) {
+                continue;
+            }
+            double similarity = jaccard(productIds, products[candidate]);
+            if (similarity > 0 && similarity >= minSimilarity) {
+                neighbors.add(new Neighbor(recipeIds[candidate], similarity));
+            }
+        }
+        neighbors.sort(RANKING);
+        return neighbors;
+    }
+
+    /**
+     * Индекс первой пары, не меньшей заданной.
+     */
+    private static int lowerBound(long[] pairs, long pair) {
+        int low = 0;
+        int high = pairs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pairs[mid] < pair) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
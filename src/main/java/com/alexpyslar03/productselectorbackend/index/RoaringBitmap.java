@@ -0,0 +1,324 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Неизменяемое сжатое битовое множество неотрицательных int в духе Roaring Bitmap.
+ * <p>
+ * Значения разбиваются на блоки по старшим 16 битам; каждый блок хранится в контейнере,
+ * тип которого выбирается по плотности: массив, битовая карта или серии.
+ * Благодаря этому и редкие продукты (несколько рецептов), и частые (десятки тысяч рецептов)
+ * занимают память, пропорциональную фактическому объему данных, а не размеру каталога.
+ * </p>
+ */
+public final class RoaringBitmap {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap(new char[0], new Container[0]);
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private RoaringBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    /**
+     * @return Пустое множество.
+     */
+    public static RoaringBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Создает множество из произвольных неотрицательных значений.
+     *
+     * @param values Значения (порядок и повторы не важны).
+     * @return Множество.
+     */
+    public static RoaringBitmap of(int... values) {
+        int[] sorted = Arrays.stream(values).sorted().distinct().toArray();
+        return fromSorted(sorted, sorted.length);
+    }
+
+    /**
+     * Создает множество из отсортированных по возрастанию уникальных неотрицательных значений.
+     *
+     * @param values Значения.
+     * @param length Количество используемых элементов массива.
+     * @return Множество.
+     */
+    public static RoaringBitmap fromSorted(int[] values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        char[] keys = new char[(values[length - 1] >>> 16) - (values[0] >>> 16) + 1];
+        Container[] containers = new Container[keys.length];
+        int size = 0;
+        int from = 0;
+        while (from < length) {
+            int high = values[from] >>> 16;
+            int to = from;
+            while (to < length && values[to] >>> 16 == high) {
+                to++;
+            }
+            keys[size] = (char) high;
+            containers[size] = Container.fromSorted(values, from, to);
+            size++;
+            from = to;
+        }
+        return new RoaringBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size));
+    }
+
+    /**
+     * @return Количество значений в множестве.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (Container container : containers) {
+            count += container.cardinality();
+        }
+        return count;
+    }
+
+    /**
+     * @return true, если множество пусто.
+     */
+    public boolean isEmpty() {
+        return containers.length == 0;
+    }
+
+    /**
+     * Проверяет наличие значения в множестве.
+     *
+     * @param value Значение.
+     * @return true, если значение присутствует.
+     */
+    public boolean contains(int value) {
+        int pos = Arrays.binarySearch(keys, (char) (value >>> 16));
+        return pos >= 0 && containers[pos].contains((char) value);
+    }
+
+    /**
+     * Возвращает множество с добавленным значением. Исходное множество не изменяется;
+     * копируется только затронутый контейнер.
+     *
+     * @param value Значение.
+     * @return Новое множество (или это же, если значение уже присутствует).
+     */
+    public RoaringBitmap add(int value) {
+        char key = (char) (value >>> 16);
+        int pos = Arrays.binarySearch(keys, key);
+        if (pos >= 0) {
+            Container updated = containers[pos].add((char) value);
+            return updated == containers[pos] ? this : replace(pos, updated);
+        }
+        int insertion = -pos - 1;
+        char[] newKeys = new char[keys.length + 1];
+        Container[] newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertion);
+        System.arraycopy(containers, 0, newContainers, 0, insertion);
+        newKeys[insertion] = key;
+        newContainers[insertion] = new ArrayContainer(new char[]{(char) value});
+        System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+        System.arraycopy(containers, insertion, newContainers, insertion + 1, containers.length - insertion);
+        return new RoaringBitmap(newKeys, newContainers);
+    }
+
+    /**
+     * Возвращает множество без указанного значения. Исходное множество не изменяется.
+     *
+     * @param value Значение.
+     * @return Новое множество (или это же, если значение отсутствует).
+     */
+    public RoaringBitmap remove(int value) {
+        int pos = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (pos < 0) {
+            return this;
+        }
+        Container updated = containers[pos].remove((char) value);
+        return updated == containers[pos] ? this : replace(pos, updated);
+    }
+
+    private RoaringBitmap replace(int pos, Container container) {
+        if (container == null) {
+            char[] newKeys = new char[keys.length - 1];
+            Container[] newContainers = new Container[containers.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(containers, 0, newContainers, 0, pos);
+            System.arraycopy(keys, pos + 1, newKeys, pos, keys.length - pos - 1);
+            System.arraycopy(containers, pos + 1, newContainers, pos, containers.length - pos - 1);
+            return newKeys.length == 0 ? EMPTY : new RoaringBitmap(newKeys, newContainers);
+        }
+        Container[] newContainers = containers.clone();
+        newContainers[pos] = container;
+        return new RoaringBitmap(keys, newContainers);
+    }
+
+    /**
+     * Вызывает действие для каждого значения в порядке возрастания.
+     *
+     * @param action Действие.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * @return Значения множества в порядке возрастания.
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int[] pos = {0};
+        forEach(value -> result[pos[0]++] = value);
+        return result;
+    }
+
+    /**
+     * Объединяет множество с плотным множеством (target |= this).
+     *
+     * @param target Плотное множество-приемник.
+     */
+    public void orInto(DenseBitSet target) {
+        long[] words = target.words();
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].orInto(words, keys[i] * Container.WORDS_PER_CHUNK);
+        }
+    }
+
+    /**
+     * Возвращает мощность пересечения с плотным множеством.
+     *
+     * @param other Плотное множество.
+     * @return |this ∩ other|.
+     */
+    public int andCardinality(DenseBitSet other) {
+        long[] words = other.words();
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            count += containers[i].andCardinality(words, keys[i] * Container.WORDS_PER_CHUNK);
+        }
+        return count;
+    }
+
+    /**
+     * Возвращает мощность разности с плотным множеством, прекращая подсчет после превышения порога.
+     *
+     * @param other Плотное множество.
+     * @param limit Порог.
+     * @return Точное значение |this \ other|, если оно не превышает limit, иначе число больше limit.
+     */
+    public int andNotCardinality(DenseBitSet other, int limit) {
+        long[] words = other.words();
+        int count = 0;
+        for (int i = 0; i < keys.length && count <= limit; i++) {
+            count += containers[i].andNotCardinality(words, keys[i] * Container.WORDS_PER_CHUNK, limit - count);
+        }
+        return count;
+    }
+
+    /**
+     * Пересечение двух множеств.
+     *
+     * @param other Второе множество.
+     * @return this ∩ other.
+     */
+    public RoaringBitmap and(RoaringBitmap other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        char[] newKeys = new char[capacity];
+        Container[] newContainers = new Container[capacity];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = Container.and(containers[i], other.containers[j]);
+                if (container != null) {
+                    newKeys[size] = keys[i];
+                    newContainers[size++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return create(newKeys, newContainers, size);
+    }
+
+    /**
+     * Объединение двух множеств.
+     *
+     * @param other Второе множество.
+     * @return this ∪ other.
+     */
+    public RoaringBitmap or(RoaringBitmap other) {
+        char[] newKeys = new char[keys.length + other.keys.length];
+        Container[] newContainers = new Container[newKeys.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j >= other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                newKeys[size] = keys[i];
+                newContainers[size++] = containers[i++];
+            } else if (i >= keys.length || keys[i] > other.keys[j]) {
+                newKeys[size] = other.keys[j];
+                newContainers[size++] = other.containers[j++];
+            } else {
+                newKeys[size] = keys[i];
+                newContainers[size++] = Container.or(containers[i++], other.containers[j++]);
+            }
+        }
+        return create(newKeys, newContainers, size);
+    }
+
+    /**
+     * Разность двух множеств.
+     *
+     * @param other Вычитаемое множество.
+     * @return this \ other.
+     */
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        char[] newKeys = new char[keys.length];
+        Container[] newContainers = new Container[keys.length];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container container = j < other.keys.length && other.keys[j] == keys[i]
+                    ? Container.andNot(containers[i], other.containers[j])
+                    : containers[i];
+            if (container != null) {
+                newKeys[size] = keys[i];
+                newContainers[size++] = container;
+            }
+        }
+        return create(newKeys, newContainers, size);
+    }
+
+    private static RoaringBitmap create(char[] keys, Container[] containers, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new RoaringBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size));
+    }
+
+    /**
+     * @return Оценка занимаемой памяти в байтах.
+     */
+    public long sizeInBytes() {
+        long size = 16L + 2L * keys.length + 8L * containers.length;
+        for (Container container : containers) {
+            size += container.sizeInBytes();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,182 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Контейнер для блоков из длинных серий: пары (начало, длина - 1), упорядоченные по началу.
+ */
+final class RunContainer extends Container {
+
+    private final char[] runs;
+    private final int cardinality;
+
+    private RunContainer(char[] runs) {
+        this.runs = runs;
+        int count = 0;
+        for (int i = 1; i < runs.length; i += 2) {
+            count += runs[i] + 1;
+        }
+        this.cardinality = count;
+    }
+
+    static long sizeFor(int runCount) {
+        return 16L + 4L * runCount;
+    }
+
+    static RunContainer fromSorted(int[] values, int from, int to, int runCount) {
+        char[] runs = new char[runCount * 2];
+        int pos = -2;
+        for (int i = from; i < to; i++) {
+            if (i == from || values[i] != values[i - 1] + 1) {
+                pos += 2;
+                runs[pos] = (char) values[i];
+                runs[pos + 1] = 0;
+            } else {
+                runs[pos + 1]++;
+            }
+        }
+        return new RunContainer(runs);
+    }
+
+    static RunContainer fromWords(long[] words, int runCount) {
+        char[] runs = new char[runCount * 2];
+        int pos = -2;
+        int previous = -2;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int value = (i << 6) + Long.numberOfTrailingZeros(word);
+                if (value != previous + 1) {
+                    pos += 2;
+                    runs[pos] = (char) value;
+                    runs[pos + 1] = 0;
+                } else {
+                    runs[pos + 1]++;
+                }
+                previous = value;
+                word &= word - 1;
+            }
+        }
+        return new RunContainer(runs);
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        int low = 0;
+        int high = runs.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int start = runs[2 * mid];
+            if (value < start) {
+                high = mid - 1;
+            } else if (value > start + runs[2 * mid + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    Container add(char value) {
+        if (contains(value)) {
+            return this;
+        }
+        long[] words = toWords();
+        words[value >>> 6] |= 1L << value;
+        return fromWords(words);
+    }
+
+    @Override
+    Container remove(char value) {
+        if (!contains(value)) {
+            return this;
+        }
+        long[] words = toWords();
+        words[value >>> 6] &= ~(1L << value);
+        return fromWords(words);
+    }
+
+    @Override
+    void forEach(int high, IntConsumer action) {
+        for (int i = 0; i < runs.length; i += 2) {
+            int start = runs[i];
+            int end = start + runs[i + 1];
+            for (int value = start; value <= end; value++) {
+                action.accept(high | value);
+            }
+        }
+    }
+
+    @Override
+    void orInto(long[] target, int wordOffset) {
+        for (int i = 0; i < runs.length; i += 2) {
+            int start = runs[i];
+            int end = start + runs[i + 1];
+            for (int w = start >>> 6; w <= end >>> 6; w++) {
+                int index = wordOffset + w;
+                if (index >= target.length) {
+                    return;
+                }
+                target[index] |= rangeMask(w, start, end);
+            }
+        }
+    }
+
+    @Override
+    int andCardinality(long[] target, int wordOffset) {
+        int count = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            int start = runs[i];
+            int end = start + runs[i + 1];
+            for (int w = start >>> 6; w <= end >>> 6; w++) {
+                count += Long.bitCount(rangeMask(w, start, end) & wordAt(target, wordOffset + w));
+            }
+        }
+        return count;
+    }
+
+    @Override
+    int andNotCardinality(long[] target, int wordOffset, int limit) {
+        int count = 0;
+        for (int i = 0; i < runs.length && count <= limit; i += 2) {
+            int start = runs[i];
+            int end = start + runs[i + 1];
+            for (int w = start >>> 6; w <= end >>> 6; w++) {
+                count += Long.bitCount(rangeMask(w, start, end) & ~wordAt(target, wordOffset + w));
+            }
+        }
+        return count;
+    }
+
+    @Override
+    void fillWords(long[] words) {
+        for (int i = 0; i < runs.length; i += 2) {
+            int start = runs[i];
+            int end = start + runs[i + 1];
+            for (int w = start >>> 6; w <= end >>> 6; w++) {
+                words[w] |= rangeMask(w, start, end);
+            }
+        }
+    }
+
+    @Override
+    long sizeInBytes() {
+        return sizeFor(runs.length / 2);
+    }
+
+    /**
+     * Маска битов слова w, попадающих в интервал [start, end].
+     */
+    private static long rangeMask(int w, int start, int end) {
+        int from = Math.max(start, w << 6) & 63;
+        int to = Math.min(end, (w << 6) + 63) & 63;
+        return (-1L >>> (63 - to)) & (-1L << from);
+    }
+}
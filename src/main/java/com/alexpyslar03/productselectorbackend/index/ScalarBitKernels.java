@@ -0,0 +1,60 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+/**
+ * Скалярная реализация пословных операций: по одному слову за шаг.
+ */
+final class ScalarBitKernels extends BitKernels {
+
+    @Override
+    String name() {
+        return "scalar";
+    }
+
+    @Override
+    void or(long[] target, int targetOffset, long[] source, int sourceOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            target[targetOffset + i] |= source[sourceOffset + i];
+        }
+    }
+
+    @Override
+    void and(long[] target, long[] source, int length) {
+        for (int i = 0; i < length; i++) {
+            target[i] &= source[i];
+        }
+    }
+
+    @Override
+    void andNot(long[] target, long[] source, int length) {
+        for (int i = 0; i < length; i++) {
+            target[i] &= ~source[i];
+        }
+    }
+
+    @Override
+    int cardinality(long[] words, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    @Override
+    int andCardinality(long[] a, int aOffset, long[] b, int bOffset, int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(a[aOffset + i] & b[bOffset + i]);
+        }
+        return count;
+    }
+
+    @Override
+    int andNotCardinality(long[] a, int aOffset, long[] b, int bOffset, int length, int limit) {
+        int count = 0;
+        for (int i = 0; i < length && count <= limit; i++) {
+            count += Long.bitCount(a[aOffset + i] & ~b[bOffset + i]);
+        }
+        return count;
+    }
+}
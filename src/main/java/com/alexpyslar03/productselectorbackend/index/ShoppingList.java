@@ -0,0 +1,59 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Сводный список покупок для набора рецептов.
+ * <p>
+ * Список строится за один проход по множествам продуктов выбранных рецептов в индексе:
+ * продукты, которых нет в наборе пользователя, отмечаются в битовом множестве и подсчитываются
+ * по количеству рецептов, которым они нужны. Сущности продуктов и рецептов не загружаются.
+ * </p>
+ */
+public final class ShoppingList {
+
+    private ShoppingList() {
+    }
+
+    /**
+     * Продукт списка покупок.
+     *
+     * @param productId   Идентификатор продукта.
+     * @param recipeCount Количество выбранных рецептов, которым нужен продукт.
+     */
+    public record Item(long productId, int recipeCount) {
+    }
+
+    /**
+     * Составляет список продуктов, нужных выбранным рецептам и отсутствующих в наборе.
+     * Неизвестные идентификаторы рецептов и повторы игнорируются.
+     *
+     * @param index     Индекс рецептов.
+     * @param recipeIds Идентификаторы выбранных рецептов.
+     * @param pantry    Битовое множество имеющихся продуктов.
+     * @return Продукты по возрастанию идентификатора.
+     */
+    public static List<Item> build(RecipeIndex index, Collection<Long> recipeIds, DenseBitSet pantry) {
+        int[] counts = new int[index.productCount()];
+        DenseBitSet needed = new DenseBitSet(index.productCount());
+        for (Long recipeId : new HashSet<>(recipeIds)) {
+            int ordinal = recipeId == null ? -1 : index.recipeOrdinal(recipeId);
+            if (ordinal < 0) {
+                continue;
+            }
+            index.recipeProducts(ordinal).forEach(product -> {
+                if (!pantry.get(product)) {
+                    counts[product]++;
+                    needed.set(product);
+                }
+            });
+        }
+        // Порядковые номера продуктов возрастают вместе с идентификаторами
+        List<Item> items = new ArrayList<>(needed.cardinality());
+        needed.forEach(product -> items.add(new Item(index.productId(product), counts[product])));
+        return items;
+    }
+}
@@ -0,0 +1,97 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ограниченная куча для отбора K лучших элементов.
+ * <p>
+ * В куче хранится не более K элементов, худший из них находится в вершине,
+ * поэтому память занимает O(K), а вставка — O(log K) независимо от числа кандидатов.
+ * </p>
+ *
+ * @param <T> Тип элементов.
+ */
+public final class TopKCollector<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param k          Максимальное количество отбираемых элементов.
+     * @param comparator Порядок, в котором больший элемент считается лучшим.
+     */
+    public TopKCollector(int k, Comparator<? super T> comparator) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k должно быть положительным.");
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(k, comparator);
+    }
+
+    /**
+     * Предлагает элемент коллектору.
+     *
+     * @param element Кандидат.
+     * @return true, если элемент попал в число лучших.
+     */
+    public boolean offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+            return true;
+        }
+        if (comparator.compare(element, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(element);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Переносит в коллектор элементы другого коллектора с тем же K и порядком.
+     * Используется для слияния результатов, собранных параллельно по частям данных.
+     *
+     * @param other Другой коллектор.
+     * @return Этот коллектор.
+     */
+    public TopKCollector<T> merge(TopKCollector<T> other) {
+        for (T element : other.heap) {
+            offer(element);
+        }
+        return this;
+    }
+
+    /**
+     * Проверяет, заполнена ли куча.
+     *
+     * @return true, если отобрано K элементов.
+     */
+    public boolean isFull() {
+        return heap.size() >= k;
+    }
+
+    /**
+     * Возвращает худший из отобранных элементов.
+     *
+     * @return Худший элемент или null, если коллектор пуст.
+     */
+    public T worst() {
+        return heap.peek();
+    }
+
+    /**
+     * Возвращает отобранные элементы, начиная с лучшего.
+     *
+     * @return Отсортированный список.
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator.reversed());
+        return result;
+    }
+}
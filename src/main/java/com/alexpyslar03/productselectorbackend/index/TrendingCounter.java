@@ -0,0 +1,172 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчик популярности идентификаторов с затуханием во времени.
+ * <p>
+ * Обращения считаются в count-min sketch: {@code depth} строк по {@code width} ячеек {@link LongAdder},
+ * оценка идентификатора — минимум его ячеек по строкам. Память не зависит от количества различных
+ * идентификаторов, а запись — несколько сложений без блокировок. Последние идентификаторы
+ * записываются в кольцевой буфер фиксированного размера и вместе с текущими лидерами
+ * образуют кандидатов для {@link #refresh}, который умножает все ячейки на коэффициент затухания
+ * и пересчитывает K лидеров в куче. Чтение лидеров возвращает результат последнего пересчета.
+ * </p>
+ */
+public final class TrendingCounter {
+
+    /**
+     * Вес одного обращения в ячейках; дробная часть сохраняет затухающие редкие обращения.
+     */
+    static final long UNIT = 1 << 10;
+
+    /**
+     * Идентификатор популярного объекта с его оценкой.
+     *
+     * @param id    Идентификатор.
+     * @param score Оценка количества обращений с учетом затухания.
+     */
+    public record Entry(long id, double score) {
+    }
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble(Entry::score)
+            .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int width;
+    private final int depth;
+    private final int k;
+    private final long[] seeds;
+    private final LongAdder[] cells;
+    private final AtomicLongArray recent;
+    private final AtomicInteger recentCursor = new AtomicInteger();
+    private volatile List<Entry> top = List.of();
+
+    /**
+     * @param width      Количество ячеек в строке (округляется вверх до степени двойки).
+     * @param depth      Количество строк.
+     * @param recentSize Размер буфера последних идентификаторов (округляется вверх до степени двойки).
+     * @param k          Количество лидеров.
+     */
+    public TrendingCounter(int width, int depth, int recentSize, int k) {
+        if (width < 1 || depth < 1 || recentSize < 1 || k < 1) {
+            throw new IllegalArgumentException("Размеры счетчика должны быть положительными.");
+        }
+        this.width = powerOfTwo(width);
+        this.depth = depth;
+        this.k = k;
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = mix(0x9E3779B97F4A7C15L * (row + 1));
+        }
+        this.cells = new LongAdder[this.width * depth];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+        this.recent = new AtomicLongArray(powerOfTwo(recentSize));
+        for (int i = 0; i < recent.length(); i++) {
+            recent.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Учитывает одно обращение к идентификатору.
+     *
+     * @param id Идентификатор.
+     */
+    public void record(long id) {
+        for (int row = 0; row < depth; row++) {
+            cells[cell(row, id)].add(UNIT);
+        }
+        recent.lazySet(recentCursor.getAndIncrement() & (recent.length() - 1), id);
+    }
+
+    /**
+     * Возвращает оценку количества обращений к идентификатору с учетом затухания.
+     * Оценка не меньше истинного значения и превышает его не более чем на долю
+     * от всех обращений, обратную ширине строки.
+     *
+     * @param id Идентификатор.
+     * @return Оценка.
+     */
+    public double estimate(long id) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells[cell(row, id)].sum());
+        }
+        return Math.max(0, min) / (double) UNIT;
+    }
+
+    /**
+     * Применяет затухание и пересчитывает лидеров по последним идентификаторам и прежним лидерам.
+     *
+     * @param decay Коэффициент затухания от 0 до 1, на который умножаются все счетчики.
+     * @return Лидеры, начиная с самого популярного.
+     */
+    public synchronized List<Entry> refresh(double decay) {
+        if (decay < 0 || decay > 1) {
+            throw new IllegalArgumentException("Коэффициент затухания должен быть от 0 до 1.");
+        }
+        if (decay < 1) {
+            for (LongAdder cell : cells) {
+                long value = cell.sum();
+                // Обращения, учтенные между чтением и вычитанием, сохраняются без затухания
+                cell.add((long) (value * decay) - value);
+            }
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (int i = 0; i < recent.length(); i++) {
+            long id = recent.get(i);
+            if (id != EMPTY) {
+                candidates.add(id);
+            }
+        }
+        top.forEach(entry -> candidates.add(entry.id()));
+
+        PriorityQueue<Entry> heap = new PriorityQueue<>(k + 1, BY_SCORE);
+        for (long id : candidates) {
+            double score = estimate(id);
+            if (score <= 0) {
+                continue;
+            }
+            heap.add(new Entry(id, score));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Entry> refreshed = new ArrayList<>(heap);
+        refreshed.sort(BY_SCORE.reversed());
+        top = List.copyOf(refreshed);
+        return top;
+    }
+
+    /**
+     * @return Лидеры на момент последнего пересчета, начиная с самого популярного.
+     */
+    public List<Entry> top() {
+        return top;
+    }
+
+    private int cell(int row, long id) {
+        return row * width + (int) (mix(id ^ seeds[row]) & (width - 1));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,356 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый триграммный индекс названий для нечеткого поиска с опечатками.
+ * <p>
+ * Каждое слово нормализованного названия (см. {@link NameIndex#normalize(String)}) дополняется
+ * пробелами и разбивается на триграммы; для каждой триграммы хранится отсортированный список
+ * порядковых номеров названий. Поиск подсчитывает общие с запросом триграммы и оставляет
+ * кандидатов, у которых их не меньше, чем допускает q-граммная лемма для расстояния k
+ * (каждая правка затрагивает не более трех триграмм). Для кандидатов вычисляется
+ * расстояние Левенштейна в полосе шириной k с досрочным прекращением, поэтому полный
+ * перебор каталога не требуется.
+ * </p>
+ * <p>
+ * Изменение создает новую версию индекса: меняются только затронутые списки триграмм,
+ * удаленные названия помечаются и вычищаются при накоплении.
+ * </p>
+ */
+public final class TrigramIndex {
+
+    /**
+     * Найденное название и расстояние редактирования до запроса.
+     *
+     * @param entry    Название.
+     * @param distance Расстояние Левенштейна до названия или ближайшего его слова.
+     */
+    public record Match(NameIndex.Entry entry, int distance) {
+    }
+
+    /**
+     * Максимально допустимое расстояние редактирования.
+     */
+    public static final int MAX_DISTANCE = 3;
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::distance)
+            .thenComparing(match -> -match.entry().popularity())
+            .thenComparing(match -> match.entry().name());
+
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private static final char PADDING = ' ';
+    private static final long TRIGRAM_MASK = (1L << 48) - 1;
+
+    /**
+     * Буфер счетчиков общих триграмм, переиспользуемый запросами одного потока.
+     */
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> NO_ORDINALS);
+
+    private final NameIndex.Entry[] entries;
+    private final String[] names;
+    private final Map<Long, int[]> postings;
+    private final int deleted;
+
+    private TrigramIndex(NameIndex.Entry[] entries, String[] names, Map<Long, int[]> postings, int deleted) {
+        this.entries = entries;
+        this.names = names;
+        this.postings = postings;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Строит индекс по набору названий.
+     *
+     * @param entries Названия; записи с пустым названием пропускаются.
+     * @return Индекс.
+     */
+    public static TrigramIndex build(Collection<NameIndex.Entry> entries) {
+        List<NameIndex.Entry> kept = new ArrayList<>(entries.size());
+        List<String> names = new ArrayList<>(entries.size());
+        List<long[]> nameTrigrams = new ArrayList<>(entries.size());
+        Map<Long, int[]> counts = new HashMap<>();
+        for (NameIndex.Entry entry : entries) {
+            String name = entry.name() == null ? "" : NameIndex.normalize(entry.name());
+            if (name.isEmpty()) {
+                continue;
+            }
+            long[] trigrams = trigrams(name);
+            kept.add(entry);
+            names.add(name);
+            nameTrigrams.add(trigrams);
+            for (long trigram : trigrams) {
+                counts.computeIfAbsent(trigram, key -> new int[1])[0]++;
+            }
+        }
+        // Второй проход заполняет списки заранее известной длины без упаковки порядковых номеров
+        Map<Long, int[]> postings = new HashMap<>(counts.size() * 2);
+        counts.forEach((trigram, count) -> {
+            postings.put(trigram, new int[count[0]]);
+            count[0] = 0;
+        });
+        for (int ordinal = 0; ordinal < nameTrigrams.size(); ordinal++) {
+            for (long trigram : nameTrigrams.get(ordinal)) {
+                postings.get(trigram)[counts.get(trigram)[0]++] = ordinal;
+            }
+        }
+        return new TrigramIndex(kept.toArray(NameIndex.Entry[]::new), names.toArray(String[]::new), postings, 0);
+    }
+
+    /**
+     * Различные триграммы слов строки; каждое слово дополняется пробелом в начале и в конце.
+     * <p>
+     * Триграммы вида «пробел, пробел, буква» не строятся: по сути это первая буква слова,
+     * и их списки, содержащие каждое двадцатое-тридцатое название каталога, только
+     * увеличивали бы число кандидатов для проверки.
+     * </p>
+     */
+    static long[] trigrams(String normalized) {
+        long[] result = new long[normalized.length() + 1];
+        int size = 0;
+        long window = PADDING; // Пробел перед первым словом
+        boolean wordStart = true;
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : PADDING;
+            window = (window << 16 | c) & TRIGRAM_MASK;
+            if (!wordStart) {
+                result[size++] = window;
+            }
+            wordStart = false;
+            if (c == PADDING) {
+                window = PADDING; // Следующее слово снова начинается с пробела
+                wordStart = true;
+            }
+        }
+        Arrays.sort(result, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * Допустимое расстояние редактирования для запроса указанной длины.
+     *
+     * @param length Длина нормализованного запроса.
+     * @return От 0 для очень коротких запросов до {@link #MAX_DISTANCE}.
+     */
+    public static int maxDistance(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        if (length <= 5) {
+            return 1;
+        }
+        return length <= 10 ? 2 : MAX_DISTANCE;
+    }
+
+    /**
+     * @return Количество действующих названий.
+     */
+    public int size() {
+        return entries.length - deleted;
+    }
+
+    /**
+     * Возвращает версию индекса с добавленным или замененным названием.
+     *
+     * @param entry Название.
+     * @return Новая версия индекса.
+     */
+    public TrigramIndex with(NameIndex.Entry entry) {
+        TrigramIndex base = without(entry.id());
+        String name = entry.name() == null ? "" : NameIndex.normalize(entry.name());
+        if (name.isEmpty()) {
+            return base;
+        }
+        int ordinal = base.entries.length;
+        Map<Long, int[]> newPostings = new HashMap<>(base.postings);
+        for (long trigram : trigrams(name)) {
+            int[] ordinals = newPostings.getOrDefault(trigram, NO_ORDINALS);
+            int[] extended = Arrays.copyOf(ordinals, ordinals.length + 1);
+            extended[ordinals.length] = ordinal; // Новый порядковый номер больше всех существующих
+            newPostings.put(trigram, extended);
+        }
+        NameIndex.Entry[] newEntries = Arrays.copyOf(base.entries, ordinal + 1);
+        newEntries[ordinal] = entry;
+        String[] newNames = Arrays.copyOf(base.names, ordinal + 1);
+        newNames[ordinal] = name;
+        return new TrigramIndex(newEntries, newNames, newPostings, base.deleted);
+    }
+
+    /**
+     * Возвращает версию индекса без названия сущности.
+     * Когда удаленных названий накапливается больше четверти, индекс перестраивается.
+     *
+     * @param id Идентификатор сущности.
+     * @return Новая версия индекса (или эта же, если сущность не проиндексирована).
+     */
+    public TrigramIndex without(long id) {
+        int ordinal = -1;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] != null && entries[i].id() == id) {
+                ordinal = i;
+                break;
+            }
+        }
+        if (ordinal < 0) {
+            return this;
+        }
+        NameIndex.Entry[] newEntries = entries.clone();
+        newEntries[ordinal] = null;
+        if (deleted + 1 > entries.length / 4) {
+            return build(Arrays.stream(newEntries).filter(entry -> entry != null).toList());
+        }
+        Map<Long, int[]> newPostings = new HashMap<>(postings);
+        for (long trigram : trigrams(names[ordinal])) {
+            int[] ordinals = newPostings.get(trigram);
+            int pos = Arrays.binarySearch(ordinals, ordinal);
+            if (ordinals.length == 1) {
+                newPostings.remove(trigram);
+            } else {
+                int[] reduced = new int[ordinals.length - 1];
+                System.arraycopy(ordinals, 0, reduced, 0, pos);
+                System.arraycopy(ordinals, pos + 1, reduced, pos, reduced.length - pos);
+                newPostings.put(trigram, reduced);
+            }
+        }
+        return new TrigramIndex(newEntries, names, newPostings, deleted + 1);
+    }
+
+    /**
+     * Находит названия, отличающиеся от запроса (или одно из слов которых отличается от запроса)
+     * не более чем на {@link #maxDistance(int)} правок.
+     *
+     * @param query Запрос в произвольном регистре.
+     * @param limit Максимальное количество результатов.
+     * @return Найденные названия по возрастанию расстояния, затем по убыванию популярности.
+     */
+    public List<Match> search(String query, int limit) {
+        String normalized = NameIndex.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int maxDistance = maxDistance(normalized.length());
+        long[] queryTrigrams = trigrams(normalized);
+        int threshold = Math.max(1, queryTrigrams.length - 3 * maxDistance);
+
+        int[] counts = COUNTS.get();
+        if (counts.length < entries.length) {
+            counts = new int[entries.length];
+            COUNTS.set(counts);
+        }
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        for (long trigram : queryTrigrams) {
+            for (int ordinal : postings.getOrDefault(trigram, NO_ORDINALS)) {
+                if (counts[ordinal]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = ordinal;
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < touchedCount; i++) {
+            int ordinal = touched[i];
+            if (counts[ordinal] >= threshold) {
+                int distance = bestDistance(normalized, names[ordinal], maxDistance);
+                if (distance <= maxDistance) {
+                    matches.add(new Match(entries[ordinal], distance));
+                }
+            }
+            counts[ordinal] = 0;
+        }
+        matches.sort(RANKING);
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Расстояние до названия целиком или, для запроса из одного слова, до ближайшего слова названия.
+     * Слова, длина которых отличается от запроса больше чем на maxDistance, не сравниваются.
+     */
+    private static int bestDistance(String query, String name, int maxDistance) {
+        int best = distance(query, name, 0, name.length(), maxDistance);
+        if (best > 0 && query.indexOf(' ') < 0) {
+            int start = 0;
+            while (start < name.length()) {
+                int end = name.indexOf(' ', start);
+                if (end < 0) {
+                    if (start == 0) {
+                        break; // Название из одного слова уже сравнено целиком
+                    }
+                    end = name.length();
+                }
+                if (Math.abs(end - start - query.length()) <= Math.min(best - 1, maxDistance)) {
+                    best = Math.min(best, distance(query, name, start, end, Math.min(best - 1, maxDistance)));
+                }
+                start = end + 1;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Расстояние Левенштейна, вычисляемое в полосе шириной maxDistance вокруг диагонали.
+     *
+     * @return Точное расстояние, если оно не превышает maxDistance, иначе maxDistance + 1.
+     */
+    static int distance(String a, String b, int maxDistance) {
+        return distance(a, b, 0, b.length(), maxDistance);
+    }
+
+    /**
+     * Расстояние Левенштейна между a и подстрокой b[bStart, bEnd).
+     */
+    private static int distance(String a, String b, int bStart, int bEnd, int maxDistance) {
+        int bLength = bEnd - bStart;
+        int outside = maxDistance + 1;
+        if (maxDistance < 0 || Math.abs(a.length() - bLength) > maxDistance) {
+            return outside;
+        }
+        int[] previous = new int[bLength + 1];
+        int[] current = new int[bLength + 1];
+        for (int j = 0; j <= bLength; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(bLength, i + maxDistance);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+            int rowMin = from == 1 ? current[0] : outside;
+            char c = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == b.charAt(bStart + j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < bLength) {
+                current[to + 1] = outside;
+            }
+            if (rowMin > maxDistance) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[bLength], outside);
+    }
+}
@@ -0,0 +1,130 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторная реализация пословных операций на Vector API.
+ * <p>
+ * Основной цикл обрабатывает по {@code SPECIES.length()} слов за шаг (4 на AVX2, 8 на AVX-512),
+ * остаток обрабатывается скалярно. Подсчет битов накапливается в векторе и сворачивается
+ * один раз в конце, а при подсчете с порогом — после каждого блока из {@link #BLOCK_WORDS} слов.
+ * </p>
+ */
+final class VectorBitKernels extends BitKernels {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Размер блока в словах, после которого проверяется порог при подсчете разности.
+     */
+    private static final int BLOCK_WORDS = 64;
+
+    /**
+     * @return true, если процессор поддерживает векторы хотя бы из двух long.
+     */
+    static boolean isSupported() {
+        return SPECIES.length() >= 2;
+    }
+
+    @Override
+    String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    void or(long[] target, int targetOffset, long[] source, int sourceOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, target, targetOffset + i)
+                    .or(LongVector.fromArray(SPECIES, source, sourceOffset + i))
+                    .intoArray(target, targetOffset + i);
+        }
+        for (; i < length; i++) {
+            target[targetOffset + i] |= source[sourceOffset + i];
+        }
+    }
+
+    @Override
+    void and(long[] target, long[] source, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, target, i)
+                    .and(LongVector.fromArray(SPECIES, source, i))
+                    .intoArray(target, i);
+        }
+        for (; i < length; i++) {
+            target[i] &= source[i];
+        }
+    }
+
+    @Override
+    void andNot(long[] target, long[] source, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, target, i)
+                    .lanewise(VectorOperators.AND_NOT, LongVector.fromArray(SPECIES, source, i))
+                    .intoArray(target, i);
+        }
+        for (; i < length; i++) {
+            target[i] &= ~source[i];
+        }
+    }
+
+    @Override
+    int cardinality(long[] words, int from, int to) {
+        int length = to - from;
+        LongVector counts = LongVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            counts = counts.add(bitCount(LongVector.fromArray(SPECIES, words, from + i)));
+        }
+        int count = (int) counts.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            count += Long.bitCount(words[from + i]);
+        }
+        return count;
+    }
+
+    @Override
+    int andCardinality(long[] a, int aOffset, long[] b, int bOffset, int length) {
+        LongVector counts = LongVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            counts = counts.add(bitCount(LongVector.fromArray(SPECIES, a, aOffset + i)
+                    .and(LongVector.fromArray(SPECIES, b, bOffset + i))));
+        }
+        int count = (int) counts.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            count += Long.bitCount(a[aOffset + i] & b[bOffset + i]);
+        }
+        return count;
+    }
+
+    @Override
+    int andNotCardinality(long[] a, int aOffset, long[] b, int bOffset, int length, int limit) {
+        int count = 0;
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        while (i < bound && count <= limit) {
+            LongVector counts = LongVector.zero(SPECIES);
+            for (int blockEnd = Math.min(bound, i + BLOCK_WORDS); i < blockEnd; i += SPECIES.length()) {
+                counts = counts.add(bitCount(LongVector.fromArray(SPECIES, a, aOffset + i)
+                        .lanewise(VectorOperators.AND_NOT, LongVector.fromArray(SPECIES, b, bOffset + i))));
+            }
+            count += (int) counts.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length && count <= limit; i++) {
+            count += Long.bitCount(a[aOffset + i] & ~b[bOffset + i]);
+        }
+        return count;
+    }
+
+    /**
+     * Количество установленных битов в каждом элементе вектора.
+     */
+    private static LongVector bitCount(LongVector vector) {
+        return vector.lanewise(VectorOperators.BIT_COUNT);
+    }
+}
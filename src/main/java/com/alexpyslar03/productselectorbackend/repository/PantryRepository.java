@@ -0,0 +1,35 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Pantry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностями Pantry.
+ * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции.
+ */
+@Repository
+public interface PantryRepository extends JpaRepository<Pantry, Long> {
+
+    /**
+     * Найти набор продуктов пользователя.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Optional с набором продуктов.
+     */
+    Optional<Pantry> findByUserId(Long userId);
+
+    /**
+     * Получить идентификаторы продуктов набора пользователя без загрузки сущностей.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Список идентификаторов продуктов; пустой, если набора нет.
+     */
+    @Query("select productId from Pantry p join p.productIds productId where p.user.id = :userId")
+    List<Long> findProductIdsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,39 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductImportRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пакетная запись продуктов при импорте, дополняющая {@link ProductRepository}.
+ */
+public interface ProductBatchRepository {
+
+    /**
+     * Зарезервировать идентификаторы продуктов одним обращением к последовательности.
+     *
+     * @param count Количество идентификаторов.
+     * @return Список из {@code count} новых идентификаторов.
+     */
+    List<Long> reserveIds(int count);
+
+    /**
+     * Добавить продукты одним запросом. Продукты, название или URL изображения которых уже заняты
+     * (в том числе другим продуктом того же пакета), пропускаются.
+     *
+     * @param ids      Зарезервированные идентификаторы в порядке продуктов.
+     * @param products Продукты.
+     * @return Идентификаторы добавленных продуктов.
+     */
+    List<Long> insertAll(List<Long> ids, List<ProductImportRow> products);
+
+    /**
+     * Найти идентификаторы продуктов по точным названиям одним запросом.
+     *
+     * @param names Названия продуктов.
+     * @return Идентификаторы найденных продуктов по названию.
+     */
+    Map<String, Long> findIdsByNames(Collection<String> names);
+}
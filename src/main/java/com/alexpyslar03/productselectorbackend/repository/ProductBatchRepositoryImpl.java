@@ -0,0 +1,77 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductImportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация пакетной записи продуктов на JDBC.
+ * <p>
+ * Пакет передается массивами и записывается одним запросом {@code insert ... select from unnest},
+ * а идентификаторы берутся из последовательности блоком, поэтому на пакет приходится постоянное
+ * число обращений к базе данных независимо от его размера.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class ProductBatchRepositoryImpl implements ProductBatchRepository {
+
+    private static final String RESERVE_IDS = "select nextval('product_seq') from generate_series(1, ?)";
+
+    private static final String INSERT = """
+            insert into products (id, name, image_url)
+            select * from unnest(?, ?, ?)
+            on conflict do nothing
+            returning id
+            """;
+
+    private static final String FIND_IDS_BY_NAMES = "select id, name from products where name = any(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> reserveIds(int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(RESERVE_IDS, Long.class, count);
+    }
+
+    @Override
+    public List<Long> insertAll(List<Long> ids, List<ProductImportRow> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        String[] names = new String[products.size()];
+        String[] imageUrls = new String[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            names[i] = products.get(i).getName();
+            imageUrls[i] = products.get(i).getImageUrl();
+        }
+        return jdbcTemplate.query(INSERT, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            statement.setArray(2, connection.createArrayOf("text", names));
+            statement.setArray(3, connection.createArrayOf("text", imageUrls));
+        }, (row, rowNum) -> row.getLong("id"));
+    }
+
+    @Override
+    public Map<String, Long> findIdsByNames(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(FIND_IDS_BY_NAMES,
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("text", names.toArray())),
+                row -> {
+                    ids.put(row.getString("name"), row.getLong("id"));
+                });
+        return ids;
+    }
+}
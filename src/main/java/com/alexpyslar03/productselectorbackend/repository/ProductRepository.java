@@ -1,45 +1,165 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
 import com.alexpyslar03.productselectorbackend.domain.entity.Product;
+import com.alexpyslar03.productselectorbackend.domain.projection.NamePopularity;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductExportRow;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductName;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностями Product.
  * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции.
+ * <p>
+ * Для ответов клиенту продукты читаются проекциями {@link ProductRow} и связями {@link ProductRecipeLink}
+ * без создания управляемых сущностей; сущности загружаются только для изменения продуктов.
+ * </p>
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductBatchRepository {
 
     /**
-     * Найти список продуктов по идентификатору рецепта асинхронно.
+     * Найти продукты по списку идентификаторов асинхронно.
      *
-     * @param id Идентификатор рецепта.
-     * @return CompletableFuture со списком продуктов, связанных с указанным рецептом.
+     * @param ids Список идентификаторов продуктов.
+     * @return CompletableFuture с множеством продуктов, соответствующих указанным идентификаторам.
      */
     @Async
-    CompletableFuture<List<Product>> findByRecipesId(Long id);
+    CompletableFuture<Set<Product>> findAllByIdIn(List<Long> ids);
 
     /**
-     * Найти список продуктов по списку идентификаторов рецептов асинхронно.
+     * Найти продукт по ID вместе с его рецептами.
      *
-     * @param ids Список идентификаторов рецептов.
-     * @return CompletableFuture со списком продуктов, связанных с указанными рецептами.
+     * @param id Идентификатор продукта.
+     * @return Optional с продуктом.
      */
-    @Async
-    CompletableFuture<List<Product>> findByRecipesIdIn(List<Long> ids);
+    @Override
+    @EntityGraph(attributePaths = "recipes")
+    Optional<Product> findById(Long id);
 
     /**
-     * Найти продукты по списку идентификаторов асинхронно.
+     * Получить поля продуктов с идентификатором больше указанного без загрузки сущностей.
      *
-     * @param ids Список идентификаторов продуктов.
-     * @return CompletableFuture с множеством продуктов, соответствующих указанным идентификаторам.
+     * @param after Идентификатор, после которого начинается выборка.
+     * @param limit Максимальное количество продуктов.
+     * @return Список проекций продуктов в порядке возрастания идентификатора.
      */
-    @Async
-    CompletableFuture<Set<Product>> findAllByIdIn(List<Long> ids);
+    @Query("select p.id as id, p.name as name, p.imageUrl as imageUrl from Product p where p.id > :after order by p.id")
+    List<ProductRow> findRowsAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Получить поля продуктов по списку ID без загрузки сущностей.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Список проекций найденных продуктов.
+     */
+    @Query("select p.id as id, p.name as name, p.imageUrl as imageUrl from Product p where p.id in :ids")
+    List<ProductRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить поля продуктов, входящих в любой из указанных рецептов, с идентификатором больше
+     * указанного без загрузки сущностей.
+     *
+     * @param recipeIds Идентификаторы рецептов.
+     * @param after     Идентификатор, после которого начинается выборка.
+     * @param limit     Максимальное количество продуктов.
+     * @return Список проекций продуктов в порядке возрастания идентификатора.
+     */
+    @Query("select distinct p.id as id, p.name as name, p.imageUrl as imageUrl "
+            + "from Product p join p.recipes r where r.id in :recipeIds and p.id > :after order by p.id")
+    List<ProductRow> findRowsByRecipeIdInAfter(@Param("recipeIds") Collection<Long> recipeIds,
+                                               @Param("after") long after, Limit limit);
+
+    /**
+     * Прочитать все продукты с идентификаторами их рецептов однонаправленным курсором.
+     * Строки одного продукта идут подряд; поток необходимо читать внутри транзакции и закрыть.
+     *
+     * @return Поток проекций в порядке возрастания идентификаторов продукта и рецепта.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = RecipeRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.id as id, p.name as name, p.imageUrl as imageUrl, r.id as recipeId "
+            + "from Product p left join p.recipes r order by p.id, r.id")
+    Stream<ProductExportRow> streamAllForExport();
+
+    /**
+     * Получить связи указанных продуктов с рецептами без загрузки сущностей.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Список пар (идентификатор рецепта, идентификатор продукта).
+     */
+    @Query("select r.id as recipeId, p.id as productId from Product p join p.recipes r where p.id in :ids")
+    List<ProductRecipeLink> findProductRecipeLinksByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить идентификаторы всех продуктов.
+     *
+     * @return Список идентификаторов продуктов.
+     */
+    @Query("select p.id from Product p")
+    List<Long> findAllIds();
+
+    /**
+     * Получить идентификаторы рецептов продукта по текущим связям.
+     *
+     * @param id Идентификатор продукта.
+     * @return Список идентификаторов рецептов (пустой, если продукт удален).
+     */
+    @Query("select r.id from Product p join p.recipes r where p.id = :id")
+    List<Long> findRecipeIdsById(@Param("id") Long id);
+
+    /**
+     * Получить названия всех продуктов с количеством рецептов, в которых они используются.
+     *
+     * @return Список проекций с идентификатором, названием и популярностью продукта.
+     */
+    @Query("select p.id as id, p.name as name, count(r) as popularity from Product p left join p.recipes r group by p.id, p.name")
+    List<NamePopularity> findAllNames();
+
+    /**
+     * Получить названия продуктов по списку ID с количеством рецептов, в которых они используются.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Список проекций с идентификатором, названием и популярностью существующих продуктов.
+     */
+    @Query("select p.id as id, p.name as name, count(r) as popularity from Product p left join p.recipes r "
+            + "where p.id in :ids group by p.id, p.name")
+    List<NamePopularity> findNamePopularityByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить названия продуктов по списку ID без загрузки сущностей.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Список проекций с идентификатором и названием продукта.
+     */
+    @Query("select p.id as id, p.name as name from Product p where p.id in :ids")
+    List<ProductName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Найти идентификаторы продуктов по названию без учета регистра.
+     *
+     * @param name Название продукта в нижнем регистре.
+     * @return Список идентификаторов продуктов с указанным названием.
+     */
+    @Query("select p.id from Product p where lower(p.name) = :name")
+    List<Long> findIdsByLowerName(@Param("name") String name);
 }
@@ -0,0 +1,37 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeImportRow;
+
+import java.util.List;
+
+/**
+ * Пакетная запись рецептов и их связей с продуктами при импорте, дополняющая {@link RecipeRepository}.
+ */
+public interface RecipeBatchRepository {
+
+    /**
+     * Зарезервировать идентификаторы рецептов одним обращением к последовательности.
+     *
+     * @param count Количество идентификаторов.
+     * @return Список из {@code count} новых идентификаторов.
+     */
+    List<Long> reserveIds(int count);
+
+    /**
+     * Добавить рецепты одним запросом без связей с продуктами. Рецепты, название или URL изображения
+     * которых уже заняты (в том числе другим рецептом того же пакета), пропускаются.
+     *
+     * @param ids     Зарезервированные идентификаторы в порядке рецептов.
+     * @param recipes Рецепты.
+     * @return Идентификаторы добавленных рецептов.
+     */
+    List<Long> insertAll(List<Long> ids, List<RecipeImportRow> recipes);
+
+    /**
+     * Добавить связи рецептов с продуктами одним запросом.
+     *
+     * @param recipeIds  Идентификаторы рецептов.
+     * @param productIds Идентификаторы продуктов; связь образуют элементы с одинаковым индексом.
+     */
+    void insertProductLinks(List<Long> recipeIds, List<Long> productIds);
+}
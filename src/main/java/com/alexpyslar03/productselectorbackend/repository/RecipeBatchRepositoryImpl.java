@@ -0,0 +1,88 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeImportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Реализация пакетной записи рецептов на JDBC.
+ * <p>
+ * Как и для продуктов, пакет рецептов и пакет их связей записываются по одному запросу
+ * {@code insert ... select from unnest}, а идентификаторы резервируются блоком.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class RecipeBatchRepositoryImpl implements RecipeBatchRepository {
+
+    private static final String RESERVE_IDS = "select nextval('recipe_seq') from generate_series(1, ?)";
+
+    private static final String INSERT = """
+            insert into recipes (id, name, description, is_vegan, difficulty_level, rating, image_url)
+            select * from unnest(?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            returning id
+            """;
+
+    private static final String INSERT_PRODUCT_LINKS = """
+            insert into products_recipes (recipe_id, product_id)
+            select * from unnest(?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> reserveIds(int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(RESERVE_IDS, Long.class, count);
+    }
+
+    @Override
+    public List<Long> insertAll(List<Long> ids, List<RecipeImportRow> recipes) {
+        if (recipes.isEmpty()) {
+            return List.of();
+        }
+        int size = recipes.size();
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        Boolean[] vegan = new Boolean[size];
+        String[] difficultyLevels = new String[size];
+        Long[] ratings = new Long[size];
+        String[] imageUrls = new String[size];
+        for (int i = 0; i < size; i++) {
+            RecipeImportRow recipe = recipes.get(i);
+            names[i] = recipe.getName();
+            descriptions[i] = recipe.getDescription();
+            vegan[i] = recipe.isVegan();
+            difficultyLevels[i] = recipe.getDifficultyLevel().name();
+            ratings[i] = recipe.getRating();
+            imageUrls[i] = recipe.getImageUrl();
+        }
+        return jdbcTemplate.query(INSERT, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            statement.setArray(2, connection.createArrayOf("text", names));
+            statement.setArray(3, connection.createArrayOf("text", descriptions));
+            statement.setArray(4, connection.createArrayOf("boolean", vegan));
+            statement.setArray(5, connection.createArrayOf("text", difficultyLevels));
+            statement.setArray(6, connection.createArrayOf("bigint", ratings));
+            statement.setArray(7, connection.createArrayOf("text", imageUrls));
+        }, (row, rowNum) -> row.getLong("id"));
+    }
+
+    @Override
+    public void insertProductLinks(List<Long> recipeIds, List<Long> productIds) {
+        if (recipeIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_PRODUCT_LINKS, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("bigint", recipeIds.toArray()));
+            statement.setArray(2, connection.createArrayOf("bigint", productIds.toArray()));
+        });
+    }
+}
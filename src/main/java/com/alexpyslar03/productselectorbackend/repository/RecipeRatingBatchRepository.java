@@ -0,0 +1,21 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.projection.RatingTotals;
+import com.alexpyslar03.productselectorbackend.index.RatingAccumulator;
+
+import java.util.List;
+
+/**
+ * Пакетная запись оценок рецептов, дополняющая {@link RecipeRatingRepository}.
+ */
+public interface RecipeRatingBatchRepository {
+
+    /**
+     * Записать оценки одним запросом: новые оценки добавляются, существующие заменяются.
+     * Оценки удаленных рецептов и пользователей отбрасываются.
+     *
+     * @param votes Оценки; у каждой пары (рецепт, пользователь) не более одной оценки.
+     * @return Итоги замененных и отброшенных оценок по рецептам, которые нужно вычесть из итогов в памяти.
+     */
+    List<RatingTotals> upsertAll(List<RatingAccumulator.Vote> votes);
+}
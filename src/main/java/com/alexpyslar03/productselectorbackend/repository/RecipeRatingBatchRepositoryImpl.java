@@ -0,0 +1,72 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.projection.RatingTotals;
+import com.alexpyslar03.productselectorbackend.index.RatingAccumulator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Реализация пакетной записи оценок на JDBC.
+ * <p>
+ * Пакет передается тремя массивами и записывается одним запросом {@code insert ... on conflict}:
+ * строки таблицы блокируются один раз за пакет, а не при каждой оценке. Тот же запрос возвращает
+ * замененные оценки, чтобы итоги в памяти не требовали отдельного чтения.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class RecipeRatingBatchRepositoryImpl implements RecipeRatingBatchRepository {
+
+    // CTE с изменением данных видят снимок до вставки, поэтому previous содержит прежние оценки
+    private static final String UPSERT = """
+            with votes as (
+                select * from unnest(?, ?, ?) as v(recipe_id, user_id, rating)
+            ),
+            valid as (
+                select votes.* from votes
+                join recipes on recipes.id = votes.recipe_id
+                join users on users.id = votes.user_id
+            ),
+            previous as (
+                select r.recipe_id, r.rating from recipe_ratings r join valid using (recipe_id, user_id)
+            ),
+            dropped as (
+                select votes.recipe_id, votes.rating from votes
+                where not exists (select 1 from valid where valid.recipe_id = votes.recipe_id and valid.user_id = votes.user_id)
+            ),
+            upserted as (
+                insert into recipe_ratings (recipe_id, user_id, rating)
+                select recipe_id, user_id, rating from valid
+                on conflict (recipe_id, user_id) do update set rating = excluded.rating
+            )
+            select recipe_id, sum(rating) as sum, count(*) as count
+            from (select * from previous union all select * from dropped) replaced
+            group by recipe_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<RatingTotals> upsertAll(List<RatingAccumulator.Vote> votes) {
+        if (votes.isEmpty()) {
+            return List.of();
+        }
+        Long[] recipeIds = new Long[votes.size()];
+        Long[] userIds = new Long[votes.size()];
+        Integer[] ratings = new Integer[votes.size()];
+        for (int i = 0; i < votes.size(); i++) {
+            RatingAccumulator.Vote vote = votes.get(i);
+            recipeIds[i] = vote.recipeId();
+            userIds[i] = vote.userId();
+            ratings[i] = vote.value();
+        }
+        return jdbcTemplate.query(UPSERT, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("bigint", recipeIds));
+            statement.setArray(2, connection.createArrayOf("bigint", userIds));
+            statement.setArray(3, connection.createArrayOf("integer", ratings));
+        }, (row, rowNum) -> RatingTotals.of(row.getLong("recipe_id"), row.getLong("sum"), row.getLong("count")));
+    }
+}
@@ -0,0 +1,26 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.RecipeRating;
+import com.alexpyslar03.productselectorbackend.domain.projection.RatingTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностями RecipeRating.
+ * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции,
+ * и {@link RecipeRatingBatchRepository} для пакетной записи оценок.
+ */
+@Repository
+public interface RecipeRatingRepository extends JpaRepository<RecipeRating, RecipeRating.Key>, RecipeRatingBatchRepository {
+
+    /**
+     * Получить сумму и количество оценок каждого оцененного рецепта.
+     *
+     * @return Список итогов оценок.
+     */
+    @Query("select r.id.recipeId as recipeId, sum(r.rating) as sum, count(r) as count from RecipeRating r group by r.id.recipeId")
+    List<RatingTotals> findTotals();
+}
@@ -1,46 +1,185 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
 import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.NamePopularity;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductName;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeExportRow;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностями Recipe.
  * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции
  * и методы для асинхронного поиска рецептов по идентификаторам продуктов и рецептов.
+ * <p>
+ * Для ответов клиенту рецепты читаются проекциями {@link RecipeRow} и связями {@link ProductRecipeLink}
+ * без создания управляемых сущностей; сущности загружаются только для изменения рецептов.
+ * </p>
  */
 @Repository
-public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+public interface RecipeRepository extends JpaRepository<Recipe, Long>, RecipeBatchRepository {
 
     /**
-     * Асинхронно найти список рецептов по идентификатору продукта.
+     * Количество строк, получаемых драйвером за одно обращение к базе данных при выгрузке.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Асинхронно найти рецепты по списку идентификаторов.
      *
-     * @param id Идентификатор продукта.
-     * @return CompletableFuture с результатом списка рецептов, содержащих указанный продукт.
+     * @param ids Список идентификаторов рецептов.
+     * @return CompletableFuture с результатом множества рецептов, соответствующих указанным идентификаторам.
      */
     @Async
-    CompletableFuture<List<Recipe>> findByProductsId(Long id);
+    CompletableFuture<Set<Recipe>> findAllByIdIn(List<Long> ids);
 
     /**
-     * Асинхронно найти список рецептов по списку идентификаторов продуктов.
+     * Найти рецепт по ID вместе с его продуктами.
      *
-     * @param ids Список идентификаторов продуктов.
-     * @return CompletableFuture с результатом списка рецептов, содержащих указанные продукты.
+     * @param id Идентификатор рецепта.
+     * @return Optional с рецептом.
      */
-    @Async
-    CompletableFuture<List<Recipe>> findByProductsIdIn(List<Long> ids);
+    @Override
+    @EntityGraph(attributePaths = "products")
+    Optional<Recipe> findById(Long id);
 
     /**
-     * Асинхронно найти рецепты по списку идентификаторов.
+     * Получить поля рецептов с идентификатором больше указанного без загрузки сущностей.
      *
-     * @param ids Список идентификаторов рецептов.
-     * @return CompletableFuture с результатом множества рецептов, соответствующих указанным идентификаторам.
+     * @param after Идентификатор, после которого начинается выборка.
+     * @param limit Максимальное количество рецептов.
+     * @return Список проекций рецептов в порядке возрастания идентификатора.
      */
-    @Async
-    CompletableFuture<Set<Recipe>> findAllByIdIn(List<Long> ids);
-}
\ No newline at end of file
+    @Query("select r.id as id, r.name as name, r.description as description, r.vegan as vegan, "
+            + "r.difficultyLevel as difficultyLevel, r.rating as rating, r.imageUrl as imageUrl "
+            + "from Recipe r where r.id > :after order by r.id")
+    List<RecipeRow> findRowsAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Получить поля рецептов по списку ID без загрузки сущностей.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Список проекций найденных рецептов.
+     */
+    @Query("select r.id as id, r.name as name, r.description as description, r.vegan as vegan, "
+            + "r.difficultyLevel as difficultyLevel, r.rating as rating, r.imageUrl as imageUrl from Recipe r where r.id in :ids")
+    List<RecipeRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить поля рецептов, содержащих любой из указанных продуктов, с идентификатором больше
+     * указанного без загрузки сущностей.
+     *
+     * @param productIds Идентификаторы продуктов.
+     * @param after      Идентификатор, после которого начинается выборка.
+     * @param limit      Максимальное количество рецептов.
+     * @return Список проекций рецептов в порядке возрастания идентификатора.
+     */
+    @Query("select distinct r.id as id, r.name as name, r.description as description, r.vegan as vegan, "
+            + "r.difficultyLevel as difficultyLevel, r.rating as rating, r.imageUrl as imageUrl "
+            + "from Recipe r join r.products p where p.id in :productIds and r.id > :after order by r.id")
+    List<RecipeRow> findRowsByProductIdInAfter(@Param("productIds") Collection<Long> productIds,
+                                               @Param("after") long after, Limit limit);
+
+    /**
+     * Получить названия рецептов по списку ID без загрузки сущностей.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Список проекций с идентификатором и названием рецепта.
+     */
+    @Query("select r.id as id, r.name as name from Recipe r where r.id in :ids")
+    List<ProductName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить атрибуты всех рецептов, необходимые индексу рецептов.
+     *
+     * @return Список проекций с идентификатором, рейтингом, признаком веганского рецепта и сложностью.
+     */
+    @Query("select r.id as id, r.rating as rating, r.vegan as vegan, r.difficultyLevel as difficultyLevel from Recipe r")
+    List<RecipeAttributes> findAllAttributes();
+
+    /**
+     * Получить атрибуты рецептов по списку ID, необходимые индексу рецептов.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Список проекций существующих рецептов.
+     */
+    @Query("select r.id as id, r.rating as rating, r.vegan as vegan, r.difficultyLevel as difficultyLevel "
+            + "from Recipe r where r.id in :ids")
+    List<RecipeAttributes> findAttributesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить названия всех рецептов с их рейтингом.
+     *
+     * @return Список проекций с идентификатором, названием и рейтингом рецепта в качестве популярности.
+     */
+    @Query("select r.id as id, r.name as name, r.rating as popularity from Recipe r")
+    List<NamePopularity> findAllNames();
+
+    /**
+     * Получить названия рецептов по списку ID с их рейтингом.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Список проекций существующих рецептов с рейтингом в качестве популярности.
+     */
+    @Query("select r.id as id, r.name as name, r.rating as popularity from Recipe r where r.id in :ids")
+    List<NamePopularity> findNamePopularityByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить все связи продуктов и рецептов без загрузки сущностей.
+     *
+     * @return Список пар (идентификатор рецепта, идентификатор продукта).
+     */
+    @Query("select r.id as recipeId, p.id as productId from Recipe r join r.products p")
+    List<ProductRecipeLink> findAllProductRecipeLinks();
+
+    /**
+     * Прочитать все рецепты с идентификаторами их продуктов однонаправленным курсором.
+     * Строки одного рецепта идут подряд; поток необходимо читать внутри транзакции и закрыть.
+     *
+     * @return Поток проекций в порядке возрастания идентификаторов рецепта и продукта.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.id as id, r.name as name, r.description as description, r.vegan as vegan, "
+            + "r.difficultyLevel as difficultyLevel, r.rating as rating, r.imageUrl as imageUrl, p.id as productId "
+            + "from Recipe r left join r.products p order by r.id, p.id")
+    Stream<RecipeExportRow> streamAllForExport();
+
+    /**
+     * Получить связи указанных рецептов с продуктами без загрузки сущностей.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Список пар (идентификатор рецепта, идентификатор продукта).
+     */
+    @Query("select r.id as recipeId, p.id as productId from Recipe r join r.products p where r.id in :ids")
+    List<ProductRecipeLink> findProductRecipeLinksByRecipeIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить идентификаторы продуктов рецепта по текущим связям.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Список идентификаторов продуктов (пустой, если рецепт удален).
+     */
+    @Query("select p.id from Recipe r join r.products p where r.id = :id")
+    List<Long> findProductIdsById(@Param("id") Long id);
+}
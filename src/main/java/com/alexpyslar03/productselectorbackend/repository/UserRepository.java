@@ -1,9 +1,15 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
 import com.alexpyslar03.productselectorbackend.domain.entity.User;
+import com.alexpyslar03.productselectorbackend.domain.projection.UserRecipeSets;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +31,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Async
     CompletableFuture<List<User>> findAllByIdIn(List<Long> ids);
 
+    /**
+     * Найти пользователей с идентификатором больше указанного.
+     *
+     * @param after Идентификатор, после которого начинается выборка.
+     * @param limit Максимальное количество пользователей.
+     * @return Список пользователей в порядке возрастания идентификатора.
+     */
+    @Query("select u from User u where u.id > :after order by u.id")
+    List<User> findPageAfter(@Param("after") long after, Limit limit);
+
     /**
      * Найти пользователя по его имени пользователя (username).
      *
@@ -47,4 +63,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return CompletableFuture с результатом проверки.
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Получить избранные и приготовленные рецепты пользователя без загрузки остальных полей.
+     *
+     * @param id Идентификатор пользователя.
+     * @return Optional с рецептами пользователя в байтовом представлении.
+     */
+    @Query("select u.favouriteRecipes as favouriteRecipes, u.cookedRecipes as cookedRecipes from User u where u.id = :id")
+    Optional<UserRecipeSets> findRecipeSetsById(@Param("id") Long id);
+
+    /**
+     * Обновить избранные и приготовленные рецепты пользователя.
+     * Столбцы не обновляются при сохранении сущности, поэтому изменяются только этим запросом.
+     *
+     * @param id         Идентификатор пользователя.
+     * @param favourites Избранные рецепты в байтовом представлении.
+     * @param cooked     История приготовленных рецептов в байтовом представлении.
+     * @return Количество обновленных пользователей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update users set favourite_recipes = :favourites, cooked_recipes = :cooked where id = :id", nativeQuery = true)
+    int updateRecipeSets(@Param("id") Long id, @Param("favourites") byte[] favourites, @Param("cooked") byte[] cooked);
+}
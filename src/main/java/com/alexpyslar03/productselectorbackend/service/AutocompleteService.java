@@ -0,0 +1,255 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.NameSuggestion;
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.ProductChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.NamePopularity;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.NameIndex;
+import com.alexpyslar03.productselectorbackend.index.TrigramIndex;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сервис автодополнения и нечеткого поиска названий продуктов и рецептов.
+ * <p>
+ * Поддерживает in-memory {@link NameIndex} для поиска по префиксу и {@link TrigramIndex}
+ * для поиска с опечатками, отдельно для продуктов и рецептов. Индексы строятся
+ * при старте приложения и обновляются по событиям изменения продуктов и рецептов после фиксации
+ * транзакции. Популярность продукта — количество рецептов, в которых он используется,
+ * популярность рецепта — его рейтинг. Когда меняется состав рецепта (создание, удаление, изменение связей),
+ * популярность его продуктов пересчитывается одним запросом к базе данных.
+ * </p>
+ * <p>
+ * Названия и популярность измененных продуктов и рецептов читаются из базы данных заново под блокировкой:
+ * события из разных потоков могут прийти не в порядке фиксации транзакций, и запоздавшее событие
+ * не должно возвращать устаревшее название или удаленную запись.
+ * </p>
+ * <p>
+ * Поиск по индексам занимает микросекунды или единицы миллисекунд, поэтому выполняется
+ * в вызывающем потоке без передачи в пул асинхронных задач.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final ProductRepository productRepository;
+    private final RecipeRepository recipeRepository;
+
+    private volatile NameIndex products;
+    private volatile NameIndex recipes;
+    private volatile TrigramIndex fuzzyProducts;
+    private volatile TrigramIndex fuzzyRecipes;
+
+    /**
+     * Построение индексов после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось построить индекс автодополнения, он будет построен при первом запросе.", ex);
+        }
+    }
+
+    /**
+     * Применение изменения продукта после фиксации транзакции.
+     *
+     * @param event Событие изменения продукта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (this) {
+            if (products == null) {
+                return;
+            }
+            refreshProducts(List.of(event.productId()));
+        }
+    }
+
+    /**
+     * Применение изменения рецепта после фиксации транзакции.
+     *
+     * @param event Событие изменения рецепта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        synchronized (this) {
+            if (recipes == null) {
+                return;
+            }
+            if (event.productIds() != null && !event.productIds().isEmpty()) {
+                refreshProducts(event.productIds());
+            }
+            Long recipeId = event.recipeId();
+            List<NameIndex.Entry> current = toEntries(recipeRepository.findNamePopularityByIdIn(List.of(recipeId)));
+            if (current.isEmpty()) {
+                recipes = recipes.without(recipeId);
+                fuzzyRecipes = fuzzyRecipes.without(recipeId);
+            } else {
+                recipes = recipes.with(current.getFirst());
+                fuzzyRecipes = fuzzyRecipes.with(current.getFirst());
+            }
+        }
+    }
+
+    /**
+     * Заменяет записи продуктов текущими названиями и популярностью из базы данных;
+     * продукты, которых в базе данных уже нет, удаляются из индексов.
+     */
+    private void refreshProducts(Collection<Long> productIds) {
+        Set<Long> missing = new HashSet<>(productIds);
+        for (NameIndex.Entry entry : toEntries(productRepository.findNamePopularityByIdIn(productIds))) {
+            missing.remove(entry.id());
+            products = products.with(entry);
+            fuzzyProducts = fuzzyProducts.with(entry);
+        }
+        for (Long productId : missing) {
+            products = products.without(productId);
+            fuzzyProducts = fuzzyProducts.without(productId);
+        }
+    }
+
+    /**
+     * Перестроение индексов после импорта продуктов или рецептов.
+     *
+     * @param event Событие завершения импорта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Полное перестроение индексов по текущему состоянию базы данных.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<NameIndex.Entry> productNames = toEntries(productRepository.findAllNames());
+        List<NameIndex.Entry> recipeNames = toEntries(recipeRepository.findAllNames());
+        // Триграммные индексы присваиваются раньше префиксных: по последним проверяется готовность
+        fuzzyProducts = TrigramIndex.build(productNames);
+        fuzzyRecipes = TrigramIndex.build(recipeNames);
+        products = NameIndex.build(productNames);
+        recipes = NameIndex.build(recipeNames);
+        logger.info("Индекс автодополнения построен: {} ключей продуктов, {} ключей рецептов за {} мс.",
+                products.size(), recipes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static List<NameIndex.Entry> toEntries(List<NamePopularity> names) {
+        return names.stream()
+                .map(name -> new NameIndex.Entry(name.getId(), name.getName(),
+                        name.getPopularity() == null ? 0 : name.getPopularity().intValue()))
+                .toList();
+    }
+
+    /**
+     * Подсказки по названиям продуктов.
+     *
+     * @param prefix Начало названия или любого его слова.
+     * @param limit  Максимальное количество подсказок.
+     * @return CompletableFuture со списком подсказок, начиная с самых популярных продуктов.
+     * @throws InvalidDataException если префикс пуст или количество подсказок вне допустимого диапазона.
+     */
+    public CompletableFuture<List<NameSuggestion>> suggestProducts(String prefix, int limit) {
+        validate(prefix, limit);
+        return CompletableFuture.completedFuture(toSuggestions(productIndex().suggest(prefix, limit)));
+    }
+
+    /**
+     * Подсказки по названиям рецептов.
+     *
+     * @param prefix Начало названия или любого его слова.
+     * @param limit  Максимальное количество подсказок.
+     * @return CompletableFuture со списком подсказок, начиная с рецептов с наибольшим рейтингом.
+     * @throws InvalidDataException если префикс пуст или количество подсказок вне допустимого диапазона.
+     */
+    public CompletableFuture<List<NameSuggestion>> suggestRecipes(String prefix, int limit) {
+        validate(prefix, limit);
+        return CompletableFuture.completedFuture(toSuggestions(recipeIndex().suggest(prefix, limit)));
+    }
+
+    /**
+     * Нечеткий поиск продуктов по названию с учетом опечаток.
+     *
+     * @param query Название или одно его слово, возможно с опечатками.
+     * @param limit Максимальное количество результатов.
+     * @return CompletableFuture со списком продуктов, начиная с наиболее близких к запросу.
+     * @throws InvalidDataException если запрос пуст или количество результатов вне допустимого диапазона.
+     */
+    public CompletableFuture<List<NameSuggestion>> fuzzyProducts(String query, int limit) {
+        validate(query, limit);
+        productIndex();
+        return CompletableFuture.completedFuture(toFuzzySuggestions(fuzzyProducts.search(query, limit)));
+    }
+
+    /**
+     * Нечеткий поиск рецептов по названию с учетом опечаток.
+     *
+     * @param query Название или одно его слово, возможно с опечатками.
+     * @param limit Максимальное количество результатов.
+     * @return CompletableFuture со списком рецептов, начиная с наиболее близких к запросу.
+     * @throws InvalidDataException если запрос пуст или количество результатов вне допустимого диапазона.
+     */
+    public CompletableFuture<List<NameSuggestion>> fuzzyRecipes(String query, int limit) {
+        validate(query, limit);
+        recipeIndex();
+        return CompletableFuture.completedFuture(toFuzzySuggestions(fuzzyRecipes.search(query, limit)));
+    }
+
+    private NameIndex productIndex() {
+        NameIndex current = products;
+        if (current == null) {
+            rebuild();
+            current = products;
+        }
+        return current;
+    }
+
+    private NameIndex recipeIndex() {
+        NameIndex current = recipes;
+        if (current == null) {
+            rebuild();
+            current = recipes;
+        }
+        return current;
+    }
+
+    private static void validate(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidDataException("Строка поиска не может быть пустой.");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidDataException(String.format("Количество подсказок должно быть от 1 до %d.", MAX_SUGGESTIONS));
+        }
+    }
+
+    private static List<NameSuggestion> toSuggestions(List<NameIndex.Entry> entries) {
+        return entries.stream()
+                .map(entry -> NameSuggestion.builder().id(entry.id()).name(entry.name()).build())
+                .toList();
+    }
+
+    private static List<NameSuggestion> toFuzzySuggestions(List<TrigramIndex.Match> matches) {
+        return toSuggestions(matches.stream().map(TrigramIndex.Match::entry).toList());
+    }
+}
@@ -0,0 +1,111 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductExportRow;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeExportRow;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Сервис выгрузки каталога продуктов и рецептов в формате NDJSON (один JSON-объект в строке).
+ * <p>
+ * Строки читаются однонаправленным курсором базы данных порциями по
+ * {@link RecipeRepository#EXPORT_FETCH_SIZE} и сразу записываются в поток ответа. Проекции
+ * не становятся управляемыми сущностями, поэтому контекст персистентности не растет,
+ * и в памяти одновременно находится только текущий объект, независимо от размера таблиц.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogExportService.class);
+    private final ProductRepository productRepository;
+    private final RecipeRepository recipeRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает все продукты с идентификаторами их рецептов в порядке возрастания идентификатора.
+     *
+     * @param out Поток ответа.
+     * @return Количество выгруженных продуктов.
+     * @throws IOException если запись в поток не удалась.
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream out) throws IOException {
+        long count = export(productRepository.streamAllForExport(), ProductExportRow::getId,
+                ProductExportRow::getRecipeId, CatalogReadService::toResponse, out);
+        logger.info("Выгружено {} продуктов.", count);
+        return count;
+    }
+
+    /**
+     * Записывает все рецепты с идентификаторами их продуктов в порядке возрастания идентификатора.
+     *
+     * @param out Поток ответа.
+     * @return Количество выгруженных рецептов.
+     * @throws IOException если запись в поток не удалась.
+     */
+    @Transactional(readOnly = true)
+    public long exportRecipes(OutputStream out) throws IOException {
+        long count = export(recipeRepository.streamAllForExport(), RecipeExportRow::getId,
+                RecipeExportRow::getProductId, CatalogReadService::toResponse, out);
+        logger.info("Выгружено {} рецептов.", count);
+        return count;
+    }
+
+    /**
+     * Собирает подряд идущие строки одного объекта в ответ и записывает его отдельной строкой.
+     */
+    private <R> long export(Stream<R> rows, Function<R, Long> id, Function<R, Long> linkedId,
+                            BiFunction<R, List<Long>, ?> toResponse, OutputStream out) throws IOException {
+        try (rows; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Поток ответа закрывает контейнер сервлетов; строки разделяются только переводом строки
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long count = 0;
+            R current = null;
+            List<Long> linkedIds = new ArrayList<>();
+            Iterator<R> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                R row = iterator.next();
+                if (current != null && !Objects.equals(id.apply(row), id.apply(current))) {
+                    write(generator, toResponse.apply(current, List.copyOf(linkedIds)));
+                    linkedIds.clear();
+                    count++;
+                }
+                current = row;
+                Long linked = linkedId.apply(row);
+                if (linked != null) {
+                    linkedIds.add(linked);
+                }
+            }
+            if (current != null) {
+                write(generator, toResponse.apply(current, List.copyOf(linkedIds)));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static void write(JsonGenerator generator, Object value) throws IOException {
+        generator.writeObject(value);
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,392 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ImportReport;
+import com.alexpyslar03.productselectorbackend.domain.dto.ImportRowError;
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductImportRow;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeImportRow;
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Сервис массового импорта продуктов и рецептов.
+ * <p>
+ * Входные данные читаются потоком (JSON-массив, NDJSON или CSV) и записываются частями по
+ * {@code import.chunk-size} строк, каждая часть — в отдельной транзакции. На часть приходится
+ * постоянное число запросов: идентификаторы резервируются в последовательности блоком, названия
+ * продуктов рецептов сопоставляются с идентификаторами одним запросом, строки и связи
+ * {@code products_recipes} записываются массивами. Строки с ошибками не прерывают импорт, а попадают
+ * в отчет; уже записанные части сохраняются, даже если чтение прервалось.
+ * </p>
+ * <p>
+ * События изменения по каждой строке не публикуются: после импорта in-memory структуры
+ * перестраиваются один раз по {@link CatalogImportedEvent}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    /**
+     * Тип содержимого CSV.
+     */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    private static final String PRODUCTS_COLUMN = "products";
+    private static final String LIST_SEPARATOR = ";";
+
+    private final ProductRepository productRepository;
+    private final RecipeRepository recipeRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${import.max-errors}")
+    private int maxErrors;
+
+    /**
+     * Импорт продуктов.
+     * Столбцы CSV: {@code name}, {@code imageUrl}.
+     *
+     * @param input       Входные данные.
+     * @param contentType Тип содержимого: {@code text/csv} или JSON-массив либо NDJSON.
+     * @return CompletableFuture с итогами импорта.
+     */
+    @Async
+    public CompletableFuture<ImportReport> importProducts(InputStream input, MediaType contentType) {
+        return CompletableFuture.supplyAsync(() -> {
+            ImportReport report = run("продуктов", open(input, contentType), ProductImportRow.class,
+                    CatalogImportService::validate, this::writeProducts);
+            publish(new CatalogImportedEvent(report.getImported(), 0));
+            return report;
+        });
+    }
+
+    /**
+     * Импорт рецептов. Продукты рецептов должны существовать и указываются названиями.
+     * Столбцы CSV: {@code name}, {@code description}, {@code vegan}, {@code difficultyLevel}, {@code rating},
+     * {@code imageUrl}, {@code products} (названия через точку с запятой).
+     *
+     * @param input       Входные данные.
+     * @param contentType Тип содержимого: {@code text/csv} или JSON-массив либо NDJSON.
+     * @return CompletableFuture с итогами импорта.
+     */
+    @Async
+    public CompletableFuture<ImportReport> importRecipes(InputStream input, MediaType contentType) {
+        return CompletableFuture.supplyAsync(() -> {
+            ImportReport report = run("рецептов", open(input, contentType), RecipeImportRow.class,
+                    CatalogImportService::validate, this::writeRecipes);
+            publish(new CatalogImportedEvent(0, report.getImported()));
+            return report;
+        });
+    }
+
+    /**
+     * Читает строки, отбрасывает некорректные и записывает остальные частями.
+     *
+     * @param kind     Название импортируемых объектов для журнала.
+     * @param source   Источник строк.
+     * @param type     Тип строки.
+     * @param validate Проверка строки, возвращающая причину отказа или null.
+     * @param write    Запись части, возвращающая ошибки строк, которые не удалось добавить.
+     * @return Итоги импорта.
+     */
+    private <T> ImportReport run(String kind, RowSource source, Class<T> type, Function<T, String> validate,
+                                 Function<List<Row<T>>, List<ImportRowError>> write) {
+        long start = System.nanoTime();
+        ImportReport report = ImportReport.builder().errors(new ArrayList<>()).build();
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        try (source) {
+            JsonNode node;
+            while ((node = source.next()) != null) {
+                long row = report.getRows() + 1;
+                report.setRows(row);
+                T value;
+                try {
+                    value = objectMapper.treeToValue(node, type);
+                } catch (JsonProcessingException ex) {
+                    fail(report, row, "Некорректное значение поля: " + ex.getOriginalMessage());
+                    continue;
+                }
+                String error = validate.apply(value);
+                if (error != null) {
+                    fail(report, row, error);
+                    continue;
+                }
+                chunk.add(new Row<>(row, value));
+                if (chunk.size() == chunkSize) {
+                    flush(kind, chunk, write, report);
+                }
+            }
+        } catch (IOException | InvalidDataException ex) {
+            fail(report, report.getRows() + 1, "Чтение данных прервано: " + ex.getMessage());
+        }
+        flush(kind, chunk, write, report);
+        logger.info("Импорт {} завершен: прочитано {} строк, добавлено {}, отклонено {} за {} мс.", kind,
+                report.getRows(), report.getImported(), report.getFailed(), (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private <T> void flush(String kind, List<Row<T>> chunk, Function<List<Row<T>>, List<ImportRowError>> write,
+                           ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportRowError> errors;
+        try {
+            errors = transactionTemplate.execute(status -> write.apply(chunk));
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось записать часть импорта {} (строки {}–{}).", kind,
+                    chunk.getFirst().row(), chunk.getLast().row(), ex);
+            errors = chunk.stream()
+                    .map(row -> error(row, "Не удалось записать строку: " + ex.getMessage()))
+                    .toList();
+        }
+        report.setImported(report.getImported() + chunk.size() - errors.size());
+        for (ImportRowError error : errors) {
+            fail(report, error.getRow(), error.getMessage());
+        }
+        chunk.clear();
+        logger.info("Импорт {}: прочитано {} строк, добавлено {}, отклонено {}.", kind,
+                report.getRows(), report.getImported(), report.getFailed());
+    }
+
+    private void fail(ImportReport report, long row, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(ImportRowError.builder().row(row).message(message).build());
+        }
+    }
+
+    private List<ImportRowError> writeProducts(List<Row<ProductImportRow>> chunk) {
+        List<Long> ids = productRepository.reserveIds(chunk.size());
+        Set<Long> inserted = new HashSet<>(productRepository.insertAll(ids,
+                chunk.stream().map(Row::value).toList()));
+        List<ImportRowError> errors = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!inserted.contains(ids.get(i))) {
+                errors.add(error(chunk.get(i), "Продукт с таким названием или URL изображения уже существует."));
+            }
+        }
+        return errors;
+    }
+
+    private List<ImportRowError> writeRecipes(List<Row<RecipeImportRow>> chunk) {
+        Set<String> names = new HashSet<>();
+        chunk.forEach(row -> names.addAll(row.value().getProducts()));
+        Map<String, Long> productIds = productRepository.findIdsByNames(names);
+
+        List<ImportRowError> errors = new ArrayList<>();
+        List<Row<RecipeImportRow>> resolved = new ArrayList<>(chunk.size());
+        for (Row<RecipeImportRow> row : chunk) {
+            List<String> missing = row.value().getProducts().stream()
+                    .filter(name -> !productIds.containsKey(name))
+                    .distinct()
+                    .toList();
+            if (missing.isEmpty()) {
+                resolved.add(row);
+            } else {
+                errors.add(error(row, "Продукты не найдены: " + missing));
+            }
+        }
+
+        List<Long> ids = recipeRepository.reserveIds(resolved.size());
+        Set<Long> inserted = new HashSet<>(recipeRepository.insertAll(ids,
+                resolved.stream().map(Row::value).toList()));
+        List<Long> linkRecipeIds = new ArrayList<>();
+        List<Long> linkProductIds = new ArrayList<>();
+        for (int i = 0; i < resolved.size(); i++) {
+            Long recipeId = ids.get(i);
+            if (!inserted.contains(recipeId)) {
+                errors.add(error(resolved.get(i), "Рецепт с таким названием или URL изображения уже существует."));
+                continue;
+            }
+            for (String name : new LinkedHashSet<>(resolved.get(i).value().getProducts())) {
+                linkRecipeIds.add(recipeId);
+                linkProductIds.add(productIds.get(name));
+            }
+        }
+        recipeRepository.insertProductLinks(linkRecipeIds, linkProductIds);
+        return errors;
+    }
+
+    private static String validate(ProductImportRow product) {
+        if (isBlank(product.getName())) {
+            return "Название продукта не может быть пустым.";
+        }
+        if (isBlank(product.getImageUrl())) {
+            return "URL изображения продукта не может быть пустым.";
+        }
+        return null;
+    }
+
+    private static String validate(RecipeImportRow recipe) {
+        if (isBlank(recipe.getName())) {
+            return "Название рецепта не может быть пустым.";
+        }
+        if (isBlank(recipe.getDescription())) {
+            return "Описание рецепта не может быть пустым.";
+        }
+        if (recipe.getDifficultyLevel() == null) {
+            return "Уровень сложности рецепта не может быть пустым.";
+        }
+        if (recipe.getRating() != null && (recipe.getRating() < 1 || recipe.getRating() > 5)) {
+            return "Рейтинг рецепта должен быть от 1 до 5.";
+        }
+        if (isBlank(recipe.getImageUrl())) {
+            return "URL изображения рецепта не может быть пустым.";
+        }
+        if (recipe.getProducts() == null || recipe.getProducts().isEmpty()) {
+            return "Рецепт должен содержать хотя бы один продукт.";
+        }
+        if (recipe.getProducts().stream().anyMatch(CatalogImportService::isBlank)) {
+            return "Название продукта рецепта не может быть пустым.";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static ImportRowError error(Row<?> row, String message) {
+        return ImportRowError.builder().row(row.row()).message(message).build();
+    }
+
+    private void publish(CatalogImportedEvent event) {
+        if (event.productCount() == 0 && event.recipeCount() == 0) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException ex) {
+            // Данные уже записаны; индексы будут перестроены при следующем полном перестроении
+            logger.error("Не удалось обновить индексы после импорта.", ex);
+        }
+    }
+
+    private RowSource open(InputStream input, MediaType contentType) {
+        try {
+            return contentType != null && TEXT_CSV.isCompatibleWith(contentType) ? csv(input) : json(input);
+        } catch (IOException ex) {
+            throw new InvalidDataException("Не удалось прочитать данные импорта: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Строки JSON-массива или NDJSON: {@link MappingIterator} разворачивает массив верхнего уровня
+     * и читает по одному объекту.
+     */
+    private RowSource json(InputStream input) throws IOException {
+        MappingIterator<JsonNode> iterator = objectMapper.readerFor(JsonNode.class).readValues(input);
+        return new RowSource() {
+            @Override
+            public JsonNode next() throws IOException {
+                return iterator.hasNextValue() ? iterator.nextValue() : null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                iterator.close();
+            }
+        };
+    }
+
+    /**
+     * Строки CSV с заголовком: столбцы сопоставляются полям по заголовку, пустые значения пропускаются,
+     * а столбец {@code products} разбивается на список по точке с запятой.
+     */
+    private RowSource csv(InputStream input) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.read();
+        if (header == null) {
+            header = List.of();
+        }
+        List<String> columns = header.stream().map(String::strip).toList();
+        return new RowSource() {
+            @Override
+            public JsonNode next() throws IOException {
+                List<String> fields = reader.read();
+                if (fields == null) {
+                    return null;
+                }
+                ObjectNode node = objectMapper.createObjectNode();
+                for (int i = 0; i < Math.min(columns.size(), fields.size()); i++) {
+                    String value = fields.get(i).strip();
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    if (PRODUCTS_COLUMN.equals(columns.get(i))) {
+                        ArrayNode products = node.putArray(PRODUCTS_COLUMN);
+                        for (String name : value.split(LIST_SEPARATOR)) {
+                            if (!name.isBlank()) {
+                                products.add(name.strip());
+                            }
+                        }
+                    } else {
+                        node.put(columns.get(i), value);
+                    }
+                }
+                return node;
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Источник строк импорта.
+     */
+    private interface RowSource extends Closeable {
+
+        /**
+         * @return Следующая строка или null, если строки закончились.
+         */
+        JsonNode next() throws IOException;
+    }
+
+    /**
+     * Строка импорта с ее номером во входных данных.
+     */
+    private record Row<T>(long row, T value) {
+    }
+}
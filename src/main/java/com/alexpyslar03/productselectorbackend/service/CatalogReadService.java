@@ -0,0 +1,295 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeResponse;
+import com.alexpyslar03.productselectorbackend.domain.entity.Product;
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRow;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeRow;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Сервис чтения рецептов и продуктов для ответов клиенту.
+ * <p>
+ * Поля читаются проекциями, а связи — парами идентификаторов вторым запросом, поэтому
+ * на путях чтения не создаются управляемые сущности и ленивые коллекции, а ответы
+ * не содержат циклов и их размер не зависит от глубины связей. Любой ответ формируется
+ * не более чем двумя запросами независимо от количества рецептов или продуктов.
+ * Списки читаются страницами по ключу (см. {@link PageCursor}).
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogReadService {
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+
+    /**
+     * Читает рецепт по идентификатору.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Optional с рецептом.
+     */
+    public Optional<RecipeResponse> readRecipe(Long id) {
+        return readRecipes(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Читает рецепты в порядке указанных идентификаторов; отсутствующие рецепты пропускаются.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Список рецептов.
+     */
+    public List<RecipeResponse> readRecipes(List<Long> ids) {
+        Map<Long, RecipeResponse> recipes = readRecipeMap(ids);
+        List<RecipeResponse> result = new ArrayList<>(recipes.size());
+        for (Long id : ids) {
+            RecipeResponse recipe = recipes.get(id);
+            if (recipe != null) {
+                result.add(recipe);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Читает рецепты по идентификаторам.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Рецепты по идентификатору.
+     */
+    public Map<Long, RecipeResponse> readRecipeMap(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<RecipeRow> rows = recipeRepository.findRowsByIdIn(ids);
+        return toRecipeMap(rows, recipeRepository.findProductRecipeLinksByRecipeIdIn(ids));
+    }
+
+    /**
+     * Читает рецепты с идентификатором больше указанного.
+     *
+     * @param after Идентификатор, после которого начинается выборка.
+     * @param limit Максимальное количество рецептов.
+     * @return Список рецептов в порядке возрастания идентификатора.
+     */
+    public List<RecipeResponse> readRecipesAfter(long after, int limit) {
+        return withProducts(recipeRepository.findRowsAfter(after, Limit.of(limit)));
+    }
+
+    /**
+     * Читает рецепты, содержащие любой из указанных продуктов, с идентификатором больше указанного.
+     *
+     * @param productIds Идентификаторы продуктов.
+     * @param after      Идентификатор, после которого начинается выборка.
+     * @param limit      Максимальное количество рецептов.
+     * @return Список рецептов в порядке возрастания идентификатора.
+     */
+    public List<RecipeResponse> readRecipesByProductIdsAfter(Collection<Long> productIds, long after, int limit) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return withProducts(recipeRepository.findRowsByProductIdInAfter(productIds, after, Limit.of(limit)));
+    }
+
+    /**
+     * Читает продукт по идентификатору.
+     *
+     * @param id Идентификатор продукта.
+     * @return Optional с продуктом.
+     */
+    public Optional<ProductResponse> readProduct(Long id) {
+        return readProducts(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Читает продукты в порядке указанных идентификаторов; отсутствующие продукты пропускаются.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Список продуктов.
+     */
+    public List<ProductResponse> readProducts(Collection<Long> ids) {
+        Map<Long, ProductResponse> products = readProductMap(ids);
+        List<ProductResponse> result = new ArrayList<>(products.size());
+        for (Long id : ids) {
+            ProductResponse product = products.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Читает продукты по идентификаторам.
+     *
+     * @param ids Идентификаторы продуктов.
+     * @return Продукты по идентификатору.
+     */
+    public Map<Long, ProductResponse> readProductMap(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<ProductRow> rows = productRepository.findRowsByIdIn(ids);
+        return toProductMap(rows, productRepository.findProductRecipeLinksByProductIdIn(ids));
+    }
+
+    /**
+     * Читает продукты с идентификатором больше указанного.
+     *
+     * @param after Идентификатор, после которого начинается выборка.
+     * @param limit Максимальное количество продуктов.
+     * @return Список продуктов в порядке возрастания идентификатора.
+     */
+    public List<ProductResponse> readProductsAfter(long after, int limit) {
+        return withRecipes(productRepository.findRowsAfter(after, Limit.of(limit)));
+    }
+
+    /**
+     * Читает продукты, входящие в любой из указанных рецептов, с идентификатором больше указанного.
+     *
+     * @param recipeIds Идентификаторы рецептов.
+     * @param after     Идентификатор, после которого начинается выборка.
+     * @param limit     Максимальное количество продуктов.
+     * @return Список продуктов в порядке возрастания идентификатора.
+     */
+    public List<ProductResponse> readProductsByRecipeIdsAfter(Collection<Long> recipeIds, long after, int limit) {
+        if (recipeIds.isEmpty()) {
+            return List.of();
+        }
+        return withRecipes(productRepository.findRowsByRecipeIdInAfter(recipeIds, after, Limit.of(limit)));
+    }
+
+    /**
+     * Формирует ответ по сохраненному рецепту, продукты которого уже загружены.
+     *
+     * @param recipe Рецепт.
+     * @return Ответ с рецептом.
+     */
+    public static RecipeResponse toResponse(Recipe recipe) {
+        return RecipeResponse.builder()
+                .id(recipe.getId())
+                .name(recipe.getName())
+                .description(recipe.getDescription())
+                .vegan(recipe.isVegan())
+                .difficultyLevel(recipe.getDifficultyLevel())
+                .rating(recipe.getRating())
+                .imageUrl(recipe.getImageUrl())
+                .productIds(recipe.getProducts().stream().map(Product::getId).sorted().toList())
+                .build();
+    }
+
+    /**
+     * Формирует ответ по сохраненному продукту, рецепты которого уже загружены.
+     *
+     * @param product Продукт.
+     * @return Ответ с продуктом.
+     */
+    public static ProductResponse toResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .imageUrl(product.getImageUrl())
+                .recipeIds(product.getRecipes().stream().map(Recipe::getId).sorted().toList())
+                .build();
+    }
+
+    /**
+     * Формирует ответ по проекции рецепта.
+     *
+     * @param row        Проекция рецепта.
+     * @param productIds Идентификаторы продуктов рецепта по возрастанию.
+     * @return Ответ с рецептом.
+     */
+    static RecipeResponse toResponse(RecipeRow row, List<Long> productIds) {
+        return RecipeResponse.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .description(row.getDescription())
+                .vegan(Boolean.TRUE.equals(row.getVegan()))
+                .difficultyLevel(row.getDifficultyLevel())
+                .rating(row.getRating())
+                .imageUrl(row.getImageUrl())
+                .productIds(productIds)
+                .build();
+    }
+
+    /**
+     * Формирует ответ по проекции продукта.
+     *
+     * @param row       Проекция продукта.
+     * @param recipeIds Идентификаторы рецептов продукта по возрастанию.
+     * @return Ответ с продуктом.
+     */
+    static ProductResponse toResponse(ProductRow row, List<Long> recipeIds) {
+        return ProductResponse.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .imageUrl(row.getImageUrl())
+                .recipeIds(recipeIds)
+                .build();
+    }
+
+    private List<RecipeResponse> withProducts(List<RecipeRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(RecipeRow::getId).toList();
+        return List.copyOf(toRecipeMap(rows, recipeRepository.findProductRecipeLinksByRecipeIdIn(ids)).values());
+    }
+
+    private List<ProductResponse> withRecipes(List<ProductRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(ProductRow::getId).toList();
+        return List.copyOf(toProductMap(rows, productRepository.findProductRecipeLinksByProductIdIn(ids)).values());
+    }
+
+    private static Map<Long, RecipeResponse> toRecipeMap(List<RecipeRow> rows, List<ProductRecipeLink> links) {
+        Map<Long, List<Long>> productIds = group(links, ProductRecipeLink::getRecipeId, ProductRecipeLink::getProductId);
+        Map<Long, RecipeResponse> recipes = new LinkedHashMap<>();
+        for (RecipeRow row : rows) {
+            recipes.put(row.getId(), toResponse(row, sorted(productIds.get(row.getId()))));
+        }
+        return recipes;
+    }
+
+    private static Map<Long, ProductResponse> toProductMap(List<ProductRow> rows, List<ProductRecipeLink> links) {
+        Map<Long, List<Long>> recipeIds = group(links, ProductRecipeLink::getProductId, ProductRecipeLink::getRecipeId);
+        Map<Long, ProductResponse> products = new LinkedHashMap<>();
+        for (ProductRow row : rows) {
+            products.put(row.getId(), toResponse(row, sorted(recipeIds.get(row.getId()))));
+        }
+        return products;
+    }
+
+    private static Map<Long, List<Long>> group(List<ProductRecipeLink> links,
+                                               Function<ProductRecipeLink, Long> key,
+                                               Function<ProductRecipeLink, Long> value) {
+        Map<Long, List<Long>> grouped = new HashMap<>();
+        for (ProductRecipeLink link : links) {
+            grouped.computeIfAbsent(key.apply(link), id -> new ArrayList<>()).add(value.apply(link));
+        }
+        return grouped;
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids == null ? List.of() : ids.stream().sorted().toList();
+    }
+}
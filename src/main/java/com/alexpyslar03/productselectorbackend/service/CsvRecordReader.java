@@ -0,0 +1,84 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение записей CSV (RFC 4180): поля разделяются запятыми, поле в двойных кавычках
+ * может содержать запятые, переводы строк и удвоенные кавычки. Пустые строки пропускаются.
+ * <p>
+ * В памяти находится только текущая запись, поэтому размер файла не ограничен.
+ * </p>
+ */
+final class CsvRecordReader implements Closeable {
+
+    private final Reader reader;
+    private int next;
+
+    /**
+     * @param reader Источник символов; рекомендуется буферизованный.
+     */
+    CsvRecordReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.next = reader.read();
+        if (next == '\uFEFF') {
+            // Метка порядка байтов, которую добавляют табличные редакторы
+            next = reader.read();
+        }
+    }
+
+    /**
+     * Читает следующую запись.
+     *
+     * @return Поля записи или null, если записи закончились.
+     * @throws InvalidDataException если кавычка поля не закрыта до конца файла.
+     */
+    List<String> read() throws IOException {
+        while (next == '\r' || next == '\n') {
+            next = reader.read();
+        }
+        if (next == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = next;
+            next = reader.read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidDataException("Кавычка поля CSV не закрыта до конца файла.");
+                }
+                if (c != '"') {
+                    field.append((char) c);
+                } else if (next == '"') {
+                    field.append('"');
+                    next = reader.read();
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
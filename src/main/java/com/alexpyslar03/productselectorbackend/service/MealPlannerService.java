@@ -0,0 +1,104 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.MealPlanResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeMatchResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeResponse;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.DenseBitSet;
+import com.alexpyslar03.productselectorbackend.index.MealPlanner;
+import com.alexpyslar03.productselectorbackend.index.RecipeFilter;
+import com.alexpyslar03.productselectorbackend.index.RecipeIndex;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис планирования рецептов по набору продуктов пользователя.
+ * <p>
+ * План составляется жадным алгоритмом {@link MealPlanner} по in-memory индексу рецептов.
+ * Время планирования ограничено настройкой {@code matching.planner-time-budget-ms}: по ее
+ * истечении план достраивается без пересчета выигрышей и помечается как приближенный.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class MealPlannerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealPlannerService.class);
+    private static final int MAX_PLAN_SIZE = 21;
+
+    private final RecipeIndexService recipeIndexService;
+    private final CatalogReadService catalogReadService;
+
+    @Value("${matching.planner-time-budget-ms}")
+    private long timeBudgetMs;
+
+    /**
+     * Составление плана из size рецептов, которые вместе используют как можно больше продуктов
+     * пользователя и требуют как можно меньше покупок.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param size       Количество рецептов в плане.
+     * @param filter     Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @return CompletableFuture с планом.
+     * @throws InvalidDataException если набор продуктов пуст, размер плана или фильтр некорректны.
+     */
+    @Async
+    public CompletableFuture<MealPlanResponse> plan(List<Long> productIds, int size, RecipeFilter filter) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new InvalidDataException("Список продуктов не может быть пустым.");
+        }
+        if (size < 1 || size > MAX_PLAN_SIZE) {
+            throw new InvalidDataException(String.format("Количество рецептов в плане должно быть от 1 до %d.", MAX_PLAN_SIZE));
+        }
+        RecipeService.validateFilter(filter);
+        return CompletableFuture.supplyAsync(() -> {
+            RecipeIndex index = recipeIndexService.require();
+            long start = System.nanoTime();
+            DenseBitSet pantry = index.pantry(productIds);
+            MealPlanner.Plan plan = MealPlanner.plan(index, pantry, filter, size,
+                    start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs));
+            if (!plan.complete()) {
+                logger.warn("Время на составление плана ({} мс) истекло, план для продуктов с ID {} приближенный.",
+                        timeBudgetMs, productIds);
+            }
+
+            Map<Long, RecipeResponse> recipes = catalogReadService.readRecipeMap(
+                    plan.items().stream().map(MealPlanner.Item::recipeId).toList());
+            List<RecipeMatchResponse> items = new ArrayList<>(plan.items().size());
+            for (MealPlanner.Item item : plan.items()) {
+                RecipeResponse recipe = recipes.get(item.recipeId());
+                if (recipe == null) {
+                    continue;
+                }
+                items.add(RecipeMatchResponse.builder()
+                        .recipe(recipe)
+                        .matchedCount(item.matched())
+                        .requiredCount(item.required())
+                        .missingCount(item.missing())
+                        .coverage(item.required() == 0 ? 0.0 : (double) item.matched() / item.required())
+                        .score(item.gain())
+                        .missingProductIds(index.missingProductIds(item.ordinal(), pantry))
+                        .build());
+            }
+            logger.info("Составлен план из {} рецептов для продуктов с ID {} за {} мкс.",
+                    items.size(), productIds, (System.nanoTime() - start) / 1_000);
+            return MealPlanResponse.builder()
+                    .recipes(items)
+                    .usedProductCount(plan.usedCount())
+                    .pantryProductCount(pantry.cardinality())
+                    .purchaseProductIds(plan.purchaseProductIds())
+                    .complete(plan.complete())
+                    .build();
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Курсоры постраничного чтения по ключу.
+ * <p>
+ * Страница выбирается условием {@code id > :after order by id} с ограничением количества строк,
+ * поэтому стоимость чтения любой страницы не зависит от ее номера, в отличие от OFFSET.
+ * Курсор — идентификатор последнего элемента страницы с номером версии формата
+ * в кодировке Base64 для URL.
+ * </p>
+ */
+final class PageCursor {
+
+    /**
+     * Максимальный размер страницы.
+     */
+    static final int MAX_SIZE = 500;
+
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + Long.BYTES;
+
+    private PageCursor() {
+    }
+
+    /**
+     * Проверяет размер страницы.
+     *
+     * @param size Размер страницы.
+     * @throws InvalidDataException если размер вне допустимого диапазона.
+     */
+    static void validateSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidDataException(String.format("Размер страницы должен быть от 1 до %d.", MAX_SIZE));
+        }
+    }
+
+    /**
+     * Извлекает из курсора идентификатор, после которого начинается страница.
+     *
+     * @param cursor Курсор или null для первой страницы.
+     * @return Идентификатор последнего элемента предыдущей страницы или 0 для первой страницы.
+     * @throws InvalidDataException если курсор поврежден.
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidDataException("Некорректный курсор страницы.");
+        }
+        if (bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new InvalidDataException("Некорректный курсор страницы.");
+        }
+        return ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+    }
+
+    /**
+     * @param id Идентификатор последнего элемента страницы.
+     * @return Курсор следующей страницы.
+     */
+    static String encode(long id) {
+        byte[] bytes = ByteBuffer.allocate(LENGTH).put(VERSION).putLong(id).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Формирует страницу из элементов, прочитанных с запасом в один элемент.
+     *
+     * @param fetched Не более size + 1 элементов в порядке возрастания ключа.
+     * @param size    Размер страницы.
+     * @param key     Ключ элемента.
+     * @param <T>     Тип элементов.
+     * @return Страница с курсором, если за ней есть элементы.
+     */
+    static <T> PageResponse<T> page(List<T> fetched, int size, ToLongFunction<T> key) {
+        if (fetched.size() <= size) {
+            return PageResponse.<T>builder().items(fetched).build();
+        }
+        List<T> items = fetched.subList(0, size);
+        return PageResponse.<T>builder()
+                .items(List.copyOf(items))
+                .nextCursor(encode(key.applyAsLong(items.get(size - 1))))
+                .build();
+    }
+
+    /**
+     * Формирует страницу по возрастающему списку идентификаторов, уже вычисленному в памяти.
+     * Курсор определяется по идентификаторам, поэтому элементы, не найденные при чтении, не обрывают список.
+     *
+     * @param ids    Идентификаторы в порядке возрастания.
+     * @param after  Идентификатор, после которого начинается страница.
+     * @param size   Размер страницы.
+     * @param reader Чтение элементов по идентификаторам страницы.
+     * @param <T>    Тип элементов.
+     * @return Страница с курсором, если за ней есть идентификаторы.
+     */
+    static <T> PageResponse<T> page(List<Long> ids, long after, int size, Function<List<Long>, List<T>> reader) {
+        int from = Collections.binarySearch(ids, after);
+        from = from >= 0 ? from + 1 : -from - 1;
+        int to = Math.min(ids.size(), from + size);
+        return PageResponse.<T>builder()
+                .items(reader.apply(ids.subList(from, to)))
+                .nextCursor(to < ids.size() ? encode(ids.get(to - 1)) : null)
+                .build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeSearchResponse;
+import com.alexpyslar03.productselectorbackend.domain.entity.Pantry;
+import com.alexpyslar03.productselectorbackend.domain.entity.User;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeIndexUpdatedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductName;
+import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.PantryMatchCache;
+import com.alexpyslar03.productselectorbackend.index.RecipeFilter;
+import com.alexpyslar03.productselectorbackend.repository.PantryRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис для работы с сохраненными наборами продуктов пользователей.
+ * <p>
+ * Результат подбора рецептов по набору хранится в {@link PantryMatchCache} и удаляется только
+ * при изменении набора или рецептов, содержащих продукты набора, поэтому повторные запросы
+ * пользователя с неизмененным набором не выполняют подбор и не обращаются к базе данных.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class PantryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PantryService.class);
+    private static final int MAX_MATCH_LIMIT = 100;
+
+    /**
+     * Минимальное количество рецептов, для которого вычисляется и кэшируется результат подбора,
+     * чтобы запросы с разным небольшим limit обслуживались одной записью кэша.
+     */
+    private static final int CACHED_MATCH_LIMIT = 20;
+
+    private final PantryRepository pantryRepository;
+    private final ProductRepository productRepository;
+    private final CatalogReadService catalogReadService;
+    private final RecipeService recipeService;
+    private final PantryMatchCache<RecipeSearchResponse> pantryMatchCache;
+
+    /**
+     * Получение продуктов набора пользователя.
+     *
+     * @param user Пользователь.
+     * @return CompletableFuture со списком продуктов; пустой, если набор не создан.
+     */
+    @Async
+    public CompletableFuture<List<ProductResponse>> read(User user) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<ProductResponse> products = catalogReadService.readProducts(pantryRepository.findProductIdsByUserId(user.getId()));
+            logger.info("Запрошен набор из {} продуктов пользователя с ID {}.", products.size(), user.getId());
+            return products;
+        });
+    }
+
+    /**
+     * Добавление продуктов в набор пользователя. Набор создается при первом добавлении.
+     *
+     * @param user       Пользователь.
+     * @param productIds Список идентификаторов добавляемых продуктов.
+     * @return CompletableFuture со списком продуктов набора.
+     * @throws InvalidDataException    если список продуктов пуст.
+     * @throws EntityNotFoundException если какие-либо продукты не найдены.
+     */
+    @Async
+    public CompletableFuture<List<ProductResponse>> addProducts(User user, List<Long> productIds) {
+        validateProductIds(productIds);
+        return CompletableFuture.supplyAsync(() -> {
+            Set<Long> added = new HashSet<>(productIds);
+            Set<Long> found = productRepository.findNamesByIdIn(added).stream()
+                    .map(ProductName::getId)
+                    .collect(Collectors.toSet());
+            if (found.size() != added.size()) {
+                added.removeAll(found);
+                throw new EntityNotFoundException(String.format("Продукты с идентификаторами %s не найдены.", added));
+            }
+            Pantry pantry = pantryRepository.findByUserId(user.getId())
+                    .orElseGet(() -> Pantry.builder().user(user).productIds(new HashSet<>()).build());
+            pantry.getProductIds().addAll(added);
+            return save(user, pantry);
+        });
+    }
+
+    /**
+     * Удаление продуктов из набора пользователя. Отсутствующие в наборе продукты пропускаются.
+     *
+     * @param user       Пользователь.
+     * @param productIds Список идентификаторов удаляемых продуктов.
+     * @return CompletableFuture со списком продуктов набора.
+     * @throws InvalidDataException    если список продуктов пуст.
+     * @throws EntityNotFoundException если набор пользователя не создан.
+     */
+    @Async
+    public CompletableFuture<List<ProductResponse>> removeProducts(User user, List<Long> productIds) {
+        validateProductIds(productIds);
+        return CompletableFuture.supplyAsync(() -> {
+            Pantry pantry = pantryRepository.findByUserId(user.getId())
+                    .orElseThrow(() -> new EntityNotFoundException(String.format("Набор продуктов пользователя с идентификатором %d не найден.", user.getId())));
+            pantry.getProductIds().removeAll(productIds);
+            return save(user, pantry);
+        });
+    }
+
+    private List<ProductResponse> save(User user, Pantry pantry) {
+        Pantry savedPantry = pantryRepository.save(pantry);
+        // Удаление после фиксации: подбор, прочитавший набор до изменения, не сможет сохранить результат
+        pantryMatchCache.invalidate(user.getId());
+        logger.info("Набор продуктов пользователя с ID {} обновлен: {} продуктов.", user.getId(), savedPantry.getProductIds().size());
+        return catalogReadService.readProducts(savedPantry.getProductIds().stream().sorted().toList());
+    }
+
+    /**
+     * Подбор рецептов по сохраненному набору продуктов пользователя.
+     * Повторные запросы с неизмененным набором обслуживаются из кэша.
+     *
+     * @param user  Пользователь.
+     * @param limit Максимальное количество рецептов в ответе.
+     * @return CompletableFuture с результатами, начиная с лучшего, и количеством рецептов по атрибутам.
+     * @throws InvalidDataException если количество рецептов некорректно или набор пуст.
+     */
+    @Async
+    public CompletableFuture<RecipeSearchResponse> match(User user, int limit) {
+        if (limit < 1 || limit > MAX_MATCH_LIMIT) {
+            throw new InvalidDataException(String.format("Количество рецептов должно быть от 1 до %d.", MAX_MATCH_LIMIT));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            RecipeSearchResponse cached = pantryMatchCache.get(user.getId(), limit);
+            if (cached != null) {
+                logger.debug("Результат подбора для пользователя с ID {} взят из кэша.", user.getId());
+                return top(cached, limit);
+            }
+            // Поколение читается до набора и индекса, иначе результат по устаревшим данным может попасть в кэш
+            long generation = pantryMatchCache.generation();
+            List<Long> productIds = pantryRepository.findProductIdsByUserId(user.getId());
+            if (productIds.isEmpty()) {
+                throw new InvalidDataException("Набор продуктов пользователя пуст.");
+            }
+            int computedLimit = Math.max(limit, CACHED_MATCH_LIMIT);
+            RecipeSearchResponse response = recipeService.readMatches(productIds, RecipeFilter.NONE, computedLimit, user.getId());
+            pantryMatchCache.put(user.getId(), productIds, computedLimit, response, generation);
+            return top(response, limit);
+        });
+    }
+
+    private static RecipeSearchResponse top(RecipeSearchResponse response, int limit) {
+        if (response.getRecipes().size() <= limit) {
+            return response;
+        }
+        return RecipeSearchResponse.builder()
+                .recipes(List.copyOf(response.getRecipes().subList(0, limit)))
+                .facets(response.getFacets())
+                .build();
+    }
+
+    private static void validateProductIds(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new InvalidDataException("Список продуктов не может быть пустым.");
+        }
+    }
+
+    /**
+     * Удаление результатов подбора, затронутых новой версией индекса рецептов.
+     *
+     * @param event Событие публикации новой версии индекса.
+     */
+    @EventListener
+    public void onRecipeIndexUpdated(RecipeIndexUpdatedEvent event) {
+        if (event.productIds() == null) {
+            pantryMatchCache.clear();
+            return;
+        }
+        int removed = pantryMatchCache.invalidate(event.productIds());
+        if (removed > 0) {
+            logger.debug("Удалено {} результатов подбора по наборам продуктов после изменения индекса рецептов.", removed);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.ProductChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.index.ProductCooccurrence;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Сервис, владеющий in-memory матрицей совместной встречаемости продуктов в рецептах.
+ * <p>
+ * Матрица строится при старте приложения по связям продуктов и рецептов и обновляется
+ * по событиям изменения рецептов и продуктов после фиксации транзакции, поэтому
+ * подсказки следующего продукта не требуют агрегирующих запросов к базе данных.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductCooccurrenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCooccurrenceService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+
+    private volatile ProductCooccurrence cooccurrence;
+
+    /**
+     * Построение матрицы после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось построить матрицу совместной встречаемости продуктов, она будет построена при первом запросе.", ex);
+        }
+    }
+
+    /**
+     * Применение изменения рецепта после фиксации транзакции.
+     *
+     * @param event Событие изменения рецепта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.deleted() || event.productIds() != null) {
+            long recipeId = event.recipeId();
+            apply(current -> {
+                List<Long> productIds = recipeRepository.findProductIdsById(recipeId);
+                return productIds.isEmpty() ? current.withoutRecipe(recipeId) : current.withRecipe(recipeId, productIds);
+            });
+        }
+    }
+
+    /**
+     * Применение изменения продукта после фиксации транзакции.
+     *
+     * @param event Событие изменения продукта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted() || event.recipeIds() != null) {
+            long productId = event.productId();
+            apply(current -> current.withProduct(productId, productRepository.findRecipeIdsById(productId)));
+        }
+    }
+
+    /**
+     * Применяет изменение под блокировкой. Связи читаются из базы данных внутри изменения,
+     * поэтому события, пришедшие не в порядке фиксации транзакций, не возвращают устаревшие связи.
+     */
+    private synchronized void apply(UnaryOperator<ProductCooccurrence> change) {
+        if (cooccurrence != null) {
+            cooccurrence = change.apply(cooccurrence);
+        }
+    }
+
+    /**
+     * Перестроение матрицы после импорта рецептов; импорт продуктов не добавляет связей.
+     *
+     * @param event Событие завершения импорта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (event.recipeCount() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Полное перестроение матрицы по текущему состоянию базы данных.
+     *
+     * @return Построенная матрица.
+     */
+    public synchronized ProductCooccurrence rebuild() {
+        long start = System.nanoTime();
+        Map<Long, List<Long>> recipes = new HashMap<>();
+        for (ProductRecipeLink link : recipeRepository.findAllProductRecipeLinks()) {
+            recipes.computeIfAbsent(link.getRecipeId(), id -> new ArrayList<>()).add(link.getProductId());
+        }
+        ProductCooccurrence rebuilt = ProductCooccurrence.build(recipes);
+        cooccurrence = rebuilt;
+        logger.info("Матрица совместной встречаемости построена: {} продуктов из {} рецептов за {} мс.",
+                rebuilt.productCount(), recipes.size(), (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    /**
+     * Возвращает текущую матрицу, при необходимости построив ее.
+     *
+     * @return Матрица совместной встречаемости продуктов.
+     */
+    public ProductCooccurrence require() {
+        ProductCooccurrence current = cooccurrence;
+        return current != null ? current : rebuild();
+    }
+}
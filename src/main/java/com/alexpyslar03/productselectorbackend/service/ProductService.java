@@ -1,21 +1,34 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.ProductCreateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductSuggestionResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.ProductUpdateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.ShoppingListItem;
 import com.alexpyslar03.productselectorbackend.domain.entity.Product;
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.event.ProductChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductName;
 import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
 import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.ProductCooccurrence;
+import com.alexpyslar03.productselectorbackend.index.RecipeIndex;
+import com.alexpyslar03.productselectorbackend.index.ShoppingList;
 import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
 import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Сервисный класс для работы с продуктами.
@@ -25,8 +38,13 @@ import java.util.concurrent.CompletableFuture;
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_SUGGESTIONS = 50;
     private final ProductRepository productRepository;
     private final RecipeRepository recipeRepository;
+    private final ProductCooccurrenceService productCooccurrenceService;
+    private final RecipeIndexService recipeIndexService;
+    private final CatalogReadService catalogReadService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Создание нового продукта.
@@ -36,7 +54,7 @@ public class ProductService {
      * @throws InvalidDataException если имя или URL изображения пустые.
      */
     @Async
-    public CompletableFuture<Product> create(ProductCreateRequest request) {
+    public CompletableFuture<ProductResponse> create(ProductCreateRequest request) {
         if (request.getName() == null || request.getName().isEmpty()) {
             throw new InvalidDataException("Имя продукта не может быть пустым.");
         }
@@ -54,22 +72,30 @@ public class ProductService {
                     return productRepository.save(product);
                 })
                 .thenApply(product -> {
+                    eventPublisher.publishEvent(ProductChangedEvent.saved(product.getId(), product.getName(),
+                            product.getRecipes().stream().map(Recipe::getId).collect(Collectors.toSet())));
                     logger.info("Продукт с ID {} успешно создан.", product.getId());
-                    return product;
+                    return CatalogReadService.toResponse(product);
                 });
     }
 
     /**
-     * Получение списка всех продуктов.
+     * Получение страницы списка всех продуктов в порядке возрастания идентификатора.
      *
-     * @return CompletableFuture со списком продуктов.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей продуктов.
+     * @throws InvalidDataException если курсор поврежден или размер страницы вне допустимого диапазона.
      */
     @Async
-    public CompletableFuture<List<Product>> readAll() {
+    public CompletableFuture<PageResponse<ProductResponse>> readAll(String cursor, int size) {
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<Product> products = productRepository.findAll();
-            logger.info("Запрошен список всех продуктов.");
-            return products;
+            PageResponse<ProductResponse> page = PageCursor.page(catalogReadService.readProductsAfter(after, size + 1),
+                    size, ProductResponse::getId);
+            logger.info("Запрошена страница из {} продуктов после ID {}.", page.getItems().size(), after);
+            return page;
         });
     }
 
@@ -81,9 +107,9 @@ public class ProductService {
      * @throws EntityNotFoundException если продукт не найден.
      */
     @Async
-    public CompletableFuture<Product> readById(Long id) {
+    public CompletableFuture<ProductResponse> readById(Long id) {
         return CompletableFuture.supplyAsync(() ->
-                productRepository.findById(id)
+                catalogReadService.readProduct(id)
                         .orElseThrow(() -> new EntityNotFoundException(String.format("Продукт с идентификатором %d не найден.", id)))
         ).thenApply(product -> {
             logger.info("Продукт с ID {} найден.", id);
@@ -95,13 +121,13 @@ public class ProductService {
      * Получение всех продуктов по списку ID.
      *
      * @param ids Список идентификаторов продуктов.
-     * @return CompletableFuture с множеством найденных продуктов.
+     * @return CompletableFuture со списком найденных продуктов в порядке идентификаторов запроса.
      * @throws EntityNotFoundException если ни один продукт не найден.
      */
     @Async
-    public CompletableFuture<Set<Product>> readAllByIdIn(List<Long> ids) {
+    public CompletableFuture<List<ProductResponse>> readAllByIdIn(List<Long> ids) {
         return CompletableFuture.supplyAsync(() -> {
-            Set<Product> products = productRepository.findAllByIdIn(ids).join();
+            List<ProductResponse> products = catalogReadService.readProducts(ids.stream().distinct().toList());
             if (products.isEmpty()) {
                 throw new EntityNotFoundException("Не найдено продуктов с указанными идентификаторами.");
             }
@@ -111,40 +137,134 @@ public class ProductService {
     }
 
     /**
-     * Получение продуктов по идентификатору рецепта.
+     * Подсказки следующего продукта для набора продуктов пользователя.
+     * Кандидаты оцениваются по совместной встречаемости в рецептах сразу со всеми продуктами набора.
+     *
+     * @param productIds Список идентификаторов продуктов набора.
+     * @param limit      Максимальное количество подсказок.
+     * @return CompletableFuture со списком продуктов, начиная с наиболее подходящих.
+     * @throws InvalidDataException если набор пуст или количество подсказок вне допустимого диапазона.
+     */
+    @Async
+    public CompletableFuture<List<ProductSuggestionResponse>> suggestNext(List<Long> productIds, int limit) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new InvalidDataException("Список продуктов не может быть пустым.");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidDataException(String.format("Количество подсказок должно быть от 1 до %d.", MAX_SUGGESTIONS));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<ProductCooccurrence.Suggestion> suggestions = productCooccurrenceService.require().suggest(productIds, limit);
+            if (suggestions.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, ProductResponse> products = catalogReadService.readProductMap(
+                    suggestions.stream().map(ProductCooccurrence.Suggestion::productId).toList());
+            List<ProductSuggestionResponse> response = new ArrayList<>(suggestions.size());
+            for (ProductCooccurrence.Suggestion suggestion : suggestions) {
+                ProductResponse product = products.get(suggestion.productId());
+                if (product != null) {
+                    response.add(ProductSuggestionResponse.builder()
+                            .product(product)
+                            .score(suggestion.score())
+                            .build());
+                }
+            }
+            logger.info("Подобрано {} продуктов для набора продуктов с ID {}.", response.size(), productIds);
+            return response;
+        });
+    }
+
+    /**
+     * Составление сводного списка покупок для набора рецептов.
+     * <p>
+     * Продукты собираются за один проход по связям рецептов с продуктами в in-memory индексе,
+     * сущности рецептов и продуктов не загружаются — из базы данных читаются только названия.
+     * </p>
+     *
+     * @param recipeIds  Список идентификаторов выбранных рецептов.
+     * @param productIds Список идентификаторов имеющихся продуктов; может быть пустым.
+     * @return CompletableFuture со списком недостающих продуктов по возрастанию идентификатора.
+     * @throws InvalidDataException если список рецептов пуст.
+     */
+    @Async
+    public CompletableFuture<List<ShoppingListItem>> readShoppingList(List<Long> recipeIds, List<Long> productIds) {
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            throw new InvalidDataException("Список рецептов не может быть пустым.");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            RecipeIndex index = recipeIndexService.require();
+            List<ShoppingList.Item> items = ShoppingList.build(index, recipeIds,
+                    index.pantry(productIds == null ? List.of() : productIds));
+            if (items.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, String> names = productRepository.findNamesByIdIn(items.stream().map(ShoppingList.Item::productId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(ProductName::getId, ProductName::getName));
+            List<ShoppingListItem> response = new ArrayList<>(items.size());
+            for (ShoppingList.Item item : items) {
+                String name = names.get(item.productId());
+                if (name != null) {
+                    response.add(ShoppingListItem.builder()
+                            .productId(item.productId())
+                            .name(name)
+                            .recipeCount(item.recipeCount())
+                            .build());
+                }
+            }
+            logger.info("Составлен список покупок из {} продуктов для рецептов с ID {}.", response.size(), recipeIds);
+            return response;
+        });
+    }
+
+    /**
+     * Получение страницы продуктов по идентификатору рецепта.
      *
-     * @param id Идентификатор рецепта.
-     * @return CompletableFuture со списком продуктов.
+     * @param id     Идентификатор рецепта.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей продуктов.
      * @throws EntityNotFoundException если продукты не найдены.
+     * @throws InvalidDataException    если курсор поврежден или размер страницы вне допустимого диапазона.
      */
     @Async
-    public CompletableFuture<List<Product>> readByRecipesId(Long id) {
+    public CompletableFuture<PageResponse<ProductResponse>> readByRecipesId(Long id, String cursor, int size) {
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<Product> products = productRepository.findByRecipesId(id).join();
-            if (products.isEmpty()) {
+            PageResponse<ProductResponse> page = PageCursor.page(
+                    catalogReadService.readProductsByRecipeIdsAfter(List.of(id), after, size + 1), size, ProductResponse::getId);
+            if (page.getItems().isEmpty() && cursor == null) {
                 throw new EntityNotFoundException(String.format("Продукты для рецепта с идентификатором %d не найдены.", id));
             }
-            logger.info("Найдено {} продуктов для рецепта с ID {}.", products.size(), id);
-            return products;
+            logger.info("Найдено {} продуктов для рецепта с ID {}.", page.getItems().size(), id);
+            return page;
         });
     }
 
     /**
-     * Получение продуктов по списку идентификаторов рецептов.
+     * Получение страницы продуктов по списку идентификаторов рецептов.
      *
-     * @param ids Список идентификаторов рецептов.
-     * @return CompletableFuture со списком продуктов.
+     * @param ids    Список идентификаторов рецептов.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей продуктов.
      * @throws EntityNotFoundException если продукты не найдены.
+     * @throws InvalidDataException    если курсор поврежден или размер страницы вне допустимого диапазона.
      */
     @Async
-    public CompletableFuture<List<Product>> readByRecipesIdIn(List<Long> ids) {
+    public CompletableFuture<PageResponse<ProductResponse>> readByRecipesIdIn(List<Long> ids, String cursor, int size) {
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<Product> products = productRepository.findByRecipesIdIn(ids).join();
-            if (products.isEmpty()) {
+            PageResponse<ProductResponse> page = PageCursor.page(
+                    catalogReadService.readProductsByRecipeIdsAfter(ids, after, size + 1), size, ProductResponse::getId);
+            if (page.getItems().isEmpty() && cursor == null) {
                 throw new EntityNotFoundException(String.format("Продукты для рецептов с идентификаторами %s не найдены.", ids));
             }
-            logger.info("Найдено {} продуктов для рецептов с ID {}.", products.size(), ids);
-            return products;
+            logger.info("Найдено {} продуктов для рецептов с ID {}.", page.getItems().size(), ids);
+            return page;
         });
     }
 
@@ -156,7 +276,7 @@ public class ProductService {
      * @throws EntityNotFoundException если продукт не найден.
      */
     @Async
-    public CompletableFuture<Product> update(ProductUpdateRequest request) {
+    public CompletableFuture<ProductResponse> update(ProductUpdateRequest request) {
         return productRepository.findById(request.getId())
                 .map(product -> {
                     Product updatedProduct = Product.builder()
@@ -168,8 +288,9 @@ public class ProductService {
                     return productRepository.save(updatedProduct);
                 })
                 .map(product -> {
+                    eventPublisher.publishEvent(ProductChangedEvent.saved(product.getId(), product.getName(), null));
                     logger.info("Продукт с ID {} успешно обновлен.", product.getId());
-                    return CompletableFuture.completedFuture(product);
+                    return CompletableFuture.completedFuture(CatalogReadService.toResponse(product));
                 })
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Невозможно обновить. Продукт с идентификатором %d не найден.", request.getId())));
     }
@@ -187,6 +308,7 @@ public class ProductService {
             Product product = productRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException(String.format("Невозможно удалить. Продукт с идентификатором %d не найден.", id)));
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
             logger.info("Продукт с ID {} успешно удален.", id);
             return null;
         });
@@ -0,0 +1,166 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeRatingResponse;
+import com.alexpyslar03.productselectorbackend.domain.entity.User;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.RatingTotals;
+import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.RatingAccumulator;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRatingRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сервис оценок рецептов пользователями.
+ * <p>
+ * Оценки учитываются в {@link RatingAccumulator} без обращения к базе данных и записываются
+ * в таблицу оценок пакетами по расписанию и при остановке приложения, поэтому частые оценки
+ * популярного рецепта не блокируют его строку. Средняя оценка читается из памяти без блокировок.
+ * Оценки, не записанные до аварийной остановки, теряются.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class RatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingService.class);
+
+    private final RecipeRatingRepository recipeRatingRepository;
+    private final RecipeIndexService recipeIndexService;
+    private final RatingAccumulator ratingAccumulator = new RatingAccumulator();
+
+    @Value("${ratings.flush-batch-size}")
+    private int flushBatchSize;
+
+    /**
+     * Загрузка итогов оценок после запуска приложения. Итоги складываются с оценками,
+     * поставленными до окончания загрузки.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            List<RatingTotals> totals = recipeRatingRepository.findTotals();
+            totals.forEach(recipe -> ratingAccumulator.load(recipe.getRecipeId(), recipe.getSum(), recipe.getCount()));
+            logger.info("Загружены оценки {} рецептов.", totals.size());
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось загрузить оценки рецептов, средние оценки учитывают только новые оценки.", ex);
+        }
+    }
+
+    /**
+     * Оценка рецепта пользователем. Повторная оценка заменяет предыдущую.
+     *
+     * @param user     Пользователь.
+     * @param recipeId Идентификатор рецепта.
+     * @param value    Оценка от 1 до 5.
+     * @return CompletableFuture со средней оценкой рецепта с учетом новой оценки.
+     * @throws InvalidDataException    если оценка вне допустимого диапазона.
+     * @throws EntityNotFoundException если рецепт не найден.
+     */
+    @Async
+    public CompletableFuture<RecipeRatingResponse> rate(User user, Long recipeId, int value) {
+        if (value < RatingAccumulator.MIN_RATING || value > RatingAccumulator.MAX_RATING) {
+            throw new InvalidDataException(String.format("Оценка должна быть от %d до %d.",
+                    RatingAccumulator.MIN_RATING, RatingAccumulator.MAX_RATING));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            requireRecipe(recipeId);
+            ratingAccumulator.vote(recipeId, user.getId(), value);
+            logger.debug("Пользователь с ID {} оценил рецепт с ID {} на {}.", user.getId(), recipeId, value);
+            return toResponse(recipeId);
+        });
+    }
+
+    /**
+     * Получение средней оценки рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return CompletableFuture со средней оценкой и количеством оценок.
+     * @throws EntityNotFoundException если рецепт не найден.
+     */
+    @Async
+    public CompletableFuture<RecipeRatingResponse> readRating(Long recipeId) {
+        return CompletableFuture.supplyAsync(() -> {
+            requireRecipe(recipeId);
+            return toResponse(recipeId);
+        });
+    }
+
+    /**
+     * Запись накопленных оценок пакетами. Пакет, который не удалось записать, возвращается
+     * в накопитель и записывается при следующем запуске.
+     */
+    @Scheduled(fixedDelayString = "${ratings.flush-interval-ms}")
+    public synchronized void flush() {
+        int written = 0;
+        while (true) {
+            List<RatingAccumulator.Vote> votes = ratingAccumulator.drain(flushBatchSize);
+            if (votes.isEmpty()) {
+                break;
+            }
+            try {
+                for (RatingTotals replaced : recipeRatingRepository.upsertAll(votes)) {
+                    ratingAccumulator.correct(replaced.getRecipeId(), replaced.getSum(), replaced.getCount());
+                }
+            } catch (RuntimeException ex) {
+                ratingAccumulator.restore(votes);
+                logger.error("Не удалось записать {} оценок рецептов, запись будет повторена.", votes.size(), ex);
+                return;
+            }
+            written += votes.size();
+            if (votes.size() < flushBatchSize) {
+                break;
+            }
+        }
+        if (written > 0) {
+            logger.debug("Записано {} оценок рецептов.", written);
+        }
+    }
+
+    /**
+     * Запись оставшихся оценок при остановке приложения.
+     */
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+
+    /**
+     * Удаление оценок удаленного рецепта после фиксации транзакции.
+     *
+     * @param event Событие изменения рецепта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.deleted()) {
+            ratingAccumulator.removeRecipe(event.recipeId());
+        }
+    }
+
+    private void requireRecipe(Long recipeId) {
+        if (recipeIndexService.require().recipeOrdinal(recipeId) < 0) {
+            throw new EntityNotFoundException(String.format("Рецепт с идентификатором %d не найден.", recipeId));
+        }
+    }
+
+    private RecipeRatingResponse toResponse(Long recipeId) {
+        return RecipeRatingResponse.builder()
+                .recipeId(recipeId)
+                .average(ratingAccumulator.average(recipeId))
+                .count(ratingAccumulator.count(recipeId))
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.ProductChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeIndexUpdatedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import com.alexpyslar03.productselectorbackend.index.BitKernels;
+import com.alexpyslar03.productselectorbackend.index.RecipeIndex;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Сервис, владеющий in-memory индексом связей продуктов и рецептов.
+ * Индекс строится из репозиториев при старте приложения; до его построения
+ * (или при ошибке построения) вызывающий код должен использовать запросы к базе данных.
+ * <p>
+ * После построения индекс поддерживается инкрементально по событиям изменения продуктов
+ * и рецептов, которые применяются после фиксации транзакции. Каждое изменение создает
+ * новую неизменяемую версию индекса и публикует ее одной записью volatile-поля,
+ * поэтому читатели не блокируются и всегда видят согласованную версию.
+ * </p>
+ * <p>
+ * Событие служит только сигналом об изменении: атрибуты и связи рецепта или продукта заново читаются
+ * из базы данных под блокировкой применения. События из разных потоков могут прийти не в порядке
+ * фиксации транзакций, но последнее примененное событие всегда читает состояние не раньше
+ * последней фиксации, поэтому запоздавшее событие не возвращает устаревшие связи.
+ * </p>
+ * <p>
+ * После публикации каждой версии синхронно публикуется {@link RecipeIndexUpdatedEvent}
+ * с продуктами, подбор по которым мог измениться.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeIndexService.class);
+
+    /**
+     * Минимальное количество удаленных рецептов, после которого индекс перестраивается целиком.
+     */
+    private static final int MIN_TOMBSTONES_FOR_REBUILD = 1024;
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile RecipeIndex index;
+
+    /**
+     * Построение индекса после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        logger.info("Битовые операции индекса рецептов: {}.", BitKernels.active());
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось построить индекс рецептов, используется поиск в базе данных.", ex);
+        }
+    }
+
+    /**
+     * Применение изменения рецепта после фиксации транзакции.
+     *
+     * @param event Событие изменения рецепта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        long recipeId = event.recipeId();
+        apply(current -> {
+                    List<RecipeAttributes> attributes = recipeRepository.findAttributesByIdIn(List.of(recipeId));
+                    return attributes.isEmpty()
+                            ? current.withoutRecipe(recipeId)
+                            : current.withRecipe(attributes.getFirst(), recipeRepository.findProductIdsById(recipeId));
+                },
+                (previous, updated) -> updated.productsAffectedByRecipe(previous, recipeId));
+    }
+
+    /**
+     * Применение изменения продукта после фиксации транзакции.
+     *
+     * @param event Событие изменения продукта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.deleted() && event.recipeIds() == null) {
+            // Название продукта в индексе не хранится
+            return;
+        }
+        long productId = event.productId();
+        apply(current -> productRepository.existsById(productId)
+                        ? current.withProduct(productId, productRepository.findRecipeIdsById(productId))
+                        : current.withoutProduct(productId),
+                (previous, updated) -> updated.productsAffectedByProduct(previous, productId));
+    }
+
+    /**
+     * Применяет изменение к текущей версии индекса и публикует результат.
+     * Если изменение нельзя применить инкрементально или накопилось много удаленных рецептов,
+     * индекс перестраивается целиком.
+     *
+     * @param change           Изменение индекса; выполняется под блокировкой и может читать базу данных.
+     * @param affectedProducts Продукты, подбор по которым мог измениться, по предыдущей и новой версиям.
+     */
+    private synchronized void apply(UnaryOperator<RecipeIndex> change,
+                                    BiFunction<RecipeIndex, RecipeIndex, long[]> affectedProducts) {
+        RecipeIndex current = index;
+        if (current == null) {
+            // Индекс еще не построен: при построении он будет прочитан из базы данных целиком
+            return;
+        }
+        RecipeIndex updated;
+        try {
+            updated = change.apply(current);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Инкрементальное обновление индекса невозможно ({}), индекс будет перестроен.", ex.getMessage());
+            rebuild();
+            return;
+        }
+        if (updated.tombstoneCount() > Math.max(MIN_TOMBSTONES_FOR_REBUILD, updated.recipeCount() / 4)) {
+            rebuild();
+            return;
+        }
+        index = updated;
+        eventPublisher.publishEvent(new RecipeIndexUpdatedEvent(affectedProducts.apply(current, updated)));
+    }
+
+    /**
+     * Перестроение индекса после импорта продуктов или рецептов.
+     *
+     * @param event Событие завершения импорта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Полное перестроение индекса по текущему состоянию базы данных.
+     *
+     * @return Построенный индекс.
+     */
+    public synchronized RecipeIndex rebuild() {
+        long start = System.nanoTime();
+        RecipeIndex rebuilt = RecipeIndex.build(
+                recipeRepository.findAllAttributes(),
+                productRepository.findAllIds(),
+                recipeRepository.findAllProductRecipeLinks());
+        index = rebuilt;
+        eventPublisher.publishEvent(RecipeIndexUpdatedEvent.rebuilt());
+        logger.info("Индекс рецептов построен: {} рецептов, {} продуктов, {} КБ за {} мс.",
+                rebuilt.recipeCount(), rebuilt.productCount(), rebuilt.sizeInBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    /**
+     * Возвращает текущий индекс, если он уже построен.
+     *
+     * @return Optional с индексом.
+     */
+    public Optional<RecipeIndex> current() {
+        return Optional.ofNullable(index);
+    }
+
+    /**
+     * Возвращает текущий индекс, при необходимости построив его.
+     *
+     * @return Индекс рецептов.
+     */
+    public RecipeIndex require() {
+        RecipeIndex current = index;
+        return current != null ? current : rebuild();
+    }
+}
@@ -0,0 +1,112 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.ProductChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.RecipeQuery;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сервис компиляции логических запросов к рецептам.
+ * <p>
+ * Скомпилированные запросы хранятся в LRU-кэше по нормализованному тексту, поэтому
+ * повторяющиеся запросы разбираются и сопоставляют названия продуктов с идентификаторами
+ * только один раз. План запроса не зависит от версии индекса, а при изменении продуктов
+ * кэш очищается, так как могли измениться их названия. Компиляция выполняется без блокировки,
+ * поэтому план сохраняется, только если кэш не очищался с момента ее начала: иначе план
+ * мог быть построен по прежним названиям продуктов.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeQueryService.class);
+
+    private final ProductRepository productRepository;
+
+    @Value("${matching.query-cache-size}")
+    private int cacheSize;
+
+    private final Map<String, RecipeQuery> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecipeQuery> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Номер поколения кэша, увеличивается при каждой очистке; защищен блокировкой кэша.
+     */
+    private long generation;
+
+    /**
+     * Возвращает скомпилированный запрос из кэша или компилирует его.
+     *
+     * @param text Текст запроса.
+     * @return Скомпилированный запрос.
+     * @throws InvalidDataException если запрос некорректен или содержит неизвестный продукт.
+     */
+    public RecipeQuery compile(String text) {
+        try {
+            String normalized = RecipeQuery.normalize(text);
+            RecipeQuery query;
+            long started;
+            synchronized (cache) {
+                query = cache.get(normalized);
+                started = generation;
+            }
+            if (query == null) {
+                // Компиляция обращается к базе данных, поэтому выполняется без блокировки кэша
+                query = RecipeQuery.compile(text, productRepository::findIdsByLowerName);
+                synchronized (cache) {
+                    if (started == generation) {
+                        cache.put(normalized, query);
+                    }
+                }
+                logger.debug("Скомпилирован запрос к рецептам: {}.", normalized);
+            }
+            return query;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidDataException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Очистка кэша после изменения продукта.
+     *
+     * @param event Событие изменения продукта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        clear();
+    }
+
+    /**
+     * Очистка кэша после импорта продуктов: названия в запросах могут сопоставиться с новыми продуктами.
+     *
+     * @param event Событие завершения импорта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (event.productCount() > 0) {
+            clear();
+        }
+    }
+
+    private void clear() {
+        synchronized (cache) {
+            generation++;
+            cache.clear();
+        }
+    }
+}
@@ -1,21 +1,47 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.RecipeCreateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeFacetCounts;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeMatchResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeSearchResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.RecipeUpdateRequest;
+import com.alexpyslar03.productselectorbackend.domain.dto.SimilarRecipeResponse;
+import com.alexpyslar03.productselectorbackend.domain.entity.Product;
 import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeChangedEvent;
 import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
 import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.DenseBitSet;
+import com.alexpyslar03.productselectorbackend.index.FacetCounts;
+import com.alexpyslar03.productselectorbackend.index.RecipeFilter;
+import com.alexpyslar03.productselectorbackend.index.RecipeIndex;
+import com.alexpyslar03.productselectorbackend.index.RecipeMatch;
+import com.alexpyslar03.productselectorbackend.index.RecipeMatcher;
+import com.alexpyslar03.productselectorbackend.index.RecipePreferences;
+import com.alexpyslar03.productselectorbackend.index.RecipeQuery;
+import com.alexpyslar03.productselectorbackend.index.RecipeSimilarityIndex;
 import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
 import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервисный класс для работы с рецептами.
@@ -25,18 +51,31 @@ import java.util.concurrent.CompletableFuture;
 public class RecipeService {
 
     private static final Logger logger = LoggerFactory.getLogger(RecipeService.class);
+    private static final int MAX_MATCH_LIMIT = 100;
+    private static final int MAX_MISSING_PRODUCTS = 10;
     private final RecipeRepository recipeRepository;
     private final ProductRepository productRepository;
+    private final RecipeIndexService recipeIndexService;
+    private final RecipeQueryService recipeQueryService;
+    private final RecipeSimilarityService recipeSimilarityService;
+    private final CatalogReadService catalogReadService;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ForkJoinPool matchingPool;
+
+    @Value("${matching.parallel-threshold}")
+    private int parallelThreshold;
 
     /**
      * Создание нового рецепта.
      * Проверяет наличие имени рецепта и существование указанных продуктов.
+     * Если уже есть рецепты с почти таким же набором продуктов, в журнал записывается предупреждение.
      *
      * @param request Объект запроса на создание рецепта.
      * @return CompletableFuture с созданным рецептом.
      */
     @Async
-    public CompletableFuture<Recipe> create(RecipeCreateRequest request) {
+    public CompletableFuture<RecipeResponse> create(RecipeCreateRequest request) {
         if (request.getName() == null || request.getName().isEmpty()) {
             throw new InvalidDataException("Имя рецепта не может быть пустым.");
         }
@@ -45,6 +84,7 @@ public class RecipeService {
                     if (products.isEmpty()) {
                         throw new EntityNotFoundException("Указанные продукты не найдены.");
                     }
+                    warnAboutNearDuplicates(request.getName(), products);
                     Recipe recipe = Recipe.builder()
                             .name(request.getName())
                             .products(products)
@@ -52,25 +92,49 @@ public class RecipeService {
                     return recipeRepository.save(recipe);
                 })
                 .thenApply(recipe -> {
+                    eventPublisher.publishEvent(RecipeChangedEvent.saved(recipe,
+                            recipe.getProducts().stream().map(Product::getId).collect(Collectors.toSet())));
                     logger.info("Рецепт с ID {} успешно создан.", recipe.getId());
-                    return recipe;
+                    return CatalogReadService.toResponse(recipe);
                 });
     }
 
+    private void warnAboutNearDuplicates(String name, Collection<Product> products) {
+        List<Long> duplicateIds = recipeSimilarityService.require()
+                .nearDuplicates(products.stream().map(Product::getId).toList(), RecipeSimilarityService.DUPLICATE_SIMILARITY)
+                .stream()
+                .map(RecipeSimilarityIndex.Neighbor::recipeId)
+                .toList();
+        if (!duplicateIds.isEmpty()) {
+            logger.warn("Рецепт «{}» почти совпадает по составу продуктов с рецептами с ID {}.", name, duplicateIds);
+        }
+    }
+
     /**
-     * Получение всех рецептов.
+     * Получение страницы всех рецептов с фильтрацией по атрибутам в порядке возрастания идентификатора.
+     * Если фильтр задан, подходящие рецепты определяются по индексу рецептов.
      *
-     * @return CompletableFuture со списком рецептов.
+     * @param filter Фильтр по атрибутам рецептов.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей рецептов.
      */
     @Async
-    public CompletableFuture<List<Recipe>> readAll() {
+    public CompletableFuture<PageResponse<RecipeResponse>> readAll(RecipeFilter filter, String cursor, int size) {
+        validateFilter(filter);
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<Recipe> recipes = recipeRepository.findAll();
-            if (recipes.isEmpty()) {
+            PageResponse<RecipeResponse> page = filter.isEmpty()
+                    ? PageCursor.page(catalogReadService.readRecipesAfter(after, size + 1), size, RecipeResponse::getId)
+                    : recipeIndexService.current()
+                    .map(index -> PageCursor.page(index.recipeIds(index.recipes(filter)), after, size, catalogReadService::readRecipes))
+                    .orElseGet(() -> scanFiltered(after, size, filter, catalogReadService::readRecipesAfter));
+            if (page.getItems().isEmpty() && cursor == null) {
                 throw new EntityNotFoundException("Рецепты не найдены.");
             }
-            logger.info("Запрошен список всех рецептов.");
-            return recipes;
+            logger.info("Запрошена страница из {} рецептов после ID {}.", page.getItems().size(), after);
+            return page;
         });
     }
 
@@ -81,9 +145,9 @@ public class RecipeService {
      * @return CompletableFuture с найденным рецептом.
      */
     @Async
-    public CompletableFuture<Recipe> readById(Long id) {
+    public CompletableFuture<RecipeResponse> readById(Long id) {
         return CompletableFuture.supplyAsync(() ->
-                recipeRepository.findById(id)
+                catalogReadService.readRecipe(id)
                         .orElseThrow(() -> new EntityNotFoundException(String.format("Рецепт с идентификатором %d не найден.", id)))
         ).thenApply(recipe -> {
             logger.info("Рецепт с ID {} найден.", id);
@@ -95,12 +159,12 @@ public class RecipeService {
      * Получение рецептов по списку ID.
      *
      * @param ids Список идентификаторов рецептов.
-     * @return CompletableFuture с множеством найденных рецептов.
+     * @return CompletableFuture со списком найденных рецептов в порядке идентификаторов запроса.
      */
     @Async
-    public CompletableFuture<Set<Recipe>> readAllByIdIn(List<Long> ids) {
+    public CompletableFuture<List<RecipeResponse>> readAllByIdIn(List<Long> ids) {
         return CompletableFuture.supplyAsync(() -> {
-            Set<Recipe> recipes = recipeRepository.findAllByIdIn(ids).join();
+            List<RecipeResponse> recipes = catalogReadService.readRecipes(ids.stream().distinct().toList());
             if (recipes.isEmpty()) {
                 throw new EntityNotFoundException("Не найдено рецептов с указанными идентификаторами.");
             }
@@ -110,41 +174,275 @@ public class RecipeService {
     }
 
     /**
-     * Получение рецептов для определенного продукта по его ID.
+     * Получение страницы рецептов для определенного продукта по его ID.
      *
-     * @param id Идентификатор продукта.
-     * @return CompletableFuture со списком рецептов, содержащих данный продукт.
+     * @param id     Идентификатор продукта.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей рецептов, содержащих данный продукт.
      */
     @Async
-    public CompletableFuture<List<Recipe>> readByProductsId(Long id) {
+    public CompletableFuture<PageResponse<RecipeResponse>> readByProductsId(Long id, String cursor, int size) {
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<Recipe> recipes = recipeRepository.findByProductsId(id).join();
-            if (recipes.isEmpty()) {
+            PageResponse<RecipeResponse> page = PageCursor.page(
+                    catalogReadService.readRecipesByProductIdsAfter(List.of(id), after, size + 1), size, RecipeResponse::getId);
+            if (page.getItems().isEmpty() && cursor == null) {
                 throw new EntityNotFoundException(String.format("Рецепты для продукта с идентификатором %d не найдены.", id));
             }
-            logger.info("Найдено {} рецептов для продукта с ID {}.", recipes.size(), id);
-            return recipes;
+            logger.info("Найдено {} рецептов для продукта с ID {}.", page.getItems().size(), id);
+            return page;
         });
     }
 
     /**
-     * Получение рецептов для продуктов по списку их ID.
+     * Получение страницы рецептов для продуктов по списку их ID.
+     * Кандидаты вычисляются по in-memory индексу; если индекс еще не построен,
+     * используется запрос к базе данных.
      *
-     * @param ids Список идентификаторов продуктов.
-     * @return CompletableFuture со списком рецептов, содержащих указанные продукты.
+     * @param ids    Список идентификаторов продуктов.
+     * @param filter Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей рецептов, содержащих указанные продукты.
      */
     @Async
-    public CompletableFuture<List<Recipe>> readByProductsIdIn(List<Long> ids) {
+    public CompletableFuture<PageResponse<RecipeResponse>> readByProductsIdIn(List<Long> ids, RecipeFilter filter,
+                                                                              String cursor, int size) {
+        validateFilter(filter);
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<Recipe> recipes = recipeRepository.findByProductsIdIn(ids).join();
-            if (recipes.isEmpty()) {
+            PageResponse<RecipeResponse> page = recipeIndexService.current()
+                    .map(index -> PageCursor.page(index.recipeIds(index.filter(index.recipesWithAny(index.pantry(ids)), filter)),
+                            after, size, catalogReadService::readRecipes))
+                    .orElseGet(() -> scanFiltered(after, size, filter,
+                            (from, limit) -> catalogReadService.readRecipesByProductIdsAfter(ids, from, limit)));
+            if (page.getItems().isEmpty() && cursor == null) {
                 throw new EntityNotFoundException(String.format("Рецепты для продуктов с идентификаторами %s не найдены.", ids));
             }
-            logger.info("Найдено {} рецептов для продуктов с ID {}.", recipes.size(), ids);
+            logger.info("Найдено {} рецептов для продуктов с ID {}.", page.getItems().size(), ids);
+            return page;
+        });
+    }
+
+    /**
+     * Чтение страницы с фильтрацией прочитанных рецептов, если индекс еще не построен.
+     * Рецепты читаются порциями по ключу, пока не наберется страница или рецепты не закончатся.
+     */
+    private PageResponse<RecipeResponse> scanFiltered(long after, int size, RecipeFilter filter,
+                                                      BiFunction<Long, Integer, List<RecipeResponse>> source) {
+        List<RecipeResponse> matched = new ArrayList<>(size + 1);
+        long from = after;
+        while (matched.size() <= size) {
+            List<RecipeResponse> batch = source.apply(from, size + 1);
+            batch.stream().filter(recipe -> matches(recipe, filter)).forEach(matched::add);
+            if (batch.size() <= size) {
+                break;
+            }
+            from = batch.get(batch.size() - 1).getId();
+        }
+        return PageCursor.page(matched.subList(0, Math.min(matched.size(), size + 1)), size, RecipeResponse::getId);
+    }
+
+    private static boolean matches(RecipeResponse recipe, RecipeFilter filter) {
+        return (!filter.hasExclusions() || recipe.getProductIds().stream().noneMatch(filter.excludedProductIds()::contains))
+                && (filter.vegan() == null || recipe.isVegan() == filter.vegan())
+                && (filter.difficultyLevels() == null || filter.difficultyLevels().isEmpty()
+                || filter.difficultyLevels().contains(recipe.getDifficultyLevel()))
+                && (filter.minRating() == null || (recipe.getRating() != null && recipe.getRating() >= filter.minRating()));
+    }
+
+    /**
+     * Поиск рецептов по логическому запросу, например
+     * {@code (chicken OR turkey) AND rice AND NOT milk AND vegan=false AND difficulty<=MEDIUM}.
+     * Запрос компилируется в операции над множествами индекса (с кэшированием) и выполняется без обращения к базе данных;
+     * загружаются только первые limit найденных рецептов.
+     *
+     * @param text  Текст запроса.
+     * @param limit Максимальное количество рецептов в ответе.
+     * @return CompletableFuture со списком рецептов в порядке возрастания идентификаторов.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> readByQuery(String text, int limit) {
+        if (limit < 1 || limit > MAX_MATCH_LIMIT) {
+            throw new InvalidDataException(String.format("Количество рецептов должно быть от 1 до %d.", MAX_MATCH_LIMIT));
+        }
+        RecipeQuery query = recipeQueryService.compile(text);
+        return CompletableFuture.supplyAsync(() -> {
+            RecipeIndex index = recipeIndexService.require();
+            List<Long> recipeIds = index.recipeIds(query.evaluate(index));
+            List<RecipeResponse> recipes = catalogReadService.readRecipes(recipeIds.subList(0, Math.min(limit, recipeIds.size())));
+            logger.info("По запросу «{}» найдено {} рецептов.", query, recipeIds.size());
             return recipes;
         });
     }
 
+    /**
+     * Подбор рецептов по набору продуктов с ранжированием.
+     * Каждый рецепт, содержащий хотя бы один продукт набора, оценивается по доле
+     * имеющихся продуктов с учетом рейтинга; возвращаются только limit лучших.
+     * Запросы с большим числом кандидатов оцениваются параллельно в пуле подбора.
+     * Если указан пользователь, оценки избранных рецептов повышаются, а недавно приготовленных — понижаются.
+     * Вместе с рецептами возвращается количество всех подходящих рецептов по значениям атрибутов.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param filter     Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @param limit      Максимальное количество рецептов в ответе.
+     * @param userId     Идентификатор пользователя, предпочтения которого учитываются, или null.
+     * @return CompletableFuture с результатами, начиная с лучшего, и количеством рецептов по атрибутам.
+     */
+    @Async
+    public CompletableFuture<RecipeSearchResponse> match(List<Long> productIds, RecipeFilter filter, int limit, Long userId) {
+        validateMatchParameters(productIds, limit);
+        validateFilter(filter);
+        return CompletableFuture.supplyAsync(() -> readMatches(productIds, filter, limit, userId));
+    }
+
+    /**
+     * Подбор рецептов по набору продуктов в вызывающем потоке; параметры должны быть уже проверены.
+     * Используется асинхронными методами сервисов, чтобы не ожидать результат другой асинхронной задачи.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param filter     Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @param limit      Максимальное количество рецептов в ответе.
+     * @param userId     Идентификатор пользователя, предпочтения которого учитываются, или null.
+     * @return Результаты, начиная с лучшего, и количество рецептов по атрибутам.
+     */
+    public RecipeSearchResponse readMatches(List<Long> productIds, RecipeFilter filter, int limit, Long userId) {
+        RecipeIndex index = recipeIndexService.require();
+        DenseBitSet pantry = index.pantry(productIds);
+        DenseBitSet candidates = index.filter(index.recipesWithAny(pantry), filter);
+        FacetCounts facets = index.facetCounts(candidates);
+        RecipePreferences preferences = userId == null ? RecipePreferences.EMPTY : userService.readPreferences(userId);
+        List<RecipeMatch> matches = RecipeMatcher.topMatches(index, pantry, candidates, limit, preferences,
+                matchingPool, parallelThreshold);
+        List<RecipeMatchResponse> response = toMatchResponses(matches, match -> null);
+        logger.info("Подобрано {} рецептов из {} для продуктов с ID {}.", response.size(), facets.total(), productIds);
+        return RecipeSearchResponse.builder()
+                .recipes(response)
+                .facets(RecipeFacetCounts.builder()
+                        .total(facets.total())
+                        .vegan(facets.vegan())
+                        .difficultyLevels(facets.difficultyLevels())
+                        .ratings(facets.ratings())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Поиск почти готовых рецептов: рецептов, для которых не хватает не более maxMissing продуктов.
+     * Вместе с рецептом возвращаются идентификаторы недостающих продуктов.
+     *
+     * @param productIds Список идентификаторов имеющихся продуктов.
+     * @param maxMissing Максимально допустимое количество недостающих продуктов.
+     * @param filter     Фильтр по атрибутам рецептов и исключаемым продуктам.
+     * @param limit      Максимальное количество рецептов в ответе.
+     * @return CompletableFuture со списком результатов, начиная с рецептов с наименьшим числом недостающих продуктов.
+     */
+    @Async
+    public CompletableFuture<List<RecipeMatchResponse>> readAlmostCookable(List<Long> productIds, int maxMissing,
+                                                                           RecipeFilter filter, int limit) {
+        validateMatchParameters(productIds, limit);
+        validateFilter(filter);
+        if (maxMissing < 0 || maxMissing > MAX_MISSING_PRODUCTS) {
+            throw new InvalidDataException(String.format("Количество недостающих продуктов должно быть от 0 до %d.", MAX_MISSING_PRODUCTS));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            RecipeIndex index = recipeIndexService.require();
+            DenseBitSet pantry = index.pantry(productIds);
+            DenseBitSet allowed = filter.isEmpty() ? null : index.recipes(filter);
+            List<RecipeMatch> matches = RecipeMatcher.almostCookable(index, pantry, allowed, maxMissing, limit,
+                    matchingPool, parallelThreshold);
+            List<RecipeMatchResponse> response = toMatchResponses(matches,
+                    match -> index.missingProductIds(match.ordinal(), pantry));
+            logger.info("Найдено {} почти готовых рецептов для продуктов с ID {}.", response.size(), productIds);
+            return response;
+        });
+    }
+
+    /**
+     * Поиск рецептов, похожих на заданный по составу продуктов.
+     * Кандидаты отбираются по индексу MinHash-сигнатур и ранжируются по коэффициенту Жаккара.
+     *
+     * @param id    Идентификатор рецепта.
+     * @param limit Максимальное количество рецептов в ответе.
+     * @return CompletableFuture со списком похожих рецептов, начиная с наиболее похожих.
+     */
+    @Async
+    public CompletableFuture<List<SimilarRecipeResponse>> readSimilar(Long id, int limit) {
+        if (limit < 1 || limit > MAX_MATCH_LIMIT) {
+            throw new InvalidDataException(String.format("Количество рецептов должно быть от 1 до %d.", MAX_MATCH_LIMIT));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (!recipeRepository.existsById(id)) {
+                throw new EntityNotFoundException(String.format("Рецепт с идентификатором %d не найден.", id));
+            }
+            List<RecipeSimilarityIndex.Neighbor> neighbors = recipeSimilarityService.require().similar(id, limit);
+            if (neighbors.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, RecipeResponse> recipes = catalogReadService.readRecipeMap(
+                    neighbors.stream().map(RecipeSimilarityIndex.Neighbor::recipeId).toList());
+            List<SimilarRecipeResponse> response = new ArrayList<>(neighbors.size());
+            for (RecipeSimilarityIndex.Neighbor neighbor : neighbors) {
+                RecipeResponse recipe = recipes.get(neighbor.recipeId());
+                if (recipe != null) {
+                    response.add(SimilarRecipeResponse.builder()
+                            .recipe(recipe)
+                            .similarity(neighbor.similarity())
+                            .build());
+                }
+            }
+            logger.info("Найдено {} рецептов, похожих на рецепт с ID {}.", response.size(), id);
+            return response;
+        });
+    }
+
+    private void validateMatchParameters(List<Long> productIds, int limit) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new InvalidDataException("Список продуктов не может быть пустым.");
+        }
+        if (limit < 1 || limit > MAX_MATCH_LIMIT) {
+            throw new InvalidDataException(String.format("Количество рецептов должно быть от 1 до %d.", MAX_MATCH_LIMIT));
+        }
+    }
+
+    static void validateFilter(RecipeFilter filter) {
+        if (filter.minRating() != null && (filter.minRating() < 1 || filter.minRating() > RecipeIndex.MAX_RATING)) {
+            throw new InvalidDataException(String.format("Минимальный рейтинг должен быть от 1 до %d.", RecipeIndex.MAX_RATING));
+        }
+    }
+
+    /**
+     * Читает рецепты для результатов подбора и сохраняет порядок ранжирования.
+     */
+    private List<RecipeMatchResponse> toMatchResponses(List<RecipeMatch> matches,
+                                                       Function<RecipeMatch, List<Long>> missingProductIds) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RecipeResponse> recipes = catalogReadService.readRecipeMap(matches.stream().map(RecipeMatch::recipeId).toList());
+        List<RecipeMatchResponse> response = new ArrayList<>(matches.size());
+        for (RecipeMatch match : matches) {
+            RecipeResponse recipe = recipes.get(match.recipeId());
+            if (recipe == null) {
+                continue;
+            }
+            response.add(RecipeMatchResponse.builder()
+                    .recipe(recipe)
+                    .matchedCount(match.matched())
+                    .requiredCount(match.required())
+                    .missingCount(match.missing())
+                    .coverage(match.coverage())
+                    .score(match.score())
+                    .missingProductIds(missingProductIds.apply(match))
+                    .build());
+        }
+        return response;
+    }
+
     /**
      * Обновление существующего рецепта.
      * Обновляет поля имени и продуктов, если они указаны в запросе.
@@ -153,7 +451,7 @@ public class RecipeService {
      * @return CompletableFuture с обновленным рецептом.
      */
     @Async
-    public CompletableFuture<Recipe> update(RecipeUpdateRequest request) {
+    public CompletableFuture<RecipeResponse> update(RecipeUpdateRequest request) {
         return recipeRepository.findById(request.getId())
                 .map(recipe -> {
                     Recipe updatedRecipe = Recipe.builder()
@@ -164,8 +462,9 @@ public class RecipeService {
                     return recipeRepository.save(updatedRecipe);
                 })
                 .map(recipe -> {
+                    eventPublisher.publishEvent(RecipeChangedEvent.saved(recipe, null));
                     logger.info("Рецепт с ID {} успешно обновлен.", recipe.getId());
-                    return CompletableFuture.completedFuture(recipe);
+                    return CompletableFuture.completedFuture(CatalogReadService.toResponse(recipe));
                 })
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Невозможно обновить. Рецепт с идентификатором %d не найден.", request.getId())));
     }
@@ -181,7 +480,9 @@ public class RecipeService {
         return CompletableFuture.supplyAsync(() -> {
             Recipe recipe = recipeRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException(String.format("Невозможно удалить. Рецепт с идентификатором %d не найден.", id)));
+            Set<Long> productIds = recipe.getProducts().stream().map(Product::getId).collect(Collectors.toSet());
             recipeRepository.deleteById(id);
+            eventPublisher.publishEvent(RecipeChangedEvent.deleted(id, productIds));
             logger.info("Рецепт с ID {} успешно удален.", id);
             return null;
         });
@@ -0,0 +1,138 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.ProductChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.event.RecipeChangedEvent;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.index.RecipeSimilarityIndex;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Сервис, владеющий in-memory индексом похожести рецептов по составу продуктов.
+ * <p>
+ * Индекс MinHash-сигнатур строится при старте приложения и обновляется по событиям изменения
+ * рецептов и продуктов после фиксации транзакции, поэтому сигнатуры пересчитываются только
+ * для рецептов, состав которых изменился.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeSimilarityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSimilarityService.class);
+
+    /**
+     * Минимальный коэффициент Жаккара, при котором рецепты считаются почти дубликатами.
+     */
+    public static final double DUPLICATE_SIMILARITY = 0.9;
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+
+    private volatile RecipeSimilarityIndex index;
+
+    /**
+     * Построение индекса после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось построить индекс похожести рецептов, он будет построен при первом запросе.", ex);
+        }
+    }
+
+    /**
+     * Применение изменения рецепта после фиксации транзакции.
+     *
+     * @param event Событие изменения рецепта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.deleted() || event.productIds() != null) {
+            long recipeId = event.recipeId();
+            apply(current -> {
+                List<Long> productIds = recipeRepository.findProductIdsById(recipeId);
+                return productIds.isEmpty() ? current.withoutRecipe(recipeId) : current.withRecipe(recipeId, productIds);
+            });
+        }
+    }
+
+    /**
+     * Применение изменения продукта после фиксации транзакции.
+     *
+     * @param event Событие изменения продукта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted() || event.recipeIds() != null) {
+            long productId = event.productId();
+            apply(current -> current.withProduct(productId, productRepository.findRecipeIdsById(productId)));
+        }
+    }
+
+    /**
+     * Применяет изменение под блокировкой. Связи читаются из базы данных внутри изменения,
+     * поэтому события, пришедшие не в порядке фиксации транзакций, не возвращают устаревшие связи.
+     */
+    private synchronized void apply(UnaryOperator<RecipeSimilarityIndex> change) {
+        if (index != null) {
+            index = change.apply(index);
+        }
+    }
+
+    /**
+     * Перестроение индекса после импорта рецептов; импорт продуктов не добавляет связей.
+     *
+     * @param event Событие завершения импорта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (event.recipeCount() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Полное перестроение индекса по текущему состоянию базы данных.
+     *
+     * @return Построенный индекс.
+     */
+    public synchronized RecipeSimilarityIndex rebuild() {
+        long start = System.nanoTime();
+        Map<Long, List<Long>> recipes = new HashMap<>();
+        for (ProductRecipeLink link : recipeRepository.findAllProductRecipeLinks()) {
+            recipes.computeIfAbsent(link.getRecipeId(), id -> new ArrayList<>()).add(link.getProductId());
+        }
+        RecipeSimilarityIndex rebuilt = RecipeSimilarityIndex.build(recipes);
+        index = rebuilt;
+        logger.info("Индекс похожести рецептов построен: {} рецептов за {} мс.",
+                rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    /**
+     * Возвращает текущий индекс, при необходимости построив его.
+     *
+     * @return Индекс похожести рецептов.
+     */
+    public RecipeSimilarityIndex require() {
+        RecipeSimilarityIndex current = index;
+        return current != null ? current : rebuild();
+    }
+}
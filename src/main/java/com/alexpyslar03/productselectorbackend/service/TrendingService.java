@@ -0,0 +1,166 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.TrendingItem;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductName;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.TrendingCounter;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис популярных рецептов и продуктов за последние часы.
+ * <p>
+ * Контроллеры учитывают обращения в {@link TrendingCounter} синхронно: запись занимает несколько
+ * сложений без блокировок и обращений к базе данных. Счетчики затухают с заданным периодом
+ * полураспада, а списки лидеров пересчитываются по расписанию, поэтому чтение списка
+ * не выполняет подсчетов.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+    private static final int MAX_TRENDING_LIMIT = 100;
+
+    // 4 строки по 4096 ячеек: завышение оценки не более 1/4096 всех обращений с вероятностью 1 - e^-4
+    private static final int SKETCH_WIDTH = 4096;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int RECENT_SIZE = 8192;
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+    private final TrendingCounter recipeCounter = new TrendingCounter(SKETCH_WIDTH, SKETCH_DEPTH, RECENT_SIZE, MAX_TRENDING_LIMIT);
+    private final TrendingCounter productCounter = new TrendingCounter(SKETCH_WIDTH, SKETCH_DEPTH, RECENT_SIZE, MAX_TRENDING_LIMIT);
+
+    @Value("${trending.half-life-minutes}")
+    private double halfLifeMinutes;
+
+    private long lastRefreshNanos = System.nanoTime();
+
+    /**
+     * Учет обращения к рецепту.
+     *
+     * @param recipeId Идентификатор рецепта.
+     */
+    public void recordRecipe(Long recipeId) {
+        recipeCounter.record(recipeId);
+    }
+
+    /**
+     * Учет обращений к рецептам, например попадания в результаты подбора.
+     *
+     * @param recipeIds Идентификаторы рецептов.
+     */
+    public void recordRecipes(Collection<Long> recipeIds) {
+        recipeIds.forEach(recipeCounter::record);
+    }
+
+    /**
+     * Учет обращения к продукту.
+     *
+     * @param productId Идентификатор продукта.
+     */
+    public void recordProduct(Long productId) {
+        productCounter.record(productId);
+    }
+
+    /**
+     * Учет обращений к продуктам, например использования в запросе подбора.
+     *
+     * @param productIds Идентификаторы продуктов.
+     */
+    public void recordProducts(Collection<Long> productIds) {
+        productIds.forEach(productCounter::record);
+    }
+
+    /**
+     * Затухание счетчиков пропорционально прошедшему времени и пересчет лидеров.
+     */
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms}")
+    public synchronized void refresh() {
+        long now = System.nanoTime();
+        double elapsedMinutes = (now - lastRefreshNanos) / 60e9;
+        lastRefreshNanos = now;
+        double decay = Math.pow(0.5, elapsedMinutes / halfLifeMinutes);
+        recipeCounter.refresh(decay);
+        productCounter.refresh(decay);
+        logger.debug("Пересчитаны популярные рецепты и продукты, коэффициент затухания {}.", decay);
+    }
+
+    /**
+     * Получение популярных рецептов.
+     *
+     * @param limit Максимальное количество рецептов.
+     * @return CompletableFuture со списком рецептов, начиная с самого популярного.
+     * @throws InvalidDataException если количество рецептов некорректно.
+     */
+    @Async
+    public CompletableFuture<List<TrendingItem>> readTrendingRecipes(int limit) {
+        validateLimit(limit);
+        return CompletableFuture.supplyAsync(() -> {
+            List<TrendingCounter.Entry> top = recipeCounter.top();
+            Map<Long, String> names = recipeRepository.findNamesByIdIn(top.stream().map(TrendingCounter.Entry::id).toList())
+                    .stream()
+                    .collect(Collectors.toMap(ProductName::getId, ProductName::getName));
+            return toItems(top, names, limit);
+        });
+    }
+
+    /**
+     * Получение популярных продуктов.
+     *
+     * @param limit Максимальное количество продуктов.
+     * @return CompletableFuture со списком продуктов, начиная с самого популярного.
+     * @throws InvalidDataException если количество продуктов некорректно.
+     */
+    @Async
+    public CompletableFuture<List<TrendingItem>> readPopularProducts(int limit) {
+        validateLimit(limit);
+        return CompletableFuture.supplyAsync(() -> {
+            List<TrendingCounter.Entry> top = productCounter.top();
+            Map<Long, String> names = productRepository.findNamesByIdIn(top.stream().map(TrendingCounter.Entry::id).toList())
+                    .stream()
+                    .collect(Collectors.toMap(ProductName::getId, ProductName::getName));
+            return toItems(top, names, limit);
+        });
+    }
+
+    /**
+     * Формирует список лидеров; удаленные и несуществующие объекты пропускаются.
+     */
+    private static List<TrendingItem> toItems(List<TrendingCounter.Entry> top, Map<Long, String> names, int limit) {
+        List<TrendingItem> items = new ArrayList<>(Math.min(limit, top.size()));
+        for (TrendingCounter.Entry entry : top) {
+            String name = names.get(entry.id());
+            if (name == null) {
+                continue;
+            }
+            items.add(TrendingItem.builder().id(entry.id()).name(name).score(entry.score()).build());
+            if (items.size() == limit) {
+                break;
+            }
+        }
+        return items;
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_TRENDING_LIMIT) {
+            throw new InvalidDataException(String.format("Количество должно быть от 1 до %d.", MAX_TRENDING_LIMIT));
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeResponse;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeSearchResponse;
 import com.alexpyslar03.productselectorbackend.domain.dto.UserCreateRequest;
 import com.alexpyslar03.productselectorbackend.domain.dto.UserUpdateRequest;
 import com.alexpyslar03.productselectorbackend.domain.entity.Role;
 import com.alexpyslar03.productselectorbackend.domain.entity.User;
+import com.alexpyslar03.productselectorbackend.domain.projection.UserRecipeSets;
+import com.alexpyslar03.productselectorbackend.exception.EntityNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import com.alexpyslar03.productselectorbackend.index.PantryMatchCache;
+import com.alexpyslar03.productselectorbackend.index.RecipePreferences;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
 import com.alexpyslar03.productselectorbackend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,19 +26,56 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 /**
  * Сервисный класс для работы с пользователями.
  * Содержит методы для создания, чтения, обновления и удаления пользователей.
+ * <p>
+ * Избранные и приготовленные рецепты пользователя хранятся в сжатом байтовом представлении
+ * {@link RecipePreferences} и кэшируются в ограниченном LRU-кэше, поэтому ранжирование
+ * с учетом предпочтений не требует соединения с таблицами связей при каждом подборе.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    /**
+     * Количество блокировок, по которым распределяются изменения предпочтений пользователей.
+     */
+    private static final int PREFERENCE_LOCKS = 64;
+
     private final UserRepository userRepository;
+    private final RecipeRepository recipeRepository;
+    private final CatalogReadService catalogReadService;
+    private final PantryMatchCache<RecipeSearchResponse> pantryMatchCache;
+
+    @Value("${matching.preferences-cache-size}")
+    private int preferencesCacheSize;
+
+    private final Map<Long, RecipePreferences> preferences = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RecipePreferences> eldest) {
+            return size() > preferencesCacheSize;
+        }
+    };
+
+    private final Object[] preferenceLocks = createLocks();
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[PREFERENCE_LOCKS];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
 
     /**
      * Создает нового пользователя на основе предоставленного DTO и сохраняет его в репозитории.
@@ -53,16 +101,22 @@ public class UserService {
     }
 
     /**
-     * Возвращает список всех пользователей.
+     * Возвращает страницу списка всех пользователей в порядке возрастания идентификатора.
      *
-     * @return CompletableFuture со списком пользователей.
+     * @param cursor Курсор страницы или null для первой страницы.
+     * @param size   Размер страницы.
+     * @return CompletableFuture со страницей пользователей.
+     * @throws InvalidDataException если курсор поврежден или размер страницы вне допустимого диапазона.
      */
     @Async
-    public CompletableFuture<List<User>> readAll() {
+    public CompletableFuture<PageResponse<User>> readAll(String cursor, int size) {
+        PageCursor.validateSize(size);
+        long after = PageCursor.decode(cursor);
         return CompletableFuture.supplyAsync(() -> {
-            List<User> users = userRepository.findAll();
-            logger.info("Запрошен список всех пользователей.");
-            return users;
+            PageResponse<User> page = PageCursor.page(userRepository.findPageAfter(after, Limit.of(size + 1)),
+                    size, User::getId);
+            logger.info("Запрошена страница из {} пользователей после ID {}.", page.getItems().size(), after);
+            return page;
         });
     }
 
@@ -161,6 +215,157 @@ public class UserService {
         });
     }
 
+    /**
+     * Возвращает избранные и приготовленные рецепты пользователя из кэша или базы данных.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Предпочтения пользователя.
+     * @throws EntityNotFoundException если пользователь не найден.
+     */
+    public RecipePreferences readPreferences(Long userId) {
+        synchronized (preferences) {
+            RecipePreferences cached = preferences.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        UserRecipeSets sets = userRepository.findRecipeSetsById(userId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователь с идентификатором %d не найден.", userId)));
+        RecipePreferences loaded = decode(userId, sets);
+        synchronized (preferences) {
+            // Запись, сделанная изменением во время загрузки, новее загруженной
+            return preferences.computeIfAbsent(userId, id -> loaded);
+        }
+    }
+
+    /**
+     * Возвращает избранные рецепты пользователя.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return CompletableFuture со списком рецептов в порядке возрастания идентификатора.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> readFavourites(Long userId) {
+        return CompletableFuture.supplyAsync(() -> catalogReadService.readRecipes(readPreferences(userId).favouriteIds()));
+    }
+
+    /**
+     * Добавляет рецепт в избранное пользователя.
+     *
+     * @param userId   Идентификатор пользователя.
+     * @param recipeId Идентификатор рецепта.
+     * @return CompletableFuture со списком избранных рецептов.
+     * @throws EntityNotFoundException если рецепт не найден.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> addFavourite(Long userId, Long recipeId) {
+        return CompletableFuture.supplyAsync(() -> {
+            requireRecipe(recipeId);
+            RecipePreferences updated = updatePreferences(userId, current -> current.withFavourite(recipeId));
+            logger.info("Рецепт с ID {} добавлен в избранное пользователя с ID {}.", recipeId, userId);
+            return catalogReadService.readRecipes(updated.favouriteIds());
+        });
+    }
+
+    /**
+     * Удаляет рецепт из избранного пользователя.
+     *
+     * @param userId   Идентификатор пользователя.
+     * @param recipeId Идентификатор рецепта.
+     * @return CompletableFuture со списком избранных рецептов.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> removeFavourite(Long userId, Long recipeId) {
+        return CompletableFuture.supplyAsync(() -> {
+            RecipePreferences updated = updatePreferences(userId, current -> current.withoutFavourite(recipeId));
+            logger.info("Рецепт с ID {} удален из избранного пользователя с ID {}.", recipeId, userId);
+            return catalogReadService.readRecipes(updated.favouriteIds());
+        });
+    }
+
+    /**
+     * Возвращает историю приготовленных рецептов пользователя.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return CompletableFuture со списком рецептов, начиная с приготовленного последним.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> readCooked(Long userId) {
+        return CompletableFuture.supplyAsync(() -> catalogReadService.readRecipes(readPreferences(userId).cookedIds()));
+    }
+
+    /**
+     * Отмечает рецепт приготовленным: рецепт переносится в начало истории, длина которой
+     * ограничена {@link RecipePreferences#MAX_COOKED}.
+     *
+     * @param userId   Идентификатор пользователя.
+     * @param recipeId Идентификатор рецепта.
+     * @return CompletableFuture с историей приготовленных рецептов.
+     * @throws EntityNotFoundException если рецепт не найден.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> addCooked(Long userId, Long recipeId) {
+        return CompletableFuture.supplyAsync(() -> {
+            requireRecipe(recipeId);
+            RecipePreferences updated = updatePreferences(userId, current -> current.withCooked(recipeId));
+            logger.info("Рецепт с ID {} отмечен приготовленным пользователем с ID {}.", recipeId, userId);
+            return catalogReadService.readRecipes(updated.cookedIds());
+        });
+    }
+
+    /**
+     * Удаляет рецепт из истории приготовленных рецептов пользователя.
+     *
+     * @param userId   Идентификатор пользователя.
+     * @param recipeId Идентификатор рецепта.
+     * @return CompletableFuture с историей приготовленных рецептов.
+     */
+    @Async
+    public CompletableFuture<List<RecipeResponse>> removeCooked(Long userId, Long recipeId) {
+        return CompletableFuture.supplyAsync(() -> {
+            RecipePreferences updated = updatePreferences(userId, current -> current.withoutCooked(recipeId));
+            logger.info("Рецепт с ID {} удален из истории пользователя с ID {}.", recipeId, userId);
+            return catalogReadService.readRecipes(updated.cookedIds());
+        });
+    }
+
+    private static RecipePreferences decode(Long userId, UserRecipeSets sets) {
+        try {
+            return RecipePreferences.decode(sets.getFavouriteRecipes(), sets.getCookedRecipes());
+        } catch (IllegalArgumentException ex) {
+            logger.error("Предпочтения пользователя с ID {} повреждены и сброшены.", userId, ex);
+            return RecipePreferences.EMPTY;
+        }
+    }
+
+    private void requireRecipe(Long recipeId) {
+        if (!recipeRepository.existsById(recipeId)) {
+            throw new EntityNotFoundException(String.format("Рецепт с идентификатором %d не найден.", recipeId));
+        }
+    }
+
+    /**
+     * Применяет изменение к предпочтениям пользователя, сохраняет их и обновляет кэши.
+     * Изменения одного пользователя выполняются последовательно.
+     */
+    private RecipePreferences updatePreferences(Long userId, UnaryOperator<RecipePreferences> change) {
+        synchronized (preferenceLocks[Math.floorMod(userId.hashCode(), PREFERENCE_LOCKS)]) {
+            RecipePreferences updated;
+            try {
+                updated = change.apply(readPreferences(userId));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidDataException(ex.getMessage());
+            }
+            userRepository.updateRecipeSets(userId, updated.encodeFavourites(), updated.encodeCooked());
+            synchronized (preferences) {
+                preferences.put(userId, updated);
+            }
+            // Результат подбора по набору продуктов ранжирован с учетом прежних предпочтений
+            pantryMatchCache.invalidate(userId);
+            return updated;
+        }
+    }
+
     /**
      * Удаляет пользователя по его идентификатору.
      * Если пользователь с указанным идентификатором не найден, выбрасывается исключение RuntimeException.
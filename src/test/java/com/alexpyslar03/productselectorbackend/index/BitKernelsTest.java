@@ -0,0 +1,75 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class BitKernelsTest {
+
+    private final BitKernels scalar = new ScalarBitKernels();
+
+    /**
+     * По умолчанию и при -Drecipe.index.vector=false выбирается скалярная реализация,
+     * векторная — только при явном включении.
+     */
+    @Test
+    public void testSelectionByProperty() {
+        String previous = System.getProperty(BitKernels.VECTOR_PROPERTY);
+        try {
+            System.clearProperty(BitKernels.VECTOR_PROPERTY);
+            assertInstanceOf(ScalarBitKernels.class, BitKernels.select());
+
+            System.setProperty(BitKernels.VECTOR_PROPERTY, "false");
+            assertInstanceOf(ScalarBitKernels.class, BitKernels.select());
+
+            System.setProperty(BitKernels.VECTOR_PROPERTY, "true");
+            Class<?> expected = BitKernels.vectorSupported() ? VectorBitKernels.class : ScalarBitKernels.class;
+            assertEquals(expected, BitKernels.select().getClass());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(BitKernels.VECTOR_PROPERTY);
+            } else {
+                System.setProperty(BitKernels.VECTOR_PROPERTY, previous);
+            }
+        }
+    }
+
+    /**
+     * Векторная реализация совпадает со скалярной на длинах, не кратных ширине вектора, и со смещениями.
+     */
+    @Test
+    public void testVectorMatchesScalar() {
+        assumeTrue(BitKernels.vectorSupported(), "Vector API недоступен в этой JVM");
+        BitKernels vector = new VectorBitKernels();
+        Random random = new Random(7);
+        for (int length : new int[]{0, 1, 3, 7, 64, 129, 1024, 1031}) {
+            long[] a = random.longs(length + 5).toArray();
+            long[] b = random.longs(length + 5).toArray();
+
+            assertEquals(scalar.cardinality(a, 2, length + 2), vector.cardinality(a, 2, length + 2));
+            assertEquals(scalar.andCardinality(a, 1, b, 3, length), vector.andCardinality(a, 1, b, 3, length));
+            int difference = scalar.andNotCardinality(a, 0, b, 5, length, Integer.MAX_VALUE);
+            assertEquals(difference, vector.andNotCardinality(a, 0, b, 5, length, Integer.MAX_VALUE));
+            int limited = vector.andNotCardinality(a, 0, b, 5, length, 10);
+            assertTrue(difference <= 10 ? limited == difference : limited > 10); // Точно до порога, дальше — любое большее
+
+            long[] expected = a.clone();
+            long[] actual = a.clone();
+            scalar.or(expected, 4, b, 1, length);
+            vector.or(actual, 4, b, 1, length);
+            assertArrayEquals(expected, actual);
+            scalar.and(expected, b, length);
+            vector.and(actual, b, length);
+            assertArrayEquals(expected, actual);
+            scalar.andNot(expected, a, length);
+            vector.andNot(actual, a, length);
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MealPlannerTest {
+
+    private RecipeIndex index;
+
+    private record Link(Long recipeId, Long productId) implements ProductRecipeLink {
+        @Override
+        public Long getRecipeId() {
+            return recipeId;
+        }
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // Рецепт 10 использует больше всего продуктов набора, 20 — в основном те же продукты,
+        // 30 — оставшиеся продукты набора, 40 — один продукт набора и много покупок
+        index = RecipeIndex.build(
+                List.of(RecipeAttributes.of(10L, 4L, false, Recipe.DifficultyLevel.EASY),
+                        RecipeAttributes.of(20L, 5L, true, Recipe.DifficultyLevel.EASY),
+                        RecipeAttributes.of(30L, 3L, true, Recipe.DifficultyLevel.MEDIUM),
+                        RecipeAttributes.of(40L, 5L, false, Recipe.DifficultyLevel.HARD)),
+                List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L),
+                List.of(new Link(10L, 1L), new Link(10L, 2L), new Link(10L, 3L), new Link(10L, 4L),
+                        new Link(20L, 1L), new Link(20L, 2L), new Link(20L, 3L),
+                        new Link(30L, 5L), new Link(30L, 6L), new Link(30L, 7L),
+                        new Link(40L, 6L), new Link(40L, 8L), new Link(40L, 9L)));
+    }
+
+    private static List<Long> ids(MealPlanner.Plan plan) {
+        return plan.items().stream().map(MealPlanner.Item::recipeId).toList();
+    }
+
+    private MealPlanner.Plan plan(RecipeFilter filter, int size) {
+        return MealPlanner.plan(index, index.pantry(List.of(1L, 2L, 3L, 4L, 5L, 6L)), filter, size,
+                System.nanoTime() + 1_000_000_000L);
+    }
+
+    /**
+     * Выбор рецептов по приросту использованных продуктов набора с учетом покупок.
+     */
+    @Test
+    public void testPlan() {
+        MealPlanner.Plan plan = plan(RecipeFilter.NONE, 2);
+        assertEquals(List.of(10L, 30L), ids(plan));
+        assertEquals(6, plan.usedCount());
+        assertEquals(List.of(7L), plan.purchaseProductIds());
+        assertEquals(2, plan.items().get(1).newlyUsed());
+        assertTrue(plan.complete());
+
+        // Рецепт 20 уже ничего не добавляет, но не требует покупок, в отличие от рецепта 40
+        assertEquals(List.of(10L, 30L, 20L, 40L), ids(plan(RecipeFilter.NONE, 10)));
+    }
+
+    /**
+     * Фильтр и исчерпанный срок.
+     */
+    @Test
+    public void testFilterAndDeadline() {
+        assertEquals(List.of(20L, 30L), ids(plan(new RecipeFilter(true, null, null, Set.of()), 3)));
+        assertEquals(List.of(10L, 20L), ids(plan(new RecipeFilter(null, null, null, Set.of(6L)), 3)));
+
+        MealPlanner.Plan late = MealPlanner.plan(index, index.pantry(List.of(1L, 2L)), RecipeFilter.NONE, 2,
+                System.nanoTime() - 1);
+        assertFalse(late.complete());
+    }
+}
@@ -0,0 +1,112 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NameIndexTest {
+
+    private NameIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = NameIndex.build(List.of(
+                new NameIndex.Entry(1L, "Куриная грудка", 10),
+                new NameIndex.Entry(2L, "Курица", 30),
+                new NameIndex.Entry(3L, "Свёкла", 5),
+                new NameIndex.Entry(4L, "Кукуруза", 30)));
+    }
+
+    private static List<Long> ids(List<NameIndex.Entry> entries) {
+        return entries.stream().map(NameIndex.Entry::id).toList();
+    }
+
+    /**
+     * Подсказки по префиксу ранжируются по популярности, затем по алфавиту.
+     */
+    @Test
+    public void testSuggest() {
+        assertEquals(List.of(4L, 2L, 1L), ids(index.suggest("ку", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.suggest("КУР", 10)));
+        assertEquals(List.of(4L), ids(index.suggest("ку", 1)));
+        assertEquals(List.of(), ids(index.suggest("  ", 10)));
+    }
+
+    /**
+     * Поиск по началу любого слова и нормализация «ё».
+     */
+    @Test
+    public void testWordsAndYo() {
+        assertEquals(List.of(1L), ids(index.suggest("груд", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("свек", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("СВЁК", 10)));
+    }
+
+    /**
+     * Изменение и удаление названий не затрагивает исходную версию.
+     */
+    @Test
+    public void testWithAndWithout() {
+        NameIndex updated = index.with(new NameIndex.Entry(1L, "Индейка", 10))
+                .with(new NameIndex.Entry(5L, "Курага", 50))
+                .without(4L);
+
+        assertEquals(List.of(5L, 2L), ids(updated.suggest("ку", 10)));
+        assertEquals(List.of(1L), ids(updated.suggest("инд", 10)));
+        assertEquals(List.of(), ids(updated.suggest("груд", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("груд", 10)));
+        assertEquals(50, updated.popularity(5L));
+        assertEquals(-1, updated.popularity(4L));
+    }
+
+    /**
+     * Отбор по дереву отрезков совпадает с полным просмотром диапазона, в том числе для однобуквенных
+     * префиксов и названий, несколько слов которых начинаются с префикса.
+     */
+    @Test
+    public void testSuggestMatchesFullScan() {
+        Random random = new Random(11);
+        String[] words = {"ab", "abc", "b", "ba", "bca", "c", "cab", "ca"};
+        Set<String> names = new LinkedHashSet<>();
+        while (names.size() < 300) {
+            StringBuilder name = new StringBuilder(words[random.nextInt(words.length)]);
+            for (int i = random.nextInt(3); i > 0; i--) {
+                name.append(' ').append(words[random.nextInt(words.length)]);
+            }
+            names.add(name.toString());
+        }
+        List<NameIndex.Entry> entries = new ArrayList<>();
+        long id = 0;
+        for (String name : names) {
+            entries.add(new NameIndex.Entry(++id, name, random.nextInt(20)));
+        }
+        NameIndex built = NameIndex.build(entries.subList(0, 200));
+        for (NameIndex.Entry entry : entries.subList(200, entries.size())) {
+            built = built.with(entry);
+        }
+
+        for (String prefix : List.of("a", "b", "c", "ab", "ba", "ca", "cab", "abc a", "b b")) {
+            for (int limit : new int[]{1, 5, 50, 1000}) {
+                assertEquals(fullScan(entries, prefix, limit), ids(built.suggest(prefix, limit)), prefix + " " + limit);
+            }
+        }
+    }
+
+    private static List<Long> fullScan(List<NameIndex.Entry> entries, String prefix, int limit) {
+        return entries.stream()
+                .filter(entry -> (" " + entry.name()).contains(" " + prefix))
+                .sorted(Comparator.comparingInt(NameIndex.Entry::popularity).reversed()
+                        .thenComparing(NameIndex.Entry::name))
+                .limit(limit)
+                .map(NameIndex.Entry::id)
+                .toList();
+    }
+}
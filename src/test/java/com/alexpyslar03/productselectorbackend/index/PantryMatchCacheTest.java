@@ -0,0 +1,73 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PantryMatchCacheTest {
+
+    /**
+     * Результат возвращается только для не большего количества рецептов, чем вычислено.
+     */
+    @Test
+    public void testGetRespectsLimit() {
+        PantryMatchCache<String> cache = new PantryMatchCache<>(10);
+        assertTrue(cache.put(1L, List.of(3L, 1L), 20, "a", cache.generation()));
+
+        assertEquals("a", cache.get(1L, 10));
+        assertEquals("a", cache.get(1L, 20));
+        assertNull(cache.get(1L, 21));
+        assertNull(cache.get(2L, 10));
+    }
+
+    /**
+     * Изменение каталога удаляет только результаты наборов с затронутыми продуктами.
+     */
+    @Test
+    public void testInvalidateByProducts() {
+        PantryMatchCache<String> cache = new PantryMatchCache<>(10);
+        cache.put(1L, List.of(1L, 5L), 10, "a", cache.generation());
+        cache.put(2L, List.of(2L, 3L), 10, "b", cache.generation());
+        cache.put(3L, List.of(7L), 10, "c", cache.generation());
+
+        assertEquals(2, cache.invalidate(new long[]{3L, 4L, 5L}));
+        assertNull(cache.get(1L, 10));
+        assertNull(cache.get(2L, 10));
+        assertEquals("c", cache.get(3L, 10));
+    }
+
+    /**
+     * Результат, вычисленный до удаления, не сохраняется.
+     */
+    @Test
+    public void testStaleResultRejected() {
+        PantryMatchCache<String> cache = new PantryMatchCache<>(10);
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        assertFalse(cache.put(1L, List.of(1L), 10, "a", generation));
+        assertNull(cache.get(1L, 10));
+        assertTrue(cache.put(1L, List.of(1L), 10, "a", cache.generation()));
+    }
+
+    /**
+     * Давно не запрошенные результаты вытесняются при переполнении.
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        PantryMatchCache<String> cache = new PantryMatchCache<>(2);
+        cache.put(1L, List.of(1L), 10, "a", cache.generation());
+        cache.put(2L, List.of(2L), 10, "b", cache.generation());
+        cache.get(1L, 10);
+        cache.put(3L, List.of(3L), 10, "c", cache.generation());
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get(1L, 10));
+        assertNull(cache.get(2L, 10));
+    }
+}
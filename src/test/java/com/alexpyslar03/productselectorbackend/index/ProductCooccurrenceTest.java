@@ -0,0 +1,77 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ProductCooccurrenceTest {
+
+    // Продукты: 1 = pasta, 2 = cheese, 3 = tomato, 4 = basil, 5 = salt
+    private ProductCooccurrence cooccurrence;
+
+    @BeforeEach
+    public void setUp() {
+        cooccurrence = ProductCooccurrence.build(Map.of(
+                10L, List.of(1L, 2L, 5L),
+                20L, List.of(1L, 3L, 4L, 5L),
+                30L, List.of(3L, 4L, 5L),
+                40L, List.of(2L, 5L),
+                50L, List.of(5L)));
+    }
+
+    private static List<Long> ids(List<ProductCooccurrence.Suggestion> suggestions) {
+        return suggestions.stream().map(ProductCooccurrence.Suggestion::productId).toList();
+    }
+
+    /**
+     * Подсчет общих рецептов.
+     */
+    @Test
+    public void testCount() {
+        assertEquals(5, cooccurrence.productCount());
+        assertEquals(2, cooccurrence.count(3L, 4L));
+        assertEquals(2, cooccurrence.count(4L, 3L));
+        assertEquals(1, cooccurrence.count(1L, 2L));
+        assertEquals(0, cooccurrence.count(2L, 3L));
+        assertEquals(0, cooccurrence.count(5L, 5L));
+    }
+
+    /**
+     * Оценка кандидатов по всему набору: соль встречается везде, но нормировка опускает ее ниже базилика.
+     */
+    @Test
+    public void testSuggest() {
+        assertEquals(List.of(4L, 5L, 1L), ids(cooccurrence.suggest(List.of(3L), 10)));
+        assertEquals(List.of(5L, 3L, 4L), ids(cooccurrence.suggest(List.of(1L, 2L), 10)));
+        assertEquals(List.of(4L), ids(cooccurrence.suggest(List.of(3L), 1)));
+        assertEquals(List.of(), cooccurrence.suggest(List.of(99L), 10));
+    }
+
+    /**
+     * Изменение состава рецептов и связей продуктов.
+     */
+    @Test
+    public void testUpdates() {
+        ProductCooccurrence updated = cooccurrence.withRecipe(40L, List.of(2L, 3L));
+        assertEquals(1, updated.count(2L, 3L));
+        assertEquals(1, updated.count(2L, 5L));
+        assertEquals(0, cooccurrence.count(2L, 3L)); // Исходная версия не изменилась
+
+        updated = updated.withoutRecipe(20L);
+        assertEquals(1, updated.count(3L, 4L));
+        assertEquals(0, updated.count(1L, 3L));
+
+        updated = updated.withProduct(4L, List.of(10L));
+        assertEquals(0, updated.count(3L, 4L));
+        assertEquals(1, updated.count(1L, 4L));
+
+        updated = updated.withoutProduct(5L);
+        assertEquals(0, updated.count(1L, 5L));
+        assertEquals(4, updated.productCount());
+        assertEquals(updated.count(1L, 2L), cooccurrence.count(1L, 2L));
+    }
+}
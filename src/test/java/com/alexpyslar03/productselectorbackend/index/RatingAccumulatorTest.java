@@ -0,0 +1,84 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RatingAccumulatorTest {
+
+    /**
+     * Повторная оценка до сохранения заменяет предыдущую, сохраненная оценка вычитается поправкой.
+     */
+    @Test
+    public void testVoteAndCorrect() {
+        RatingAccumulator accumulator = new RatingAccumulator();
+        accumulator.load(1L, 8, 2); // В базе данных: пользователь 10 поставил 3, пользователь 11 — 5
+
+        accumulator.vote(1L, 12L, 4);
+        accumulator.vote(1L, 12L, 2);
+        assertEquals(3, accumulator.count(1L));
+        assertEquals(10.0 / 3, accumulator.average(1L), 1e-9);
+
+        accumulator.vote(1L, 10L, 5); // Пользователь 10 меняет оценку 3 на 5
+        List<RatingAccumulator.Vote> votes = accumulator.drain(100);
+        assertEquals(2, votes.size());
+        assertEquals(0, accumulator.pendingCount());
+        accumulator.correct(1L, 3, 1); // Поправка по замененной оценке
+        assertEquals(3, accumulator.count(1L));
+        assertEquals(4.0, accumulator.average(1L), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> accumulator.vote(1L, 10L, 6));
+    }
+
+    /**
+     * Несохраненный пакет возвращается, а более новая оценка того же пользователя имеет приоритет.
+     */
+    @Test
+    public void testRestore() {
+        RatingAccumulator accumulator = new RatingAccumulator();
+        accumulator.vote(1L, 10L, 1);
+        accumulator.vote(1L, 11L, 5);
+        List<RatingAccumulator.Vote> votes = accumulator.drain(100);
+
+        accumulator.vote(1L, 10L, 4); // Новая оценка после извлечения пакета
+        accumulator.restore(votes);
+
+        assertEquals(2, accumulator.pendingCount());
+        assertEquals(2, accumulator.count(1L));
+        assertEquals(4.5, accumulator.average(1L), 1e-9);
+        assertTrue(accumulator.drain(100).contains(new RatingAccumulator.Vote(1L, 10L, 4)));
+
+        accumulator.removeRecipe(1L);
+        assertEquals(0, accumulator.count(1L));
+        assertEquals(0.0, accumulator.average(1L));
+    }
+
+    /**
+     * Одновременные оценки популярного рецепта не теряются.
+     */
+    @Test
+    public void testConcurrentVotes() throws InterruptedException {
+        RatingAccumulator accumulator = new RatingAccumulator();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            long firstUser = thread * 10_000L;
+            executor.submit(() -> {
+                for (long user = firstUser; user < firstUser + 10_000; user++) {
+                    accumulator.vote(1L, user, 1 + (int) (user % 5));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40_000, accumulator.count(1L));
+        assertEquals(3.0, accumulator.average(1L), 1e-9);
+        assertEquals(40_000, accumulator.drain(Integer.MAX_VALUE).size());
+    }
+}
@@ -0,0 +1,254 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeIndexTest {
+
+    private RecipeIndex index; // Индекс: рецепт 10 = {1, 2}, рецепт 20 = {1}, рецепт 30 = {2, 3}
+
+    private record Link(Long recipeId, Long productId) implements ProductRecipeLink {
+        @Override
+        public Long getRecipeId() {
+            return recipeId;
+        }
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+    }
+
+    private record Attributes(Long id, Long rating) implements RecipeAttributes {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getRating() {
+            return rating;
+        }
+
+        @Override
+        public Boolean getVegan() {
+            return null;
+        }
+
+        @Override
+        public Recipe.DifficultyLevel getDifficultyLevel() {
+            return null;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = RecipeIndex.build(
+                List.of(new Attributes(30L, 5L), new Attributes(10L, null), new Attributes(20L, 1L)),
+                List.of(3L, 2L, 1L),
+                List.of(new Link(10L, 1L), new Link(10L, 2L), new Link(20L, 1L),
+                        new Link(30L, 2L), new Link(30L, 3L)));
+    }
+
+    /**
+     * Рецепты, содержащие хотя бы один продукт из набора.
+     */
+    @Test
+    public void testRecipesWithAny() {
+        assertEquals(List.of(10L, 20L), index.recipeIds(index.recipesWithAny(index.pantry(List.of(1L)))));
+        assertEquals(List.of(10L, 30L), index.recipeIds(index.recipesWithAny(index.pantry(List.of(2L)))));
+    }
+
+    /**
+     * Рецепты, все продукты которых есть в наборе.
+     */
+    @Test
+    public void testCookable() {
+        assertEquals(List.of(10L, 20L), index.recipeIds(index.cookable(index.pantry(List.of(1L, 2L)))));
+        assertEquals(List.of(20L), index.recipeIds(index.cookable(index.pantry(List.of(1L)))));
+    }
+
+    /**
+     * Неизвестные продукты игнорируются.
+     */
+    @Test
+    public void testUnknownProductsIgnored() {
+        assertTrue(index.recipesWithAny(index.pantry(List.of(42L))).isEmpty());
+    }
+
+    /**
+     * Ранжирование по доле имеющихся продуктов с учетом рейтинга и ограничение K.
+     */
+    @Test
+    public void testTopMatches() {
+        List<RecipeMatch> matches = RecipeMatcher.topMatches(index, index.pantry(List.of(1L, 2L)), 2);
+
+        assertEquals(2, matches.size()); // Возвращено не более K результатов
+        assertEquals(20L, matches.get(0).recipeId()); // Полное покрытие и рейтинг 1
+        assertEquals(10L, matches.get(1).recipeId()); // Полное покрытие без рейтинга
+        assertEquals(0, matches.get(0).missing());
+    }
+
+    /**
+     * Почти готовые рецепты и список недостающих продуктов.
+     */
+    @Test
+    public void testAlmostCookable() {
+        DenseBitSet pantry = index.pantry(List.of(1L));
+        List<RecipeMatch> matches = RecipeMatcher.almostCookable(index, pantry, 1, 10);
+
+        assertEquals(2, matches.size()); // Рецепту 30 не хватает двух продуктов
+        assertEquals(20L, matches.get(0).recipeId()); // Сначала рецепты без недостающих продуктов
+        assertEquals(10L, matches.get(1).recipeId());
+        assertEquals(List.of(2L), index.missingProductIds(matches.get(1).ordinal(), pantry));
+    }
+
+    /**
+     * Инкрементальное изменение рецептов не затрагивает исходную версию индекса.
+     */
+    @Test
+    public void testWithRecipe() {
+        RecipeIndex updated = index.withRecipe(new Attributes(40L, 2L), List.of(3L, 4L))
+                .withRecipe(new Attributes(20L, 1L), List.of(1L, 3L));
+
+        assertEquals(List.of(20L, 30L, 40L), updated.recipeIds(updated.recipesWithAny(updated.pantry(List.of(3L)))));
+        assertEquals(List.of(40L), updated.recipeIds(updated.cookable(updated.pantry(List.of(3L, 4L)))));
+        assertEquals(List.of(20L), index.recipeIds(index.cookable(index.pantry(List.of(1L))))); // Исходная версия не изменилась
+        assertTrue(updated.cookable(updated.pantry(List.of(1L))).isEmpty());
+    }
+
+    /**
+     * Удаление рецепта и продукта.
+     */
+    @Test
+    public void testWithoutRecipeAndProduct() {
+        RecipeIndex updated = index.withoutRecipe(20L).withoutProduct(2L);
+
+        assertEquals(1, updated.tombstoneCount());
+        assertEquals(List.of(10L), updated.recipeIds(updated.recipesWithAny(updated.pantry(List.of(1L)))));
+        assertEquals(List.of(10L), updated.recipeIds(updated.cookable(updated.pantry(List.of(1L)))));
+        assertTrue(updated.recipesWithAny(updated.pantry(List.of(2L))).isEmpty());
+    }
+
+    /**
+     * Изменение связей со стороны продукта и отказ при добавлении идентификатора не в конец индекса.
+     */
+    @Test
+    public void testWithProduct() {
+        RecipeIndex updated = index.withProduct(3L, List.of(10L));
+
+        assertEquals(List.of(10L), updated.recipeIds(updated.recipesWithAny(updated.pantry(List.of(3L)))));
+        assertEquals(List.of(30L), updated.recipeIds(updated.cookable(updated.pantry(List.of(2L)))));
+        assertThrows(IllegalArgumentException.class, () -> index.withRecipe(new Attributes(15L, null), List.of()));
+    }
+
+    /**
+     * Продукты, подбор по которым может измениться после изменения рецепта или продукта.
+     */
+    @Test
+    public void testAffectedProducts() {
+        RecipeIndex relinked = index.withRecipe(new Attributes(20L, 1L), List.of(3L));
+        assertArrayEquals(new long[]{1L, 3L}, relinked.productsAffectedByRecipe(index, 20L));
+
+        RecipeIndex deleted = index.withoutRecipe(30L);
+        assertArrayEquals(new long[]{2L, 3L}, deleted.productsAffectedByRecipe(index, 30L));
+
+        // Продукт 3 перенесен из рецепта 30 в рецепт 20: затронуты продукты обоих рецептов
+        RecipeIndex moved = index.withProduct(3L, List.of(20L));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, moved.productsAffectedByProduct(index, 3L));
+        assertArrayEquals(new long[]{}, index.productsAffectedByRecipe(index, 99L));
+    }
+
+    /**
+     * Параллельное выполнение по частям диапазона дает тот же результат, что и последовательное.
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+        Random random = new Random(42);
+        List<Attributes> recipes = new ArrayList<>();
+        List<Link> links = new ArrayList<>();
+        for (long recipe = 1; recipe <= 20_000; recipe++) {
+            recipes.add(new Attributes(recipe, (long) random.nextInt(6)));
+            for (int i = 0; i < 2 + random.nextInt(6); i++) {
+                links.add(new Link(recipe, 1L + random.nextInt(200)));
+            }
+        }
+        List<Long> productIds = new ArrayList<>();
+        for (long product = 1; product <= 200; product++) {
+            productIds.add(product);
+        }
+        RecipeIndex large = RecipeIndex.build(recipes, productIds, links);
+        DenseBitSet pantry = large.pantry(productIds.subList(0, 60));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(RecipeMatcher.topMatches(large, pantry, 50),
+                    RecipeMatcher.topMatches(large, pantry, large.recipesWithAny(pantry), 50, pool, 1000));
+            assertEquals(RecipeMatcher.almostCookable(large, pantry, 2, 50),
+                    RecipeMatcher.almostCookable(large, pantry, null, 2, 50, pool, 1000));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Фильтр по атрибутам и подсчет значений атрибутов, в том числе после изменения рецепта.
+     */
+    @Test
+    public void testFacets() {
+        RecipeIndex faceted = RecipeIndex.build(
+                List.of(RecipeAttributes.of(10L, 4L, true, Recipe.DifficultyLevel.EASY),
+                        RecipeAttributes.of(20L, null, false, Recipe.DifficultyLevel.HARD),
+                        RecipeAttributes.of(30L, 5L, true, Recipe.DifficultyLevel.HARD)),
+                List.of(1L, 2L),
+                List.of(new Link(10L, 1L), new Link(20L, 1L), new Link(30L, 2L)));
+
+        assertEquals(List.of(10L, 30L), faceted.recipeIds(faceted.recipes(new RecipeFilter(true, null, null))));
+        assertEquals(List.of(20L), faceted.recipeIds(faceted.recipes(new RecipeFilter(false, null, null))));
+        assertEquals(List.of(30L), faceted.recipeIds(faceted.recipes(
+                new RecipeFilter(null, Set.of(Recipe.DifficultyLevel.HARD), 5))));
+        assertEquals(List.of(10L, 20L, 30L), faceted.recipeIds(faceted.recipes(RecipeFilter.NONE)));
+
+        DenseBitSet candidates = faceted.recipesWithAny(faceted.pantry(List.of(1L)));
+        FacetCounts counts = faceted.facetCounts(faceted.filter(candidates, RecipeFilter.NONE));
+        assertEquals(2, counts.total());
+        assertEquals(1, counts.vegan());
+        assertEquals(1, (int) counts.difficultyLevels().get(Recipe.DifficultyLevel.HARD));
+        assertEquals(1, (int) counts.ratings().get(0)); // Рецепт 20 без рейтинга
+
+        RecipeIndex updated = faceted.withRecipe(RecipeAttributes.of(20L, 3L, true, Recipe.DifficultyLevel.EASY), null)
+                .withoutRecipe(30L);
+        assertEquals(List.of(10L, 20L), updated.recipeIds(updated.recipes(new RecipeFilter(true, null, 3))));
+        assertEquals(List.of(10L, 20L), updated.recipeIds(updated.recipes(RecipeFilter.NONE)));
+    }
+
+    /**
+     * Рецепты с исключаемыми продуктами вычитаются из кандидатов до ранжирования.
+     */
+    @Test
+    public void testExcludedProducts() {
+        RecipeFilter withoutProduct2 = new RecipeFilter(null, null, null, Set.of(2L));
+        DenseBitSet pantry = index.pantry(List.of(1L, 2L));
+        DenseBitSet candidates = index.filter(index.recipesWithAny(pantry), withoutProduct2);
+
+        assertEquals(List.of(20L), index.recipeIds(candidates));
+        assertEquals(List.of(20L), index.recipeIds(index.recipes(withoutProduct2)));
+        assertEquals(List.of(20L), RecipeMatcher.topMatches(index, pantry, candidates, 10, ForkJoinPool.commonPool(), 1000)
+                .stream().map(RecipeMatch::recipeId).toList());
+        assertEquals(1, RecipeMatcher.almostCookable(index, pantry, index.recipes(withoutProduct2), 1, 10,
+                ForkJoinPool.commonPool(), 1000).size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipePreferencesTest {
+
+    private record Link(Long recipeId, Long productId) implements ProductRecipeLink {
+        @Override
+        public Long getRecipeId() {
+            return recipeId;
+        }
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+    }
+
+    private record Attributes(Long id) implements RecipeAttributes {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getRating() {
+            return null;
+        }
+
+        @Override
+        public Boolean getVegan() {
+            return null;
+        }
+
+        @Override
+        public Recipe.DifficultyLevel getDifficultyLevel() {
+            return null;
+        }
+    }
+
+    /**
+     * Байтовое представление восстанавливается без потерь и занимает немного места.
+     */
+    @Test
+    public void testEncodeDecode() {
+        RecipePreferences preferences = RecipePreferences.EMPTY
+                .withFavourite(100_000L).withFavourite(5L).withFavourite(7L)
+                .withCooked(300L).withCooked(5L);
+
+        byte[] favourites = preferences.encodeFavourites();
+        RecipePreferences decoded = RecipePreferences.decode(favourites, preferences.encodeCooked());
+
+        assertEquals(List.of(5L, 7L, 100_000L), decoded.favouriteIds());
+        assertEquals(List.of(5L, 300L), decoded.cookedIds());
+        assertEquals(5, favourites.length); // 5, 2 и 99993 разностями
+        assertTrue(RecipePreferences.decode(null, null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> RecipePreferences.decode(new byte[]{(byte) 0x80}, null));
+    }
+
+    /**
+     * Повторное приготовление переносит рецепт в начало истории, длина истории ограничена.
+     */
+    @Test
+    public void testCookedHistory() {
+        RecipePreferences preferences = RecipePreferences.EMPTY.withCooked(1L).withCooked(2L).withCooked(1L);
+        assertEquals(List.of(1L, 2L), preferences.cookedIds());
+        assertEquals(List.of(2L), preferences.withoutCooked(1L).cookedIds());
+
+        for (long id = 10; id < 10 + RecipePreferences.MAX_COOKED; id++) {
+            preferences = preferences.withCooked(id);
+        }
+        assertEquals(RecipePreferences.MAX_COOKED, preferences.cookedIds().size());
+        assertEquals(Long.valueOf(10L + RecipePreferences.MAX_COOKED - 1), preferences.cookedIds().get(0));
+    }
+
+    /**
+     * Избранный рецепт поднимается, в том числе из-за пределов K, а недавно приготовленный опускается.
+     */
+    @Test
+    public void testPersonalizedTopMatches() {
+        // Набор {1, 2, 3, 4}: рецепт 1 покрыт на 2/3, рецепт 2 — на 3/7, рецепт 3 — полностью, рецепт 4 — на 4/5
+        RecipeIndex index = index(List.of(
+                List.of(1L, 2L, 3L, 4L, 9L, 10L),
+                List.of(1L, 2L, 3L, 5L, 6L, 7L, 8L),
+                List.of(1L),
+                List.of(1L, 2L, 3L, 4L, 11L)));
+        DenseBitSet pantry = index.pantry(List.of(1L, 2L, 3L, 4L));
+        DenseBitSet candidates = index.recipesWithAny(pantry);
+
+        assertEquals(List.of(3L, 4L), recipeIds(RecipeMatcher.topMatches(index, pantry, candidates, 2,
+                RecipePreferences.EMPTY, null, Integer.MAX_VALUE)));
+        // Приготовленный последним рецепт 3 получает оценку 0.5
+        assertEquals(List.of(4L, 1L), recipeIds(RecipeMatcher.topMatches(index, pantry, candidates, 2,
+                RecipePreferences.EMPTY.withCooked(3L), null, Integer.MAX_VALUE)));
+        // Избранный рецепт 1 без предпочтений не входит в два лучших
+        List<RecipeMatch> favourite = RecipeMatcher.topMatches(index, pantry, candidates, 2,
+                RecipePreferences.EMPTY.withFavourite(1L), null, Integer.MAX_VALUE);
+        assertEquals(List.of(3L, 1L), recipeIds(favourite));
+        assertEquals(4.0 / 6 * (1 + RecipePreferences.FAVOURITE_BOOST), favourite.get(1).score(), 1e-9);
+    }
+
+    private static RecipeIndex index(List<List<Long>> recipeProducts) {
+        List<Attributes> recipes = new ArrayList<>();
+        List<Link> links = new ArrayList<>();
+        for (int i = 0; i < recipeProducts.size(); i++) {
+            long recipeId = i + 1;
+            recipes.add(new Attributes(recipeId));
+            recipeProducts.get(i).forEach(productId -> links.add(new Link(recipeId, productId)));
+        }
+        return RecipeIndex.build(recipes, List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), links);
+    }
+
+    private static List<Long> recipeIds(List<RecipeMatch> matches) {
+        return matches.stream().map(RecipeMatch::recipeId).toList();
+    }
+}
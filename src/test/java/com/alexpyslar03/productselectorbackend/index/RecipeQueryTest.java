@@ -0,0 +1,109 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RecipeQueryTest {
+
+    // Продукты: 1 = chicken, 2 = turkey, 3 = rice, 4 = milk
+    private static final Map<String, Collection<Long>> PRODUCTS = Map.of(
+            "chicken", List.of(1L), "turkey", List.of(2L), "rice", List.of(3L), "milk", List.of(4L));
+
+    private RecipeIndex index;
+
+    private record Link(Long recipeId, Long productId) implements ProductRecipeLink {
+        @Override
+        public Long getRecipeId() {
+            return recipeId;
+        }
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = RecipeIndex.build(
+                List.of(RecipeAttributes.of(10L, 4L, false, Recipe.DifficultyLevel.EASY),
+                        RecipeAttributes.of(20L, 2L, false, Recipe.DifficultyLevel.HARD),
+                        RecipeAttributes.of(30L, 5L, false, Recipe.DifficultyLevel.MEDIUM),
+                        RecipeAttributes.of(40L, null, true, Recipe.DifficultyLevel.EASY)),
+                List.of(1L, 2L, 3L, 4L),
+                List.of(new Link(10L, 1L), new Link(10L, 3L),
+                        new Link(20L, 2L), new Link(20L, 3L),
+                        new Link(30L, 2L), new Link(30L, 3L), new Link(30L, 4L),
+                        new Link(40L, 3L)));
+    }
+
+    private List<Long> run(String query) {
+        return index.recipeIds(RecipeQuery.compile(query, name -> PRODUCTS.getOrDefault(name, List.of())).evaluate(index));
+    }
+
+    /**
+     * Продукты, логические операции и условия по атрибутам.
+     */
+    @Test
+    public void testEvaluate() {
+        assertEquals(List.of(10L, 20L), run("(chicken OR turkey) AND rice AND NOT milk"));
+        assertEquals(List.of(10L), run("(Chicken or turkey) and rice and not milk and vegan=false and difficulty<=MEDIUM"));
+        assertEquals(List.of(40L), run("rice AND vegan = true"));
+        assertEquals(List.of(30L), run("3 AND rating >= 5"));
+        assertEquals(List.of(10L, 20L, 30L), run("NOT rating = 0"));
+        assertEquals(List.of(20L, 30L), run("NOT (difficulty < MEDIUM)"));
+        assertEquals(List.of(), run("chicken AND turkey"));
+    }
+
+    /**
+     * Нормализация текста для ключа кэша.
+     */
+    @Test
+    public void testNormalize() {
+        assertEquals("( chicken OR turkey ) AND NOT \"sour cream\" AND difficulty <= medium",
+                RecipeQuery.normalize("(Chicken  or turkey)and not \"Sour Cream\" AND difficulty<=MEDIUM"));
+    }
+
+    /**
+     * Синтаксические ошибки и неизвестные продукты.
+     */
+    @Test
+    public void testErrors() {
+        assertThrows(IllegalArgumentException.class, () -> run("chicken AND"));
+        assertThrows(IllegalArgumentException.class, () -> run("(chicken"));
+        assertThrows(IllegalArgumentException.class, () -> run("chicken turkey"));
+        assertThrows(IllegalArgumentException.class, () -> run("beef"));
+        assertThrows(IllegalArgumentException.class, () -> run("rating > 9"));
+        assertThrows(IllegalArgumentException.class, () -> run("vegan < true"));
+        assertThrows(IllegalArgumentException.class, () -> run("chicken; drop"));
+        assertThrows(IllegalArgumentException.class, () -> run(" "));
+    }
+
+    /**
+     * Длина и вложенность запроса ограничены, чтобы рекурсивный разбор не переполнял стек.
+     */
+    @Test
+    public void testLimits() {
+        int depth = RecipeQuery.MAX_DEPTH;
+        assertEquals(List.of(10L), run("(".repeat(depth) + "chicken" + ")".repeat(depth)));
+        assertEquals(List.of(10L), run("NOT ".repeat(depth) + "chicken"));
+        assertEquals(List.of(10L), run("NOT (".repeat(depth / 2) + "chicken" + ")".repeat(depth / 2)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> run("(".repeat(depth + 1) + "chicken" + ")".repeat(depth + 1)));
+        assertThrows(IllegalArgumentException.class, () -> run("NOT ".repeat(depth + 1) + "chicken"));
+        assertThrows(IllegalArgumentException.class, () -> run("NOT (".repeat(depth) + "chicken" + ")".repeat(depth)));
+        assertThrows(IllegalArgumentException.class, () -> run("(".repeat(RecipeQuery.MAX_LENGTH)));
+        assertThrows(IllegalArgumentException.class, () -> run("chicken OR ".repeat(RecipeQuery.MAX_LENGTH / 10) + "rice"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecipeSimilarityIndexTest {
+
+    private RecipeSimilarityIndex index;
+
+    private static List<Long> range(long from, long to) {
+        return LongStream.range(from, to).boxed().toList();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Map<Long, List<Long>> recipes = new HashMap<>();
+        recipes.put(1L, range(1, 11));  // 1..10
+        recipes.put(2L, range(1, 10));  // 1..9, коэффициент с рецептом 1 — 0,9
+        recipes.put(3L, range(2, 12));  // 2..11, коэффициент с рецептом 1 — 9/11
+        recipes.put(4L, range(100, 110));
+        recipes.put(5L, List.of());
+        index = RecipeSimilarityIndex.build(recipes);
+    }
+
+    private static List<Long> ids(List<RecipeSimilarityIndex.Neighbor> neighbors) {
+        return neighbors.stream().map(RecipeSimilarityIndex.Neighbor::recipeId).toList();
+    }
+
+    /**
+     * Похожие рецепты ранжируются по точному коэффициенту Жаккара, сам рецепт не возвращается.
+     */
+    @Test
+    public void testSimilar() {
+        assertEquals(4, index.size());
+        assertEquals(List.of(2L, 3L), ids(index.similar(1L, 10)));
+        assertEquals(0.9, index.similar(1L, 10).get(0).similarity(), 1e-9);
+        assertEquals(List.of(2L), ids(index.similar(1L, 1)));
+        assertEquals(List.of(), index.similar(4L, 10));
+        assertEquals(List.of(), index.similar(5L, 10));
+    }
+
+    /**
+     * Поиск почти совпадающих наборов продуктов для нового рецепта.
+     */
+    @Test
+    public void testNearDuplicates() {
+        assertEquals(List.of(1L, 2L), ids(index.nearDuplicates(range(1, 11), 0.85)));
+        assertEquals(List.of(4L), ids(index.nearDuplicates(range(100, 110), 0.85)));
+        assertEquals(List.of(), index.nearDuplicates(range(200, 210), 0.85));
+    }
+
+    /**
+     * Изменение состава рецептов и связей продуктов.
+     */
+    @Test
+    public void testUpdates() {
+        RecipeSimilarityIndex updated = index.withRecipe(4L, range(1, 11));
+        assertEquals(List.of(4L, 2L, 3L), ids(updated.similar(1L, 10)));
+        assertEquals(List.of(2L, 3L), ids(index.similar(1L, 10))); // Исходная версия не изменилась
+
+        updated = updated.withoutRecipe(2L);
+        assertEquals(List.of(4L, 3L), ids(updated.similar(1L, 10)));
+
+        // Продукт 10 теперь используется только в рецептах 3 и 6
+        updated = updated.withProduct(10L, List.of(3L, 6L));
+        assertEquals(List.of(4L, 3L), ids(updated.similar(1L, 10)));
+        assertEquals(1.0, updated.similar(1L, 10).get(0).similarity(), 1e-9);
+        assertEquals(List.of(6L), ids(updated.nearDuplicates(List.of(10L), 0.9)));
+
+        updated = updated.withoutProduct(10L);
+        assertEquals(List.of(), updated.nearDuplicates(List.of(10L), 0.1));
+    }
+}
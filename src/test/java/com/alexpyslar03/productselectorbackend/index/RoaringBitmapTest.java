@@ -0,0 +1,115 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoaringBitmapTest {
+
+    private static final int UNIVERSE = 200_000; // Несколько блоков по 2^16 значений
+
+    /**
+     * Создает случайное множество заданной плотности; при runs = true значения идут длинными сериями.
+     */
+    private static BitSet randomSet(Random random, double density, boolean runs) {
+        BitSet set = new BitSet(UNIVERSE);
+        if (runs) {
+            for (int start = random.nextInt(1000); start < UNIVERSE; start += 5000 + random.nextInt(5000)) {
+                set.set(start, Math.min(UNIVERSE, start + random.nextInt(3000)));
+            }
+        } else {
+            for (int i = 0; i < UNIVERSE * density; i++) {
+                set.set(random.nextInt(UNIVERSE));
+            }
+        }
+        return set;
+    }
+
+    private static RoaringBitmap toRoaring(BitSet set) {
+        int[] values = set.stream().toArray();
+        return RoaringBitmap.fromSorted(values, values.length);
+    }
+
+    private static BitSet toBitSet(RoaringBitmap bitmap) {
+        BitSet set = new BitSet();
+        bitmap.forEach(set::set);
+        return set;
+    }
+
+    private static DenseBitSet toDense(BitSet set) {
+        DenseBitSet dense = new DenseBitSet(UNIVERSE);
+        set.stream().forEach(dense::set);
+        return dense;
+    }
+
+    /**
+     * Операции над множествами всех типов контейнеров совпадают с java.util.BitSet.
+     */
+    @Test
+    public void testSetOperationsMatchBitSet() {
+        Random random = new Random(42);
+        double[] densities = {0.001, 0.02, 0.5};
+        for (int round = 0; round < 12; round++) {
+            BitSet a = randomSet(random, densities[round % 3], round % 4 == 3);
+            BitSet b = randomSet(random, densities[(round + 1) % 3], round % 5 == 4);
+            RoaringBitmap ra = toRoaring(a);
+            RoaringBitmap rb = toRoaring(b);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+
+            assertEquals(a.cardinality(), ra.cardinality());
+            assertEquals(and, toBitSet(ra.and(rb)));
+            assertEquals(or, toBitSet(ra.or(rb)));
+            assertEquals(andNot, toBitSet(ra.andNot(rb)));
+
+            DenseBitSet dense = toDense(b);
+            assertEquals(and.cardinality(), ra.andCardinality(dense));
+            assertEquals(andNot.cardinality(), ra.andNotCardinality(dense, Integer.MAX_VALUE - 1));
+
+            DenseBitSet target = toDense(b);
+            ra.orInto(target);
+            assertEquals(or.cardinality(), target.cardinality());
+        }
+    }
+
+    /**
+     * Добавление и удаление не изменяют исходное множество.
+     */
+    @Test
+    public void testAddRemoveAreCopyOnWrite() {
+        RoaringBitmap original = RoaringBitmap.of(1, 5, 70_000);
+        RoaringBitmap added = original.add(3).add(140_000);
+        RoaringBitmap removed = added.remove(70_000).remove(1);
+
+        assertEquals(3, original.cardinality());
+        assertFalse(original.contains(3));
+        assertTrue(added.contains(3));
+        assertTrue(added.contains(140_000));
+        assertEquals(3, removed.cardinality());
+        assertFalse(removed.contains(70_000));
+        assertTrue(removed.remove(3).remove(5).remove(140_000).isEmpty());
+    }
+
+    /**
+     * Досрочный выход при подсчете разности.
+     */
+    @Test
+    public void testAndNotCardinalityStopsAfterLimit() {
+        RoaringBitmap bitmap = RoaringBitmap.of(1, 2, 3, 4, 5);
+        DenseBitSet pantry = new DenseBitSet(10);
+        pantry.set(1);
+
+        assertEquals(4, bitmap.andNotCardinality(pantry, 10));
+        assertTrue(bitmap.andNotCardinality(pantry, 1) > 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeAttributes;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ShoppingListTest {
+
+    private record Link(Long recipeId, Long productId) implements ProductRecipeLink {
+        @Override
+        public Long getRecipeId() {
+            return recipeId;
+        }
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+    }
+
+    /**
+     * Объединение продуктов рецептов за вычетом имеющихся.
+     */
+    @Test
+    public void testBuild() {
+        RecipeIndex index = RecipeIndex.build(
+                List.of(RecipeAttributes.of(10L, null, false, Recipe.DifficultyLevel.EASY),
+                        RecipeAttributes.of(20L, null, false, Recipe.DifficultyLevel.EASY),
+                        RecipeAttributes.of(30L, null, false, Recipe.DifficultyLevel.EASY)),
+                List.of(1L, 2L, 3L, 4L, 5L),
+                List.of(new Link(10L, 1L), new Link(10L, 2L), new Link(10L, 3L),
+                        new Link(20L, 2L), new Link(20L, 4L),
+                        new Link(30L, 5L)));
+        DenseBitSet pantry = index.pantry(List.of(1L));
+
+        List<ShoppingList.Item> items = ShoppingList.build(index, List.of(20L, 10L, 10L, 99L), pantry);
+        assertEquals(List.of(new ShoppingList.Item(2L, 2), new ShoppingList.Item(3L, 1), new ShoppingList.Item(4L, 1)), items);
+
+        assertEquals(List.of(), ShoppingList.build(index, List.of(10L), index.pantry(List.of(1L, 2L, 3L))));
+        assertEquals(List.of(), ShoppingList.build(index.withoutRecipe(30L), List.of(30L), pantry));
+    }
+}
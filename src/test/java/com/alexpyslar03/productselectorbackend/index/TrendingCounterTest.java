@@ -0,0 +1,61 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrendingCounterTest {
+
+    /**
+     * Частые идентификаторы находятся среди большого количества редких.
+     */
+    @Test
+    public void testHeavyHitters() {
+        TrendingCounter counter = new TrendingCounter(1024, 4, 256, 3);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int roll = random.nextInt(100);
+            if (roll < 10) {
+                counter.record(1L);
+            } else if (roll < 15) {
+                counter.record(2L);
+            } else if (roll < 18) {
+                counter.record(3L);
+            } else {
+                counter.record(1000L + random.nextInt(1_000_000));
+            }
+        }
+        List<TrendingCounter.Entry> top = counter.refresh(1.0);
+
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(TrendingCounter.Entry::id).toList());
+        assertTrue(counter.estimate(1L) >= 9_000);
+        assertEquals(top, counter.top());
+    }
+
+    /**
+     * Затухание уменьшает оценки, и недавние обращения обгоняют давние.
+     */
+    @Test
+    public void testDecay() {
+        TrendingCounter counter = new TrendingCounter(64, 2, 16, 2);
+        for (int i = 0; i < 100; i++) {
+            counter.record(1L);
+        }
+        counter.refresh(0.5);
+        assertEquals(50.0, counter.estimate(1L), 1e-9);
+
+        for (int i = 0; i < 30; i++) {
+            counter.record(2L);
+        }
+        counter.refresh(0.5);
+        counter.refresh(0.5); // Идентификатор 1 остается кандидатом как прежний лидер
+
+        assertEquals(List.of(1L, 2L), counter.top().stream().map(TrendingCounter.Entry::id).toList());
+        assertEquals(12.5, counter.estimate(1L), 1e-9);
+        assertEquals(7.5, counter.estimate(2L), 1e-9);
+    }
+}
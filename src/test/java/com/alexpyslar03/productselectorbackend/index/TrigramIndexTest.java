@@ -0,0 +1,66 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = TrigramIndex.build(List.of(
+                new NameIndex.Entry(1L, "Молоко", 10),
+                new NameIndex.Entry(2L, "Картофель молодой", 5),
+                new NameIndex.Entry(3L, "Картофель", 20),
+                new NameIndex.Entry(4L, "Морковь", 7),
+                new NameIndex.Entry(5L, "Солод", 1)));
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(match -> match.entry().id()).toList();
+    }
+
+    /**
+     * Поиск с опечатками, в том числе по отдельному слову названия.
+     */
+    @Test
+    public void testSearch() {
+        assertEquals(List.of(1L), ids(index.search("малако", 10)));
+        assertEquals(List.of(3L, 2L), ids(index.search("картофил", 10))); // Равное расстояние, выше популярность
+        assertEquals(List.of(1L, 2L), ids(index.search("МОЛОКО", 10))); // «молодой» на расстоянии 2
+        assertEquals(List.of(), ids(index.search("хлеб", 10)));
+        assertEquals(1, index.search("картофил", 1).size());
+    }
+
+    /**
+     * Расстояние Левенштейна в полосе.
+     */
+    @Test
+    public void testDistance() {
+        assertEquals(2, TrigramIndex.distance("малако", "молоко", 2));
+        assertEquals(2, TrigramIndex.distance("малако", "молоко", 1)); // Больше порога
+        assertEquals(1, TrigramIndex.distance("кот", "крот", 2));
+        assertEquals(0, TrigramIndex.distance("суп", "суп", 0));
+        assertEquals(3, TrigramIndex.distance("abc", "xyz", 3));
+        assertEquals(3, TrigramIndex.distance("малако", "молодой", 2));
+    }
+
+    /**
+     * Изменение и удаление названий.
+     */
+    @Test
+    public void testWithAndWithout() {
+        TrigramIndex updated = index.with(new NameIndex.Entry(1L, "Кефир", 10)).without(4L);
+
+        assertEquals(List.of(), ids(updated.search("малако", 10)));
+        assertEquals(List.of(1L), ids(updated.search("кифир", 10)));
+        assertEquals(List.of(), ids(updated.search("марковь", 10)));
+        assertEquals(List.of(4L), ids(index.search("марковь", 10)));
+        assertEquals(4, updated.size());
+    }
+}
@@ -2,14 +2,18 @@ package com.alexpyslar03.productselectorbackend.repository;
 
 import com.alexpyslar03.productselectorbackend.domain.entity.Product;
 import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -70,33 +74,54 @@ public class ProductRepositoryTest {
     }
 
     /**
-     * Тестирование метода findByRecipesId для проверки извлечения продуктов по идентификатору рецепта.
+     * Тестирование метода findRowsByRecipeIdInAfter для проверки извлечения проекций продуктов по идентификатору рецепта.
      */
     @Test
-    public void testFindByRecipesId() {
-        CompletableFuture<List<Product>> productsFuture = productRepository.findByRecipesId(recipe1.getId());
+    public void testFindRowsByRecipeIdInAfter() {
+        List<ProductRow> rows = productRepository.findRowsByRecipeIdInAfter(List.of(recipe1.getId()), 0, Limit.unlimited());
 
-        // Ожидание завершения выполнения асинхронного метода
-        List<Product> products = productsFuture.join();
+        assertEquals(Set.of(product1.getId(), product2.getId()), ids(rows)); // Рецепт 1 содержит продукты 1 и 2
+        ProductRow row = rows.stream().filter(p -> p.getId().equals(product1.getId())).findFirst().orElseThrow();
+        assertEquals("Product 1", row.getName()); // Проверка полей проекции
+        assertEquals("http://example.com/image1.jpg", row.getImageUrl());
+    }
 
-        assertNotNull(products); // Проверка, что список продуктов не равен null
-        assertEquals(2, products.size()); // Проверка, что в списке 2 продукта
-        assertEquals(new HashSet<>(Arrays.asList(product1, product2)), new HashSet<>(products)); // Проверка совпадения продуктов
+    /**
+     * Тестирование метода findRowsByRecipeIdInAfter для проверки извлечения продуктов по списку идентификаторов рецептов.
+     */
+    @Test
+    public void testFindRowsByRecipeIdInAfterWithSeveralRecipes() {
+        List<ProductRow> rows = productRepository.findRowsByRecipeIdInAfter(List.of(recipe1.getId(), recipe2.getId()), 0, Limit.unlimited());
+
+        assertEquals(3, rows.size()); // Продукт 1 входит в оба рецепта, но возвращается один раз
+        assertEquals(Set.of(product1.getId(), product2.getId(), product3.getId()), ids(rows));
     }
 
     /**
-     * Тестирование метода findByRecipesIdIn для проверки извлечения продуктов по списку идентификаторов рецептов.
+     * Тестирование метода findRowsByRecipeIdInAfter для проверки постраничной выборки по возрастанию идентификатора.
      */
     @Test
-    public void testFindByRecipesIdIn() {
-        CompletableFuture<List<Product>> productsFuture = productRepository.findByRecipesIdIn(Arrays.asList(recipe1.getId(), recipe2.getId()));
+    public void testFindRowsByRecipeIdInAfterPage() {
+        List<Long> recipeIds = List.of(recipe1.getId(), recipe2.getId());
 
-        // Ожидание завершения выполнения асинхронного метода
-        List<Product> products = productsFuture.join();
+        List<ProductRow> first = productRepository.findRowsByRecipeIdInAfter(recipeIds, 0, Limit.of(2));
+        assertEquals(List.of(product1.getId(), product2.getId()), first.stream().map(ProductRow::getId).toList()); // Первая страница
 
-        assertNotNull(products); // Проверка, что список продуктов не равен null
-        assertEquals(3, products.size()); // Проверка, что в списке 3 продукта
-        assertEquals(new HashSet<>(Arrays.asList(product1, product2, product3)), new HashSet<>(products)); // Проверка совпадения продуктов
+        List<ProductRow> next = productRepository.findRowsByRecipeIdInAfter(recipeIds, product2.getId(), Limit.of(2));
+        assertEquals(List.of(product3.getId()), next.stream().map(ProductRow::getId).toList()); // Выборка после продукта 2
+    }
+
+    /**
+     * Тестирование метода findProductRecipeLinksByProductIdIn для проверки извлечения связей продуктов с рецептами.
+     */
+    @Test
+    public void testFindProductRecipeLinksByProductIdIn() {
+        List<ProductRecipeLink> links = productRepository.findProductRecipeLinksByProductIdIn(List.of(product1.getId(), product3.getId()));
+
+        assertEquals(Set.of(
+                List.of(recipe1.getId(), product1.getId()),
+                List.of(recipe2.getId(), product1.getId()),
+                List.of(recipe2.getId(), product3.getId())), pairs(links)); // Пары (рецепт, продукт)
     }
 
     /**
@@ -113,4 +138,12 @@ public class ProductRepositoryTest {
         assertEquals(2, products.size()); // Проверка, что в множестве 2 продукта
         assertEquals(new HashSet<>(Arrays.asList(product1, product2)), products); // Проверка совпадения продуктов
     }
-}
\ No newline at end of file
+
+    private static Set<Long> ids(List<ProductRow> rows) {
+        return rows.stream().map(ProductRow::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<List<Long>> pairs(List<ProductRecipeLink> links) {
+        return links.stream().map(link -> List.of(link.getRecipeId(), link.getProductId())).collect(Collectors.toSet());
+    }
+}
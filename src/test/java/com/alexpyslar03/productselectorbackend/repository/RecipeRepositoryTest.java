@@ -2,17 +2,22 @@ package com.alexpyslar03.productselectorbackend.repository;
 
 import com.alexpyslar03.productselectorbackend.domain.entity.Product;
 import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductRecipeLink;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest // Аннотация для тестирования слоя доступа к данным с использованием JPA
 @SpringJUnitConfig // Аннотация для интеграции с Spring TestContext Framework
@@ -80,33 +85,57 @@ public class RecipeRepositoryTest {
     }
 
     /**
-     * Тестирование метода findByProductsId для проверки извлечения рецептов по идентификатору продукта.
+     * Тестирование метода findRowsByProductIdInAfter для проверки извлечения проекций рецептов по идентификатору продукта.
      */
     @Test
-    public void testFindByProductsId() throws Exception {
-        CompletableFuture<List<Recipe>> futureRecipes = recipeRepository.findByProductsId(product1.getId());
+    public void testFindRowsByProductIdInAfter() {
+        List<RecipeRow> rows = recipeRepository.findRowsByProductIdInAfter(List.of(product1.getId()), 0, Limit.unlimited());
+
+        assertEquals(Set.of(recipe1.getId(), recipe2.getId()), ids(rows)); // Продукт 1 входит в рецепты 1 и 2
+        RecipeRow row = rows.stream().filter(r -> r.getId().equals(recipe1.getId())).findFirst().orElseThrow();
+        assertEquals("Recipe 1", row.getName()); // Проверка полей проекции
+        assertEquals("Description 1", row.getDescription());
+        assertTrue(row.getVegan());
+        assertEquals(Recipe.DifficultyLevel.EASY, row.getDifficultyLevel());
+        assertEquals("http://example.com/image1.jpg", row.getImageUrl());
+    }
 
-        // Ожидание завершения выполнения асинхронного метода
-        List<Recipe> recipes = futureRecipes.get();
+    /**
+     * Тестирование метода findRowsByProductIdInAfter для проверки извлечения рецептов по списку идентификаторов продуктов.
+     */
+    @Test
+    public void testFindRowsByProductIdInAfterWithSeveralProducts() {
+        List<RecipeRow> rows = recipeRepository.findRowsByProductIdInAfter(List.of(product1.getId(), product2.getId()), 0, Limit.unlimited());
 
-        assertNotNull(recipes); // Проверка, что список рецептов не равен null
-        assertEquals(2, recipes.size()); // Проверка, что в списке 2 рецепта
-        assertEquals(new HashSet<>(Arrays.asList(recipe1, recipe2)), new HashSet<>(recipes)); // Проверка совпадения рецептов
+        assertEquals(3, rows.size()); // Рецепт 1 содержит оба продукта, но возвращается один раз
+        assertEquals(Set.of(recipe1.getId(), recipe2.getId(), recipe3.getId()), ids(rows));
     }
 
     /**
-     * Тестирование метода findByProductsIdIn для проверки извлечения рецептов по списку идентификаторов продуктов.
+     * Тестирование метода findRowsByProductIdInAfter для проверки постраничной выборки по возрастанию идентификатора.
      */
     @Test
-    public void testFindByProductsIdIn() throws Exception {
-        CompletableFuture<List<Recipe>> futureRecipes = recipeRepository.findByProductsIdIn(Arrays.asList(product1.getId(), product2.getId()));
+    public void testFindRowsByProductIdInAfterPage() {
+        List<Long> productIds = List.of(product1.getId(), product2.getId());
 
-        // Ожидание завершения выполнения асинхронного метода
-        List<Recipe> recipes = futureRecipes.get();
+        List<RecipeRow> first = recipeRepository.findRowsByProductIdInAfter(productIds, 0, Limit.of(2));
+        assertEquals(List.of(recipe1.getId(), recipe2.getId()), first.stream().map(RecipeRow::getId).toList()); // Первая страница
+
+        List<RecipeRow> next = recipeRepository.findRowsByProductIdInAfter(productIds, recipe2.getId(), Limit.of(2));
+        assertEquals(List.of(recipe3.getId()), next.stream().map(RecipeRow::getId).toList()); // Выборка после рецепта 2
+    }
 
-        assertNotNull(recipes); // Проверка, что список рецептов не равен null
-        assertEquals(3, recipes.size()); // Проверка, что в списке 3 рецепта
-        assertEquals(new HashSet<>(Arrays.asList(recipe1, recipe2, recipe3)), new HashSet<>(recipes)); // Проверка совпадения рецептов
+    /**
+     * Тестирование метода findProductRecipeLinksByRecipeIdIn для проверки извлечения связей рецептов с продуктами.
+     */
+    @Test
+    public void testFindProductRecipeLinksByRecipeIdIn() {
+        List<ProductRecipeLink> links = recipeRepository.findProductRecipeLinksByRecipeIdIn(List.of(recipe1.getId(), recipe3.getId()));
+
+        assertEquals(Set.of(
+                List.of(recipe1.getId(), product1.getId()),
+                List.of(recipe1.getId(), product2.getId()),
+                List.of(recipe3.getId(), product2.getId())), pairs(links)); // Пары (рецепт, продукт)
     }
 
     /**
@@ -123,4 +152,12 @@ public class RecipeRepositoryTest {
         assertEquals(2, recipes.size()); // Проверка, что в множестве 2 рецепта
         assertEquals(new HashSet<>(Arrays.asList(recipe1, recipe2)), recipes); // Проверка совпадения рецептов
     }
-}
\ No newline at end of file
+
+    private static Set<Long> ids(List<RecipeRow> rows) {
+        return rows.stream().map(RecipeRow::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<List<Long>> pairs(List<ProductRecipeLink> links) {
+        return links.stream().map(link -> List.of(link.getRecipeId(), link.getProductId())).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,155 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.projection.ProductExportRow;
+import com.alexpyslar03.productselectorbackend.domain.projection.RecipeExportRow;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    private CatalogExportService service;
+
+    private record ProductLine(Long getId, String getName, String getImageUrl, Long getRecipeId)
+            implements ProductExportRow {
+    }
+
+    private record RecipeLine(Long getId, String getName, String getDescription, Boolean getVegan,
+                              Recipe.DifficultyLevel getDifficultyLevel, Long getRating, String getImageUrl,
+                              Long getProductId) implements RecipeExportRow {
+    }
+
+    /**
+     * Поток ответа, запоминающий попытку закрытия.
+     */
+    private static class ResponseStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        service = new CatalogExportService(productRepository, recipeRepository, objectMapper);
+    }
+
+    /**
+     * Подряд идущие строки одного продукта собираются в одну строку NDJSON, продукт без рецептов
+     * (строка левого соединения без идентификатора рецепта) выгружается с пустым списком.
+     * Поток строк закрывается, а поток ответа остается открытым.
+     */
+    @Test
+    public void testExportProductsGroupsRows() throws IOException {
+        AtomicBoolean rowsClosed = new AtomicBoolean();
+        when(productRepository.streamAllForExport()).thenReturn(Stream.of(
+                new ProductLine(1L, "Молоко", "milk.jpg", 10L),
+                new ProductLine(1L, "Молоко", "milk.jpg", 11L),
+                new ProductLine(2L, "Соль", "salt.jpg", null),
+                new ProductLine(3L, "Какао", "cocoa.jpg", 10L)).onClose(() -> rowsClosed.set(true)));
+        ResponseStream out = new ResponseStream();
+
+        long count = service.exportProducts(out);
+
+        List<JsonNode> lines = lines(out);
+        assertEquals(3, count);
+        assertEquals(3, lines.size());
+        assertEquals(1, lines.get(0).get("id").asLong());
+        assertEquals("Молоко", lines.get(0).get("name").asText());
+        assertEquals(List.of(10L, 11L), ids(lines.get(0).get("recipeIds")));
+        assertEquals(2, lines.get(1).get("id").asLong());
+        assertEquals(List.of(), ids(lines.get(1).get("recipeIds")));
+        assertEquals(3, lines.get(2).get("id").asLong());
+        assertEquals(List.of(10L), ids(lines.get(2).get("recipeIds")));
+        assertTrue(rowsClosed.get());
+        assertFalse(out.closed);
+    }
+
+    /**
+     * Рецепты группируются так же; рецепт без продуктов получает пустой список.
+     */
+    @Test
+    public void testExportRecipesGroupsRows() throws IOException {
+        when(recipeRepository.streamAllForExport()).thenReturn(Stream.of(
+                new RecipeLine(10L, "Какао", "Горячее", true, Recipe.DifficultyLevel.EASY, 5L, "cocoa.jpg", 1L),
+                new RecipeLine(10L, "Какао", "Горячее", true, Recipe.DifficultyLevel.EASY, 5L, "cocoa.jpg", 3L),
+                new RecipeLine(12L, "Черновик", "", null, Recipe.DifficultyLevel.HARD, null, "draft.jpg", null)));
+        ResponseStream out = new ResponseStream();
+
+        long count = service.exportRecipes(out);
+
+        List<JsonNode> lines = lines(out);
+        assertEquals(2, count);
+        assertEquals(2, lines.size());
+        assertEquals(10, lines.get(0).get("id").asLong());
+        assertEquals(List.of(1L, 3L), ids(lines.get(0).get("productIds")));
+        assertEquals(12, lines.get(1).get("id").asLong());
+        assertEquals(List.of(), ids(lines.get(1).get("productIds")));
+        assertFalse(lines.get(1).get("vegan").asBoolean()); // null в проекции — не веганский
+        assertFalse(out.closed);
+    }
+
+    /**
+     * Пустой каталог дает пустой ответ.
+     */
+    @Test
+    public void testExportEmpty() throws IOException {
+        when(productRepository.streamAllForExport()).thenReturn(Stream.empty());
+        ResponseStream out = new ResponseStream();
+
+        assertEquals(0, service.exportProducts(out));
+        assertEquals(0, out.size());
+        assertFalse(out.closed);
+    }
+
+    /**
+     * Разбирает ответ построчно: каждая строка, включая последнюю, завершается переводом строки.
+     */
+    private List<JsonNode> lines(ByteArrayOutputStream out) throws IOException {
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(node -> ids.add(node.asLong()));
+        return ids;
+    }
+}
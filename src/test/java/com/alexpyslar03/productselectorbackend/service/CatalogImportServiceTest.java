@@ -0,0 +1,196 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.ImportReport;
+import com.alexpyslar03.productselectorbackend.domain.dto.ImportRowError;
+import com.alexpyslar03.productselectorbackend.domain.dto.ProductImportRow;
+import com.alexpyslar03.productselectorbackend.domain.dto.RecipeImportRow;
+import com.alexpyslar03.productselectorbackend.domain.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.domain.event.CatalogImportedEvent;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogImportServiceTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(CatalogImportService.TEXT_CSV_VALUE);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CatalogImportService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new CatalogImportService(productRepository, recipeRepository, new ObjectMapper(),
+                transactionTemplate, eventPublisher);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "maxErrors", 100);
+
+        // Часть записывается прямо в вызывающем потоке, без транзакции
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        AtomicLong productSequence = new AtomicLong();
+        lenient().when(productRepository.reserveIds(anyInt()))
+                .thenAnswer(invocation -> reserve(productSequence, invocation.getArgument(0)));
+        AtomicLong recipeSequence = new AtomicLong(100);
+        lenient().when(recipeRepository.reserveIds(anyInt()))
+                .thenAnswer(invocation -> reserve(recipeSequence, invocation.getArgument(0)));
+    }
+
+    /**
+     * Столбцы CSV сопоставляются полям по заголовку в любом порядке, а столбец products
+     * разбивается по точке с запятой без пустых названий.
+     */
+    @Test
+    public void testRecipesCsvMappedByHeader() {
+        when(productRepository.findIdsByNames(any())).thenReturn(Map.of("Молоко", 1L, "Какао", 2L));
+        when(recipeRepository.insertAll(anyList(), anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String csv = """
+                 products ,name,difficultyLevel,description,vegan,rating,imageUrl
+                "Молоко; Какао ;;",Какао,EASY,"Горячий, сладкий",true,,http://example.com/cocoa.jpg
+                ; ,Пустой,EASY,Без продуктов,false,3,http://example.com/empty.jpg
+                """;
+
+        ImportReport report = service.importRecipes(input(csv), TEXT_CSV).join();
+
+        assertEquals(2, report.getRows());
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(ImportRowError.builder().row(2).message("Рецепт должен содержать хотя бы один продукт.").build()),
+                report.getErrors()); // Все названия пустые — список продуктов пуст
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> names = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findIdsByNames(names.capture());
+        assertEquals(Set.of("Молоко", "Какао"), Set.copyOf(names.getValue()));
+
+        RecipeImportRow expected = RecipeImportRow.builder()
+                .name("Какао")
+                .description("Горячий, сладкий")
+                .vegan(true)
+                .difficultyLevel(Recipe.DifficultyLevel.EASY)
+                .rating(null) // Пустое значение пропускается
+                .imageUrl("http://example.com/cocoa.jpg")
+                .products(List.of("Молоко", "Какао"))
+                .build();
+        verify(recipeRepository).insertAll(List.of(101L), List.of(expected));
+        verify(recipeRepository).insertProductLinks(List.of(101L, 101L), List.of(1L, 2L));
+        verify(eventPublisher).publishEvent(new CatalogImportedEvent(0, 1));
+    }
+
+    /**
+     * Ошибки проверки, отказы при вставке и сбой записи части указывают номера исходных строк,
+     * хотя строки разбиты на части и часть строк отброшена до записи.
+     */
+    @Test
+    public void testChunkErrorsKeepRowNumbers() {
+        when(productRepository.insertAll(anyList(), anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            List<ProductImportRow> products = invocation.getArgument(1);
+            if (products.stream().anyMatch(product -> product.getName().equals("F"))) {
+                throw new IllegalStateException("сбой записи");
+            }
+            return IntStream.range(0, ids.size())
+                    .filter(i -> !products.get(i).getName().equals("D")) // Дубликат не вставляется
+                    .mapToObj(ids::get)
+                    .toList();
+        });
+        String csv = """
+                name,imageUrl
+                A,a.jpg
+                ,b.jpg
+                C,c.jpg
+                D,d.jpg
+                E,e.jpg
+                F,f.jpg
+                """;
+
+        ImportReport report = service.importProducts(input(csv), TEXT_CSV).join();
+
+        assertEquals(6, report.getRows());
+        assertEquals(3, report.getImported()); // A, C, E
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2L, 4L, 6L), report.getErrors().stream().map(ImportRowError::getRow).toList());
+        assertEquals("Название продукта не может быть пустым.", report.getErrors().get(0).getMessage());
+        assertEquals("Продукт с таким названием или URL изображения уже существует.",
+                report.getErrors().get(1).getMessage());
+        assertTrue(report.getErrors().get(2).getMessage().contains("сбой записи"));
+
+        // Части по два корректных продукта: [A, C], [D, E], [F]
+        verify(productRepository).insertAll(List.of(1L, 2L), List.of(product("A"), product("C")));
+        verify(productRepository).insertAll(List.of(3L, 4L), List.of(product("D"), product("E")));
+        verify(eventPublisher).publishEvent(new CatalogImportedEvent(3, 0));
+    }
+
+    /**
+     * Ошибка чтения относится к строке после последней прочитанной, а уже прочитанные строки записываются.
+     */
+    @Test
+    public void testReadErrorAfterLastRow() {
+        when(productRepository.insertAll(anyList(), anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String csv = """
+                name,imageUrl
+                A,a.jpg
+                "B,b.jpg
+                """;
+
+        ImportReport report = service.importProducts(input(csv), TEXT_CSV).join();
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Чтение данных прервано"));
+    }
+
+    private static List<Long> reserve(AtomicLong sequence, int count) {
+        long first = sequence.getAndAdd(count) + 1;
+        return LongStream.range(first, first + count).boxed().toList();
+    }
+
+    private static ProductImportRow product(String name) {
+        return ProductImportRow.builder().name(name).imageUrl(name.toLowerCase() + ".jpg").build();
+    }
+
+    private static ByteArrayInputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvRecordReaderTest {
+
+    /**
+     * Поля в кавычках могут содержать запятые и переводы строк.
+     */
+    @Test
+    public void testQuotedFieldsWithCommasAndNewlines() throws IOException {
+        List<List<String>> records = readAll("name,description\n\"Торт, шоколадный\",\"Строка 1\r\nСтрока 2\"\n");
+
+        assertEquals(List.of(
+                List.of("name", "description"),
+                List.of("Торт, шоколадный", "Строка 1\r\nСтрока 2")), records);
+    }
+
+    /**
+     * Удвоенная кавычка внутри поля в кавычках — одна кавычка.
+     */
+    @Test
+    public void testDoubledQuotes() throws IOException {
+        List<List<String>> records = readAll("\"Сыр \"\"Российский\"\"\",\"\"\"\"\n");
+
+        assertEquals(List.of(List.of("Сыр \"Российский\"", "\"")), records);
+    }
+
+    /**
+     * Метка порядка байтов в начале файла не попадает в первое поле.
+     */
+    @Test
+    public void testByteOrderMarkSkipped() throws IOException {
+        List<List<String>> records = readAll("\uFEFFname,imageUrl\nМолоко,http://example.com/milk.jpg");
+
+        assertEquals(List.of(
+                List.of("name", "imageUrl"),
+                List.of("Молоко", "http://example.com/milk.jpg")), records);
+    }
+
+    /**
+     * Пустые строки, в том числе в конце файла, не дают записей; пустые поля сохраняются.
+     */
+    @Test
+    public void testBlankLinesSkipped() throws IOException {
+        List<List<String>> records = readAll("\r\n\na,b\r\n\r\n\n,c\n\n");
+
+        assertEquals(List.of(List.of("a", "b"), List.of("", "c")), records);
+    }
+
+    /**
+     * Незакрытая кавычка до конца файла — ошибка данных.
+     */
+    @Test
+    public void testUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\"c,d\n"));
+
+        assertEquals(List.of("a", "b"), reader.read());
+        assertThrows(InvalidDataException.class, reader::read);
+    }
+
+    /**
+     * Пустой источник не содержит записей.
+     */
+    @Test
+    public void testEmpty() throws IOException {
+        assertNull(new CsvRecordReader(new StringReader("")).read());
+        assertNull(new CsvRecordReader(new StringReader("\uFEFF")).read());
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,131 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.domain.dto.PageResponse;
+import com.alexpyslar03.productselectorbackend.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PageCursorTest {
+
+    private static final List<Long> IDS = List.of(2L, 4L, 6L, 8L, 10L);
+
+    /**
+     * Курсор возвращает закодированный идентификатор; пустой курсор — начало списка.
+     */
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        for (long id : new long[]{0, 1, 42, Long.MAX_VALUE}) {
+            assertEquals(id, PageCursor.decode(PageCursor.encode(id)));
+        }
+        assertEquals(0, PageCursor.decode(null));
+        assertEquals(0, PageCursor.decode(""));
+    }
+
+    /**
+     * Поврежденный курсор — ошибка данных, а не ошибка сервера.
+     */
+    @Test
+    public void testInvalidCursor() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String shorter = encoder.encodeToString(new byte[]{1, 0, 0, 0});
+        String longer = encoder.encodeToString(ByteBuffer.allocate(10).put((byte) 1).putLong(42).array());
+        String wrongVersion = encoder.encodeToString(ByteBuffer.allocate(9).put((byte) 2).putLong(42).array());
+
+        assertThrows(InvalidDataException.class, () -> PageCursor.decode(shorter));
+        assertThrows(InvalidDataException.class, () -> PageCursor.decode(longer));
+        assertThrows(InvalidDataException.class, () -> PageCursor.decode(wrongVersion));
+        assertThrows(InvalidDataException.class, () -> PageCursor.decode("не base64!"));
+    }
+
+    /**
+     * Если прочитано ровно size элементов, следующей страницы нет.
+     */
+    @Test
+    public void testPageOfExactlySize() {
+        PageResponse<Long> page = PageCursor.page(List.of(1L, 2L, 3L), 3, Long::longValue);
+
+        assertEquals(List.of(1L, 2L, 3L), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * Лишний элемент отбрасывается, а курсор указывает на последний элемент страницы.
+     */
+    @Test
+    public void testPageWithExtraItem() {
+        PageResponse<Long> page = PageCursor.page(List.of(1L, 2L, 3L, 4L), 3, Long::longValue);
+
+        assertEquals(List.of(1L, 2L, 3L), page.getItems());
+        assertEquals(3, PageCursor.decode(page.getNextCursor()));
+    }
+
+    /**
+     * Страница начинается после идентификатора из курсора, присутствующего в списке.
+     */
+    @Test
+    public void testPageAfterPresentId() {
+        PageResponse<Long> page = PageCursor.page(IDS, 4, 2, Function.identity());
+
+        assertEquals(List.of(6L, 8L), page.getItems());
+        assertEquals(8, PageCursor.decode(page.getNextCursor()));
+    }
+
+    /**
+     * Если идентификатора из курсора уже нет в списке, страница начинается со следующего большего.
+     */
+    @Test
+    public void testPageAfterAbsentId() {
+        PageResponse<Long> page = PageCursor.page(IDS, 5, 2, Function.identity());
+
+        assertEquals(List.of(6L, 8L), page.getItems());
+        assertEquals(8, PageCursor.decode(page.getNextCursor()));
+
+        PageResponse<Long> last = PageCursor.page(IDS, 7, 2, Function.identity());
+
+        assertEquals(List.of(8L, 10L), last.getItems());
+        assertNull(last.getNextCursor()); // Страница дошла до конца списка
+    }
+
+    /**
+     * Курсор за концом списка дает пустую последнюю страницу.
+     */
+    @Test
+    public void testPageAfterEnd() {
+        PageResponse<Long> page = PageCursor.page(IDS, 10, 2, Function.identity());
+
+        assertEquals(List.of(), page.getItems());
+        assertNull(page.getNextCursor());
+        assertEquals(List.of(), PageCursor.page(IDS, 100, 2, Function.identity()).getItems());
+    }
+
+    /**
+     * Элементы, не найденные при чтении, не обрывают список: курсор строится по идентификаторам.
+     */
+    @Test
+    public void testReaderDropsIds() {
+        Function<List<Long>, List<Long>> reader = ids -> {
+            List<Long> found = new ArrayList<>(ids);
+            found.removeIf(id -> id == 4 || id == 6); // Удалены после построения списка
+            return found;
+        };
+
+        PageResponse<Long> first = PageCursor.page(IDS, 0, 3, reader);
+
+        assertEquals(List.of(2L), first.getItems());
+        assertEquals(6, PageCursor.decode(first.getNextCursor()));
+
+        PageResponse<Long> second = PageCursor.page(IDS, PageCursor.decode(first.getNextCursor()), 3, reader);
+
+        assertEquals(List.of(8L, 10L), second.getItems());
+        assertNull(second.getNextCursor());
+    }
+}